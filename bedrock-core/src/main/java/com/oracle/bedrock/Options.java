@@ -27,16 +27,32 @@ package com.oracle.bedrock;
 
 import com.oracle.bedrock.annotations.Internal;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 
 /**
  * An internal implementation of an {@link OptionsByType}.
  * <p>
+ * {@link Option}s are held in {@link Layer}s, each recording the changes made to a parent
+ * {@link Layer}.  Copying an {@link Options} shares (and freezes) the current {@link Layer},
+ * after which each copy records its own changes in a new {@link Layer}.  Consequently copying
+ * is constant-time and subsequently adding {@link Option}s is proportional to the number of
+ * changes, not the number of {@link Option}s.  The number of {@link Layer}s is bounded by
+ * periodically flattening them.
+ * <p>
+ * Annotated {@link Default}s are resolved once per class of {@link Option} and cached
+ * as {@link MethodHandle}s.
+ * <p>
  * Copyright (c) 2014. All Rights Reserved. Oracle Corporation.<br>
  * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
  *
@@ -46,9 +62,26 @@ import java.util.LinkedHashMap;
 class Options implements OptionsByType
 {
     /**
-     * A map of the {@link Options} values, keyed by their concrete class.
+     * The maximum number of parent {@link Layer}s before they are flattened.
+     */
+    private static final int MAXIMUM_LAYER_DEPTH = 8;
+
+    /**
+     * The {@link DefaultResolver}s for each class of {@link Option}.
+     */
+    private static final ClassValue<DefaultResolver> DEFAULT_RESOLVERS = new ClassValue<DefaultResolver>()
+    {
+        @Override
+        protected DefaultResolver computeValue(Class<?> classOfOption)
+        {
+            return new DefaultResolver(classOfOption);
+        }
+    };
+
+    /**
+     * The {@link Layer} of the {@link Options} values, keyed by their concrete class.
      */
-    private final LinkedHashMap<Class<? extends Option>, Option> options;
+    private Layer options;
 
 
     /**
@@ -58,7 +91,7 @@ class Options implements OptionsByType
      */
     Options(Option... options)
     {
-        this.options = new LinkedHashMap<>();
+        this.options = new Layer(null);
 
         if (options != null)
         {
@@ -78,9 +111,38 @@ class Options implements OptionsByType
      */
     Options(OptionsByType optionsByType)
     {
-        this.options = new LinkedHashMap<>();
+        if (optionsByType instanceof Options)
+        {
+            // share the layer of the other options (changes to either will be made in new layers)
+            Options other = (Options) optionsByType;
+
+            other.options.frozen = true;
+
+            this.options = other.options;
+        }
+        else
+        {
+            this.options = new Layer(null);
 
-        addAll(optionsByType);
+            addAll(optionsByType);
+        }
+    }
+
+
+    /**
+     * Obtains a {@link Layer} in which changes may be made, creating a new
+     * {@link Layer} when the current {@link Layer} is shared.
+     *
+     * @return a mutable {@link Layer}
+     */
+    private Layer mutable()
+    {
+        if (options.frozen)
+        {
+            options = new Layer(options);
+        }
+
+        return options;
     }
 
 
@@ -198,15 +260,9 @@ class Options implements OptionsByType
     @Override
     public Option[] asArray()
     {
-        Option[] aOptions = new Option[options.size()];
-        int      i        = 0;
+        Collection<Option> values = options.values();
 
-        for (Option option : options.values())
-        {
-            aOptions[i++] = option;
-        }
-
-        return aOptions;
+        return values.toArray(new Option[values.size()]);
     }
 
 
@@ -276,7 +332,7 @@ class Options implements OptionsByType
                     collector = collector.with(collectable);
 
                     // replace the collector in the options
-                    options.put(classOfCollector, collector);
+                    mutable().put(classOfCollector, collector);
                 }
             }
             else
@@ -295,7 +351,7 @@ class Options implements OptionsByType
                     }
                 }
 
-                options.put(classOfOption, option);
+                mutable().put(classOfOption, option);
             }
 
             return this;
@@ -308,7 +364,7 @@ class Options implements OptionsByType
     {
         Class<? extends Option> classOfOption = OptionsByType.getClassOf(option);
 
-        if (!options.containsKey(classOfOption))
+        if (options.get(classOfOption) == null)
         {
             add(option);
         }
@@ -353,9 +409,9 @@ class Options implements OptionsByType
         }
         else
         {
-            Option option = options.remove(OptionsByType.getClassOf(classOfOption));
+            Class<? extends Option> classOfOptionToRemove = OptionsByType.getClassOf(classOfOption);
 
-            return option != null;
+            return options.get(classOfOptionToRemove) != null && mutable().remove(classOfOptionToRemove) != null;
         }
     }
 
@@ -389,7 +445,7 @@ class Options implements OptionsByType
                     collector = collector.without(collectable);
 
                     // replace the collector
-                    options.put(classOfCollector, collector);
+                    mutable().put(classOfCollector, collector);
 
                     return true;
                 }
@@ -406,7 +462,7 @@ class Options implements OptionsByType
                 }
                 else
                 {
-                    options.remove(classOfOption);
+                    mutable().remove(classOfOption);
 
                     return true;
                 }
@@ -439,27 +495,93 @@ class Options implements OptionsByType
     protected <T extends Option> T getDefaultFor(Class<T>  classOfOption,
                                                  Object... arguments)
     {
-        if (classOfOption == null)
-        {
-            return null;
-        }
-        else
+        return classOfOption == null ? null : (T) DEFAULT_RESOLVERS.get(classOfOption).resolve(arguments);
+    }
+
+
+    /**
+     * Resolves the annotated {@link Default} for a class of {@link Option}, using
+     * {@link MethodHandle}s determined once for the class.
+     */
+    private static class DefaultResolver
+    {
+        /**
+         * The {@link MethodHandle}s for the annotated methods, fields and constructors,
+         * in the order in which they should be attempted.
+         */
+        private final ArrayList<MethodHandle> handles;
+
+        /**
+         * The number of arguments required by each of the {@link #handles},
+         * or -1 when the handle ignores the arguments.
+         */
+        private final ArrayList<Integer> arities;
+
+
+        /**
+         * Constructs a {@link DefaultResolver} for the specified class of {@link Option}.
+         *
+         * @param classOfOption  the class of {@link Option}
+         */
+        DefaultResolver(Class<?> classOfOption)
         {
+            this.handles = new ArrayList<>();
+            this.arities = new ArrayList<>();
+
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+
             for (Method method : classOfOption.getMethods())
             {
                 int modifiers = method.getModifiers();
 
                 if (method.getAnnotation(Default.class) != null
-                    && method.getParameterTypes().length == arguments.length
                     && Modifier.isStatic(modifiers)
                     && Modifier.isPublic(modifiers)
                     && classOfOption.isAssignableFrom(method.getReturnType()))
                 {
                     try
                     {
-                        return (T) method.invoke(null, arguments);
+                        add(lookup.unreflect(method).asFixedArity(), method.getParameterTypes().length);
+                    }
+                    catch (IllegalAccessException e)
+                    {
+                        // carry on... perhaps we can use another approach?
+                    }
+                }
+            }
+
+            for (Field field : classOfOption.getFields())
+            {
+                int modifiers = field.getModifiers();
+
+                if (field.getAnnotation(Default.class) != null
+                    && Modifier.isStatic(modifiers)
+                    && Modifier.isPublic(modifiers)
+                    && classOfOption.isAssignableFrom(field.getType()))
+                {
+                    try
+                    {
+                        add(lookup.unreflectGetter(field), -1);
                     }
-                    catch (Exception e)
+                    catch (IllegalAccessException e)
+                    {
+                        // carry on... perhaps we can use another approach?
+                    }
+                }
+            }
+
+            for (Constructor constructor : classOfOption.getConstructors())
+            {
+                int modifiers = constructor.getModifiers();
+
+                if (constructor.getAnnotation(Default.class) != null && Modifier.isPublic(modifiers))
+                {
+                    try
+                    {
+                        add(lookup.unreflectConstructor(constructor).asFixedArity(),
+                            constructor.getParameterTypes().length);
+                    }
+                    catch (IllegalAccessException e)
                     {
                         // carry on... perhaps we can use another approach?
                     }
@@ -467,46 +589,271 @@ class Options implements OptionsByType
             }
         }
 
-        for (Field field : classOfOption.getFields())
+
+        /**
+         * Adds a {@link MethodHandle} to attempt when resolving a default.
+         *
+         * @param handle  the {@link MethodHandle}
+         * @param arity   the number of arguments required by the {@link MethodHandle}
+         *                or -1 when it ignores the arguments
+         */
+        private void add(MethodHandle handle,
+                         int          arity)
         {
-            int modifiers = field.getModifiers();
+            handles.add(handle);
+            arities.add(arity);
+        }
 
-            if (field.getAnnotation(Default.class) != null
-                && Modifier.isStatic(modifiers)
-                && Modifier.isPublic(modifiers)
-                && classOfOption.isAssignableFrom(field.getType()))
+
+        /**
+         * Resolves a default value using the provided arguments.
+         *
+         * @param arguments  the optional arguments for static methods / constructors
+         *
+         * @return a default value or <code>null</code> if a default can't be determined
+         */
+        Object resolve(Object[] arguments)
+        {
+            for (int i = 0; i < handles.size(); i++)
             {
-                try
+                MethodHandle handle = handles.get(i);
+                int          arity  = arities.get(i);
+
+                if (arity < 0 || arity == arguments.length)
                 {
-                    return (T) field.get(null);
+                    try
+                    {
+                        return arity <= 0 ? handle.invoke() : handle.invokeWithArguments(arguments);
+                    }
+                    catch (Throwable throwable)
+                    {
+                        // carry on... perhaps we can use another approach?
+                    }
+                }
+            }
+
+            // couldn't find a default so let's return null
+            return null;
+        }
+    }
+
+
+    /**
+     * A layer of {@link Option}s, keyed by their concrete class, recording the
+     * changes made to an optional parent {@link Layer}.  Once frozen, a {@link Layer}
+     * is shared and must not be changed.
+     */
+    private static class Layer
+    {
+        /**
+         * The parent {@link Layer} (null when this is the root {@link Layer}).
+         */
+        private final Layer parent;
+
+        /**
+         * The number of parent {@link Layer}s.
+         */
+        private final int depth;
+
+        /**
+         * The {@link Option}s replacing those in the parent {@link Layer}, retaining their order.
+         */
+        private final HashMap<Class<? extends Option>, Option> replaced;
+
+        /**
+         * The {@link Option}s appended after those in the parent {@link Layer}, in order.
+         */
+        private final LinkedHashMap<Class<? extends Option>, Option> appended;
+
+        /**
+         * The classes of {@link Option} removed from the parent {@link Layer}.
+         */
+        private final HashSet<Class<? extends Option>> removed;
+
+        /**
+         * Is the {@link Layer} shared and thus no longer changeable?
+         */
+        private volatile boolean frozen;
+
+        /**
+         * The flattened {@link Option}s of a frozen {@link Layer}, keyed by their class and in
+         * the order they were added (null until flattened or when the {@link Layer} is changed).
+         */
+        private volatile LinkedHashMap<Class<? extends Option>, Option> flattened;
+
+
+        /**
+         * Constructs a {@link Layer} on top of the specified parent {@link Layer},
+         * flattening the parent when it has too many parents.
+         *
+         * @param parent  the parent {@link Layer} (may be null)
+         */
+        Layer(Layer parent)
+        {
+            if (parent != null && parent.depth >= MAXIMUM_LAYER_DEPTH)
+            {
+                Layer root = new Layer(null);
+
+                root.appended.putAll(parent.asMap());
+                root.frozen = true;
+
+                parent = root;
+            }
+
+            this.parent    = parent;
+            this.depth     = parent == null ? 0 : parent.depth + 1;
+            this.replaced  = new HashMap<>();
+            this.appended  = new LinkedHashMap<>();
+            this.removed   = new HashSet<>();
+            this.frozen    = false;
+            this.flattened = null;
+        }
+
+
+        /**
+         * Obtains the {@link Option} of the specified class.
+         *
+         * @param classOfOption  the class of {@link Option}
+         *
+         * @return the {@link Option} or <code>null</code> if not defined
+         */
+        Option get(Class<?> classOfOption)
+        {
+            Option option = appended.get(classOfOption);
+
+            if (option == null)
+            {
+                option = replaced.get(classOfOption);
+
+                if (option == null && parent != null &&!removed.contains(classOfOption))
+                {
+                    option = parent.get(classOfOption);
                 }
-                catch (Exception e)
+            }
+
+            return option;
+        }
+
+
+        /**
+         * Puts the specified {@link Option}, replacing an existing {@link Option} of the same class
+         * in its current position.
+         *
+         * @param classOfOption  the class of {@link Option}
+         * @param option         the {@link Option}
+         */
+        void put(Class<? extends Option> classOfOption,
+                 Option                  option)
+        {
+            flattened = null;
+
+            if (appended.containsKey(classOfOption)
+                || parent == null
+                || removed.contains(classOfOption)
+                || parent.get(classOfOption) == null)
+            {
+                appended.put(classOfOption, option);
+            }
+            else
+            {
+                replaced.put(classOfOption, option);
+            }
+        }
+
+
+        /**
+         * Removes the {@link Option} of the specified class.
+         *
+         * @param classOfOption  the class of {@link Option}
+         *
+         * @return the removed {@link Option} or <code>null</code> if not defined
+         */
+        Option remove(Class<? extends Option> classOfOption)
+        {
+            flattened = null;
+
+            Option option = appended.remove(classOfOption);
+
+            if (option == null && parent != null &&!removed.contains(classOfOption))
+            {
+                option = replaced.remove(classOfOption);
+                option = option == null ? parent.get(classOfOption) : option;
+
+                if (option != null)
                 {
-                    // carry on... perhaps we can use another approach?
+                    removed.add(classOfOption);
                 }
             }
+
+            return option;
+        }
+
+
+        /**
+         * Obtains the {@link Option}s in the {@link Layer}, in the order they were added.
+         *
+         * @return the {@link Option}s
+         */
+        Collection<Option> values()
+        {
+            if (parent == null)
+            {
+                return appended.values();
+            }
+            else
+            {
+                LinkedHashMap<Class<? extends Option>, Option> map = flatten();
+
+                return frozen ? Collections.unmodifiableCollection(map.values()) : map.values();
+            }
         }
 
-        for (Constructor constructor : classOfOption.getConstructors())
+
+        /**
+         * Obtains a new map of the {@link Option}s in the {@link Layer}, keyed by their class
+         * and in the order they were added.
+         *
+         * @return a map of the {@link Option}s
+         */
+        LinkedHashMap<Class<? extends Option>, Option> asMap()
         {
-            int modifiers = constructor.getModifiers();
+            return frozen ? new LinkedHashMap<>(flatten()) : flatten();
+        }
+
 
-            if (constructor.getAnnotation(Default.class) != null
-                && Modifier.isPublic(modifiers)
-                && constructor.getParameterTypes().length == arguments.length)
+        /**
+         * Obtains the map of the {@link Option}s in the {@link Layer}, keyed by their class
+         * and in the order they were added.  The map of a frozen {@link Layer} is cached,
+         * in which case it is shared and must not be changed.
+         *
+         * @return a map of the {@link Option}s
+         */
+        private LinkedHashMap<Class<? extends Option>, Option> flatten()
+        {
+            LinkedHashMap<Class<? extends Option>, Option> map = flattened;
+
+            if (map == null)
             {
-                try
+                if (parent == null)
                 {
-                    return (T) constructor.newInstance(arguments);
+                    map = new LinkedHashMap<>(appended);
                 }
-                catch (Exception e)
+                else
                 {
-                    // carry on... perhaps we can use another approach?
+                    map = parent.asMap();
+
+                    map.keySet().removeAll(removed);
+                    map.putAll(replaced);
+                    map.putAll(appended);
+                }
+
+                if (frozen)
+                {
+                    flattened = map;
                 }
             }
-        }
 
-        // couldn't find a default so let's return null
-        return null;
+            return map;
+        }
     }
 }
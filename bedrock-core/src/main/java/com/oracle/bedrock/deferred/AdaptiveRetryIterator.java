@@ -0,0 +1,215 @@
+/*
+ * File: AdaptiveRetryIterator.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+package com.oracle.bedrock.deferred;
+
+import com.oracle.bedrock.deferred.options.RetryFrequency;
+import com.oracle.bedrock.util.Duration;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An {@link Iterator} of retry {@link Duration}s that adapts to the observed time taken
+ * to acquire a {@link Deferred} value, as reported by an {@link Ensured}.
+ * <p>
+ * Retry delays start small and grow geometrically with each unsuccessful acquisition,
+ * up to a ceiling that bounds the latency of detecting a change.  Independently, delays
+ * are never less than is required to keep the proportion of time the target spends
+ * servicing acquisitions (the duty cycle) below a limit.  Consequently cheap acquisitions
+ * are retried quickly while expensive acquisitions are retried less aggressively.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ *
+ * @see RetryFrequency#adaptive()
+ */
+public class AdaptiveRetryIterator implements Iterator<Duration>
+{
+    /**
+     * The default initial delay (in milliseconds).
+     */
+    public static final long DEFAULT_INITIAL_DELAY_MS = 10;
+
+    /**
+     * The default ceiling (in milliseconds) for delays due to unsuccessful acquisitions.
+     */
+    public static final long DEFAULT_CEILING_DELAY_MS = 250;
+
+    /**
+     * The default maximum proportion of time the target may spend servicing acquisitions.
+     */
+    public static final double DEFAULT_MAXIMUM_DUTY_CYCLE = 0.2;
+
+    /**
+     * The rate at which delays grow with each unsuccessful acquisition.
+     */
+    private static final double GROWTH_RATE = 1.5;
+
+    /**
+     * The weight given to the most recently observed acquisition duration.
+     */
+    private static final double SMOOTHING = 0.3;
+
+    /**
+     * The initial delay (in milliseconds).
+     */
+    private final long initialDelayMS;
+
+    /**
+     * The ceiling (in milliseconds) for delays due to unsuccessful acquisitions.
+     */
+    private final long ceilingDelayMS;
+
+    /**
+     * The maximum proportion of time the target may spend servicing acquisitions.
+     */
+    private final double maximumDutyCycle;
+
+    /**
+     * The current back-off delay (in milliseconds).
+     */
+    private double backoffDelayMS;
+
+    /**
+     * The smoothed acquisition duration (in milliseconds), negative when none observed.
+     */
+    private double acquisitionDurationMS;
+
+    /**
+     * The number of consecutive unsuccessful acquisitions.
+     */
+    private int failures;
+
+
+    /**
+     * Constructs an {@link AdaptiveRetryIterator} using the default settings.
+     */
+    public AdaptiveRetryIterator()
+    {
+        this(DEFAULT_INITIAL_DELAY_MS, DEFAULT_CEILING_DELAY_MS, DEFAULT_MAXIMUM_DUTY_CYCLE);
+    }
+
+
+    /**
+     * Constructs an {@link AdaptiveRetryIterator}.
+     *
+     * @param initialDelayMS    the initial delay (in milliseconds)
+     * @param ceilingDelayMS    the ceiling for delays due to unsuccessful acquisitions (in milliseconds)
+     * @param maximumDutyCycle  the maximum proportion of time the target may spend servicing
+     *                          acquisitions (between 0 exclusive and 1 inclusive)
+     */
+    public AdaptiveRetryIterator(long   initialDelayMS,
+                                 long   ceilingDelayMS,
+                                 double maximumDutyCycle)
+    {
+        if (maximumDutyCycle <= 0 || maximumDutyCycle > 1)
+        {
+            throw new IllegalArgumentException("The maximum duty cycle [" + maximumDutyCycle
+                                               + "] must be greater than 0 and at most 1");
+        }
+
+        this.initialDelayMS        = Math.max(0, initialDelayMS);
+        this.ceilingDelayMS        = Math.max(this.initialDelayMS, ceilingDelayMS);
+        this.maximumDutyCycle      = maximumDutyCycle;
+        this.backoffDelayMS        = this.initialDelayMS;
+        this.acquisitionDurationMS = -1;
+        this.failures              = 0;
+    }
+
+
+    /**
+     * Records the outcome of an attempt to acquire a {@link Deferred} value.
+     *
+     * @param durationMS  the time taken by the attempt (in milliseconds)
+     * @param acquired    <code>true</code> if a value was acquired, <code>false</code> otherwise
+     */
+    public void record(long    durationMS,
+                       boolean acquired)
+    {
+        durationMS = Math.max(0, durationMS);
+
+        acquisitionDurationMS = acquisitionDurationMS < 0
+                                ? durationMS : SMOOTHING * durationMS + (1 - SMOOTHING) * acquisitionDurationMS;
+
+        if (acquired)
+        {
+            // start over as the target has changed
+            failures       = 0;
+            backoffDelayMS = initialDelayMS;
+        }
+        else
+        {
+            failures++;
+        }
+    }
+
+
+    /**
+     * Obtains the number of consecutive unsuccessful acquisitions recorded.
+     *
+     * @return the number of consecutive failures
+     */
+    public int getFailures()
+    {
+        return failures;
+    }
+
+
+    @Override
+    public boolean hasNext()
+    {
+        return true;
+    }
+
+
+    @Override
+    public Duration next()
+    {
+        long delayMS = Math.round(backoffDelayMS);
+
+        // grow the back-off for the next retry, bounding the detection latency
+        backoffDelayMS = Math.min(Math.max(1, backoffDelayMS) * GROWTH_RATE, ceilingDelayMS);
+
+        // bound the load on the target, based on the time acquisitions take
+        if (acquisitionDurationMS > 0)
+        {
+            long minimumDelayMS = Math.round(acquisitionDurationMS * (1 - maximumDutyCycle) / maximumDutyCycle);
+
+            delayMS = Math.max(delayMS, minimumDelayMS);
+        }
+
+        return Duration.of(delayMS, TimeUnit.MILLISECONDS);
+    }
+
+
+    @Override
+    public void remove()
+    {
+        throw new UnsupportedOperationException("Can't remove from a " + this.getClass().getName());
+    }
+}
@@ -35,7 +35,7 @@ import java.util.function.Function;
  *
  * @author Brian Oliver
  */
-public class DeferredFunction<T, R> implements Deferred<R>
+public class DeferredFunction<T, R> implements Deferred<R>, Signalling
 {
     /**
      * The {@link Deferred} on which the {@link Function} is to be called
@@ -91,6 +91,13 @@ public class DeferredFunction<T, R> implements Deferred<R>
     }
 
 
+    @Override
+    public DeferredSignal getSignal()
+    {
+        return DeferredSignal.of(deferred);
+    }
+
+
     @Override
     public Class<R> getDeferredClass()
     {
@@ -43,6 +43,8 @@ import net.sf.cglib.proxy.MethodProxy;
 
 import java.lang.reflect.Array;
 import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
@@ -77,6 +79,9 @@ public class DeferredHelper
      *     <li>random.exponential  = polling based on randomized values taken in
      *                               order from an exponential sequence
      *                               (a rate of 50%)</li>
+     *     <li>adaptive            = polling based on the observed time taken to
+     *                               acquire a value, bounding both detection latency
+     *                               and load (see {@link AdaptiveRetryIterator})</li>
      * </ol>
      * <p>
      * The default strategy is "random.fibonacci"
@@ -213,6 +218,17 @@ public class DeferredHelper
                 }
             };
         }
+        else if (strategy.equals("adaptive"))
+        {
+            ENSURED_RETRY_DURATIONS = new Iterable<Duration>()
+            {
+                @Override
+                public Iterator<Duration> iterator()
+                {
+                    return new AdaptiveRetryIterator();
+                }
+            };
+        }
         else if (strategy.equals("exponential"))
         {
             ENSURED_RETRY_DURATIONS = new Iterable<Duration>()
@@ -296,6 +312,25 @@ public class DeferredHelper
     }
 
 
+    /**
+     * Obtains a {@link Signalling} representation of a {@link Deferred}, that of
+     * which uses the specified {@link DeferredSignal} to indicate when the value
+     * of the {@link Deferred} may have changed.
+     *
+     * @param <T>       the type of the {@link Deferred} value
+     *
+     * @param deferred  the {@link Deferred}
+     * @param signal    the {@link DeferredSignal}
+     *
+     * @return a {@link Signalling} {@link Deferred}
+     */
+    public static <T> Deferred<T> signalledBy(Deferred<T>    deferred,
+                                              DeferredSignal signal)
+    {
+        return new Signalled<>(deferred, signal);
+    }
+
+
     /**
      * Obtains the default configured retry {@link Duration}s {@link Iterator}
      * that can be used with {@link Ensured}s.
@@ -368,6 +403,95 @@ public class DeferredHelper
     }
 
 
+    /**
+     * Obtains a {@link Deferred} that is available when all of the specified {@link Deferred}s
+     * are available, producing their values in order.
+     * <p>
+     * When {@link Ensured}, the {@link Deferred}s are concurrently evaluated using a shared
+     * {@link Timeout}, taking approximately the time of the slowest {@link Deferred}.
+     *
+     * @param <T>        the type of the {@link Deferred} values
+     *
+     * @param deferreds  the {@link Deferred}s
+     *
+     * @return a {@link DeferredQuorum}
+     */
+    @SafeVarargs
+    public static <T> DeferredQuorum<T> allOf(Deferred<? extends T>... deferreds)
+    {
+        return allOf(Arrays.asList(deferreds));
+    }
+
+
+    /**
+     * Obtains a {@link Deferred} that is available when all of the specified {@link Deferred}s
+     * are available, producing their values in order.
+     *
+     * @param <T>        the type of the {@link Deferred} values
+     *
+     * @param deferreds  the {@link Deferred}s
+     *
+     * @return a {@link DeferredQuorum}
+     *
+     * @see #allOf(Deferred[])
+     */
+    public static <T> DeferredQuorum<T> allOf(Collection<? extends Deferred<? extends T>> deferreds)
+    {
+        return new DeferredQuorum<>(deferreds.size(), deferreds);
+    }
+
+
+    /**
+     * Obtains a {@link Deferred} that is available when any of the specified {@link Deferred}s
+     * is available, producing the values of the available {@link Deferred}s.
+     *
+     * @param <T>        the type of the {@link Deferred} values
+     *
+     * @param deferreds  the {@link Deferred}s
+     *
+     * @return a {@link DeferredQuorum}
+     */
+    @SafeVarargs
+    public static <T> DeferredQuorum<T> anyOf(Deferred<? extends T>... deferreds)
+    {
+        return anyOf(Arrays.asList(deferreds));
+    }
+
+
+    /**
+     * Obtains a {@link Deferred} that is available when any of the specified {@link Deferred}s
+     * is available, producing the values of the available {@link Deferred}s.
+     *
+     * @param <T>        the type of the {@link Deferred} values
+     *
+     * @param deferreds  the {@link Deferred}s
+     *
+     * @return a {@link DeferredQuorum}
+     */
+    public static <T> DeferredQuorum<T> anyOf(Collection<? extends Deferred<? extends T>> deferreds)
+    {
+        return new DeferredQuorum<>(deferreds.isEmpty() ? 0 : 1, deferreds);
+    }
+
+
+    /**
+     * Obtains a {@link Deferred} that is available when at least the specified number of
+     * {@link Deferred}s are available, producing the values of the available {@link Deferred}s.
+     *
+     * @param <T>        the type of the {@link Deferred} values
+     *
+     * @param quorum     the number of {@link Deferred}s that must be available
+     * @param deferreds  the {@link Deferred}s
+     *
+     * @return a {@link DeferredQuorum}
+     */
+    public static <T> DeferredQuorum<T> quorumOf(int                                         quorum,
+                                                 Collection<? extends Deferred<? extends T>> deferreds)
+    {
+        return new DeferredQuorum<>(quorum, deferreds);
+    }
+
+
     /**
      * Obtains an ensured of the specified {@link Deferred}.
      *
@@ -486,6 +610,24 @@ public class DeferredHelper
     }
 
 
+    /**
+     * Obtains an {@link ExpiringCached} of the specified {@link Deferred}, caching
+     * successfully acquired objects for the specified time-to-live.
+     *
+     * @param deferred    the {@link Deferred} to cache
+     * @param timeToLive  the time-to-live of cached objects
+     *
+     * @param <T>         the type of the {@link Deferred} value
+     *
+     * @return an {@link ExpiringCached} of the {@link Deferred}
+     */
+    public static <T> ExpiringCached<T> cached(Deferred<T> deferred,
+                                               Duration    timeToLive)
+    {
+        return new ExpiringCached<T>(deferred, timeToLive);
+    }
+
+
     /**
      * Obtains a {@link Deferred} representation of a Java Future.
      *
@@ -41,7 +41,7 @@ import java.util.function.Predicate;
  *
  * @author Brian Oliver
  */
-public class DeferredPredicate<T> implements Deferred<Boolean>
+public class DeferredPredicate<T> implements Deferred<Boolean>, Signalling
 {
     /**
      * The {@link Predicate} to use for matching.
@@ -165,6 +165,13 @@ public class DeferredPredicate<T> implements Deferred<Boolean>
     }
 
 
+    @Override
+    public DeferredSignal getSignal()
+    {
+        return DeferredSignal.of(deferred);
+    }
+
+
     @Override
     public Class<Boolean> getDeferredClass()
     {
@@ -0,0 +1,441 @@
+/*
+ * File: DeferredQuorum.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+package com.oracle.bedrock.deferred;
+
+import com.oracle.bedrock.Option;
+import com.oracle.bedrock.OptionsByType;
+import com.oracle.bedrock.options.Timeout;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link DeferredQuorum} is a {@link Deferred} that is available when at least a
+ * required number of other {@link Deferred}s are available, producing the list of
+ * values produced by the available {@link Deferred}s.
+ * <p>
+ * Each call to {@link #get()} concurrently attempts to acquire the values of the
+ * {@link Deferred}s that are not yet available.  Once a {@link Deferred} has produced a value,
+ * the value is retained and the {@link Deferred} is not evaluated again.  Consequently, when
+ * {@link Ensured}, waiting for many {@link Deferred}s takes approximately the time of the
+ * slowest {@link Deferred}, with all {@link Deferred}s sharing the same {@link Timeout}, instead
+ * of the sum of the time taken for each {@link Deferred}.
+ * <p>
+ * When the {@link DeferredQuorum} is unavailable, the {@link #toString()} representation (and thus
+ * the message of any {@link UnavailableException}) describes the {@link Deferred}s that are
+ * not yet available.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ *
+ * @see DeferredHelper#allOf(Deferred[])
+ * @see DeferredHelper#anyOf(Deferred[])
+ * @see DeferredHelper#quorumOf(int, Collection)
+ *
+ * @param <T>  the type of the {@link Deferred} values
+ */
+public class DeferredQuorum<T> implements Deferred<List<T>>
+{
+    /**
+     * The shared {@link ExecutorService} used to concurrently evaluate {@link Deferred}s.
+     */
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(new ThreadFactory());
+
+    /**
+     * The {@link Deferred}s.
+     */
+    private final List<Deferred<? extends T>> deferreds;
+
+    /**
+     * The number of {@link Deferred}s that must be available.
+     */
+    private final int quorum;
+
+    /**
+     * The {@link State} of each {@link Deferred}.
+     */
+    private final State[] states;
+
+    /**
+     * The values produced by the available {@link Deferred}s.
+     */
+    private final Object[] values;
+
+    /**
+     * Is the {@link Deferred} at each index currently being evaluated?
+     */
+    private final boolean[] evaluating;
+
+    /**
+     * The indexes of the {@link Deferred}s that have been evaluated since last waited upon.
+     */
+    private final BlockingQueue<Integer> evaluated;
+
+    /**
+     * The maximum time (in milliseconds) that a call to {@link #get()} waits for the quorum.
+     */
+    private final long timeoutMS;
+
+
+    /**
+     * Constructs a {@link DeferredQuorum}.
+     * <p>
+     * Each call to {@link #get()} waits at most the {@link Timeout} option for the
+     * quorum (by default, the maximum polling {@link com.oracle.bedrock.util.Duration}
+     * of an {@link Ensured}), after which {@link Deferred}s still being evaluated
+     * continue to be evaluated for subsequent calls.
+     *
+     * @param quorum     the number of {@link Deferred}s that must be available
+     * @param deferreds  the {@link Deferred}s
+     * @param options    the {@link Option}s for the {@link DeferredQuorum}
+     */
+    public DeferredQuorum(int                                         quorum,
+                          Collection<? extends Deferred<? extends T>> deferreds,
+                          Option...                                   options)
+    {
+        if (quorum < 0 || quorum > deferreds.size())
+        {
+            throw new IllegalArgumentException("The quorum [" + quorum + "] must be between 0 and the number of "
+                                               + "Deferreds [" + deferreds.size() + "]");
+        }
+
+        this.deferreds  = new ArrayList<>(deferreds);
+        this.quorum     = quorum;
+        this.states     = new State[deferreds.size()];
+        this.values     = new Object[deferreds.size()];
+        this.evaluating = new boolean[deferreds.size()];
+        this.evaluated  = new LinkedBlockingQueue<>();
+
+        OptionsByType optionsByType = OptionsByType.of(options);
+
+        this.timeoutMS = optionsByType.getOrDefault(Timeout.class,
+                                                    Timeout.after(DeferredHelper.getDefaultEnsuredMaximumPollingDuration()))
+                                                    .to(TimeUnit.MILLISECONDS);
+
+        for (int i = 0; i < states.length; i++)
+        {
+            states[i] = State.PENDING;
+        }
+    }
+
+
+    /**
+     * Obtains the number of {@link Deferred}s that must be available.
+     *
+     * @return the quorum
+     */
+    public int getQuorum()
+    {
+        return quorum;
+    }
+
+
+    /**
+     * Obtains the {@link Deferred}s that are yet to be available.
+     *
+     * @return the unavailable {@link Deferred}s
+     */
+    public List<Deferred<? extends T>> getUnavailable()
+    {
+        List<Deferred<? extends T>> unavailable = new ArrayList<>();
+
+        synchronized (values)
+        {
+            for (int i = 0; i < states.length; i++)
+            {
+                if (states[i] != State.AVAILABLE)
+                {
+                    unavailable.add(deferreds.get(i));
+                }
+            }
+        }
+
+        return unavailable;
+    }
+
+
+    @Override
+    public List<T> get() throws TemporarilyUnavailableException, PermanentlyUnavailableException
+    {
+        // concurrently evaluate the pending deferreds (that are not already being evaluated)
+        synchronized (values)
+        {
+            for (int i = 0; i < states.length; i++)
+            {
+                if (states[i] == State.PENDING &&!evaluating[i])
+                {
+                    int index = i;
+
+                    evaluating[i] = true;
+
+                    EXECUTOR.submit(() -> evaluate(index));
+                }
+            }
+        }
+
+        // wait (for at most the timeout) for the evaluations to achieve the quorum
+        long deadlineMS = System.currentTimeMillis() + timeoutMS;
+
+        try
+        {
+            while (count(State.AVAILABLE) < quorum && isEvaluating())
+            {
+                long remainingMS = deadlineMS - System.currentTimeMillis();
+
+                if (remainingMS <= 0 || evaluated.poll(remainingMS, TimeUnit.MILLISECONDS) == null)
+                {
+                    break;
+                }
+            }
+        }
+        catch (InterruptedException e)
+        {
+            throw new PermanentlyUnavailableException(this, e);
+        }
+
+        synchronized (values)
+        {
+            int available   = count(State.AVAILABLE);
+            int unavailable = count(State.UNAVAILABLE);
+
+            if (available >= quorum)
+            {
+                List<T> result = new ArrayList<>(available);
+
+                for (int i = 0; i < states.length; i++)
+                {
+                    if (states[i] == State.AVAILABLE)
+                    {
+                        result.add((T) values[i]);
+                    }
+                }
+
+                return result;
+            }
+            else if (states.length - unavailable < quorum)
+            {
+                // too many deferreds are permanently unavailable to achieve the quorum
+                throw new PermanentlyUnavailableException(this);
+            }
+            else
+            {
+                throw new TemporarilyUnavailableException(this);
+            }
+        }
+    }
+
+
+    /**
+     * Attempts to acquire the value of the {@link Deferred} at the specified index,
+     * updating its {@link State}.
+     *
+     * @param index  the index of the {@link Deferred}
+     */
+    private void evaluate(int index)
+    {
+        try
+        {
+            Object value = deferreds.get(index).get();
+
+            synchronized (values)
+            {
+                values[index] = value;
+                states[index] = State.AVAILABLE;
+            }
+        }
+        catch (PermanentlyUnavailableException | UnsupportedOperationException e)
+        {
+            synchronized (values)
+            {
+                states[index] = State.UNAVAILABLE;
+            }
+        }
+        catch (RuntimeException e)
+        {
+            // SKIP: we assume all other runtime exceptions
+            // simply means that we should retry
+        }
+        finally
+        {
+            synchronized (values)
+            {
+                evaluating[index] = false;
+            }
+
+            evaluated.add(index);
+        }
+    }
+
+
+    /**
+     * Determines if any of the {@link Deferred}s are being evaluated, or have been
+     * evaluated but not yet waited upon.
+     *
+     * @return <code>true</code> if an evaluation is outstanding
+     */
+    private boolean isEvaluating()
+    {
+        if (!evaluated.isEmpty())
+        {
+            return true;
+        }
+
+        synchronized (values)
+        {
+            for (boolean current : evaluating)
+            {
+                if (current)
+                {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+
+
+    /**
+     * Counts the number of {@link Deferred}s in the specified {@link State}.
+     *
+     * @param state  the {@link State}
+     *
+     * @return the number of {@link Deferred}s
+     */
+    private int count(State state)
+    {
+        synchronized (values)
+        {
+            int count = 0;
+
+            for (State current : states)
+            {
+                if (current == state)
+                {
+                    count++;
+                }
+            }
+
+            return count;
+        }
+    }
+
+
+    @Override
+    public Class<List<T>> getDeferredClass()
+    {
+        return (Class<List<T>>) (Class<?>) List.class;
+    }
+
+
+    @Override
+    public String toString()
+    {
+        StringBuilder builder = new StringBuilder();
+
+        builder.append("DeferredQuorum{quorum=").append(quorum).append(" of ").append(deferreds.size());
+
+        synchronized (values)
+        {
+            builder.append(", unavailable=[");
+
+            boolean first = true;
+
+            for (int i = 0; i < states.length; i++)
+            {
+                if (states[i] != State.AVAILABLE)
+                {
+                    builder.append(first ? "" : ", ").append(deferreds.get(i));
+
+                    if (states[i] == State.UNAVAILABLE)
+                    {
+                        builder.append(" (permanently)");
+                    }
+
+                    first = false;
+                }
+            }
+        }
+
+        return builder.append("]}").toString();
+    }
+
+
+    /**
+     * The state of a {@link Deferred} in a {@link DeferredQuorum}.
+     */
+    private enum State
+    {
+        /**
+         * The {@link Deferred} has yet to produce a value.
+         */
+        PENDING,
+
+        /**
+         * The {@link Deferred} has produced a value.
+         */
+        AVAILABLE,
+
+        /**
+         * The {@link Deferred} is permanently unavailable.
+         */
+        UNAVAILABLE
+    }
+
+
+    /**
+     * A {@link java.util.concurrent.ThreadFactory} producing daemon {@link Thread}s
+     * for evaluating {@link Deferred}s.
+     */
+    private static class ThreadFactory implements java.util.concurrent.ThreadFactory
+    {
+        /**
+         * The number of {@link Thread}s created.
+         */
+        private final AtomicInteger count = new AtomicInteger(0);
+
+
+        @Override
+        public Thread newThread(Runnable runnable)
+        {
+            Thread thread = new Thread(runnable);
+
+            thread.setDaemon(true);
+            thread.setName("DeferredQuorum-" + count.incrementAndGet());
+
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * File: DeferredSignal.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+package com.oracle.bedrock.deferred;
+
+/**
+ * A {@link DeferredSignal} is raised to indicate that the value of one or more
+ * {@link Deferred}s may have changed, allowing {@link Thread}s waiting for a
+ * {@link Deferred} value (like an {@link Ensured}) to re-evaluate immediately,
+ * instead of sleeping for the remainder of a retry delay.
+ * <p>
+ * Signals are tracked using a generation number.   Waiters record the current
+ * generation before evaluating a {@link Deferred} and then wait for the generation
+ * to change, so that signals raised during an evaluation are never missed.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ *
+ * @see Signalling
+ * @see Signalled
+ */
+public class DeferredSignal
+{
+    /**
+     * The current generation of the {@link DeferredSignal}, incremented each time it is raised.
+     */
+    private long generation;
+
+
+    /**
+     * Constructs a {@link DeferredSignal}.
+     */
+    public DeferredSignal()
+    {
+        this.generation = 0;
+    }
+
+
+    /**
+     * Raises the {@link DeferredSignal}, waking all {@link Thread}s waiting on it.
+     */
+    public synchronized void signal()
+    {
+        generation++;
+
+        notifyAll();
+    }
+
+
+    /**
+     * Obtains the current generation of the {@link DeferredSignal}.
+     *
+     * @return the current generation
+     */
+    public synchronized long getGeneration()
+    {
+        return generation;
+    }
+
+
+    /**
+     * Waits for the {@link DeferredSignal} to be raised after the specified generation,
+     * or for the specified duration to elapse, which ever happens first.
+     *
+     * @param generation  the generation previously observed using {@link #getGeneration()}
+     * @param durationMS  the maximum duration to wait (in milliseconds)
+     *
+     * @return <code>true</code> if the {@link DeferredSignal} was raised after the
+     *         specified generation, <code>false</code> if the duration elapsed
+     *
+     * @throws InterruptedException  when the waiting {@link Thread} is interrupted
+     */
+    public synchronized boolean await(long generation,
+                                      long durationMS) throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis() + durationMS;
+
+        while (this.generation == generation)
+        {
+            long remainingMS = deadline - System.currentTimeMillis();
+
+            if (remainingMS <= 0)
+            {
+                return false;
+            }
+
+            wait(remainingMS);
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Obtains the {@link DeferredSignal} for the specified {@link Deferred}, when it
+     * is {@link Signalling}.
+     *
+     * @param deferred  the {@link Deferred}
+     *
+     * @return the {@link DeferredSignal} or <code>null</code> when the {@link Deferred}
+     *         does not provide a {@link DeferredSignal}
+     */
+    public static DeferredSignal of(Deferred<?> deferred)
+    {
+        return deferred instanceof Signalling ? ((Signalling) deferred).getSignal() : null;
+    }
+}
@@ -66,6 +66,11 @@ import java.util.concurrent.TimeUnit;
  * defined by the {@link InitialDelay} {@link Option} will be applied if specified, and
  * subsequent delays between retries will not be any larger than the specified
  * {@link MaximumRetryDelay}.
+ * <p>
+ * When the underlying {@link Deferred} is {@link Signalling}, instead of sleeping
+ * between retries, an {@link Ensured} will wait for the {@link DeferredSignal} to be
+ * raised, retrying immediately when it is.  In this case the retry delays are
+ * simply used as a safety-net, in case a change occurs without a signal being raised.
  * </p>
  * <p>
  * Copyright (c) 2013. All Rights Reserved. Oracle Corporation.<br>
@@ -78,7 +83,7 @@ import java.util.concurrent.TimeUnit;
  * @see MaximumRetryDelay
  * @see RetryFrequency
  */
-public class Ensured<T> implements Deferred<T>
+public class Ensured<T> implements Deferred<T>, Signalling
 {
     /**
      * The {@link Deferred} being adapted.
@@ -151,15 +156,60 @@ public class Ensured<T> implements Deferred<T>
     }
 
 
+    @Override
+    public DeferredSignal getSignal()
+    {
+        return DeferredSignal.of(deferred);
+    }
+
+
     @Override
     public T get() throws TemporarilyUnavailableException, PermanentlyUnavailableException
+    {
+        if (!WaitStatistics.isEnabled())
+        {
+            return get(null);
+        }
+
+        WaitStatistics.Accounting accounting = new WaitStatistics.Accounting();
+
+        try
+        {
+            return get(accounting);
+        }
+        finally
+        {
+            WaitStatistics.record(deferred, accounting);
+        }
+    }
+
+
+    /**
+     * Attempts to acquire the object reference, accounting for the time spent
+     * evaluating the adapted {@link Deferred} and waiting between attempts.
+     *
+     * @param accounting  the {@link WaitStatistics.Accounting} to update
+     *                    (<code>null</code> when statistics aren't being collected)
+     *
+     * @return the object reference
+     *
+     * @throws TemporarilyUnavailableException  when the object reference is temporarily unavailable
+     * @throws PermanentlyUnavailableException  when the object reference can't be acquired
+     */
+    private T get(WaitStatistics.Accounting accounting) throws TemporarilyUnavailableException,
+                                                               PermanentlyUnavailableException
     {
         // determine the maximum time we can wait
         long remainingRetryDurationMS = maximumRetryDurationMS;
 
+        // determine the signal (if any) that will indicate the deferred may have changed
+        DeferredSignal signal = DeferredSignal.of(deferred);
+
         // wait the initial duration
         if (initialDelayDurationMS > 0)
         {
+            long sleepStartedNS = System.nanoTime();
+
             try
             {
                 Thread.sleep(initialDelayDurationMS);
@@ -168,6 +218,13 @@ public class Ensured<T> implements Deferred<T>
             {
                 throw new PermanentlyUnavailableException(deferred, e);
             }
+            finally
+            {
+                if (accounting != null)
+                {
+                    accounting.sleepingNS += System.nanoTime() - sleepStartedNS;
+                }
+            }
 
             // reduce the remaining time
             remainingRetryDurationMS -= initialDelayDurationMS;
@@ -181,10 +238,17 @@ public class Ensured<T> implements Deferred<T>
             // the time the most recent acquisition took
             long acquisitionDurationMS = 0;
 
+            // the signal generation observed prior to the acquisition
+            // (so that we don't miss signals raised while acquiring)
+            long generation = signal == null ? 0 : signal.getGeneration();
+
+            // the time the acquisition started and if it was successful
+            long    started   = System.currentTimeMillis();
+            long    startedNS = System.nanoTime();
+            boolean acquired  = false;
+
             try
             {
-                long started = System.currentTimeMillis();
-
                 T    object  = deferred.get();
 
                 long stopped = System.currentTimeMillis();
@@ -194,6 +258,8 @@ public class Ensured<T> implements Deferred<T>
                 acquisitionDurationMS    = stopped - started;
                 remainingRetryDurationMS -= acquisitionDurationMS < 0 ? 0 : acquisitionDurationMS;
 
+                acquired                 = true;
+
                 return object;
             }
             catch (PermanentlyUnavailableException e)
@@ -215,6 +281,21 @@ public class Ensured<T> implements Deferred<T>
                 // SKIP: we assume all other runtime exceptions
                 // simply means that we should retry
             }
+            finally
+            {
+                if (accounting != null)
+                {
+                    accounting.attempts++;
+                    accounting.evaluatingNS += System.nanoTime() - startedNS;
+                    accounting.acquired     = acquired;
+                }
+
+                // allow adaptive retry durations to learn from the acquisition
+                if (retryDurations instanceof AdaptiveRetryIterator)
+                {
+                    ((AdaptiveRetryIterator) retryDurations).record(System.currentTimeMillis() - started, acquired);
+                }
+            }
 
             // as no object was produced we should wait before retrying
             if (maximumRetryDurationMS < 0 || remainingRetryDurationMS > 0)
@@ -239,10 +320,33 @@ public class Ensured<T> implements Deferred<T>
                             durationMS = remainingRetryDurationMS;
                         }
 
+                        long sleepStartedNS = System.nanoTime();
+
                         // only wait if we have a duration
                         if (durationMS > 0)
                         {
-                            TimeUnit.MILLISECONDS.sleep(durationMS);
+                            if (signal == null)
+                            {
+                                TimeUnit.MILLISECONDS.sleep(durationMS);
+                            }
+                            else
+                            {
+                                // wait for a signal, using the duration as a safety-net
+                                long waitStarted = System.currentTimeMillis();
+
+                                if (signal.await(generation, durationMS))
+                                {
+                                    // only account for the time actually spent waiting
+                                    long waitStopped = System.currentTimeMillis();
+
+                                    durationMS = Math.max(0, Math.min(durationMS, waitStopped - waitStarted));
+                                }
+                            }
+                        }
+
+                        if (accounting != null)
+                        {
+                            accounting.sleepingNS += System.nanoTime() - sleepStartedNS;
                         }
 
                         // reduce the remaining time
@@ -0,0 +1,417 @@
+/*
+ * File: ExpiringCached.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+package com.oracle.bedrock.deferred;
+
+import com.oracle.bedrock.util.Duration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An {@link ExpiringCached} is a {@link Cached} that holds an object, successfully
+ * returned by another {@link Deferred}, for a limited time-to-live.
+ * <p>
+ * Once the cached object has reached the refresh-ahead age, the next request for the
+ * object triggers a background re-acquisition, while the currently cached object continues
+ * to be returned.  Only once the cached object has expired will requests wait for the object
+ * to be re-acquired.
+ * <p>
+ * Acquisition is single-flight; at most one {@link Thread} acquires from the adapted
+ * {@link Deferred} at any one time, with other {@link Thread}s waiting for (and sharing) the
+ * result.  When acquisition fails, further attempts are suppressed for an exponentially
+ * growing back-off period, during which requests fail fast with the last failure, so that
+ * expensive remote resources are not repeatedly requested while they are unavailable.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ *
+ * @see DeferredHelper#cached(Deferred, Duration)
+ *
+ * @param <T>  the type of the cached object
+ */
+public class ExpiringCached<T> extends Cached<T>
+{
+    /**
+     * The default initial back-off (in milliseconds) after a failed acquisition.
+     */
+    public static final long DEFAULT_INITIAL_BACK_OFF_MS = 10;
+
+    /**
+     * The default maximum back-off (in milliseconds) after repeatedly failed acquisitions.
+     */
+    public static final long DEFAULT_MAXIMUM_BACK_OFF_MS = 1000;
+
+    /**
+     * The default fraction of the time-to-live after which a cached object is refreshed.
+     */
+    public static final double DEFAULT_REFRESH_AHEAD_FACTOR = 0.8;
+
+    /**
+     * The shared {@link ExecutorService} used to refresh cached objects in the background.
+     */
+    private static final ExecutorService REFRESHER = Executors.newCachedThreadPool(new ThreadFactory());
+
+    /**
+     * The time-to-live (in nanoseconds) of a cached object.
+     */
+    private final long timeToLiveNS;
+
+    /**
+     * The age (in nanoseconds) of a cached object after which it is refreshed in the background.
+     */
+    private final long refreshAheadNS;
+
+    /**
+     * The initial back-off (in nanoseconds) after a failed acquisition.
+     */
+    private final long initialBackOffNS;
+
+    /**
+     * The maximum back-off (in nanoseconds) after repeatedly failed acquisitions.
+     */
+    private final long maximumBackOffNS;
+
+    /**
+     * The currently cached {@link Entry} (null when nothing is cached).
+     */
+    private volatile Entry<T> entry;
+
+    /**
+     * Is an acquisition currently in progress? (guarded by this)
+     */
+    private boolean acquiring;
+
+    /**
+     * The generation of the cache, incremented each time it is released, so that acquisitions
+     * that commenced before a release don't populate the cache. (guarded by this)
+     */
+    private long generation;
+
+    /**
+     * The current back-off (in nanoseconds), zero when the last acquisition succeeded. (guarded by this)
+     */
+    private long backOffNS;
+
+    /**
+     * The {@link System#nanoTime()} until which acquisition attempts are suppressed. (guarded by this)
+     */
+    private long backOffUntilNS;
+
+    /**
+     * The failure of the last acquisition, null when it succeeded. (guarded by this)
+     */
+    private RuntimeException failure;
+
+
+    /**
+     * Constructs an {@link ExpiringCached} for the specified {@link Deferred}, refreshing
+     * objects in the background after {@link #DEFAULT_REFRESH_AHEAD_FACTOR} of the time-to-live
+     * and using the default back-off.
+     *
+     * @param deferred    the {@link Deferred}
+     * @param timeToLive  the time-to-live of a cached object
+     */
+    public ExpiringCached(Deferred<T> deferred,
+                          Duration    timeToLive)
+    {
+        this(deferred,
+             timeToLive,
+             Duration.of((long) (timeToLive.to(TimeUnit.NANOSECONDS) * DEFAULT_REFRESH_AHEAD_FACTOR),
+                         TimeUnit.NANOSECONDS),
+             Duration.of(DEFAULT_INITIAL_BACK_OFF_MS, TimeUnit.MILLISECONDS),
+             Duration.of(DEFAULT_MAXIMUM_BACK_OFF_MS, TimeUnit.MILLISECONDS));
+    }
+
+
+    /**
+     * Constructs an {@link ExpiringCached} for the specified {@link Deferred}.
+     *
+     * @param deferred        the {@link Deferred}
+     * @param timeToLive      the time-to-live of a cached object
+     * @param refreshAhead    the age of a cached object after which it is refreshed in the background
+     *                        (a refresh-ahead equal to or greater than the time-to-live disables
+     *                        background refreshing)
+     * @param initialBackOff  the initial back-off after a failed acquisition
+     * @param maximumBackOff  the maximum back-off after repeatedly failed acquisitions
+     */
+    public ExpiringCached(Deferred<T> deferred,
+                          Duration    timeToLive,
+                          Duration    refreshAhead,
+                          Duration    initialBackOff,
+                          Duration    maximumBackOff)
+    {
+        super(deferred);
+
+        this.timeToLiveNS     = Math.max(0, timeToLive.to(TimeUnit.NANOSECONDS));
+        this.refreshAheadNS   = Math.max(0, Math.min(refreshAhead.to(TimeUnit.NANOSECONDS), timeToLiveNS));
+        this.initialBackOffNS = Math.max(0, initialBackOff.to(TimeUnit.NANOSECONDS));
+        this.maximumBackOffNS = Math.max(initialBackOffNS, maximumBackOff.to(TimeUnit.NANOSECONDS));
+        this.entry            = null;
+        this.acquiring        = false;
+        this.generation       = 0;
+        this.backOffNS        = 0;
+        this.backOffUntilNS   = 0;
+        this.failure          = null;
+    }
+
+
+    @Override
+    public T get() throws TemporarilyUnavailableException, PermanentlyUnavailableException
+    {
+        Entry<T> current = entry;
+        long     now     = System.nanoTime();
+
+        if (current != null && now - current.acquiredNS < timeToLiveNS)
+        {
+            if (now - current.acquiredNS >= refreshAheadNS)
+            {
+                refresh();
+            }
+
+            return current.object;
+        }
+
+        // the object has expired (or was never cached) so wait for a (single-flight) acquisition
+        long acquisitionGeneration;
+
+        synchronized (this)
+        {
+            while (true)
+            {
+                current = entry;
+                now     = System.nanoTime();
+
+                if (current != null && now - current.acquiredNS < timeToLiveNS)
+                {
+                    return current.object;
+                }
+                else if (failure != null && now - backOffUntilNS < 0)
+                {
+                    throw failure instanceof PermanentlyUnavailableException
+                          ? new PermanentlyUnavailableException(this, failure)
+                          : new TemporarilyUnavailableException(this, failure);
+                }
+                else if (!acquiring)
+                {
+                    acquiring             = true;
+                    acquisitionGeneration = generation;
+                    break;
+                }
+
+                try
+                {
+                    wait();
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+
+                    throw new TemporarilyUnavailableException(this, e);
+                }
+            }
+        }
+
+        return acquire(acquisitionGeneration);
+    }
+
+
+    /**
+     * Requests a background refresh of the cached object, unless an acquisition is already in
+     * progress or acquisition attempts are being suppressed due to previous failures.
+     */
+    private void refresh()
+    {
+        long acquisitionGeneration;
+
+        synchronized (this)
+        {
+            if (acquiring || (failure != null && System.nanoTime() - backOffUntilNS < 0))
+            {
+                return;
+            }
+
+            acquiring             = true;
+            acquisitionGeneration = generation;
+        }
+
+        REFRESHER.execute(() -> {
+                              try
+                              {
+                                  acquire(acquisitionGeneration);
+                              }
+                              catch (RuntimeException e)
+                              {
+                                  // SKIP: the currently cached object is returned until it expires
+                              }
+                          });
+    }
+
+
+    /**
+     * Acquires an object from the adapted {@link Deferred}, caching it if successful or backing-off
+     * further acquisitions when failed.  Must only be called by the {@link Thread} that
+     * set {@link #acquiring}.
+     *
+     * @param acquisitionGeneration  the generation of the cache when the acquisition commenced
+     *
+     * @return the acquired object
+     */
+    private T acquire(long acquisitionGeneration)
+    {
+        T                object    = null;
+        RuntimeException exception = null;
+
+        try
+        {
+            object = getDeferred().get();
+
+            return object;
+        }
+        catch (UnavailableException e)
+        {
+            exception = e;
+
+            throw e;
+        }
+        catch (RuntimeException e)
+        {
+            exception = new TemporarilyUnavailableException(this, e);
+
+            throw exception;
+        }
+        finally
+        {
+            synchronized (this)
+            {
+                acquiring = false;
+
+                if (acquisitionGeneration == generation)
+                {
+                    if (exception == null)
+                    {
+                        // null objects are returned, but not cached
+                        entry     = object == null ? entry : new Entry<>(object, System.nanoTime());
+                        failure   = null;
+                        backOffNS = 0;
+                    }
+                    else
+                    {
+                        failure        = exception;
+                        backOffNS      = backOffNS == 0 ? initialBackOffNS : Math.min(backOffNS * 2, maximumBackOffNS);
+                        backOffUntilNS = System.nanoTime() + backOffNS;
+                    }
+                }
+
+                notifyAll();
+            }
+        }
+    }
+
+
+    @Override
+    public synchronized T release()
+    {
+        Entry<T> current = entry;
+
+        entry     = null;
+        failure   = null;
+        backOffNS = 0;
+        generation++;
+
+        return current == null ? null : current.object;
+    }
+
+
+    @Override
+    public String toString()
+    {
+        return String.format("ExpiringCached{%s, timeToLive=%s}",
+                             getDeferredClass(),
+                             Duration.of(TimeUnit.NANOSECONDS.toMillis(timeToLiveNS), TimeUnit.MILLISECONDS));
+    }
+
+
+    /**
+     * A cached object together with the {@link System#nanoTime()} at which it was acquired.
+     *
+     * @param <T>  the type of the cached object
+     */
+    private static class Entry<T>
+    {
+        /**
+         * The cached object.
+         */
+        private final T object;
+
+        /**
+         * The {@link System#nanoTime()} at which the object was acquired.
+         */
+        private final long acquiredNS;
+
+
+        /**
+         * Constructs an {@link Entry}.
+         *
+         * @param object      the cached object
+         * @param acquiredNS  the {@link System#nanoTime()} at which the object was acquired
+         */
+        Entry(T    object,
+              long acquiredNS)
+        {
+            this.object     = object;
+            this.acquiredNS = acquiredNS;
+        }
+    }
+
+
+    /**
+     * A {@link java.util.concurrent.ThreadFactory} producing daemon {@link Thread}s
+     * for refreshing cached objects.
+     */
+    private static class ThreadFactory implements java.util.concurrent.ThreadFactory
+    {
+        /**
+         * The number of {@link Thread}s created.
+         */
+        private final AtomicInteger count = new AtomicInteger(0);
+
+
+        @Override
+        public Thread newThread(Runnable runnable)
+        {
+            Thread thread = new Thread(runnable);
+
+            thread.setDaemon(true);
+            thread.setName("ExpiringCached-" + count.incrementAndGet());
+
+            return thread;
+        }
+    }
+}
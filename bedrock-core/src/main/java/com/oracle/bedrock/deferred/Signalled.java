@@ -0,0 +1,102 @@
+/*
+ * File: Signalled.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+package com.oracle.bedrock.deferred;
+
+/**
+ * A {@link Signalled} is a {@link Signalling} {@link Deferred} that adapts another
+ * {@link Deferred}, associating it with a {@link DeferredSignal} that is raised
+ * by an application when the value of the adapted {@link Deferred} may have changed.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+public class Signalled<T> implements Deferred<T>, Signalling
+{
+    /**
+     * The {@link Deferred} being adapted.
+     */
+    private final Deferred<T> deferred;
+
+    /**
+     * The {@link DeferredSignal} raised when the {@link Deferred} value may have changed.
+     */
+    private final DeferredSignal signal;
+
+
+    /**
+     * Constructs a {@link Signalled}.
+     *
+     * @param deferred  the {@link Deferred} to adapt
+     * @param signal    the {@link DeferredSignal} raised when the value may have changed
+     */
+    public Signalled(Deferred<T>    deferred,
+                     DeferredSignal signal)
+    {
+        this.deferred = deferred;
+        this.signal   = signal;
+    }
+
+
+    /**
+     * Obtains the adapted {@link Deferred}.
+     *
+     * @return  the adapted {@link Deferred}
+     */
+    public Deferred<T> getDeferred()
+    {
+        return deferred;
+    }
+
+
+    @Override
+    public T get() throws TemporarilyUnavailableException, PermanentlyUnavailableException
+    {
+        return deferred.get();
+    }
+
+
+    @Override
+    public Class<T> getDeferredClass()
+    {
+        return deferred.getDeferredClass();
+    }
+
+
+    @Override
+    public DeferredSignal getSignal()
+    {
+        return signal;
+    }
+
+
+    @Override
+    public String toString()
+    {
+        return String.format("Signalled{%s}", deferred);
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * File: Signalling.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+package com.oracle.bedrock.deferred;
+
+/**
+ * A {@link Signalling} {@link Deferred} provides a {@link DeferredSignal} that is
+ * raised when the value it represents may have changed, for example when a
+ * {@link Thread} updates an atomic, a remote event arrives, a line is written
+ * to a console or a JMX notification is received.
+ * <p>
+ * When a {@link Deferred} is {@link Signalling}, an {@link Ensured} will wait for
+ * the {@link DeferredSignal} to be raised between attempts to acquire a value,
+ * using the configured retry delays only as a safety-net, thus reacting
+ * to changes as soon as they occur.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+public interface Signalling
+{
+    /**
+     * Obtains the {@link DeferredSignal} that will be raised when the value
+     * of the {@link Deferred} may have changed.
+     *
+     * @return the {@link DeferredSignal} or <code>null</code> if signals
+     *         are not available
+     */
+    DeferredSignal getSignal();
+}
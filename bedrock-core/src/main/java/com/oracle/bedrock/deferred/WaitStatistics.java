@@ -0,0 +1,582 @@
+/*
+ * File: WaitStatistics.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+package com.oracle.bedrock.deferred;
+
+import com.oracle.bedrock.table.Cell;
+import com.oracle.bedrock.table.Table;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A global registry of statistics concerning the time spent waiting for {@link Ensured}
+ * {@link Deferred}s, aggregated by the call site that requested the wait.
+ * <p>
+ * For each call site the number of waits, attempts, failures, the time spent evaluating
+ * {@link Deferred}s and the time spent sleeping between attempts is recorded, allowing
+ * the waits that cost the most wall-clock time to be identified, typically for each test class.
+ * <p>
+ * Recording is disabled by default, as determining call sites requires capturing a stack trace
+ * per wait.  It may be enabled using the {@link #BEDROCK_DEFERRED_WAIT_STATISTICS} system property
+ * or programmatically using {@link #setEnabled(boolean)}.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+public class WaitStatistics
+{
+    /**
+     * The system property to enable recording of {@link WaitStatistics}.
+     */
+    public static final String BEDROCK_DEFERRED_WAIT_STATISTICS = "bedrock.deferred.wait.statistics";
+
+    /**
+     * The maximum length of recorded {@link Deferred} descriptions.
+     */
+    private static final int MAXIMUM_DESCRIPTION_LENGTH = 120;
+
+    /**
+     * The classes (and their nested classes) and packages that are never considered call sites.
+     */
+    private static final String[] INFRASTRUCTURE = new String[] {"java.", "javax.", "sun.", "jdk.", "net.sf.cglib.",
+                                                                 "com.oracle.bedrock.deferred.Ensured",
+                                                                 "com.oracle.bedrock.deferred.DeferredHelper",
+                                                                 "com.oracle.bedrock.deferred.DeferredQuorum",
+                                                                 "com.oracle.bedrock.deferred.WaitStatistics",
+                                                                 "com.oracle.bedrock.testsupport.deferred.Eventually",
+                                                                 "com.oracle.bedrock.testsupport.deferred.Repetitively",
+                                                                 "com.oracle.bedrock.testsupport.deferred.Concurrently"};
+
+    /**
+     * Is recording enabled?
+     */
+    private static volatile boolean enabled = Boolean.getBoolean(BEDROCK_DEFERRED_WAIT_STATISTICS);
+
+    /**
+     * The {@link Wait}s recorded, by call site.
+     */
+    private static final ConcurrentHashMap<String, Wait> WAITS = new ConcurrentHashMap<>();
+
+
+    /**
+     * Determines if recording of {@link WaitStatistics} is enabled.
+     *
+     * @return <code>true</code> if enabled, <code>false</code> otherwise
+     */
+    public static boolean isEnabled()
+    {
+        return enabled;
+    }
+
+
+    /**
+     * Enables or disables recording of {@link WaitStatistics}.
+     *
+     * @param enabled  <code>true</code> to enable recording, <code>false</code> to disable
+     */
+    public static void setEnabled(boolean enabled)
+    {
+        WaitStatistics.enabled = enabled;
+    }
+
+
+    /**
+     * Removes all recorded {@link Wait}s.
+     */
+    public static void clear()
+    {
+        WAITS.clear();
+    }
+
+
+    /**
+     * Records the {@link Accounting} of a wait for the specified {@link Deferred},
+     * attributing it to the call site of the current {@link Thread}.
+     *
+     * @param deferred    the {@link Deferred}
+     * @param accounting  the {@link Accounting}
+     */
+    static void record(Deferred<?> deferred,
+                       Accounting  accounting)
+    {
+        StackTraceElement callSite  = getCallSite(new Throwable().getStackTrace());
+        String            className = callSite == null ? "(unknown)" : callSite.getClassName();
+        String            location  = callSite == null ? "(unknown)" : callSite.toString();
+
+        Wait              wait      = WAITS.computeIfAbsent(location, key -> new Wait(className, location));
+
+        wait.record(deferred, accounting);
+    }
+
+
+    /**
+     * Determines the call site for a wait, being the first {@link StackTraceElement}
+     * that isn't part of the deferred infrastructure.
+     *
+     * @param stackTrace  the stack trace
+     *
+     * @return the {@link StackTraceElement} of the call site or <code>null</code> if unknown
+     */
+    private static StackTraceElement getCallSite(StackTraceElement[] stackTrace)
+    {
+        for (StackTraceElement element : stackTrace)
+        {
+            if (!isInfrastructure(element.getClassName()))
+            {
+                return element;
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Determines if the specified class is part of the deferred infrastructure.
+     *
+     * @param className  the name of the class
+     *
+     * @return <code>true</code> if the class is infrastructure, <code>false</code> otherwise
+     */
+    private static boolean isInfrastructure(String className)
+    {
+        for (String infrastructure : INFRASTRUCTURE)
+        {
+            if (infrastructure.endsWith(".")
+                ? className.startsWith(infrastructure)
+                : className.equals(infrastructure) || className.startsWith(infrastructure + "$"))
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Obtains the recorded {@link Wait}s.
+     *
+     * @return the {@link Wait}s
+     */
+    public static Collection<Wait> getWaits()
+    {
+        return new ArrayList<>(WAITS.values());
+    }
+
+
+    /**
+     * Obtains the costliest {@link Wait}s (by total time) for each class from which waits were
+     * requested, ordered from the costliest class to the cheapest.
+     *
+     * @param limit  the maximum number of {@link Wait}s to return for each class
+     *
+     * @return a {@link Map} of class names to the costliest {@link Wait}s for the class
+     */
+    public static Map<String, List<Wait>> getCostliestWaits(int limit)
+    {
+        List<Wait> waits = new ArrayList<>(WAITS.values());
+
+        waits.sort(Comparator.comparingLong(Wait::getTotalNanos).reversed());
+
+        // order the classes by their total cost
+        Map<String, Long> costs = new LinkedHashMap<>();
+
+        for (Wait wait : waits)
+        {
+            costs.merge(wait.getClassName(), wait.getTotalNanos(), Long::sum);
+        }
+
+        List<String> classes = new ArrayList<>(costs.keySet());
+
+        classes.sort(Comparator.comparing(costs::get).reversed());
+
+        Map<String, List<Wait>> byClass = new LinkedHashMap<>();
+
+        for (String className : classes)
+        {
+            byClass.put(className, new ArrayList<>());
+        }
+
+        for (Wait wait : waits)
+        {
+            List<Wait> list = byClass.get(wait.getClassName());
+
+            if (list.size() < limit)
+            {
+                list.add(wait);
+            }
+        }
+
+        return byClass;
+    }
+
+
+    /**
+     * Produces a {@link Table} reporting the costliest {@link Wait}s for each class.
+     *
+     * @param limit  the maximum number of {@link Wait}s to report for each class
+     *
+     * @return a {@link Table}
+     */
+    public static Table report(int limit)
+    {
+        Table table = new Table();
+
+        table.getOptions().add(Cell.Separator.of(" | "));
+
+        table.addRow("Class",
+                     "Call Site",
+                     "Deferred",
+                     "Waits",
+                     "Attempts",
+                     "Failures",
+                     "Evaluating (ms)",
+                     "Sleeping (ms)",
+                     "Total (ms)");
+
+        for (Map.Entry<String, List<Wait>> entry : getCostliestWaits(limit).entrySet())
+        {
+            for (Wait wait : entry.getValue())
+            {
+                table.addRow(entry.getKey(),
+                             wait.getCallSite(),
+                             wait.getDescription(),
+                             Long.toString(wait.getCount()),
+                             Long.toString(wait.getAttempts()),
+                             Long.toString(wait.getFailures()),
+                             Long.toString(TimeUnit.NANOSECONDS.toMillis(wait.getEvaluatingNanos())),
+                             Long.toString(TimeUnit.NANOSECONDS.toMillis(wait.getSleepingNanos())),
+                             Long.toString(TimeUnit.NANOSECONDS.toMillis(wait.getTotalNanos())));
+            }
+        }
+
+        return table;
+    }
+
+
+    /**
+     * Exports all recorded {@link Wait}s as comma separated values, including a header line,
+     * ordered from the costliest {@link Wait} to the cheapest.
+     *
+     * @param appendable  the {@link Appendable} to which to export
+     *
+     * @throws IOException  when exporting fails
+     */
+    public static void export(Appendable appendable) throws IOException
+    {
+        List<Wait> waits = new ArrayList<>(WAITS.values());
+
+        waits.sort(Comparator.comparingLong(Wait::getTotalNanos).reversed());
+
+        appendable.append("class,callSite,deferred,waits,attempts,failures,evaluatingNanos,sleepingNanos,"
+                          + "maximumNanos\n");
+
+        for (Wait wait : waits)
+        {
+            appendable.append(String.join(",",
+                                          quote(wait.getClassName()),
+                                          quote(wait.getCallSite()),
+                                          quote(wait.getDescription()),
+                                          Long.toString(wait.getCount()),
+                                          Long.toString(wait.getAttempts()),
+                                          Long.toString(wait.getFailures()),
+                                          Long.toString(wait.getEvaluatingNanos()),
+                                          Long.toString(wait.getSleepingNanos()),
+                                          Long.toString(wait.getMaximumNanos())));
+            appendable.append('\n');
+        }
+    }
+
+
+    /**
+     * Quotes a value for inclusion in comma separated values.
+     *
+     * @param value  the value
+     *
+     * @return the quoted value
+     */
+    private static String quote(String value)
+    {
+        return value == null ? "" : "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+
+    /**
+     * The accounting of time spent by a single wait.
+     */
+    static class Accounting
+    {
+        /**
+         * The number of attempts to acquire a value.
+         */
+        int attempts;
+
+        /**
+         * The time spent evaluating (in nanoseconds).
+         */
+        long evaluatingNS;
+
+        /**
+         * The time spent sleeping (in nanoseconds).
+         */
+        long sleepingNS;
+
+        /**
+         * Was a value acquired?
+         */
+        boolean acquired;
+    }
+
+
+    /**
+     * The aggregated statistics for the waits requested from a call site.
+     */
+    public static class Wait
+    {
+        /**
+         * The name of the class from which the waits were requested.
+         */
+        private final String className;
+
+        /**
+         * The call site from which the waits were requested.
+         */
+        private final String callSite;
+
+        /**
+         * A description of the most recently waited for {@link Deferred}.
+         */
+        private volatile String description;
+
+        /**
+         * The number of waits.
+         */
+        private final LongAdder count;
+
+        /**
+         * The number of attempts to acquire values.
+         */
+        private final LongAdder attempts;
+
+        /**
+         * The number of waits that failed to acquire a value.
+         */
+        private final LongAdder failures;
+
+        /**
+         * The time spent evaluating (in nanoseconds).
+         */
+        private final LongAdder evaluatingNS;
+
+        /**
+         * The time spent sleeping (in nanoseconds).
+         */
+        private final LongAdder sleepingNS;
+
+        /**
+         * The maximum time spent by a single wait (in nanoseconds).
+         */
+        private final LongAccumulator maximumNS;
+
+
+        /**
+         * Constructs a {@link Wait}.
+         *
+         * @param className  the name of the class from which the waits were requested
+         * @param callSite   the call site from which the waits were requested
+         */
+        Wait(String className,
+             String callSite)
+        {
+            this.className    = className;
+            this.callSite     = callSite;
+            this.description  = null;
+            this.count        = new LongAdder();
+            this.attempts     = new LongAdder();
+            this.failures     = new LongAdder();
+            this.evaluatingNS = new LongAdder();
+            this.sleepingNS   = new LongAdder();
+            this.maximumNS    = new LongAccumulator(Math::max, 0);
+        }
+
+
+        /**
+         * Records the {@link Accounting} of a wait.
+         *
+         * @param deferred    the {@link Deferred} waited for
+         * @param accounting  the {@link Accounting}
+         */
+        void record(Deferred<?> deferred,
+                    Accounting  accounting)
+        {
+            String string = String.valueOf(deferred);
+
+            description = string.length() > MAXIMUM_DESCRIPTION_LENGTH
+                          ? string.substring(0, MAXIMUM_DESCRIPTION_LENGTH) + "..." : string;
+
+            count.increment();
+            attempts.add(accounting.attempts);
+            evaluatingNS.add(accounting.evaluatingNS);
+            sleepingNS.add(accounting.sleepingNS);
+            maximumNS.accumulate(accounting.evaluatingNS + accounting.sleepingNS);
+
+            if (!accounting.acquired)
+            {
+                failures.increment();
+            }
+        }
+
+
+        /**
+         * Obtains the name of the class from which the waits were requested.
+         *
+         * @return the class name
+         */
+        public String getClassName()
+        {
+            return className;
+        }
+
+
+        /**
+         * Obtains the call site from which the waits were requested.
+         *
+         * @return the call site
+         */
+        public String getCallSite()
+        {
+            return callSite;
+        }
+
+
+        /**
+         * Obtains a description of the most recently waited for {@link Deferred}.
+         *
+         * @return the description
+         */
+        public String getDescription()
+        {
+            return description;
+        }
+
+
+        /**
+         * Obtains the number of waits.
+         *
+         * @return the number of waits
+         */
+        public long getCount()
+        {
+            return count.sum();
+        }
+
+
+        /**
+         * Obtains the number of attempts to acquire values.
+         *
+         * @return the number of attempts
+         */
+        public long getAttempts()
+        {
+            return attempts.sum();
+        }
+
+
+        /**
+         * Obtains the number of waits that failed to acquire a value.
+         *
+         * @return the number of failures
+         */
+        public long getFailures()
+        {
+            return failures.sum();
+        }
+
+
+        /**
+         * Obtains the time spent evaluating {@link Deferred}s.
+         *
+         * @return the time in nanoseconds
+         */
+        public long getEvaluatingNanos()
+        {
+            return evaluatingNS.sum();
+        }
+
+
+        /**
+         * Obtains the time spent sleeping between attempts.
+         *
+         * @return the time in nanoseconds
+         */
+        public long getSleepingNanos()
+        {
+            return sleepingNS.sum();
+        }
+
+
+        /**
+         * Obtains the total time spent waiting.
+         *
+         * @return the time in nanoseconds
+         */
+        public long getTotalNanos()
+        {
+            return getEvaluatingNanos() + getSleepingNanos();
+        }
+
+
+        /**
+         * Obtains the maximum time spent by a single wait.
+         *
+         * @return the time in nanoseconds
+         */
+        public long getMaximumNanos()
+        {
+            return maximumNS.get();
+        }
+
+
+        @Override
+        public String toString()
+        {
+            return "Wait{callSite=" + callSite + ", waits=" + getCount() + ", totalMS="
+                   + TimeUnit.NANOSECONDS.toMillis(getTotalNanos()) + "}";
+        }
+    }
+}
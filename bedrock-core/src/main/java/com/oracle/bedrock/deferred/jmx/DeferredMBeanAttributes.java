@@ -0,0 +1,186 @@
+/*
+ * File: DeferredMBeanAttributes.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of 
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+package com.oracle.bedrock.deferred.jmx;
+
+import com.oracle.bedrock.deferred.Deferred;
+import com.oracle.bedrock.deferred.PermanentlyUnavailableException;
+import com.oracle.bedrock.deferred.TemporarilyUnavailableException;
+import com.oracle.bedrock.deferred.UnavailableException;
+
+import javax.management.Attribute;
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanServerConnection;
+import javax.management.ObjectName;
+import javax.management.remote.JMXConnector;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * A {@link DeferredMBeanAttributes} is a {@link Deferred} for a snapshot of
+ * multiple attributes of one or more MBeans.
+ * <p>
+ * The attributes of each MBean are acquired with a single request to the
+ * MBean server.  When the {@link ObjectName} is a pattern, the matching MBeans
+ * are first queried, after which their attributes are acquired.
+ * <p>
+ * The snapshot is a map of MBean {@link ObjectName}s to maps of attribute names and
+ * values.  Attributes that could not be read are omitted from the snapshot.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+public class DeferredMBeanAttributes implements Deferred<Map<ObjectName, Map<String, Object>>>
+{
+    /**
+     * A {@link Deferred} for the {@link JMXConnector}
+     * that should be used to determine the MBean attributes.
+     */
+    private Deferred<JMXConnector> deferredJMXConnector;
+
+    /**
+     * The {@link ObjectName} (or pattern) for the required MBeans.
+     */
+    private ObjectName objectName;
+
+    /**
+     * The names of the MBean attributes to retrieve.
+     */
+    private String[] attributeNames;
+
+
+    /**
+     * Constructs a {@link DeferredMBeanAttributes} given a {@link Deferred}
+     * for the {@link JMXConnector}, the name (or pattern) of the MBeans and the attributes.
+     *
+     * @param deferredJMXConnector  the {@link Deferred} for the
+     *                              {@link JMXConnector} from which to acquire the
+     *                              MBean attributes
+     * @param objectName            the {@link ObjectName} (or pattern) of the MBeans
+     * @param attributeNames        the names of the attributes
+     */
+    public DeferredMBeanAttributes(Deferred<JMXConnector> deferredJMXConnector,
+                                   ObjectName             objectName,
+                                   String...              attributeNames)
+    {
+        this.deferredJMXConnector = deferredJMXConnector;
+        this.objectName           = objectName;
+        this.attributeNames       = attributeNames == null ? new String[0] : attributeNames.clone();
+    }
+
+
+    @Override
+    public Map<ObjectName, Map<String, Object>> get() throws TemporarilyUnavailableException,
+                                                             PermanentlyUnavailableException
+    {
+        try
+        {
+            JMXConnector connector = deferredJMXConnector.get();
+
+            if (connector == null)
+            {
+                throw new TemporarilyUnavailableException(this);
+            }
+            else
+            {
+                MBeanServerConnection connection = connector.getMBeanServerConnection();
+
+                // determine the MBeans (ordered by name for consistent snapshots)
+                Set<ObjectName> objectNames = objectName.isPattern()
+                                              ? new TreeSet<>(connection.queryNames(objectName, null))
+                                              : Collections.singleton(objectName);
+
+                LinkedHashMap<ObjectName, Map<String, Object>> snapshot = new LinkedHashMap<>();
+
+                for (ObjectName name : objectNames)
+                {
+                    LinkedHashMap<String, Object> attributes = new LinkedHashMap<>();
+
+                    for (Attribute attribute : connection.getAttributes(name, attributeNames).asList())
+                    {
+                        attributes.put(attribute.getName(), attribute.getValue());
+                    }
+
+                    snapshot.put(name, Collections.unmodifiableMap(attributes));
+                }
+
+                return Collections.unmodifiableMap(snapshot);
+            }
+        }
+        catch (IOException e)
+        {
+            // when an IOException occurs it represents a failed attempt to use a
+            // connector that was previously available, which inevitably means that
+            // the previous connection has now failed and so must these mbeans
+            throw new PermanentlyUnavailableException(this, e);
+        }
+        catch (NullPointerException e)
+        {
+            // when an NPE occurs it means the server isn't available, but
+            // we can retry
+            throw new TemporarilyUnavailableException(this, e);
+        }
+        catch (InstanceNotFoundException e)
+        {
+            // when an instance is not found, it may be found later,
+            // so we should be able to retry
+            throw new TemporarilyUnavailableException(this, e);
+        }
+        catch (UnavailableException e)
+        {
+            // when the connector is unavailable, so are the attributes
+            throw e;
+        }
+        catch (Exception e)
+        {
+            throw new TemporarilyUnavailableException(this, e);
+        }
+    }
+
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Class<Map<ObjectName, Map<String, Object>>> getDeferredClass()
+    {
+        return (Class<Map<ObjectName, Map<String, Object>>>) (Class<?>) Map.class;
+    }
+
+
+    @Override
+    public String toString()
+    {
+        return String.format("Deferred<MBeanAttributes>{on=%s, object=%s, attributes=%s}",
+                             deferredJMXConnector,
+                             objectName,
+                             Arrays.toString(attributeNames));
+    }
+}
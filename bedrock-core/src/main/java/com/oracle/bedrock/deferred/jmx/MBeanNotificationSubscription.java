@@ -0,0 +1,767 @@
+/*
+ * File: MBeanNotificationSubscription.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of 
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+package com.oracle.bedrock.deferred.jmx;
+
+import com.oracle.bedrock.deferred.Deferred;
+import com.oracle.bedrock.deferred.DeferredSignal;
+import com.oracle.bedrock.deferred.PermanentlyUnavailableException;
+import com.oracle.bedrock.deferred.Signalling;
+import com.oracle.bedrock.deferred.TemporarilyUnavailableException;
+import com.oracle.bedrock.deferred.UnavailableException;
+
+import javax.management.Attribute;
+import javax.management.AttributeChangeNotification;
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanInfo;
+import javax.management.MBeanNotificationInfo;
+import javax.management.MBeanServerConnection;
+import javax.management.MBeanServerDelegate;
+import javax.management.MBeanServerNotification;
+import javax.management.Notification;
+import javax.management.NotificationBroadcaster;
+import javax.management.NotificationListener;
+import javax.management.ObjectName;
+import javax.management.relation.MBeanServerNotificationFilter;
+import javax.management.remote.JMXConnector;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An {@link MBeanNotificationSubscription} is a {@link NotificationListener} for the
+ * notifications of an MBean, maintaining a local cache of the last-known attribute values
+ * (from {@link AttributeChangeNotification}s) and of the most recent notifications,
+ * from which push-based {@link Deferred}s may be obtained.
+ * <p>
+ * The {@link Deferred}s provided by an {@link MBeanNotificationSubscription} are {@link Signalling},
+ * with the {@link DeferredSignal} raised on each notification, allowing waits (like an
+ * {@link com.oracle.bedrock.deferred.Ensured}) to react as soon as a notification arrives, without
+ * making remote requests to the MBean.  The attributes of the MBean are only read remotely once,
+ * to establish their initial values.
+ * <p>
+ * The {@link NotificationListener} is lazily registered when a {@link Deferred} is first
+ * evaluated, as the MBean may not yet be available.  Should the MBean be unregistered, the cached
+ * attribute values are discarded, and the {@link NotificationListener} is registered again when
+ * the MBean is registered again.  Closing the {@link MBeanNotificationSubscription} removes the
+ * {@link NotificationListener}.
+ * <p>
+ * Attributes of MBeans that aren't {@link NotificationBroadcaster}s, or that don't declare
+ * {@link AttributeChangeNotification}s (and are yet to send one for an attribute), are polled,
+ * being read remotely each time their {@link Deferred} is evaluated.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+public class MBeanNotificationSubscription implements NotificationListener, Closeable
+{
+    /**
+     * The maximum number of recent {@link Notification}s retained.
+     */
+    public static final int MAXIMUM_RECENT_NOTIFICATIONS = 1024;
+
+    /**
+     * The value used to represent <code>null</code> attribute values in the cache.
+     */
+    private static final Object NULL = new Object();
+
+    /**
+     * A {@link Deferred} for the {@link JMXConnector} that should be used to
+     * register the {@link NotificationListener}.
+     */
+    private final Deferred<JMXConnector> deferredJMXConnector;
+
+    /**
+     * The {@link ObjectName} of the MBean.
+     */
+    private final ObjectName objectName;
+
+    /**
+     * The names of the attributes to read when the {@link NotificationListener} is registered.
+     */
+    private final Set<String> attributeNames;
+
+    /**
+     * The names of the attributes that have been read remotely.
+     */
+    private final Set<String> attributesRead;
+
+    /**
+     * The names of the attributes for which an {@link AttributeChangeNotification} has been received.
+     */
+    private final Set<String> attributesNotified;
+
+    /**
+     * The last-known attribute values, by attribute name.
+     */
+    private final ConcurrentHashMap<String, Object> attributes;
+
+    /**
+     * The last {@link Notification}s, by notification type.
+     */
+    private final ConcurrentHashMap<String, Notification> lastNotifications;
+
+    /**
+     * The most recent {@link Notification}s (guarded by itself).
+     */
+    private final ArrayDeque<Notification> recentNotifications;
+
+    /**
+     * The {@link DeferredSignal} raised when a {@link Notification} is received.
+     */
+    private final DeferredSignal signal;
+
+    /**
+     * The {@link NotificationListener} for the registration and unregistration of the MBean.
+     */
+    private final NotificationListener registrationListener;
+
+    /**
+     * The asynchronous handling of the most recent registration or unregistration of the MBean,
+     * performed in the order notified (guarded by the {@link #registrationListener}).
+     */
+    private CompletableFuture<Void> registrationHandling;
+
+    /**
+     * The {@link MBeanServerConnection} with which the registration {@link NotificationListener}
+     * is registered (null when not registered).
+     */
+    private volatile MBeanServerConnection connection;
+
+    /**
+     * Is the MBean registered and this {@link NotificationListener} registered with it
+     * (when the MBean is a {@link NotificationBroadcaster})?
+     */
+    private volatile boolean subscribed;
+
+    /**
+     * Is the MBean a {@link NotificationBroadcaster}?
+     */
+    private volatile boolean broadcaster;
+
+    /**
+     * Does the MBean declare that it sends {@link AttributeChangeNotification}s?
+     */
+    private volatile boolean attributeChangesDeclared;
+
+    /**
+     * Has the {@link MBeanNotificationSubscription} been closed?
+     */
+    private volatile boolean closed;
+
+
+    /**
+     * Constructs an {@link MBeanNotificationSubscription}.
+     *
+     * @param deferredJMXConnector  the {@link Deferred} for the {@link JMXConnector}
+     * @param objectName            the {@link ObjectName} of the MBean
+     * @param attributeNames        the names of the attributes to initially read
+     */
+    public MBeanNotificationSubscription(Deferred<JMXConnector> deferredJMXConnector,
+                                         ObjectName             objectName,
+                                         String...              attributeNames)
+    {
+        this.deferredJMXConnector = deferredJMXConnector;
+        this.objectName           = objectName;
+        this.attributeNames       = ConcurrentHashMap.newKeySet();
+        this.attributesRead       = ConcurrentHashMap.newKeySet();
+        this.attributesNotified   = ConcurrentHashMap.newKeySet();
+        this.attributes           = new ConcurrentHashMap<>();
+        this.lastNotifications    = new ConcurrentHashMap<>();
+        this.recentNotifications  = new ArrayDeque<>();
+        this.signal               = new DeferredSignal();
+        this.registrationListener = this::handleRegistrationNotification;
+        this.registrationHandling = CompletableFuture.completedFuture(null);
+        this.connection           = null;
+        this.subscribed           = false;
+        this.broadcaster          = false;
+        this.closed               = false;
+
+        if (attributeNames != null)
+        {
+            this.attributeNames.addAll(Arrays.asList(attributeNames));
+        }
+    }
+
+
+    /**
+     * Obtains the {@link ObjectName} of the MBean.
+     *
+     * @return the {@link ObjectName}
+     */
+    public ObjectName getObjectName()
+    {
+        return objectName;
+    }
+
+
+    /**
+     * Obtains the {@link DeferredSignal} raised when a {@link Notification} is received.
+     *
+     * @return the {@link DeferredSignal}
+     */
+    public DeferredSignal getSignal()
+    {
+        return signal;
+    }
+
+
+    /**
+     * Determines if the {@link NotificationListener} is registered with the MBean
+     * (or the MBean is being polled when it isn't a {@link NotificationBroadcaster}).
+     *
+     * @return <code>true</code> if registered, <code>false</code> otherwise
+     */
+    public boolean isRegistered()
+    {
+        return subscribed;
+    }
+
+
+    /**
+     * Registers the {@link NotificationListener} with the MBean (if not already registered),
+     * after which the attributes to initially read are read.
+     *
+     * @throws TemporarilyUnavailableException  when the MBean is not yet available
+     * @throws PermanentlyUnavailableException  when the MBean can never be available
+     */
+    public synchronized void register() throws TemporarilyUnavailableException, PermanentlyUnavailableException
+    {
+        if (closed)
+        {
+            throw new PermanentlyUnavailableException(deferredJMXConnector);
+        }
+
+        if (!subscribed)
+        {
+            try
+            {
+                MBeanServerConnection connection = this.connection;
+
+                if (connection == null)
+                {
+                    JMXConnector connector = deferredJMXConnector.get();
+
+                    if (connector == null)
+                    {
+                        throw new TemporarilyUnavailableException(deferredJMXConnector);
+                    }
+
+                    connection = connector.getMBeanServerConnection();
+
+                    // listen for the MBean being (re)registered and unregistered, so that we can (re)subscribe
+                    MBeanServerNotificationFilter filter = new MBeanServerNotificationFilter();
+
+                    filter.enableObjectName(objectName);
+
+                    connection.addNotificationListener(MBeanServerDelegate.DELEGATE_NAME,
+                                                       registrationListener,
+                                                       filter,
+                                                       null);
+
+                    this.connection = connection;
+                }
+
+                broadcaster = connection.isInstanceOf(objectName, NotificationBroadcaster.class.getName());
+
+                if (broadcaster)
+                {
+                    attributeChangesDeclared = declaresAttributeChanges(connection.getMBeanInfo(objectName));
+
+                    // register before reading the attributes, so that no changes are missed
+                    connection.addNotificationListener(objectName, this, null, null);
+                }
+
+                subscribed = true;
+            }
+            catch (InstanceNotFoundException e)
+            {
+                // the mbean may be registered later, so we can retry
+                throw new TemporarilyUnavailableException(deferredJMXConnector, e);
+            }
+            catch (IOException e)
+            {
+                // the connector has failed
+                throw new PermanentlyUnavailableException(deferredJMXConnector, e);
+            }
+            catch (UnavailableException e)
+            {
+                throw e;
+            }
+            catch (Exception e)
+            {
+                throw new TemporarilyUnavailableException(deferredJMXConnector, e);
+            }
+
+            read(attributeNames.toArray(new String[attributeNames.size()]));
+        }
+    }
+
+
+    /**
+     * Determines if the specified {@link MBeanInfo} declares that the MBean
+     * sends {@link AttributeChangeNotification}s.
+     *
+     * @param info  the {@link MBeanInfo}
+     *
+     * @return <code>true</code> if {@link AttributeChangeNotification}s are declared
+     */
+    private static boolean declaresAttributeChanges(MBeanInfo info)
+    {
+        for (MBeanNotificationInfo notificationInfo : info.getNotifications())
+        {
+            if (Arrays.asList(notificationInfo.getNotifTypes()).contains(AttributeChangeNotification.ATTRIBUTE_CHANGE))
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Handles the registration and unregistration of the MBean asynchronously, so that the
+     * {@link Thread} delivering JMX notifications is never blocked by (re)registering.
+     *
+     * @param notification  the {@link MBeanServerNotification}
+     * @param handback      the handback
+     */
+    private void handleRegistrationNotification(Notification notification,
+                                                Object       handback)
+    {
+        if (notification instanceof MBeanServerNotification
+            && objectName.equals(((MBeanServerNotification) notification).getMBeanName()))
+        {
+            synchronized (registrationListener)
+            {
+                // handle notifications in order, ignoring failures so that later notifications are still handled
+                registrationHandling = registrationHandling.thenRunAsync(() -> handleRegistration(notification))
+                .exceptionally(throwable -> null);
+            }
+        }
+    }
+
+
+    /**
+     * Handles the registration and unregistration of the MBean, discarding the cached attribute values
+     * when the MBean is unregistered and registering the {@link NotificationListener} when it's registered.
+     *
+     * @param notification  the {@link MBeanServerNotification}
+     */
+    private void handleRegistration(Notification notification)
+    {
+        if (MBeanServerNotification.UNREGISTRATION_NOTIFICATION.equals(notification.getType()))
+        {
+            synchronized (this)
+            {
+                subscribed = false;
+
+                attributes.clear();
+                attributesRead.clear();
+                attributesNotified.clear();
+            }
+        }
+        else if (MBeanServerNotification.REGISTRATION_NOTIFICATION.equals(notification.getType()))
+        {
+            try
+            {
+                register();
+            }
+            catch (UnavailableException e)
+            {
+                // SKIP: we'll register when a deferred is next evaluated
+            }
+        }
+
+        signal.signal();
+    }
+
+
+    /**
+     * Determines if the specified attribute is polled, being read each time it's requested,
+     * as the MBean isn't known to send {@link AttributeChangeNotification}s for it.
+     *
+     * @param name  the name of the attribute
+     *
+     * @return <code>true</code> if the attribute is polled
+     */
+    private boolean isPolled(String name)
+    {
+        return !broadcaster || (!attributeChangesDeclared &&!attributesNotified.contains(name));
+    }
+
+
+    /**
+     * Reads the current value of the specified attribute from the MBean, replacing
+     * the cached value.
+     *
+     * @param name  the name of the attribute
+     *
+     * @throws TemporarilyUnavailableException  when the MBean is no longer registered
+     */
+    private void poll(String name) throws TemporarilyUnavailableException
+    {
+        MBeanServerConnection connection = this.connection;
+
+        if (connection != null)
+        {
+            try
+            {
+                Object value = connection.getAttribute(objectName, name);
+
+                attributes.put(name, value == null ? NULL : value);
+                attributesRead.add(name);
+            }
+            catch (InstanceNotFoundException e)
+            {
+                // the mbean may be registered again, so we can retry
+                throw new TemporarilyUnavailableException(deferredJMXConnector, e);
+            }
+            catch (Exception e)
+            {
+                // SKIP: the last-known value (if any) will be used
+            }
+        }
+    }
+
+
+    /**
+     * Reads the specified attributes from the MBean, caching their values unless a
+     * more recent value has been provided by a {@link Notification}.
+     *
+     * @param names  the names of the attributes
+     */
+    private void read(String... names)
+    {
+        MBeanServerConnection connection = this.connection;
+
+        if (connection != null && names.length > 0)
+        {
+            try
+            {
+                for (Attribute attribute : connection.getAttributes(objectName, names).asList())
+                {
+                    attributes.putIfAbsent(attribute.getName(),
+                                           attribute.getValue() == null ? NULL : attribute.getValue());
+                }
+
+                attributesRead.addAll(Arrays.asList(names));
+            }
+            catch (Exception e)
+            {
+                // SKIP: the attributes will be reported as unavailable
+            }
+        }
+    }
+
+
+    @Override
+    public void handleNotification(Notification notification,
+                                   Object       handback)
+    {
+        if (notification instanceof AttributeChangeNotification)
+        {
+            AttributeChangeNotification change = (AttributeChangeNotification) notification;
+
+            attributes.put(change.getAttributeName(), change.getNewValue() == null ? NULL : change.getNewValue());
+            attributesNotified.add(change.getAttributeName());
+        }
+
+        lastNotifications.put(notification.getType(), notification);
+
+        synchronized (recentNotifications)
+        {
+            if (recentNotifications.size() >= MAXIMUM_RECENT_NOTIFICATIONS)
+            {
+                recentNotifications.removeFirst();
+            }
+
+            recentNotifications.addLast(notification);
+        }
+
+        signal.signal();
+    }
+
+
+    /**
+     * Obtains the most recent {@link Notification}s received, oldest first.
+     *
+     * @return the recent {@link Notification}s
+     */
+    public List<Notification> getNotifications()
+    {
+        synchronized (recentNotifications)
+        {
+            return new ArrayList<>(recentNotifications);
+        }
+    }
+
+
+    /**
+     * Obtains a push-based {@link Deferred} for the last-known value of an MBean attribute.
+     * <p>
+     * The attribute value is read once from the MBean, after which it's only updated
+     * by {@link AttributeChangeNotification}s.
+     *
+     * @param attributeName   the name of the attribute
+     * @param attributeClass  the {@link Class} of the attribute value
+     * @param <T>             the type of the attribute value
+     *
+     * @return a {@link Deferred} for the attribute value
+     */
+    public <T> Deferred<T> getDeferredAttribute(String   attributeName,
+                                                Class<T> attributeClass)
+    {
+        attributeNames.add(attributeName);
+
+        return new DeferredAttribute<>(attributeName, attributeClass);
+    }
+
+
+    /**
+     * Obtains a push-based {@link Deferred} for the last {@link Notification} of
+     * the specified type received.
+     *
+     * @param type  the type of {@link Notification}
+     *
+     * @return a {@link Deferred} for the last {@link Notification} of the type
+     */
+    public Deferred<Notification> getDeferredNotification(String type)
+    {
+        return new DeferredNotification(type);
+    }
+
+
+    @Override
+    public synchronized void close()
+    {
+        closed = true;
+
+        if (connection != null)
+        {
+            try
+            {
+                connection.removeNotificationListener(MBeanServerDelegate.DELEGATE_NAME, registrationListener);
+            }
+            catch (Exception e)
+            {
+                // SKIP: we don't care if an exception occurs - we're closing
+            }
+
+            if (subscribed && broadcaster)
+            {
+                try
+                {
+                    connection.removeNotificationListener(objectName, this);
+                }
+                catch (Exception e)
+                {
+                    // SKIP: we don't care if an exception occurs - we're closing
+                }
+            }
+
+            connection = null;
+            subscribed = false;
+        }
+
+        signal.signal();
+    }
+
+
+    @Override
+    public String toString()
+    {
+        return String.format("MBeanNotificationSubscription{on=%s, object=%s}", deferredJMXConnector, objectName);
+    }
+
+
+    /**
+     * A push-based {@link Deferred} for the last-known value of an attribute.
+     *
+     * @param <T>  the type of the attribute value
+     */
+    private class DeferredAttribute<T> implements Deferred<T>, Signalling
+    {
+        /**
+         * The name of the attribute.
+         */
+        private final String attributeName;
+
+        /**
+         * The {@link Class} of the attribute value.
+         */
+        private final Class<T> attributeClass;
+
+
+        /**
+         * Constructs a {@link DeferredAttribute}.
+         *
+         * @param attributeName   the name of the attribute
+         * @param attributeClass  the {@link Class} of the attribute value
+         */
+        DeferredAttribute(String   attributeName,
+                          Class<T> attributeClass)
+        {
+            this.attributeName  = attributeName;
+            this.attributeClass = attributeClass;
+        }
+
+
+        @Override
+        public T get() throws TemporarilyUnavailableException, PermanentlyUnavailableException
+        {
+            register();
+
+            if (isPolled(attributeName))
+            {
+                poll(attributeName);
+            }
+
+            Object value = attributes.get(attributeName);
+
+            // read attributes requested after registration (once)
+            if (value == null &&!attributesRead.contains(attributeName))
+            {
+                read(attributeName);
+
+                value = attributes.get(attributeName);
+            }
+
+            if (value == null)
+            {
+                throw new TemporarilyUnavailableException(this);
+            }
+
+            try
+            {
+                return value == NULL ? null : attributeClass.cast(value);
+            }
+            catch (ClassCastException e)
+            {
+                // when we can't cast to the required type, we can't ever acquire the result
+                throw new PermanentlyUnavailableException(this, e);
+            }
+        }
+
+
+        @Override
+        public Class<T> getDeferredClass()
+        {
+            return attributeClass;
+        }
+
+
+        @Override
+        public DeferredSignal getSignal()
+        {
+            return signal;
+        }
+
+
+        @Override
+        public String toString()
+        {
+            return String.format("Deferred<MBeanAttributeNotification>{object=%s, attribute=%s, class=%s}",
+                                 objectName,
+                                 attributeName,
+                                 attributeClass);
+        }
+    }
+
+
+    /**
+     * A push-based {@link Deferred} for the last {@link Notification} of a type.
+     */
+    private class DeferredNotification implements Deferred<Notification>, Signalling
+    {
+        /**
+         * The type of {@link Notification}.
+         */
+        private final String type;
+
+
+        /**
+         * Constructs a {@link DeferredNotification}.
+         *
+         * @param type  the type of {@link Notification}
+         */
+        DeferredNotification(String type)
+        {
+            this.type = type;
+        }
+
+
+        @Override
+        public Notification get() throws TemporarilyUnavailableException, PermanentlyUnavailableException
+        {
+            register();
+
+            if (!broadcaster)
+            {
+                // notifications will never be sent by the mbean
+                throw new PermanentlyUnavailableException(this);
+            }
+
+            Notification notification = lastNotifications.get(type);
+
+            if (notification == null)
+            {
+                throw new TemporarilyUnavailableException(this);
+            }
+
+            return notification;
+        }
+
+
+        @Override
+        public Class<Notification> getDeferredClass()
+        {
+            return Notification.class;
+        }
+
+
+        @Override
+        public DeferredSignal getSignal()
+        {
+            return signal;
+        }
+
+
+        @Override
+        public String toString()
+        {
+            return String.format("Deferred<MBeanNotification>{object=%s, type=%s}", objectName, type);
+        }
+    }
+}
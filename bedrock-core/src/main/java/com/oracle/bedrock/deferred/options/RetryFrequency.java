@@ -27,6 +27,7 @@ package com.oracle.bedrock.deferred.options;
 
 import com.oracle.bedrock.Option;
 import com.oracle.bedrock.OptionsByType;
+import com.oracle.bedrock.deferred.AdaptiveRetryIterator;
 import com.oracle.bedrock.deferred.Ensured;
 import com.oracle.bedrock.util.Duration;
 import com.oracle.bedrock.util.ExponentialIterator;
@@ -227,4 +228,19 @@ public class RetryFrequency implements Option
                                                               duration -> Duration.of(duration,
                                                                                       TimeUnit.MILLISECONDS)));
     }
+
+
+    /**
+     * Obtains an adaptive {@link RetryFrequency}, where by retry delays are adjusted based on
+     * the observed time taken to acquire a {@link com.oracle.bedrock.deferred.Deferred} value,
+     * bounding both the latency to detect a change and the load placed on the target.
+     *
+     * @return a {@link RetryFrequency}
+     *
+     * @see AdaptiveRetryIterator
+     */
+    public static RetryFrequency adaptive()
+    {
+        return new RetryFrequency(AdaptiveRetryIterator::new);
+    }
 }
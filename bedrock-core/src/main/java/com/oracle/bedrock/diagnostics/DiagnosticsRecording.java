@@ -32,6 +32,7 @@ import com.oracle.bedrock.table.Row;
 import com.oracle.bedrock.table.Table;
 
 import java.util.Stack;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -44,6 +45,10 @@ import java.util.logging.Logger;
  * While it is possible to use them outside of a try-with-resources block,
  * care must be taken to close them correctly to prevent memory-leaks.
  * <p>
+ * Diagnostics information that is expensive to produce should be added using a
+ * {@link Supplier}, in which case it's only produced when the {@link DiagnosticsRecording}
+ * is actually logged.
+ * <p>
  * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
  * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
  *
@@ -155,6 +160,25 @@ public class DiagnosticsRecording implements AutoCloseable
     }
 
 
+    /**
+     * Lazily adds a {@link Row} to the {@link DiagnosticsRecording}.  The {@link Supplier}
+     * is only called when the {@link DiagnosticsRecording} is logged.
+     *
+     * @param row  the {@link Supplier} of the {@link Row} to add to the {@link DiagnosticsRecording}
+     *
+     * @return the {@link DiagnosticsRecording} to permit fluent-style method calls
+     */
+    public DiagnosticsRecording add(Supplier<Row> row)
+    {
+        if (row != null)
+        {
+            table.addRow(row);
+        }
+
+        return this;
+    }
+
+
     /**
      * Adds a {@link Row} consisting of a collection of {@link Cell}s to
      * the {@link DiagnosticsRecording}.
@@ -231,6 +255,28 @@ public class DiagnosticsRecording implements AutoCloseable
     }
 
 
+    /**
+     * Determines if the {@link DiagnosticsRecording} will be logged when closed, based on the
+     * {@link Logger} and {@link Level} of the root {@link DiagnosticsRecording}.
+     *
+     * @return <code>true</code> if the {@link DiagnosticsRecording} will be logged
+     */
+    public boolean isEnabled()
+    {
+        if (parent == null)
+        {
+            Logger logger = this.logger == null ? LOGGER : this.logger;
+            Level  level  = this.level == null ? Level.INFO : this.level;
+
+            return logger.isLoggable(level);
+        }
+        else
+        {
+            return parent.isEnabled();
+        }
+    }
+
+
     /**
      * Creates a new {@link DiagnosticsRecording} with the specified name.
      *
@@ -304,11 +350,15 @@ public class DiagnosticsRecording implements AutoCloseable
                 Logger logger = this.logger == null ? LOGGER : this.logger;
                 Level  level  = this.level == null ? Level.INFO : this.level;
 
-                logger.log(level,
-                           "Oracle Bedrock " + Bedrock.getVersion() + ": " + name + " ...\n"
-                           + "------------------------------------------------------------------------\n"
-                           + table.toString() + "\n"                 
-                           + "------------------------------------------------------------------------\n");
+                // only render the recording when it will be logged
+                if (logger.isLoggable(level))
+                {
+                    logger.log(level,
+                               "Oracle Bedrock " + Bedrock.getVersion() + ": " + name + " ...\n"
+                               + "------------------------------------------------------------------------\n"
+                               + table.toString() + "\n"
+                               + "------------------------------------------------------------------------\n");
+                }
             }
             else
             {
@@ -319,8 +369,8 @@ public class DiagnosticsRecording implements AutoCloseable
                 }
                 else
                 {
-                    // add the table to the parent when a name was provided
-                    parent.table.addRow(name, table.toString());
+                    // lazily add the table to the parent when a name was provided
+                    parent.table.addRow(() -> Row.of(name, table.toString()));
                 }
             }
         }
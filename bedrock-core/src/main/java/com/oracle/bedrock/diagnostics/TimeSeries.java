@@ -0,0 +1,528 @@
+/*
+ * File: TimeSeries.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+package com.oracle.bedrock.diagnostics;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A {@link TimeSeries} is a fixed-capacity ring-buffer of timestamped numeric samples,
+ * held in primitive arrays.  When full, adding a sample discards the oldest sample.
+ * <p>
+ * Samples are indexed from oldest (0) to newest ({@link #size()} - 1).  Summaries,
+ * including rates and percentiles, are calculated over the retained samples.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+public class TimeSeries
+{
+    /**
+     * The name of the {@link TimeSeries}.
+     */
+    private final String name;
+
+    /**
+     * The timestamps (in milliseconds since the epoch) of the samples.
+     */
+    private final long[] timestamps;
+
+    /**
+     * The values of the samples.
+     */
+    private final double[] values;
+
+    /**
+     * The index at which the next sample will be written.
+     */
+    private int next;
+
+    /**
+     * The number of samples.
+     */
+    private int size;
+
+
+    /**
+     * Constructs a {@link TimeSeries}.
+     *
+     * @param name      the name of the {@link TimeSeries}
+     * @param capacity  the maximum number of samples to retain
+     */
+    public TimeSeries(String name,
+                      int    capacity)
+    {
+        if (capacity <= 0)
+        {
+            throw new IllegalArgumentException("The capacity of a TimeSeries must be positive");
+        }
+
+        this.name       = name;
+        this.timestamps = new long[capacity];
+        this.values     = new double[capacity];
+        this.next       = 0;
+        this.size       = 0;
+    }
+
+
+    /**
+     * Obtains the name of the {@link TimeSeries}.
+     *
+     * @return the name
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+
+    /**
+     * Obtains the maximum number of samples retained by the {@link TimeSeries}.
+     *
+     * @return the capacity
+     */
+    public int getCapacity()
+    {
+        return values.length;
+    }
+
+
+    /**
+     * Adds a sample to the {@link TimeSeries}, discarding the oldest sample when full.
+     *
+     * @param timestamp  the time of the sample (in milliseconds since the epoch)
+     * @param value      the value of the sample
+     */
+    public synchronized void add(long   timestamp,
+                                 double value)
+    {
+        timestamps[next] = timestamp;
+        values[next]     = value;
+
+        next             = (next + 1) % values.length;
+        size             = Math.min(size + 1, values.length);
+    }
+
+
+    /**
+     * Obtains the number of samples in the {@link TimeSeries}.
+     *
+     * @return the number of samples
+     */
+    public synchronized int size()
+    {
+        return size;
+    }
+
+
+    /**
+     * Obtains the timestamp of the specified sample.
+     *
+     * @param index  the index of the sample (0 being the oldest)
+     *
+     * @return the timestamp (in milliseconds since the epoch)
+     */
+    public synchronized long getTimestamp(int index)
+    {
+        return timestamps[offset(index)];
+    }
+
+
+    /**
+     * Obtains the value of the specified sample.
+     *
+     * @param index  the index of the sample (0 being the oldest)
+     *
+     * @return the value
+     */
+    public synchronized double getValue(int index)
+    {
+        return values[offset(index)];
+    }
+
+
+    /**
+     * Obtains the value of the newest sample.
+     *
+     * @return the newest value or {@link Double#NaN} when there are no samples
+     */
+    public synchronized double getLatest()
+    {
+        return size == 0 ? Double.NaN : getValue(size - 1);
+    }
+
+
+    /**
+     * Obtains the minimum value of the samples.
+     *
+     * @return the minimum value or {@link Double#NaN} when there are no samples
+     */
+    public synchronized double getMinimum()
+    {
+        return size == 0 ? Double.NaN : Arrays.stream(copyOfValues()).min().getAsDouble();
+    }
+
+
+    /**
+     * Obtains the maximum value of the samples.
+     *
+     * @return the maximum value or {@link Double#NaN} when there are no samples
+     */
+    public synchronized double getMaximum()
+    {
+        return size == 0 ? Double.NaN : Arrays.stream(copyOfValues()).max().getAsDouble();
+    }
+
+
+    /**
+     * Obtains the mean value of the samples.
+     *
+     * @return the mean value or {@link Double#NaN} when there are no samples
+     */
+    public synchronized double getMean()
+    {
+        return size == 0 ? Double.NaN : Arrays.stream(copyOfValues()).average().getAsDouble();
+    }
+
+
+    /**
+     * Obtains the specified percentile of the sample values, using the nearest-rank method.
+     *
+     * @param percentile  the percentile (between 0 and 100)
+     *
+     * @return the percentile value or {@link Double#NaN} when there are no samples
+     */
+    public synchronized double getPercentile(double percentile)
+    {
+        if (size == 0)
+        {
+            return Double.NaN;
+        }
+
+        double[] sorted = copyOfValues();
+
+        Arrays.sort(sorted);
+
+        int rank = (int) Math.ceil(Math.max(0, Math.min(100, percentile)) / 100.0 * sorted.length);
+
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+
+    /**
+     * Obtains the average rate of change per second between the oldest and newest samples,
+     * typically used for monotonically increasing counters.
+     *
+     * @return the rate per second or {@link Double#NaN} when there are fewer than two samples
+     *         or they have the same timestamp
+     */
+    public synchronized double getRatePerSecond()
+    {
+        if (size < 2)
+        {
+            return Double.NaN;
+        }
+
+        long elapsedMS = getTimestamp(size - 1) - getTimestamp(0);
+
+        return elapsedMS <= 0 ? Double.NaN : (getValue(size - 1) - getValue(0)) * 1000.0 / elapsedMS;
+    }
+
+
+    /**
+     * Writes the samples as comma-separated-values, one sample per line, with the
+     * columns being the name, timestamp and value (without a header).
+     *
+     * @param appendable  the {@link Appendable} to which to write
+     *
+     * @throws IOException when writing fails
+     */
+    public synchronized void writeCSV(Appendable appendable) throws IOException
+    {
+        for (int i = 0; i < size; i++)
+        {
+            appendable.append(name).append(',');
+            appendable.append(Long.toString(getTimestamp(i))).append(',');
+            appendable.append(Double.toString(getValue(i))).append('\n');
+        }
+    }
+
+
+    /**
+     * Writes the {@link TimeSeries} as a JSON object, with the name, timestamps and values.
+     *
+     * @param appendable  the {@link Appendable} to which to write
+     *
+     * @throws IOException when writing fails
+     */
+    public synchronized void writeJSON(Appendable appendable) throws IOException
+    {
+        appendable.append("{\"name\":\"");
+
+        for (char c : name.toCharArray())
+        {
+            if (c == '"' || c == '\\')
+            {
+                appendable.append('\\').append(c);
+            }
+            else if (c < ' ')
+            {
+                appendable.append(String.format("\\u%04x", (int) c));
+            }
+            else
+            {
+                appendable.append(c);
+            }
+        }
+
+        appendable.append("\",\"timestamps\":[");
+
+        for (int i = 0; i < size; i++)
+        {
+            appendable.append(i == 0 ? "" : ",").append(Long.toString(getTimestamp(i)));
+        }
+
+        appendable.append("],\"values\":[");
+
+        for (int i = 0; i < size; i++)
+        {
+            double value = getValue(i);
+
+            appendable.append(i == 0 ? "" : ",");
+
+            // JSON doesn't support NaN or infinities
+            appendable.append(Double.isNaN(value) || Double.isInfinite(value) ? "null" : Double.toString(value));
+        }
+
+        appendable.append("]}");
+    }
+
+
+    @Override
+    public synchronized String toString()
+    {
+        return String.format("TimeSeries{name=%s, size=%d, capacity=%d}", name, size, values.length);
+    }
+
+
+    /**
+     * Merges the samples of the specified {@link TimeSeries} into a new {@link TimeSeries},
+     * ordered by timestamp.
+     * <p>
+     * The samples of the {@link TimeSeries} are interleaved, so the summaries of the merged
+     * {@link TimeSeries}, like rates, are meaningless when the {@link TimeSeries} sample different
+     * sources.  Use {@link #sum(String, long, Collection)} to aggregate the same metric from several
+     * sources.
+     *
+     * @param name    the name of the merged {@link TimeSeries}
+     * @param series  the {@link TimeSeries} to merge
+     *
+     * @return a new {@link TimeSeries} containing all of the samples
+     */
+    public static TimeSeries merge(String                 name,
+                                   Collection<TimeSeries> series)
+    {
+        int      count      = 0;
+        long[]   timestamps = new long[0];
+        double[] values     = new double[0];
+
+        for (TimeSeries timeSeries : series)
+        {
+            synchronized (timeSeries)
+            {
+                timestamps = Arrays.copyOf(timestamps, count + timeSeries.size);
+                values     = Arrays.copyOf(values, count + timeSeries.size);
+
+                for (int i = 0; i < timeSeries.size; i++)
+                {
+                    timestamps[count] = timeSeries.getTimestamp(i);
+                    values[count]     = timeSeries.getValue(i);
+                    count++;
+                }
+            }
+        }
+
+        // order the samples by timestamp
+        Integer[] order = new Integer[count];
+
+        for (int i = 0; i < count; i++)
+        {
+            order[i] = i;
+        }
+
+        long[] sortTimestamps = timestamps;
+
+        Arrays.sort(order, (a, b) -> Long.compare(sortTimestamps[a], sortTimestamps[b]));
+
+        TimeSeries merged = new TimeSeries(name, Math.max(1, count));
+
+        for (int i : order)
+        {
+            merged.add(timestamps[i], values[i]);
+        }
+
+        return merged;
+    }
+
+
+    /**
+     * Sums the specified {@link TimeSeries} into a new {@link TimeSeries}, for example to aggregate
+     * the same metric sampled from several applications, with a sample for each interval of time.
+     * <p>
+     * The value for an interval is the sum of the latest sample of each {@link TimeSeries}
+     * taken before the end of the interval, so that a {@link TimeSeries} that missed a sample
+     * contributes its previous value.  Intervals start from the first in which every
+     * {@link TimeSeries} has been sampled, so that the rate of the sum isn't distorted by
+     * {@link TimeSeries} that started late.  {@link Double#NaN} samples and empty
+     * {@link TimeSeries} are ignored.
+     *
+     * @param name        the name of the summed {@link TimeSeries}
+     * @param intervalMS  the interval of time (in milliseconds) for each sample, typically
+     *                    the sampling interval of the {@link TimeSeries}
+     * @param series      the {@link TimeSeries} to sum
+     *
+     * @return a new {@link TimeSeries} containing the sum for each interval of time
+     */
+    public static TimeSeries sum(String                 name,
+                                 long                   intervalMS,
+                                 Collection<TimeSeries> series)
+    {
+        if (intervalMS <= 0)
+        {
+            throw new IllegalArgumentException("The interval must be positive");
+        }
+
+        List<long[]>   timestamps = new ArrayList<>();
+        List<double[]> values     = new ArrayList<>();
+        int            capacity   = 1;
+        long           first      = Long.MIN_VALUE;
+        long           last       = Long.MIN_VALUE;
+
+        // take a consistent copy of each series, without the unavailable samples
+        for (TimeSeries timeSeries : series)
+        {
+            synchronized (timeSeries)
+            {
+                long[]   sampleTimestamps = new long[timeSeries.size];
+                double[] sampleValues     = new double[timeSeries.size];
+                int      count            = 0;
+
+                for (int i = 0; i < timeSeries.size; i++)
+                {
+                    if (!Double.isNaN(timeSeries.getValue(i)))
+                    {
+                        sampleTimestamps[count] = timeSeries.getTimestamp(i);
+                        sampleValues[count]     = timeSeries.getValue(i);
+                        count++;
+                    }
+                }
+
+                if (count > 0)
+                {
+                    timestamps.add(Arrays.copyOf(sampleTimestamps, count));
+                    values.add(Arrays.copyOf(sampleValues, count));
+
+                    capacity = Math.max(capacity, timeSeries.values.length);
+                    first    = Math.max(first, sampleTimestamps[0]);
+                    last     = Math.max(last, sampleTimestamps[count - 1]);
+                }
+            }
+        }
+
+        TimeSeries summed = new TimeSeries(name, capacity);
+
+        if (timestamps.isEmpty())
+        {
+            return summed;
+        }
+
+        int[] cursors = new int[timestamps.size()];
+
+        for (long start = first - Math.floorMod(first, intervalMS); start <= last; start += intervalMS)
+        {
+            double sum = 0;
+
+            for (int i = 0; i < cursors.length; i++)
+            {
+                long[] sampleTimestamps = timestamps.get(i);
+
+                // advance to the latest sample before the end of the interval
+                while (cursors[i] + 1 < sampleTimestamps.length
+                       && sampleTimestamps[cursors[i] + 1] < start + intervalMS)
+                {
+                    cursors[i]++;
+                }
+
+                sum += values.get(i)[cursors[i]];
+            }
+
+            summed.add(start, sum);
+        }
+
+        return summed;
+    }
+
+
+    /**
+     * Obtains a copy of the sample values (oldest first).
+     *
+     * @return the sample values
+     */
+    private double[] copyOfValues()
+    {
+        double[] copy = new double[size];
+
+        for (int i = 0; i < size; i++)
+        {
+            copy[i] = getValue(i);
+        }
+
+        return copy;
+    }
+
+
+    /**
+     * Determines the offset in the arrays of the specified sample index.
+     *
+     * @param index  the index of the sample (0 being the oldest)
+     *
+     * @return the offset in the arrays
+     */
+    private int offset(int index)
+    {
+        if (index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+
+        return (next - size + index + values.length) % values.length;
+    }
+}
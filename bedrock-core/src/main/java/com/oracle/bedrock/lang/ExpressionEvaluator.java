@@ -30,14 +30,25 @@ import com.oracle.bedrock.annotations.Internal;
 import com.oracle.bedrock.options.Variable;
 import com.oracle.bedrock.options.Variables;
 
+import javax.el.ELContext;
+import javax.el.ELManager;
 import javax.el.ELProcessor;
+import javax.el.ExpressionFactory;
 import javax.el.StandardELContext;
+import javax.el.ValueExpression;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 /**
  * Evaluates Java Expression Language expressions.
  * <p>
+ * Expressions are compiled once and shared by all {@link ExpressionEvaluator}s,
+ * with {@link Variable}s resolved using the context of each {@link ExpressionEvaluator}.
+ * Strings not containing expressions are returned without using the Java Expression
+ * Language, in which case the context of an {@link ExpressionEvaluator} is never created.
+ * <p>
  * Copyright (c) 2016. All Rights Reserved. Oracle Corporation.<br>
  * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
  *
@@ -50,10 +61,32 @@ import java.util.regex.Pattern;
 public class ExpressionEvaluator
 {
     /**
-     * The {@link ELProcessor} to use for evaluating expressions.
+     * The maximum number of {@link CompiledExpression}s to cache.
+     */
+    private static final int MAXIMUM_CACHED_EXPRESSIONS = 1024;
+
+    /**
+     * The {@link CompiledExpression}s, keyed by the text of the expression.
+     */
+    private static final ConcurrentHashMap<String, CompiledExpression> COMPILED_EXPRESSIONS =
+        new ConcurrentHashMap<>();
+
+    /**
+     * The {@link ExpressionFactory} used to compile expressions.
+     */
+    private static final ExpressionFactory EXPRESSION_FACTORY = ELManager.getExpressionFactory();
+
+    /**
+     * The {@link ELProcessor} to use for evaluating expressions
+     * (lazily created when an expression is first evaluated).
      */
     private ELProcessor processor;
 
+    /**
+     * The {@link Variable}s defined before the {@link ELProcessor} was created.
+     */
+    private ArrayList<Variable> pendingVariables;
+
 
     /**
      * Constructs a default {@link ExpressionEvaluator} without any established
@@ -94,8 +127,9 @@ public class ExpressionEvaluator
      */
     public ExpressionEvaluator(Variables variables)
     {
-        // create an ELProcessor that we'll use to perform the evaluation
-        processor = new ELProcessor();
+        // the ELProcessor is only created when an expression needs to be evaluated
+        processor        = null;
+        pendingVariables = new ArrayList<>();
 
         // add all of the variables to the processor (to create a context)
         for (Variable variable : variables)
@@ -105,6 +139,31 @@ public class ExpressionEvaluator
     }
 
 
+    /**
+     * Obtains the {@link ELProcessor} for evaluating expressions, creating it and
+     * defining the pending {@link Variable}s when required.
+     *
+     * @return the {@link ELProcessor}
+     */
+    private ELProcessor getProcessor()
+    {
+        if (processor == null)
+        {
+            // create an ELProcessor that we'll use to perform the evaluation
+            processor = new ELProcessor();
+
+            for (Variable variable : pendingVariables)
+            {
+                defineVariableWithProcessor(variable);
+            }
+
+            pendingVariables = null;
+        }
+
+        return processor;
+    }
+
+
     /**
      * Defines a new {@link Variable} for the {@link ExpressionEvaluator}.
      *
@@ -124,6 +183,24 @@ public class ExpressionEvaluator
      * @param variable  the {@link Variable} to define
      */
     public void defineVariable(Variable variable)
+    {
+        if (processor == null)
+        {
+            pendingVariables.add(variable);
+        }
+        else
+        {
+            defineVariableWithProcessor(variable);
+        }
+    }
+
+
+    /**
+     * Defines a new {@link Variable} using the {@link ELProcessor}.
+     *
+     * @param variable  the {@link Variable} to define
+     */
+    private void defineVariableWithProcessor(Variable variable)
     {
         // when a variable name contains periods, we automatically create maps to represent the chain of variable names
         // as maps of maps
@@ -212,84 +289,181 @@ public class ExpressionEvaluator
         // iii). the expression contains zero or more ${expression}s (ie: a composite), in which case we have to
         // resolve each ${expression} and replace them in the string, after which we return the resulting string.
 
-        Object result = null;
-
-        // is the expression a composite string
-        boolean isCompositeExpression = false;
-
-        // we may need to build a string containing the result, before we can produce a result
-        StringBuilder builder = new StringBuilder();
+        Object result;
 
-        for (int index = 0; index < expression.length(); index++)
+        if (!expression.isEmpty() && expression.indexOf("${") < 0 && expression.indexOf('\\') < 0)
         {
-            if (expression.startsWith("\\$\\{", index))
-            {
-                builder.append("${");
-                index++;
-                isCompositeExpression = true;
-            }
-            else if (expression.startsWith("\\}", index))
+            // a simple value (without expressions or escapes) is returned as is
+            result = expression;
+        }
+        else
+        {
+            CompiledExpression compiled = COMPILED_EXPRESSIONS.get(expression);
+
+            if (compiled == null)
             {
-                builder.append("}");
-                index++;
-                isCompositeExpression = true;
+                compiled = new CompiledExpression(expression);
+
+                // prevent an unbounded number of compiled expressions
+                if (COMPILED_EXPRESSIONS.size() >= MAXIMUM_CACHED_EXPRESSIONS)
+                {
+                    COMPILED_EXPRESSIONS.clear();
+                }
+
+                COMPILED_EXPRESSIONS.put(expression, compiled);
             }
-            else if (expression.startsWith("${", index))
-            {
-                String subExpression;
 
-                int    indexEndSubExpression = expression.indexOf("}", index + 1);
+            result = compiled.evaluate(getProcessor().getELManager().getELContext());
+        }
 
-                if (indexEndSubExpression > index + 2)
+        // coerce the result into the required type
+        if (asClass.equals(String.class))
+        {
+            return (T) (result == null ? "null" : result.toString());
+        }
+        else
+        {
+            return asClass.cast(result);
+        }
+    }
+
+
+    /**
+     * An expression compiled into a sequence of literal {@link String}s and
+     * {@link ValueExpression}s, that may be evaluated using any {@link ELContext}.
+     */
+    private static class CompiledExpression
+    {
+        /**
+         * The literal {@link String}s and {@link ValueExpression}s of the expression, in order.
+         */
+        private final ArrayList<Object> parts;
+
+        /**
+         * Is the expression a composite (and thus produces a {@link String})?
+         */
+        private final boolean isCompositeExpression;
+
+
+        /**
+         * Constructs a {@link CompiledExpression} by parsing the specified expression.
+         *
+         * @param expression  the expression
+         *
+         * @throws IllegalArgumentException when the expression is invalid
+         */
+        CompiledExpression(String expression)
+        {
+            this.parts = new ArrayList<>();
+
+            boolean       isCompositeExpression = false;
+            StringBuilder builder               = new StringBuilder();
+
+            for (int index = 0; index < expression.length(); index++)
+            {
+                if (expression.startsWith("\\$\\{", index))
                 {
-                    subExpression = expression.substring(index + 2, indexEndSubExpression).trim();
-                    index         = indexEndSubExpression;
+                    builder.append("${");
+                    index++;
+                    isCompositeExpression = true;
                 }
-                else
+                else if (expression.startsWith("\\}", index))
                 {
-                    throw new IllegalArgumentException(String.format("Invalid expression definition in [%s].  "
-                                                                     + "Missing closing brace '}'.",
-                                                                     expression));
+                    builder.append("}");
+                    index++;
+                    isCompositeExpression = true;
                 }
+                else if (expression.startsWith("${", index))
+                {
+                    String subExpression;
 
-                result = processor.eval(subExpression);
+                    int    indexEndSubExpression = expression.indexOf("}", index + 1);
+
+                    if (indexEndSubExpression > index + 2)
+                    {
+                        subExpression = expression.substring(index + 2, indexEndSubExpression).trim();
+                        index         = indexEndSubExpression;
+                    }
+                    else
+                    {
+                        throw new IllegalArgumentException(String.format("Invalid expression definition in [%s].  "
+                                                                         + "Missing closing brace '}'.",
+                                                                         expression));
+                    }
 
-                // when there's more characters after the expression, assume we're composite
-                if (index < expression.length() - 1)
+                    if (builder.length() > 0)
+                    {
+                        parts.add(builder.toString());
+                        builder.setLength(0);
+                    }
+
+                    parts.add(EXPRESSION_FACTORY.createValueExpression(new StandardELContext(EXPRESSION_FACTORY),
+                                                                       "${" + subExpression + "}",
+                                                                       Object.class));
+
+                    // when there's more characters after the expression, assume we're composite
+                    if (index < expression.length() - 1)
+                    {
+                        isCompositeExpression = true;
+                    }
+                }
+                else
                 {
+                    builder.append(expression.charAt(index));
                     isCompositeExpression = true;
                 }
+            }
+
+            if (builder.length() > 0)
+            {
+                parts.add(builder.toString());
+            }
+
+            this.isCompositeExpression = isCompositeExpression;
+        }
+
 
-                if (isCompositeExpression || result instanceof String)
+        /**
+         * Evaluates the {@link CompiledExpression} using the specified {@link ELContext}.
+         *
+         * @param context  the {@link ELContext} in which to resolve {@link Variable}s
+         *
+         * @return the result of the expression
+         */
+        Object evaluate(ELContext context)
+        {
+            if (isCompositeExpression)
+            {
+                StringBuilder builder = new StringBuilder();
+
+                for (Object part : parts)
                 {
-                    try
+                    if (part instanceof String)
                     {
-                        builder.append(result.toString());
+                        builder.append(part);
                     }
-                    catch (Exception e)
+                    else
                     {
-                        throw new RuntimeException(e);
+                        Object result = ((ValueExpression) part).getValue(context);
+
+                        try
+                        {
+                            builder.append(result.toString());
+                        }
+                        catch (Exception e)
+                        {
+                            throw new RuntimeException(e);
+                        }
                     }
                 }
+
+                return builder.toString();
             }
             else
             {
-                builder.append(expression.charAt(index));
-                isCompositeExpression = true;
+                // a non-composite is either empty or a single expression
+                return parts.isEmpty() ? null : ((ValueExpression) parts.get(0)).getValue(context);
             }
         }
-
-        // resolve the composite expression (if necessary)
-        result = isCompositeExpression ? builder.toString() : result;
-
-        // coerce the result into the required type
-        if (asClass.equals(String.class))
-        {
-            return (T) (result == null ? "null" : result.toString());
-        }
-        else
-        {
-            return asClass.cast(result);
-        }
     }
 }
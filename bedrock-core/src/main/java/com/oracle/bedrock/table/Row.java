@@ -152,6 +152,29 @@ public class Row implements Iterable<Cell>
     }
 
 
+    /**
+     * Creates a {@link Row} consisting of a collection of {@link Cell} content.
+     *
+     * @param cells  the {@link Cell} content in the {@link Row}
+     *
+     * @return  a new {@link Row}
+     */
+    public static Row of(String... cells)
+    {
+        Row row = new Row();
+
+        if (cells != null)
+        {
+            for (String cell : cells)
+            {
+                row.addCell(cell);
+            }
+        }
+
+        return row;
+    }
+
+
     /**
      * An {@link Option} to define how {@link Row}s can be compared and thus sorted
      * in a {@link Table}.
@@ -28,17 +28,20 @@ package com.oracle.bedrock.table;
 import com.oracle.bedrock.Option;
 import com.oracle.bedrock.OptionsByType;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
-
-import static com.oracle.bedrock.lang.StringHelper.trimTrailingWhiteSpace;
+import java.util.function.Supplier;
 
 /**
  * A {@link Table} represents a collection of zero or more vertically arranged
  * {@link Row}s, each {@link Row} consisting of zero or more horizontally arranged
  * {@link Cell}s.
  * <p>
+ * {@link Row}s may be added lazily, using a {@link Supplier}, in which case they
+ * are only realized when the {@link Table} is inspected or rendered.
+ * <p>
  * Copyright (c) 2015. All Rights Reserved. Oracle Corporation.<br>
  * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
  *
@@ -47,9 +50,10 @@ import static com.oracle.bedrock.lang.StringHelper.trimTrailingWhiteSpace;
 public class Table implements Iterable<Row>, Option
 {
     /**
-     * The {@link Row}s in the {@link Table}.
+     * The {@link Row}s in the {@link Table}, each being either a {@link Row}
+     * or a {@link Supplier} of a {@link Row} that is yet to be realized.
      */
-    private ArrayList<Row> rows;
+    private ArrayList<Object> rows;
 
     /**
      * The formatting {@link OptionsByType} for the {@link Table}.
@@ -127,6 +131,27 @@ public class Table implements Iterable<Row>, Option
     }
 
 
+    /**
+     * Lazily adds a {@link Row} to the {@link Table}.  The {@link Supplier} is only
+     * called when the {@link Table} is inspected or rendered, allowing the cost of
+     * producing the {@link Row} to be avoided when the {@link Table} isn't used.
+     *
+     * @param supplier  the {@link Supplier} of the {@link Row} (which may supply <code>null</code>
+     *                  when no {@link Row} should be added)
+     *
+     * @return  the {@link Table}
+     */
+    public Table addRow(Supplier<Row> supplier)
+    {
+        if (supplier != null)
+        {
+            rows.add(supplier);
+        }
+
+        return this;
+    }
+
+
     /**
      * Adds a {@link Row} consisting of a collection of {@link Cell}s to the {@link Table}
      *
@@ -177,13 +202,15 @@ public class Table implements Iterable<Row>, Option
      */
     public Row getRow(int index)
     {
+        realize();
+
         if (index < 0 || index >= rows.size())
         {
             return null;
         }
         else
         {
-            return rows.get(index);
+            return (Row) rows.get(index);
         }
     }
 
@@ -195,19 +222,79 @@ public class Table implements Iterable<Row>, Option
      */
     public int size()
     {
+        realize();
+
         return rows.size();
     }
 
 
     @Override
+    @SuppressWarnings("unchecked")
     public Iterator<Row> iterator()
     {
-        return rows.iterator();
+        realize();
+
+        return (Iterator<Row>) (Iterator<?>) rows.iterator();
+    }
+
+
+    /**
+     * Realizes the lazily added {@link Row}s, removing those that were supplied as <code>null</code>.
+     */
+    @SuppressWarnings("unchecked")
+    private void realize()
+    {
+        for (int i = 0; i < rows.size(); )
+        {
+            Object row = rows.get(i);
+
+            if (row instanceof Supplier)
+            {
+                row = ((Supplier<Row>) row).get();
+
+                if (row == null)
+                {
+                    rows.remove(i);
+
+                    continue;
+                }
+
+                rows.set(i, row);
+            }
+
+            i++;
+        }
     }
 
 
     @Override
     public String toString()
+    {
+        StringBuilder builder = new StringBuilder();
+
+        try
+        {
+            writeTo(builder);
+        }
+        catch (IOException e)
+        {
+            // SKIP: a StringBuilder never throws an IOException
+        }
+
+        return builder.toString();
+    }
+
+
+    /**
+     * Renders the {@link Table} directly to the specified {@link Appendable}, without
+     * producing intermediate formatted {@link Cell} content.  The rendered content is
+     * identical to that returned by {@link #toString()}.
+     *
+     * @param appendable  the {@link Appendable} to which to render the {@link Table}
+     *
+     * @throws IOException  when the {@link Appendable} fails
+     */
+    public void writeTo(Appendable appendable) throws IOException
     {
         // determine the Cell Separator
         Cell.Separator cellSeparator = optionsByType.get(Cell.Separator.class);
@@ -280,7 +367,7 @@ public class Table implements Iterable<Row>, Option
         // sort the rows (when a Row.Comparator has been provided)
         Row.Comparator comparator  = optionsByType.get(Row.Comparator.class);
 
-        Row[]          orderedRows = new Row[rows.size()];
+        Row[]          orderedRows = new Row[size()];
 
         rows.toArray(orderedRows);
 
@@ -290,9 +377,7 @@ public class Table implements Iterable<Row>, Option
         }
 
         // -----------------------------------
-        // generate the table
-        StringBuilder builder = new StringBuilder();
-
+        // render the table
         for (int rowIndex = 0; rowIndex < orderedRows.length; rowIndex++)
         {
             // grab the next row
@@ -301,7 +386,7 @@ public class Table implements Iterable<Row>, Option
             // append a row separator when it's not the first row
             if (rowIndex > 0)
             {
-                builder.append("\n");
+                appendable.append('\n');
             }
 
             int line = 0;
@@ -331,33 +416,31 @@ public class Table implements Iterable<Row>, Option
 
                     rowHeight = cellHeight > rowHeight ? cellHeight : rowHeight;
 
-                    String justifiedContent;
+                    String content;
 
                     if (cell.isEmpty() || line >= cellHeight)
                     {
                         // output a cell separator?
                         if (cellIndex > 0)
                         {
-                            builder.append(" ");
-                            builder.append(cellSeparator.getSeparator());
-                            builder.append(" ");
+                            appendable.append(' ');
+                            appendable.append(cellSeparator.getSeparator());
+                            appendable.append(' ');
                         }
 
-                        // justify the cell content
-                        justifiedContent = justification.format("", cellWidths.get(cellIndex));
+                        content = "";
                     }
                     else
                     {
                         // output a cell separator?
                         if (cellIndex > 0)
                         {
-                            builder.append(" ");
-                            builder.append(cellSeparator.getSeparator());
-                            builder.append(" ");
+                            appendable.append(' ');
+                            appendable.append(cellSeparator.getSeparator());
+                            appendable.append(' ');
                         }
 
-                        // justify the cell content
-                        String content = cell.getLine(line);
+                        content = cell.getLine(line);
 
                         if (content == null)
                         {
@@ -372,31 +455,97 @@ public class Table implements Iterable<Row>, Option
 
                             content = displayNull.getValue();
                         }
-
-                        justifiedContent = justification.format(content, cellWidths.get(cellIndex));
-
-                    }
-
-                    // ensure the last column doesn't have any unnecessary white space
-                    if (cellIndex == rowWidth - 1)
-                    {
-                        justifiedContent = trimTrailingWhiteSpace(justifiedContent);
                     }
 
                     // output the justified cell content
-                    builder.append(justifiedContent);
+                    // (ensuring the last column doesn't have any unnecessary white space)
+                    writeJustified(appendable,
+                                   justification,
+                                   content,
+                                   cellWidths.get(cellIndex),
+                                   cellIndex == rowWidth - 1);
                 }
 
                 line++;
 
                 if (line < rowHeight)
                 {
-                    builder.append("\n");
+                    appendable.append('\n');
                 }
             }
             while (line < rowHeight);
         }
+    }
+
+
+    /**
+     * Writes the specified content justified in the specified width, as would be produced by
+     * {@link Cell.Justification#format(String, int)}, without creating the justified content.
+     *
+     * @param appendable     the {@link Appendable} to which to write
+     * @param justification  the {@link Cell.Justification}
+     * @param content        the content
+     * @param width          the width of the field in which to justify the content
+     * @param trim           should trailing white space be omitted
+     *
+     * @throws IOException  when the {@link Appendable} fails
+     */
+    private static void writeJustified(Appendable         appendable,
+                                       Cell.Justification justification,
+                                       String             content,
+                                       int                width,
+                                       boolean            trim) throws IOException
+    {
+        if (width <= 0)
+        {
+            return;
+        }
 
-        return builder.toString();
+        int padding = Math.max(0, width - content.length());
+        int end     = content.length();
+
+        if (trim)
+        {
+            while (end > 0 && Character.isWhitespace(content.charAt(end - 1)))
+            {
+                end--;
+            }
+
+            // when only white space remains there's nothing to write
+            if (end == 0)
+            {
+                return;
+            }
+        }
+
+        if (justification == Cell.Justification.RIGHT)
+        {
+            writePadding(appendable, padding);
+        }
+
+        appendable.append(content, 0, end);
+
+        if (justification == Cell.Justification.LEFT &&!trim)
+        {
+            writePadding(appendable, padding);
+        }
+    }
+
+
+    /**
+     * Writes the specified number of spaces.
+     *
+     * @param appendable  the {@link Appendable} to which to write
+     * @param count       the number of spaces
+     *
+     * @throws IOException  when the {@link Appendable} fails
+     */
+    private static void writePadding(Appendable appendable,
+                                     int        count) throws IOException
+    {
+        for (int i = 0; i < count; i++)
+        {
+            appendable.append(' ');
+        }
     }
 }
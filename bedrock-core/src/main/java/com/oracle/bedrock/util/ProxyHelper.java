@@ -25,15 +25,29 @@
 
 package com.oracle.bedrock.util;
 
-import net.sf.cglib.proxy.Callback;
 import net.sf.cglib.proxy.Enhancer;
+import net.sf.cglib.proxy.Factory;
 import net.sf.cglib.proxy.MethodInterceptor;
 import org.objenesis.Objenesis;
 import org.objenesis.ObjenesisStd;
+import org.objenesis.instantiator.ObjectInstantiator;
+
+import java.lang.ref.WeakReference;
 
 /**
  * A collection of utilities to assist in using Objenesis to create object proxies.
  * <p>
+ * Generated proxy classes are cached for each proxied {@link Class}, so that creating
+ * a proxy only requires instantiating the proxy class and setting the {@link MethodInterceptor}
+ * for the instance.  As the {@link MethodInterceptor} is set for each instance, proxy classes
+ * don't refer to the types of {@link MethodInterceptor}, or their {@link ClassLoader}s.
+ * <p>
+ * The cache is maintained using a {@link ClassValue}, thus it does not prevent proxied
+ * {@link Class}es, or their {@link ClassLoader}s, from being unloaded.  When a proxy class
+ * can't be defined by the {@link ClassLoader} of the proxied {@link Class} (for example, for
+ * classes of the bootstrap {@link ClassLoader}), the proxy class is only weakly cached,
+ * so that the {@link ClassLoader} defining it may also be unloaded.
+ * <p>
  * Copyright (c) 2016. All Rights Reserved. Oracle Corporation.<br>
  * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
  *
@@ -41,6 +55,25 @@ import org.objenesis.ObjenesisStd;
  */
 public class ProxyHelper
 {
+    /**
+     * The {@link Objenesis} used to create instances of proxy classes (without caching
+     * instantiators, as they are cached with the proxy classes).
+     */
+    private static final Objenesis OBJENESIS = new ObjenesisStd(false);
+
+    /**
+     * The {@link ProxyFactory} for each proxied {@link Class}.
+     */
+    private static final ClassValue<ProxyFactory> PROXY_FACTORIES = new ClassValue<ProxyFactory>()
+    {
+        @Override
+        protected ProxyFactory computeValue(Class<?> clazz)
+        {
+            return new ProxyFactory(clazz);
+        }
+    };
+
+
     /**
      * Creates a dynamic proxy of the specified {@link Object} routing all
      * method calls to the specified {@link MethodInterceptor}.
@@ -75,20 +108,108 @@ public class ProxyHelper
     public static <T> T createProxyOf(Class<T>          clazz,
                                       MethodInterceptor interceptor)
     {
-        // use a cglib enhancer to create the proxy
-        Enhancer enhancer = new Enhancer();
+        // instantiate the proxy using the (cached) factory for the class and set the interceptor for
+        // the proxy instance (instead of registering thread callbacks that would apply to any instance
+        // of the proxy class)
+        Factory proxy = (Factory) PROXY_FACTORIES.get(clazz).newInstance();
+
+        proxy.setCallback(0, interceptor);
+
+        return (T) proxy;
+    }
+
+
+    /**
+     * A factory of instances for a cached proxy {@link Class}.
+     */
+    private static class ProxyFactory
+    {
+        /**
+         * The {@link Class} to proxy.
+         */
+        private final Class<?> clazz;
+
+        /**
+         * The {@link ObjectInstantiator} for the proxy {@link Class}, when it's defined by the
+         * {@link ClassLoader} of the proxied {@link Class} (otherwise <code>null</code>).
+         */
+        private final ObjectInstantiator<?> instantiator;
+
+        /**
+         * The weakly held {@link ObjectInstantiator} for the proxy {@link Class}, when it's
+         * defined by a {@link ClassLoader} other than that of the proxied {@link Class}.
+         */
+        private volatile WeakReference<ObjectInstantiator<?>> reference;
+
+
+        /**
+         * Constructs a {@link ProxyFactory}, generating a proxy {@link Class}.
+         *
+         * @param clazz  the {@link Class} to proxy
+         */
+        ProxyFactory(Class<?> clazz)
+        {
+            Class<?>              proxyClass   = createProxyClass(clazz);
+            ObjectInstantiator<?> instantiator = OBJENESIS.getInstantiatorOf(proxyClass);
+
+            this.clazz = clazz;
+
+            if (proxyClass.getClassLoader() == clazz.getClassLoader())
+            {
+                this.instantiator = instantiator;
+                this.reference    = null;
+            }
+            else
+            {
+                this.instantiator = null;
+                this.reference    = new WeakReference<>(instantiator);
+            }
+        }
+
+
+        /**
+         * Creates a new instance of the proxy {@link Class}.
+         *
+         * @return a new instance
+         */
+        Object newInstance()
+        {
+            if (instantiator != null)
+            {
+                return instantiator.newInstance();
+            }
+
+            ObjectInstantiator<?> weakInstantiator = reference.get();
 
-        enhancer.setSuperclass(clazz);
-        enhancer.setCallbackType(interceptor.getClass());
+            if (weakInstantiator == null)
+            {
+                // the proxy class is cached by cglib, so it's only regenerated once it has been unloaded
+                weakInstantiator = OBJENESIS.getInstantiatorOf(createProxyClass(clazz));
+                reference        = new WeakReference<>(weakInstantiator);
+            }
 
-        Class<T> proxiedClass = (Class<T>) enhancer.createClass();
+            return weakInstantiator.newInstance();
+        }
 
-        Enhancer.registerCallbacks(proxiedClass, new Callback[] {interceptor});
 
-        Objenesis objenesis = new ObjenesisStd();
+        /**
+         * Creates (or obtains the cglib cached) proxy {@link Class} for the specified {@link Class}.
+         *
+         * @param clazz  the {@link Class} to proxy
+         *
+         * @return the proxy {@link Class}
+         */
+        private static Class<?> createProxyClass(Class<?> clazz)
+        {
+            // use a cglib enhancer to create the proxy class, with the interceptor provided
+            // for each instance, so any type of interceptor may be used with the proxy class
+            Enhancer enhancer = new Enhancer();
 
-        T         proxy     = (T) objenesis.newInstance(proxiedClass);
+            enhancer.setSuperclass(clazz);
+            enhancer.setCallbackType(MethodInterceptor.class);
+            enhancer.setUseFactory(true);
 
-        return proxy;
+            return enhancer.createClass();
+        }
     }
 }
@@ -475,6 +475,103 @@ public class OptionsByTypeTest
     }
 
 
+    /**
+     * Ensure that changes to an {@link OptionsByType} and a copy of it are independent.
+     */
+    @Test
+    public void shouldIsolateChangesToCopies()
+    {
+        OptionsByType original = OptionsByType.of(Meal.SOUP, Device.TAPE);
+        OptionsByType copy     = OptionsByType.of(original);
+
+        copy.add(Meal.FISH);
+        copy.remove(Device.class);
+        original.add(Duration.HOUR);
+
+        assertThat(original.get(Meal.class), is(Meal.SOUP));
+        assertThat(original.get(Device.class), is(Device.TAPE));
+        assertThat(original.asArray().length, is(3));
+
+        assertThat(copy.get(Meal.class), is(Meal.FISH));
+        assertThat(copy.getOrDefault(Device.class, null), is(nullValue()));
+        assertThat(copy.getOrDefault(Duration.class, null), is(nullValue()));
+    }
+
+
+    /**
+     * Ensure that the order in which {@link Option}s were added is retained by copies,
+     * with replaced {@link Option}s retaining their position and removed then re-added
+     * {@link Option}s moving to the end.
+     */
+    @Test
+    public void shouldRetainOrderOfOptionsInCopies()
+    {
+        OptionsByType optionsByType = OptionsByType.of(Meal.SOUP, Device.TAPE, Duration.HOUR);
+
+        // make many generations of copies to ensure they are flattened correctly
+        for (int i = 0; i < 20; i++)
+        {
+            optionsByType = OptionsByType.of(optionsByType);
+        }
+
+        optionsByType.add(Meal.STEAK);
+        optionsByType.remove(Device.class);
+
+        optionsByType = OptionsByType.of(optionsByType).add(Device.CASSETTE);
+
+        Option[] options = optionsByType.asArray();
+
+        assertThat(options.length, is(3));
+        assertThat(options[0], is(Meal.STEAK));
+        assertThat(options[1], is(Duration.HOUR));
+        assertThat(options[2], is(Device.CASSETTE));
+    }
+
+
+    /**
+     * Ensure that the cached {@link Option}s of a shared (frozen) layer are not affected
+     * by changes made to the copies sharing it.
+     */
+    @Test
+    public void shouldNotChangeCachedOptionsOfCopies()
+    {
+        OptionsByType original = OptionsByType.of(OptionsByType.of(Meal.SOUP, Device.TAPE)).add(Duration.HOUR);
+        OptionsByType copy     = OptionsByType.of(original);
+
+        assertThat(original.asArray().length, is(3));
+        assertThat(copy.asArray().length, is(3));
+
+        copy.remove(Meal.class);
+
+        Option[] options = original.asArray();
+
+        assertThat(options.length, is(3));
+        assertThat(options[0], is(Meal.SOUP));
+        assertThat(options[1], is(Device.TAPE));
+        assertThat(options[2], is(Duration.HOUR));
+
+        assertThat(copy.asArray().length, is(2));
+        assertThat(copy.get(Device.class), is(Device.TAPE));
+    }
+
+
+    /**
+     * Ensure that defaults continue to be determined for repeated requests.
+     */
+    @Test
+    public void shouldRepeatedlyDetermineDefaults()
+    {
+        for (int i = 0; i < 100; i++)
+        {
+            OptionsByType optionsByType = OptionsByType.empty();
+
+            assertThat(optionsByType.get(Meal.class), is(Meal.CHICKEN));
+            assertThat(optionsByType.get(Beverage.class).toString(), is("Beer"));
+            assertThat(optionsByType.get(Duration.class), is(Duration.SECOND));
+        }
+    }
+
+
     /**
      * An {@link EnhancedOption}.
      */
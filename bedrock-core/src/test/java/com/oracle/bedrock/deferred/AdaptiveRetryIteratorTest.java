@@ -0,0 +1,139 @@
+/*
+ * File: AdaptiveRetryIteratorTest.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+package com.oracle.bedrock.deferred;
+
+import com.oracle.bedrock.deferred.options.RetryFrequency;
+import com.oracle.bedrock.options.Timeout;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Unit tests for the {@link AdaptiveRetryIterator}.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+public class AdaptiveRetryIteratorTest
+{
+    /**
+     * Ensure that retry delays grow with unsuccessful acquisitions, up to the ceiling.
+     */
+    @Test
+    public void shouldGrowDelaysUpToCeiling()
+    {
+        AdaptiveRetryIterator iterator = new AdaptiveRetryIterator(10, 100, 0.5);
+
+        assertThat(iterator.next().to(TimeUnit.MILLISECONDS), is(10L));
+
+        long previous = 10;
+
+        for (int i = 0; i < 20; i++)
+        {
+            iterator.record(0, false);
+
+            long delay = iterator.next().to(TimeUnit.MILLISECONDS);
+
+            assertThat(delay, is(greaterThanOrEqualTo(previous)));
+            assertThat(delay, is(lessThanOrEqualTo(100L)));
+
+            previous = delay;
+        }
+
+        assertThat(previous, is(100L));
+        assertThat(iterator.getFailures(), is(20));
+    }
+
+
+    /**
+     * Ensure that retry delays are bounded by the duty cycle for expensive acquisitions.
+     */
+    @Test
+    public void shouldBoundLoadForExpensiveAcquisitions()
+    {
+        AdaptiveRetryIterator iterator = new AdaptiveRetryIterator(10, 100, 0.2);
+
+        iterator.record(300, false);
+
+        // a 20% duty cycle requires waiting at least 4 times the acquisition duration
+        assertThat(iterator.next().to(TimeUnit.MILLISECONDS), is(1200L));
+    }
+
+
+    /**
+     * Ensure that retry delays start over once a value has been acquired.
+     */
+    @Test
+    public void shouldResetWhenAcquired()
+    {
+        AdaptiveRetryIterator iterator = new AdaptiveRetryIterator(10, 100, 0.5);
+
+        for (int i = 0; i < 10; i++)
+        {
+            iterator.record(0, false);
+            iterator.next();
+        }
+
+        iterator.record(0, true);
+
+        assertThat(iterator.getFailures(), is(0));
+        assertThat(iterator.next().to(TimeUnit.MILLISECONDS), is(10L));
+    }
+
+
+    /**
+     * Ensure that an {@link Ensured} may use an adaptive {@link RetryFrequency}.
+     */
+    @Test
+    public void shouldEnsureUsingAdaptiveRetryFrequency()
+    {
+        AtomicInteger attempts = new AtomicInteger(0);
+
+        Deferred<Integer> deferred = new DeferredCallable<>(() -> {
+                                                                if (attempts.incrementAndGet() < 5)
+                                                                {
+                                                                    throw new IllegalStateException("not yet");
+                                                                }
+
+                                                                return attempts.get();
+                                                            },
+                                                            Integer.class);
+
+        Ensured<Integer> ensured = new Ensured<>(deferred,
+                                                 RetryFrequency.adaptive(),
+                                                 Timeout.after(10, TimeUnit.SECONDS));
+
+        assertThat(ensured.get(), is(5));
+    }
+}
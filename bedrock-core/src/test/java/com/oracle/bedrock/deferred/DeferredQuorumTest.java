@@ -0,0 +1,236 @@
+/*
+ * File: DeferredQuorumTest.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+package com.oracle.bedrock.deferred;
+
+import com.oracle.bedrock.options.Timeout;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.oracle.bedrock.deferred.DeferredHelper.allOf;
+import static com.oracle.bedrock.deferred.DeferredHelper.anyOf;
+import static com.oracle.bedrock.deferred.DeferredHelper.ensure;
+import static com.oracle.bedrock.deferred.DeferredHelper.quorumOf;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for the {@link DeferredQuorum}.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+public class DeferredQuorumTest
+{
+    /**
+     * Ensure that all {@link Deferred}s are evaluated concurrently, taking approximately
+     * the time of the slowest {@link Deferred}.
+     */
+    @Test
+    public void shouldConcurrentlyEnsureAllOf()
+    {
+        List<Deferred<Integer>> deferreds = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++)
+        {
+            deferreds.add(new Slow(i, 500));
+        }
+
+        long          started = System.currentTimeMillis();
+
+        List<Integer> values  = ensure(allOf(deferreds), Timeout.after(30, TimeUnit.SECONDS));
+
+        long          elapsed = System.currentTimeMillis() - started;
+
+        assertThat(values, contains(0, 1, 2, 3, 4));
+        assertThat(elapsed, is(lessThan(2000L)));
+    }
+
+
+    /**
+     * Ensure that any {@link Deferred} may satisfy an {@link DeferredHelper#anyOf(Deferred[])}.
+     */
+    @Test
+    public void shouldEnsureAnyOf()
+    {
+        List<String> values = ensure(anyOf(new NotAvailable<>(String.class), new Existing<>("hello")),
+                                     Timeout.after(10, TimeUnit.SECONDS));
+
+        assertThat(values, contains("hello"));
+    }
+
+
+    /**
+     * Ensure that a {@link DeferredQuorum} describes the unavailable {@link Deferred}s when it fails.
+     */
+    @Test
+    public void shouldDescribeUnavailableDeferredsWhenFailing()
+    {
+        Deferred<String> available   = new Existing<>("available");
+        Deferred<String> unavailable = new NotAvailable<>(String.class);
+
+        try
+        {
+            ensure(quorumOf(2, Arrays.asList(available, unavailable)), Timeout.after(500, TimeUnit.MILLISECONDS));
+
+            fail("The quorum should not have been met");
+        }
+        catch (PermanentlyUnavailableException e)
+        {
+            assertThat(e.getMessage(), containsString(unavailable.toString()));
+            assertThat(e.getMessage(), not(containsString(available.toString())));
+        }
+    }
+
+
+    /**
+     * Ensure that a {@link DeferredQuorum} fails immediately when the quorum can't be met.
+     */
+    @Test(expected = PermanentlyUnavailableException.class)
+    public void shouldFailWhenQuorumIsImpossible()
+    {
+        ensure(allOf(new Existing<>("hello"), new NeverAvailable<>(String.class)), Timeout.after(60, TimeUnit.SECONDS));
+    }
+
+
+    /**
+     * Ensure that waiting for a {@link DeferredQuorum} is bounded by its {@link Timeout}
+     * and that a {@link Deferred} is never evaluated more than once at a time.
+     */
+    @Test
+    public void shouldNotWaitForOrReevaluateDeferredsBeingEvaluated()
+    {
+        Slow                    slow    = new Slow(42, 1000);
+        DeferredQuorum<Integer> quorum  = new DeferredQuorum<>(1,
+                                                               Collections.singletonList(slow),
+                                                               Timeout.after(100, TimeUnit.MILLISECONDS));
+
+        long                    started = System.currentTimeMillis();
+
+        for (int i = 0; i < 2; i++)
+        {
+            try
+            {
+                quorum.get();
+
+                fail("The quorum should not have been met");
+            }
+            catch (TemporarilyUnavailableException e)
+            {
+                // SKIP: the slow deferred is still being evaluated
+            }
+        }
+
+        assertThat(System.currentTimeMillis() - started, is(lessThan(900L)));
+        assertThat(ensure(quorum, Timeout.after(10, TimeUnit.SECONDS)), contains(42));
+        assertThat(slow.getEvaluationCount(), is(1));
+    }
+
+
+    /**
+     * A {@link Deferred} that takes some time to produce a value.
+     */
+    public static class Slow implements Deferred<Integer>
+    {
+        /**
+         * The value to produce.
+         */
+        private final int value;
+
+        /**
+         * The time taken to produce the value.
+         */
+        private final long durationMS;
+
+        /**
+         * The number of times the value has been requested.
+         */
+        private final AtomicInteger evaluationCount;
+
+
+        /**
+         * Constructs a {@link Slow}.
+         *
+         * @param value       the value to produce
+         * @param durationMS  the time taken to produce the value
+         */
+        public Slow(int  value,
+                    long durationMS)
+        {
+            this.value           = value;
+            this.durationMS      = durationMS;
+            this.evaluationCount = new AtomicInteger();
+        }
+
+
+        /**
+         * Obtains the number of times the value has been requested.
+         *
+         * @return the number of evaluations
+         */
+        public int getEvaluationCount()
+        {
+            return evaluationCount.get();
+        }
+
+
+        @Override
+        public Integer get() throws TemporarilyUnavailableException, PermanentlyUnavailableException
+        {
+            evaluationCount.incrementAndGet();
+
+            try
+            {
+                Thread.sleep(durationMS);
+            }
+            catch (InterruptedException e)
+            {
+                throw new PermanentlyUnavailableException(this, e);
+            }
+
+            return value;
+        }
+
+
+        @Override
+        public Class<Integer> getDeferredClass()
+        {
+            return Integer.class;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * File: EnsuredTest.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+package com.oracle.bedrock.deferred;
+
+import com.oracle.bedrock.deferred.options.MaximumRetryDelay;
+import com.oracle.bedrock.deferred.options.RetryFrequency;
+import com.oracle.bedrock.options.Timeout;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.oracle.bedrock.deferred.DeferredHelper.deferred;
+import static com.oracle.bedrock.deferred.DeferredHelper.signalledBy;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Unit tests for the {@link Ensured}.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+public class EnsuredTest
+{
+    /**
+     * Ensure that an {@link Ensured} for a {@link Signalling} {@link Deferred}
+     * re-evaluates as soon as the {@link DeferredSignal} is raised,
+     * instead of waiting for the retry delay to elapse.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void shouldReactToSignalBeforeRetryDelay() throws Exception
+    {
+        AtomicBoolean    value   = new AtomicBoolean(false);
+        DeferredSignal   signal  = new DeferredSignal();
+
+        Ensured<Boolean> ensured = new Ensured<>(new DeferredPredicate<Boolean>(signalledBy(deferred(value), signal),
+                                                                                Boolean.TRUE::equals),
+                                                 RetryFrequency.every(30, TimeUnit.SECONDS),
+                                                 MaximumRetryDelay.of(30, TimeUnit.SECONDS),
+                                                 Timeout.after(60, TimeUnit.SECONDS));
+
+        Thread thread = new Thread(() -> {
+                                       try
+                                       {
+                                           Thread.sleep(250);
+                                       }
+                                       catch (InterruptedException e)
+                                       {
+                                           return;
+                                       }
+
+                                       value.set(true);
+                                       signal.signal();
+                                   });
+
+        long started = System.currentTimeMillis();
+
+        thread.start();
+
+        assertThat(ensured.get(), is(true));
+
+        long durationMS = System.currentTimeMillis() - started;
+
+        assertThat(durationMS, is(lessThan(10000L)));
+
+        thread.join();
+    }
+
+
+    /**
+     * Ensure that an {@link Ensured} for a {@link Signalling} {@link Deferred}
+     * still retries when the retry delay elapses without a signal being raised.
+     */
+    @Test
+    public void shouldRetryWhenNotSignalled()
+    {
+        AtomicBoolean     value     = new AtomicBoolean(false);
+        DeferredSignal    signal    = new DeferredSignal();
+        Deferred<Boolean> predicate = new DeferredPredicate<Boolean>(signalledBy(deferred(value), signal),
+                                                                     flag -> value.getAndSet(true));
+
+        Ensured<Boolean>  ensured   = new Ensured<>(predicate,
+                                                    RetryFrequency.every(100, TimeUnit.MILLISECONDS),
+                                                    Timeout.after(10, TimeUnit.SECONDS));
+
+        assertThat(ensured.get(), is(true));
+        assertThat(ensured.getSignal(), is(sameInstance(signal)));
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ * File: ExpiringCachedTest.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+package com.oracle.bedrock.deferred;
+
+import com.oracle.bedrock.util.Duration;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for the {@link ExpiringCached}.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+public class ExpiringCachedTest
+{
+    /**
+     * Ensure that an {@link ExpiringCached} returns the cached object until it expires.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void shouldReacquireWhenExpired() throws Exception
+    {
+        CountingDeferred        deferred = new CountingDeferred(count -> count);
+        ExpiringCached<Integer> cached   = new ExpiringCached<>(deferred,
+                                                                Duration.of(200, TimeUnit.MILLISECONDS),
+                                                                Duration.of(200, TimeUnit.MILLISECONDS),
+                                                                Duration.of(10, TimeUnit.MILLISECONDS),
+                                                                Duration.of(10, TimeUnit.MILLISECONDS));
+
+        assertThat(cached.get(), is(1));
+        assertThat(cached.get(), is(1));
+        assertThat(deferred.getCount(), is(1));
+
+        Thread.sleep(300);
+
+        assertThat(cached.get(), is(2));
+        assertThat(deferred.getCount(), is(2));
+
+        assertThat(cached.release(), is(2));
+        assertThat(cached.get(), is(3));
+    }
+
+
+    /**
+     * Ensure that an {@link ExpiringCached} continues to return the cached object
+     * while it is being refreshed in the background.
+     *
+     * @throws Exception
+     */
+    @Test(timeout = 10000)
+    public void shouldRefreshAheadInBackground() throws Exception
+    {
+        CountDownLatch   latch    = new CountDownLatch(1);
+        CountingDeferred deferred = new CountingDeferred(count -> {
+                                                             if (count > 1)
+                                                             {
+                                                                 try
+                                                                 {
+                                                                     latch.await();
+                                                                 }
+                                                                 catch (InterruptedException e)
+                                                                 {
+                                                                     throw new RuntimeException(e);
+                                                                 }
+                                                             }
+
+                                                             return count;
+                                                         });
+
+        ExpiringCached<Integer> cached = new ExpiringCached<>(deferred,
+                                                              Duration.of(10, TimeUnit.SECONDS),
+                                                              Duration.of(50, TimeUnit.MILLISECONDS),
+                                                              Duration.of(10, TimeUnit.MILLISECONDS),
+                                                              Duration.of(10, TimeUnit.MILLISECONDS));
+
+        assertThat(cached.get(), is(1));
+
+        Thread.sleep(100);
+
+        // the refresh is blocked, but the existing object is returned
+        assertThat(cached.get(), is(1));
+        assertThat(cached.get(), is(1));
+
+        latch.countDown();
+
+        while (cached.get() == 1)
+        {
+            Thread.sleep(10);
+        }
+
+        assertThat(cached.get(), is(2));
+        assertThat(deferred.getCount(), is(2));
+    }
+
+
+    /**
+     * Ensure that an {@link ExpiringCached} backs-off acquiring after a failure.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void shouldBackOffAfterFailure() throws Exception
+    {
+        CountingDeferred deferred = new CountingDeferred(count -> {
+                                                             if (count == 1)
+                                                             {
+                                                                 throw new IllegalStateException("failed");
+                                                             }
+
+                                                             return count;
+                                                         });
+
+        ExpiringCached<Integer> cached = new ExpiringCached<>(deferred,
+                                                              Duration.of(10, TimeUnit.SECONDS),
+                                                              Duration.of(10, TimeUnit.SECONDS),
+                                                              Duration.of(500, TimeUnit.MILLISECONDS),
+                                                              Duration.of(500, TimeUnit.MILLISECONDS));
+
+        for (int i = 0; i < 10; i++)
+        {
+            try
+            {
+                cached.get();
+
+                fail("Expected the acquisition to be backed-off");
+            }
+            catch (TemporarilyUnavailableException e)
+            {
+                // SKIP: expected
+            }
+        }
+
+        assertThat(deferred.getCount(), is(1));
+
+        Thread.sleep(600);
+
+        assertThat(cached.get(), is(2));
+        assertThat(deferred.getCount(), is(2));
+    }
+
+
+    /**
+     * Ensure that concurrent requests of an {@link ExpiringCached} perform a single acquisition.
+     *
+     * @throws Exception
+     */
+    @Test(timeout = 10000)
+    public void shouldAcquireOnceWhenConcurrentlyRequested() throws Exception
+    {
+        CountingDeferred deferred = new CountingDeferred(count -> {
+                                                             try
+                                                             {
+                                                                 Thread.sleep(200);
+                                                             }
+                                                             catch (InterruptedException e)
+                                                             {
+                                                                 throw new RuntimeException(e);
+                                                             }
+
+                                                             return count;
+                                                         });
+
+        ExpiringCached<Integer> cached  = new ExpiringCached<>(deferred, Duration.of(10, TimeUnit.SECONDS));
+        CountDownLatch          latch   = new CountDownLatch(1);
+        List<Thread>            threads = new ArrayList<>();
+        AtomicInteger           matched = new AtomicInteger(0);
+
+        for (int i = 0; i < 8; i++)
+        {
+            Thread thread = new Thread(() -> {
+                                           try
+                                           {
+                                               latch.await();
+
+                                               if (cached.get() == 1)
+                                               {
+                                                   matched.incrementAndGet();
+                                               }
+                                           }
+                                           catch (InterruptedException e)
+                                           {
+                                               // SKIP: the thread won't match
+                                           }
+                                       });
+
+            threads.add(thread);
+            thread.start();
+        }
+
+        latch.countDown();
+
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        assertThat(matched.get(), is(8));
+        assertThat(deferred.getCount(), is(1));
+    }
+
+
+    /**
+     * A {@link Deferred} that counts the number of times it has been acquired.
+     */
+    private static class CountingDeferred implements Deferred<Integer>
+    {
+        /**
+         * The number of acquisitions.
+         */
+        private final AtomicInteger count = new AtomicInteger(0);
+
+        /**
+         * The function producing a value given the acquisition count.
+         */
+        private final IntFunction<Integer> function;
+
+
+        /**
+         * Constructs a {@link CountingDeferred}.
+         *
+         * @param function  the function producing a value given the acquisition count
+         */
+        CountingDeferred(IntFunction<Integer> function)
+        {
+            this.function = function;
+        }
+
+
+        @Override
+        public Integer get() throws TemporarilyUnavailableException, PermanentlyUnavailableException
+        {
+            return function.apply(count.incrementAndGet());
+        }
+
+
+        @Override
+        public Class<Integer> getDeferredClass()
+        {
+            return Integer.class;
+        }
+
+
+        /**
+         * Obtains the number of acquisitions.
+         *
+         * @return the number of acquisitions
+         */
+        int getCount()
+        {
+            return count.get();
+        }
+    }
+}
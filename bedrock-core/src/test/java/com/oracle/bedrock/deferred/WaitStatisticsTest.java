@@ -0,0 +1,132 @@
+/*
+ * File: WaitStatisticsTest.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+package com.oracle.bedrock.deferred;
+
+import com.oracle.bedrock.deferred.options.RetryFrequency;
+import com.oracle.bedrock.options.Timeout;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.oracle.bedrock.deferred.DeferredHelper.ensure;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Unit tests for the {@link WaitStatistics}.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+public class WaitStatisticsTest
+{
+    @Before
+    public void enable()
+    {
+        WaitStatistics.clear();
+        WaitStatistics.setEnabled(true);
+    }
+
+
+    @After
+    public void disable()
+    {
+        WaitStatistics.setEnabled(false);
+        WaitStatistics.clear();
+    }
+
+
+    /**
+     * Ensure that waits are attributed to the call site requesting them.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void shouldRecordWaitsByCallSite() throws Exception
+    {
+        AtomicInteger attempts = new AtomicInteger(0);
+
+        Deferred<Integer> deferred = new DeferredCallable<>(() -> {
+                                                                if (attempts.incrementAndGet() < 3)
+                                                                {
+                                                                    throw new IllegalStateException("not yet");
+                                                                }
+
+                                                                return attempts.get();
+                                                            },
+                                                            Integer.class);
+
+        ensure(deferred, RetryFrequency.every(50, TimeUnit.MILLISECONDS), Timeout.after(10, TimeUnit.SECONDS));
+
+        Map<String, List<WaitStatistics.Wait>> waits = WaitStatistics.getCostliestWaits(5);
+
+        assertThat(waits.get(WaitStatisticsTest.class.getName()), hasSize(1));
+
+        WaitStatistics.Wait wait = waits.get(WaitStatisticsTest.class.getName()).get(0);
+
+        assertThat(wait.getCallSite(), containsString("shouldRecordWaitsByCallSite"));
+        assertThat(wait.getCount(), is(1L));
+        assertThat(wait.getAttempts(), is(3L));
+        assertThat(wait.getFailures(), is(0L));
+        assertThat(wait.getSleepingNanos(), greaterThan(TimeUnit.MILLISECONDS.toNanos(50)));
+
+        assertThat(WaitStatistics.report(5).toString(), containsString("shouldRecordWaitsByCallSite"));
+
+        StringBuilder builder = new StringBuilder();
+
+        WaitStatistics.export(builder);
+
+        String[] lines = builder.toString().split("\n");
+
+        assertThat(lines.length, is(2));
+        assertThat(lines[1], startsWith("\"" + WaitStatisticsTest.class.getName() + "\""));
+    }
+
+
+    /**
+     * Ensure that waits are not recorded when disabled.
+     */
+    @Test
+    public void shouldNotRecordWhenDisabled()
+    {
+        WaitStatistics.setEnabled(false);
+
+        ensure(new Existing<>("hello"));
+
+        assertThat(WaitStatistics.getWaits().isEmpty(), is(true));
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * File: DeferredMBeanAttributesTest.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of 
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+package com.oracle.bedrock.deferred.jmx;
+
+import com.oracle.bedrock.deferred.Deferred;
+import com.oracle.bedrock.deferred.Existing;
+import com.oracle.bedrock.deferred.TemporarilyUnavailableException;
+import org.junit.Test;
+
+import javax.management.ObjectName;
+import javax.management.remote.JMXConnector;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the {@link DeferredMBeanAttributes}.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+public class DeferredMBeanAttributesTest
+{
+    /**
+     * Ensure that multiple attributes of a single MBean can be acquired.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void shouldGetAttributesOfAnMBean() throws Exception
+    {
+        ObjectName              objectName = new ObjectName("java.lang:type=Runtime");
+
+        DeferredMBeanAttributes deferred   = new DeferredMBeanAttributes(getPlatformConnector(),
+                                                                         objectName,
+                                                                         "Name",
+                                                                         "VmName",
+                                                                         "Unknown");
+
+        Map<ObjectName, Map<String, Object>> snapshot = deferred.get();
+
+        assertThat(snapshot.size(), is(1));
+
+        Map<String, Object> attributes = snapshot.get(objectName);
+
+        assertThat(attributes.get("Name"), is(ManagementFactory.getRuntimeMXBean().getName()));
+        assertThat(attributes.get("VmName"), is(ManagementFactory.getRuntimeMXBean().getVmName()));
+        assertThat(attributes.containsKey("Unknown"), is(false));
+    }
+
+
+    /**
+     * Ensure that attributes of MBeans matching a pattern can be acquired.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void shouldGetAttributesOfMBeansMatchingAPattern() throws Exception
+    {
+        DeferredMBeanAttributes deferred = new DeferredMBeanAttributes(getPlatformConnector(),
+                                                                       new ObjectName("java.lang:type=MemoryPool,*"),
+                                                                       "Name",
+                                                                       "Type");
+
+        Map<ObjectName, Map<String, Object>> snapshot = deferred.get();
+
+        assertThat(snapshot.size(), is(greaterThan(0)));
+
+        for (Map.Entry<ObjectName, Map<String, Object>> entry : snapshot.entrySet())
+        {
+            assertThat(entry.getValue().get("Name"), is(entry.getKey().getKeyProperty("name")));
+            assertThat(entry.getValue().get("Type"), is(notNullValue()));
+        }
+    }
+
+
+    /**
+     * Ensure that the attributes of an unregistered MBean are temporarily unavailable.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void shouldBeTemporarilyUnavailableForUnknownMBean() throws Exception
+    {
+        DeferredMBeanAttributes deferred = new DeferredMBeanAttributes(getPlatformConnector(),
+                                                                       new ObjectName("bedrock:type=Unknown"),
+                                                                       "Name");
+
+        try
+        {
+            deferred.get();
+
+            fail("Expected the MBean to be unavailable");
+        }
+        catch (TemporarilyUnavailableException e)
+        {
+            // SKIP: expected
+        }
+    }
+
+
+    /**
+     * Obtains a {@link Deferred} {@link JMXConnector} to the platform MBean server.
+     *
+     * @return a {@link Deferred} {@link JMXConnector}
+     *
+     * @throws Exception
+     */
+    private Deferred<JMXConnector> getPlatformConnector() throws Exception
+    {
+        JMXConnector connector = mock(JMXConnector.class);
+
+        when(connector.getMBeanServerConnection()).thenReturn(ManagementFactory.getPlatformMBeanServer());
+
+        return new Existing<>(connector);
+    }
+}
@@ -0,0 +1,454 @@
+/*
+ * File: MBeanNotificationSubscriptionTest.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of 
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+package com.oracle.bedrock.deferred.jmx;
+
+import com.oracle.bedrock.deferred.Deferred;
+import com.oracle.bedrock.deferred.DeferredSignal;
+import com.oracle.bedrock.deferred.Existing;
+import com.oracle.bedrock.deferred.PermanentlyUnavailableException;
+import com.oracle.bedrock.deferred.TemporarilyUnavailableException;
+import org.junit.Test;
+
+import javax.management.AttributeChangeNotification;
+import javax.management.MBeanNotificationInfo;
+import javax.management.MBeanServer;
+import javax.management.NotificationBroadcasterSupport;
+import javax.management.ObjectName;
+import javax.management.remote.JMXConnector;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.oracle.bedrock.deferred.DeferredHelper.ensure;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the {@link MBeanNotificationSubscription}.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+public class MBeanNotificationSubscriptionTest
+{
+    /**
+     * The number of {@link Counter}s registered.
+     */
+    private static final AtomicInteger COUNTERS = new AtomicInteger(0);
+
+
+    /**
+     * Ensure that attribute values are read once and then updated by notifications.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void shouldUpdateAttributesUsingNotifications() throws Exception
+    {
+        MBeanServer server     = ManagementFactory.getPlatformMBeanServer();
+        Counter     counter    = new Counter();
+        ObjectName  objectName = register(server, counter);
+
+        try (MBeanNotificationSubscription subscription = new MBeanNotificationSubscription(getConnector(server),
+                                                                                            objectName))
+        {
+            Deferred<Integer> deferred = subscription.getDeferredAttribute("Count", Integer.class);
+
+            assertThat(deferred.get(), is(0));
+            assertThat(DeferredSignal.of(deferred), is(sameInstance(subscription.getSignal())));
+
+            for (int i = 0; i < 5; i++)
+            {
+                counter.increment();
+            }
+
+            assertThat(ensure(deferred, count -> count == 5), is(true));
+            assertThat(counter.getReads(), is(1));
+            assertThat(subscription.getNotifications().size(), is(5));
+            assertThat(subscription.getDeferredNotification(AttributeChangeNotification.ATTRIBUTE_CHANGE).get()
+                       .getSequenceNumber(),
+                       is(5L));
+        }
+        finally
+        {
+            server.unregisterMBean(objectName);
+        }
+    }
+
+
+    /**
+     * Ensure that a subscription is unavailable until the MBean is registered,
+     * and stops receiving notifications once closed.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void shouldRegisterWhenMBeanAvailableAndUnregisterWhenClosed() throws Exception
+    {
+        MBeanServer server     = ManagementFactory.getPlatformMBeanServer();
+        Counter     counter    = new Counter();
+        ObjectName  objectName = new ObjectName("bedrock.test:type=Counter,id=" + COUNTERS.incrementAndGet());
+
+        MBeanNotificationSubscription subscription = new MBeanNotificationSubscription(getConnector(server),
+                                                                                       objectName,
+                                                                                       "Count");
+
+        Deferred<Integer> deferred = subscription.getDeferredAttribute("Count", Integer.class);
+
+        try
+        {
+            deferred.get();
+
+            fail("Expected the MBean to be unavailable");
+        }
+        catch (TemporarilyUnavailableException e)
+        {
+            // SKIP: expected
+        }
+
+        server.registerMBean(counter, objectName);
+
+        try
+        {
+            counter.increment();
+
+            assertThat(deferred.get(), is(1));
+            assertThat(subscription.isRegistered(), is(true));
+
+            int received = subscription.getNotifications().size();
+
+            subscription.close();
+
+            counter.increment();
+
+            assertThat(subscription.isRegistered(), is(false));
+            assertThat(subscription.getNotifications().size(), is(received));
+        }
+        finally
+        {
+            server.unregisterMBean(objectName);
+        }
+    }
+
+
+    /**
+     * Ensure that a subscription discards the attribute values of an unregistered MBean
+     * and subscribes again when the MBean is registered again.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void shouldSubscribeAgainWhenMBeanRegisteredAgain() throws Exception
+    {
+        MBeanServer server     = ManagementFactory.getPlatformMBeanServer();
+        Counter     counter    = new Counter();
+        ObjectName  objectName = register(server, counter);
+
+        try (MBeanNotificationSubscription subscription = new MBeanNotificationSubscription(getConnector(server),
+                                                                                            objectName))
+        {
+            Deferred<Integer> deferred = subscription.getDeferredAttribute("Count", Integer.class);
+
+            counter.increment();
+
+            assertThat(deferred.get(), is(1));
+
+            server.unregisterMBean(objectName);
+
+            // (un)registration is handled asynchronously
+            awaitRegistered(subscription, false);
+
+            try
+            {
+                deferred.get();
+
+                fail("Expected the MBean to be unavailable");
+            }
+            catch (TemporarilyUnavailableException e)
+            {
+                // SKIP: expected
+            }
+
+            Counter replacement = new Counter();
+
+            server.registerMBean(replacement, objectName);
+
+            awaitRegistered(subscription, true);
+
+            replacement.increment();
+            replacement.increment();
+
+            assertThat(deferred.get(), is(2));
+            assertThat(replacement.getReads(), is(1));
+        }
+        finally
+        {
+            if (server.isRegistered(objectName))
+            {
+                server.unregisterMBean(objectName);
+            }
+        }
+    }
+
+
+    /**
+     * Ensure that the attributes of MBeans that don't send notifications are polled.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void shouldPollMBeansThatDoNotSendNotifications() throws Exception
+    {
+        MBeanServer server     = ManagementFactory.getPlatformMBeanServer();
+        Gauge       gauge      = new Gauge();
+        ObjectName  objectName = new ObjectName("bedrock.test:type=Gauge,id=" + COUNTERS.incrementAndGet());
+
+        server.registerMBean(gauge, objectName);
+
+        try (MBeanNotificationSubscription subscription = new MBeanNotificationSubscription(getConnector(server),
+                                                                                            objectName))
+        {
+            Deferred<Integer> deferred = subscription.getDeferredAttribute("Level", Integer.class);
+
+            assertThat(deferred.get(), is(0));
+
+            gauge.setLevel(42);
+
+            assertThat(deferred.get(), is(42));
+
+            try
+            {
+                subscription.getDeferredNotification(AttributeChangeNotification.ATTRIBUTE_CHANGE).get();
+
+                fail("Expected notifications to be permanently unavailable");
+            }
+            catch (PermanentlyUnavailableException e)
+            {
+                // SKIP: expected
+            }
+        }
+        finally
+        {
+            server.unregisterMBean(objectName);
+        }
+    }
+
+
+    /**
+     * Registers a {@link Counter} with the specified {@link MBeanServer}.
+     *
+     * @param server   the {@link MBeanServer}
+     * @param counter  the {@link Counter}
+     *
+     * @return the {@link ObjectName} of the {@link Counter}
+     *
+     * @throws Exception
+     */
+    private ObjectName register(MBeanServer server,
+                                Counter     counter) throws Exception
+    {
+        ObjectName objectName = new ObjectName("bedrock.test:type=Counter,id=" + COUNTERS.incrementAndGet());
+
+        server.registerMBean(counter, objectName);
+
+        return objectName;
+    }
+
+
+    /**
+     * Obtains a {@link Deferred} {@link JMXConnector} to the specified {@link MBeanServer}.
+     *
+     * @param server  the {@link MBeanServer}
+     *
+     * @return a {@link Deferred} {@link JMXConnector}
+     *
+     * @throws Exception
+     */
+    private Deferred<JMXConnector> getConnector(MBeanServer server) throws Exception
+    {
+        JMXConnector connector = mock(JMXConnector.class);
+
+        when(connector.getMBeanServerConnection()).thenReturn(server);
+
+        return new Existing<>(connector);
+    }
+
+
+    /**
+     * Waits for the specified {@link MBeanNotificationSubscription} to be (or not be) registered.
+     *
+     * @param subscription  the {@link MBeanNotificationSubscription}
+     * @param registered    should the {@link MBeanNotificationSubscription} be registered?
+     *
+     * @throws InterruptedException  if interrupted while waiting
+     */
+    private void awaitRegistered(MBeanNotificationSubscription subscription,
+                                 boolean                       registered) throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis() + 10000;
+
+        while (subscription.isRegistered() != registered && System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(10);
+        }
+
+        assertThat(subscription.isRegistered(), is(registered));
+    }
+
+
+    /**
+     * The management interface of a {@link Counter}.
+     */
+    public interface CounterMBean
+    {
+        /**
+         * Obtains the count.
+         *
+         * @return the count
+         */
+        int getCount();
+    }
+
+
+    /**
+     * A counter MBean that sends {@link AttributeChangeNotification}s.
+     */
+    public static class Counter extends NotificationBroadcasterSupport implements CounterMBean
+    {
+        /**
+         * The count.
+         */
+        private final AtomicInteger count = new AtomicInteger(0);
+
+        /**
+         * The number of times the count has been read.
+         */
+        private final AtomicInteger reads = new AtomicInteger(0);
+
+        /**
+         * The sequence number of notifications.
+         */
+        private final AtomicInteger sequence = new AtomicInteger(0);
+
+
+        @Override
+        public int getCount()
+        {
+            reads.incrementAndGet();
+
+            return count.get();
+        }
+
+
+        /**
+         * Increments the count, sending an {@link AttributeChangeNotification}.
+         */
+        public void increment()
+        {
+            int previous = count.getAndIncrement();
+
+            sendNotification(new AttributeChangeNotification(this,
+                                                             sequence.incrementAndGet(),
+                                                             System.currentTimeMillis(),
+                                                             "Count changed",
+                                                             "Count",
+                                                             "int",
+                                                             previous,
+                                                             previous + 1));
+        }
+
+
+        /**
+         * Obtains the number of times the count has been read.
+         *
+         * @return the number of reads
+         */
+        int getReads()
+        {
+            return reads.get();
+        }
+
+
+        @Override
+        public MBeanNotificationInfo[] getNotificationInfo()
+        {
+            String[] types = new String[] {AttributeChangeNotification.ATTRIBUTE_CHANGE};
+
+            return new MBeanNotificationInfo[] {new MBeanNotificationInfo(types,
+                                                                          AttributeChangeNotification.class.getName(),
+                                                                          "Count changed")};
+        }
+    }
+
+
+    /**
+     * The management interface of a {@link Gauge}.
+     */
+    public interface GaugeMBean
+    {
+        /**
+         * Obtains the level.
+         *
+         * @return the level
+         */
+        int getLevel();
+    }
+
+
+    /**
+     * A gauge MBean that doesn't send notifications.
+     */
+    public static class Gauge implements GaugeMBean
+    {
+        /**
+         * The level.
+         */
+        private volatile int level;
+
+
+        @Override
+        public int getLevel()
+        {
+            return level;
+        }
+
+
+        /**
+         * Sets the level.
+         *
+         * @param level  the level
+         */
+        public void setLevel(int level)
+        {
+            this.level = level;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * File: TimeSeriesTest.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+package com.oracle.bedrock.diagnostics;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.closeTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for the {@link TimeSeries}.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+public class TimeSeriesTest
+{
+    @Test
+    public void shouldDiscardOldestSamplesWhenFull()
+    {
+        TimeSeries series = new TimeSeries("test", 3);
+
+        for (int i = 1; i <= 5; i++)
+        {
+            series.add(i * 1000L, i);
+        }
+
+        assertThat(series.size(), is(3));
+        assertThat(series.getTimestamp(0), is(3000L));
+        assertThat(series.getValue(0), is(3.0));
+        assertThat(series.getLatest(), is(5.0));
+        assertThat(series.getMinimum(), is(3.0));
+        assertThat(series.getMaximum(), is(5.0));
+        assertThat(series.getMean(), is(4.0));
+    }
+
+
+    @Test
+    public void shouldCalculateRatesAndPercentiles()
+    {
+        TimeSeries series = new TimeSeries("test", 100);
+
+        for (int i = 1; i <= 100; i++)
+        {
+            series.add(i * 100L, i * 10);
+        }
+
+        assertThat(series.getPercentile(50), is(500.0));
+        assertThat(series.getPercentile(99), is(990.0));
+        assertThat(series.getPercentile(100), is(1000.0));
+        assertThat(series.getRatePerSecond(), is(100.0));
+        assertThat(Double.isNaN(new TimeSeries("empty", 1).getPercentile(50)), is(true));
+    }
+
+
+    @Test
+    public void shouldMergeAndExport() throws Exception
+    {
+        TimeSeries first  = new TimeSeries("first", 4);
+        TimeSeries second = new TimeSeries("second", 4);
+
+        first.add(1000L, 1);
+        first.add(3000L, 3);
+        second.add(2000L, 2);
+        second.add(4000L, Double.NaN);
+
+        TimeSeries merged = TimeSeries.merge("merged", Arrays.asList(first, second));
+
+        assertThat(merged.size(), is(4));
+        assertThat(merged.getValue(1), is(2.0));
+
+        StringBuilder csv  = new StringBuilder();
+        StringBuilder json = new StringBuilder();
+
+        first.writeCSV(csv);
+        merged.writeJSON(json);
+
+        assertThat(csv.toString(), is("first,1000,1.0\nfirst,3000,3.0\n"));
+        assertThat(json.toString(),
+                   is("{\"name\":\"merged\",\"timestamps\":[1000,2000,3000,4000],\"values\":[1.0,2.0,3.0,null]}"));
+    }
+
+
+    @Test
+    public void shouldSumPerIntervalRatherThanInterleave()
+    {
+        TimeSeries first  = new TimeSeries("first", 10);
+        TimeSeries second = new TimeSeries("second", 10);
+
+        // two counters, each increasing by 10 per second, sampled at different offsets
+        for (int i = 0; i < 5; i++)
+        {
+            first.add(1000L + i * 1000L, i * 10);
+            second.add(1500L + i * 1000L, 1000 + i * 10);
+        }
+
+        // the second misses a sample, so contributes its previous value
+        second.add(6500L, 1050);
+        second.add(8500L, 1070);
+        first.add(8000L, Double.NaN);
+
+        TimeSeries summed = TimeSeries.sum("summed", 1000, Arrays.asList(first, second, new TimeSeries("empty", 1)));
+
+        assertThat(summed.size(), is(8));
+        assertThat(summed.getTimestamp(0), is(1000L));
+        assertThat(summed.getValue(0), is(1000.0));
+        assertThat(summed.getValue(4), is(1080.0));
+        assertThat(summed.getValue(5), is(1090.0));
+        assertThat(summed.getValue(6), is(1090.0));
+        assertThat(summed.getValue(7), is(1110.0));
+        assertThat(summed.getRatePerSecond(), closeTo(110.0 / 7, 0.0001));
+    }
+}
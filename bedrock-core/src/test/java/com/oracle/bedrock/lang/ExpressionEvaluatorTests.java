@@ -31,6 +31,7 @@ import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.fail;
 
 /**
  * Tests for {@link ExpressionEvaluator}s.
@@ -83,4 +84,51 @@ public class ExpressionEvaluatorTests
         assertThat(evaluator.evaluate("${one.two.four}", Long.class), is(2L));
         assertThat(evaluator.evaluate("${one.two.three + one.two.four}", Long.class), is(3L));
     }
+
+
+    /**
+     * Ensure that the same expression evaluated by different {@link ExpressionEvaluator}s
+     * resolves the variables of each {@link ExpressionEvaluator}.
+     */
+    @Test
+    public void shouldResolveVariablesOfEachEvaluator()
+    {
+        ExpressionEvaluator first  = new ExpressionEvaluator();
+        ExpressionEvaluator second = new ExpressionEvaluator();
+
+        first.defineVariable("name", "first");
+        second.defineVariable("name", "second");
+
+        assertThat(first.evaluate("hello ${name}", String.class), is("hello first"));
+        assertThat(second.evaluate("hello ${name}", String.class), is("hello second"));
+        assertThat(first.evaluate("${name}", String.class), is("first"));
+    }
+
+
+    /**
+     * Ensure that simple values, escapes and invalid expressions are handled.
+     */
+    @Test
+    public void shouldEvaluateSimpleValuesAndEscapes()
+    {
+        ExpressionEvaluator evaluator = new ExpressionEvaluator();
+
+        evaluator.defineVariable("one", 1L);
+
+        assertThat(evaluator.evaluate("fred.exec", String.class), is("fred.exec"));
+        assertThat(evaluator.evaluate("", String.class), is("null"));
+        assertThat(evaluator.evaluate("a\\}b", String.class), is("a}b"));
+        assertThat(evaluator.evaluate("${one}", Long.class), is(1L));
+
+        try
+        {
+            evaluator.evaluate("${one", String.class);
+
+            fail("Expected an invalid expression");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // SKIP: expected
+        }
+    }
 }
@@ -28,6 +28,8 @@ package com.oracle.bedrock.table;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.hamcrest.core.Is.is;
 
 /**
@@ -238,4 +240,57 @@ public class TableTest
 
         System.out.println(table);
     }
+
+
+    /**
+     * Ensure that lazily added {@link Row}s are only realized when required.
+     */
+    @Test
+    public void shouldLazilyRealizeRows()
+    {
+        AtomicInteger realized = new AtomicInteger(0);
+        Table         table    = new Table();
+
+        table.addRow("A", "1");
+        table.addRow(() -> {
+                         realized.incrementAndGet();
+
+                         return Row.of("B", "2");
+                     });
+        table.addRow(() -> null);
+
+        Assert.assertThat(realized.get(), is(0));
+        Assert.assertThat(table.toString(), is("A : 1\nB : 2"));
+        Assert.assertThat(table.size(), is(2));
+        Assert.assertThat(realized.get(), is(1));
+    }
+
+
+    /**
+     * Ensure that rendering a {@link Table} to an {@link Appendable} produces
+     * the same content as the previous formatting of {@link Cell}s.
+     */
+    @Test
+    public void shouldWriteTableToAppendable() throws Exception
+    {
+        Table table = new Table();
+
+        table.addRow("Name", "Value", "Comment");
+        table.addRow("a", "1", "  ");
+        table.addRow("longer name", "12345", "multi\nline");
+        table.addRow("b", null, "last  ");
+
+        table.getRow(1).getCell(1).getOptions().add(Cell.Justification.RIGHT);
+        table.getRow(2).getCell(2).getOptions().add(Cell.Justification.RIGHT);
+
+        StringBuilder builder = new StringBuilder();
+
+        table.writeTo(builder);
+
+        Assert.assertThat(builder.toString(),
+                          is("Name        : Value : Comment\n" + "a           :     1 : \n"
+                             + "longer name : 12345 :   multi\n" + "            :       :    line\n"
+                             + "b           :       : last"));
+        Assert.assertThat(table.toString(), is(builder.toString()));
+    }
 }
@@ -0,0 +1,173 @@
+/*
+ * File: ProxyHelperTest.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+package com.oracle.bedrock.util;
+
+import net.sf.cglib.proxy.MethodInterceptor;
+import net.sf.cglib.proxy.MethodProxy;
+import org.junit.Test;
+
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+/**
+ * Unit tests for {@link ProxyHelper}.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+public class ProxyHelperTest
+{
+    /**
+     * Ensure that proxies of the same {@link Class} share the same proxy {@link Class}.
+     */
+    @Test
+    public void shouldReuseProxyClasses()
+    {
+        Greeter first  = ProxyHelper.createProxyOf(Greeter.class, new NamingInterceptor("first"));
+        Greeter second = ProxyHelper.createProxyOf(Greeter.class, new NamingInterceptor("second"));
+
+        assertThat(first.getClass(), is(sameInstance(second.getClass())));
+        assertThat(first.getClass(), is(not(sameInstance(Greeter.class))));
+    }
+
+
+    /**
+     * Ensure that proxies using different types of {@link MethodInterceptor} share the same
+     * proxy {@link Class}, so that it doesn't refer to (and retain) the types of interceptor.
+     */
+    @Test
+    public void shouldReuseProxyClassesForAnyTypeOfInterceptor()
+    {
+        Greeter first  = ProxyHelper.createProxyOf(Greeter.class, new NamingInterceptor("first"));
+        Greeter second = ProxyHelper.createProxyOf(Greeter.class,
+                                                   (MethodInterceptor) (object, method, args, proxy) -> "second");
+
+        assertThat(first.getClass(), is(sameInstance(second.getClass())));
+        assertThat(first.greet(), is("first"));
+        assertThat(second.greet(), is("second"));
+    }
+
+
+    /**
+     * Ensure that each proxy routes method calls to its own {@link MethodInterceptor},
+     * regardless of the order in which the proxies are created and used.
+     */
+    @Test
+    public void shouldUseInterceptorOfEachProxy()
+    {
+        Greeter first  = ProxyHelper.createProxyOf(Greeter.class, new NamingInterceptor("first"));
+        Greeter second = ProxyHelper.createProxyOf(Greeter.class, new NamingInterceptor("second"));
+
+        assertThat(second.greet(), is("second"));
+        assertThat(first.greet(), is("first"));
+
+        Greeter third = ProxyHelper.createProxyOf(new Greeter(), new NamingInterceptor("third"));
+
+        assertThat(third.greet(), is("third"));
+        assertThat(first.greet(), is("first"));
+    }
+
+
+    /**
+     * Ensure that repeatedly creating proxies doesn't continuously load classes
+     * (and thus grow metaspace).
+     */
+    @Test
+    public void shouldNotLoadClassesForEachProxy()
+    {
+        // warm up the cache (and any classes used by proxying)
+        ProxyHelper.createProxyOf(Greeter.class, new NamingInterceptor("warm")).greet();
+
+        ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+
+        long before = classLoading.getTotalLoadedClassCount();
+
+        for (int i = 0; i < 10000; i++)
+        {
+            ProxyHelper.createProxyOf(Greeter.class, new NamingInterceptor("proxy-" + i)).greet();
+        }
+
+        long after = classLoading.getTotalLoadedClassCount();
+
+        assertThat(after - before, is(lessThan(100L)));
+    }
+
+
+    /**
+     * A simple class to proxy.
+     */
+    public static class Greeter
+    {
+        /**
+         * Obtains a greeting.
+         *
+         * @return a greeting
+         */
+        public String greet()
+        {
+            return "hello";
+        }
+    }
+
+
+    /**
+     * A {@link MethodInterceptor} that returns its name for every method call.
+     */
+    public static class NamingInterceptor implements MethodInterceptor
+    {
+        private final String name;
+
+
+        /**
+         * Constructs a {@link NamingInterceptor}.
+         *
+         * @param name  the name to return
+         */
+        public NamingInterceptor(String name)
+        {
+            this.name = name;
+        }
+
+
+        @Override
+        public Object intercept(Object      object,
+                                Method      method,
+                                Object[]    args,
+                                MethodProxy methodProxy)
+        {
+            return name;
+        }
+    }
+}
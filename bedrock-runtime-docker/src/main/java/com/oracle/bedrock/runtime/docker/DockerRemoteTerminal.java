@@ -78,6 +78,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Properties;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import java.util.logging.Level;
@@ -674,6 +675,13 @@ public class DockerRemoteTerminal implements RemoteTerminal, Deployer
         }
 
 
+        @Override
+        public CompletableFuture<Integer> onExit()
+        {
+            return CompletableFuture.completedFuture(0);
+        }
+
+
         @Override
         public int exitValue()
         {
@@ -883,5 +891,12 @@ public class DockerRemoteTerminal implements RemoteTerminal, Deployer
         {
             return process.waitFor(options);
         }
+
+
+        @Override
+        public CompletableFuture<Integer> onExit()
+        {
+            return process.onExit();
+        }
     }
 }
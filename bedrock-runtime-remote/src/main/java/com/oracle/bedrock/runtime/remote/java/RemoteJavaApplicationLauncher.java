@@ -554,6 +554,13 @@ public class RemoteJavaApplicationLauncher extends AbstractRemoteApplicationLaun
         }
 
 
+        @Override
+        public CompletableFuture<Integer> onExit()
+        {
+            return process.onExit();
+        }
+
+
         @Override
         public <T> CompletableFuture<T> submit(RemoteCallable<T> callable,
                                                Option...         options) throws IllegalStateException
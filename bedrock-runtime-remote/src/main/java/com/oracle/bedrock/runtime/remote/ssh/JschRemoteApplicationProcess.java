@@ -32,11 +32,13 @@ import com.oracle.bedrock.OptionsByType;
 import com.oracle.bedrock.options.Timeout;
 import com.oracle.bedrock.runtime.Application;
 import com.oracle.bedrock.runtime.ApplicationProcess;
+import com.oracle.bedrock.runtime.ProcessExitMonitor;
 import com.oracle.bedrock.runtime.remote.RemoteApplicationProcess;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -84,6 +86,11 @@ public class JschRemoteApplicationProcess implements RemoteApplicationProcess
      */
     private Integer exitStatus;
 
+    /**
+     * The {@link CompletableFuture} completed when the remote application terminates (lazily created).
+     */
+    private CompletableFuture<Integer> exitFuture;
+
 
     /**
      * Constructs an {@link JschRemoteApplicationProcess}
@@ -210,6 +217,23 @@ public class JschRemoteApplicationProcess implements RemoteApplicationProcess
     }
 
 
+    @Override
+    public synchronized CompletableFuture<Integer> onExit()
+    {
+        if (exitFuture == null)
+        {
+            // the exit status of the channel is known locally, so it can be polled without blocking
+            exitFuture = ProcessExitMonitor.onExit(() -> {
+                                                       int status = channel.getExitStatus();
+
+                                                       return status != -1 || channel.isClosed() ? status : null;
+                                                   });
+        }
+
+        return exitFuture;
+    }
+
+
     @Override
     public int exitValue()
     {
@@ -35,6 +35,7 @@ import com.oracle.bedrock.options.Timeout;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -61,6 +62,11 @@ public class OutputStreamConnector extends Thread implements Closeable
      */
     private Integer exitCode = null;
 
+    /**
+     * The {@link CompletableFuture} completed with the exit code when the remote process terminates.
+     */
+    private final CompletableFuture<Integer> exitFuture = new CompletableFuture<>();
+
     /**
      * The {@link WindowsSession} running the remote command process.
      */
@@ -187,6 +193,18 @@ public class OutputStreamConnector extends Thread implements Closeable
     }
 
 
+    /**
+     * Obtain a {@link CompletableFuture} that is completed with the exit value
+     * of the remote process when it terminates.
+     *
+     * @return a {@link CompletableFuture} of the exit value
+     */
+    public CompletableFuture<Integer> onExit()
+    {
+        return exitFuture;
+    }
+
+
     /**
      * Obtain the exit value of the remote process or -1
      * if the process has not yet terminated.
@@ -272,5 +290,7 @@ public class OutputStreamConnector extends Thread implements Closeable
 
             this.notifyAll();
         }
+
+        exitFuture.complete(exitCode);
     }
 }
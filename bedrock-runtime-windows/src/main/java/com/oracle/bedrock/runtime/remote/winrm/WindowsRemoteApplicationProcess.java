@@ -36,6 +36,7 @@ import java.io.PipedOutputStream;
 
 import java.util.List;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -179,6 +180,13 @@ public class WindowsRemoteApplicationProcess implements RemoteApplicationProcess
     }
 
 
+    @Override
+    public CompletableFuture<Integer> onExit()
+    {
+        return session.onExit();
+    }
+
+
     /**
      * Execute the specified command using the current
      * {@link WindowsSession}.
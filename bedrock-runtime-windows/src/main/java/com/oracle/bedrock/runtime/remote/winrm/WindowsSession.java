@@ -61,6 +61,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Properties;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * This class represents a reference to a WinRS remote
@@ -734,6 +735,20 @@ public class WindowsSession implements Closeable
     }
 
 
+    /**
+     * Obtain a {@link CompletableFuture} that is completed with the exit value
+     * of the last executed command when it terminates.
+     *
+     * @return a {@link CompletableFuture} of the exit value, completed with -1
+     *         if no command has been executed
+     */
+    public CompletableFuture<Integer> onExit()
+    {
+        return outputStreamConnector != null
+               ? outputStreamConnector.onExit() : CompletableFuture.completedFuture(-1);
+    }
+
+
     /**
      * Wait for the currently executing command to terminate and return
      * its exit value.
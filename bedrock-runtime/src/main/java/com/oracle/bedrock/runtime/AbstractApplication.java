@@ -45,6 +45,9 @@ import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.io.Reader;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -115,6 +118,11 @@ public abstract class AbstractApplication<P extends ApplicationProcess> extends
      */
     private AtomicBoolean closed;
 
+    /**
+     * The {@link CompletableFuture} completed once the {@link Application} has been closed.
+     */
+    private final CompletableFuture<Void> closedFuture;
+
 
     /**
      * Construct an {@link AbstractApplication}.
@@ -132,6 +140,7 @@ public abstract class AbstractApplication<P extends ApplicationProcess> extends
         this.optionsByType = optionsByType;
 
         this.closed        = new AtomicBoolean(false);
+        this.closedFuture  = new CompletableFuture<>();
 
         // establish the default Timeout for the application
         this.defaultTimeout = optionsByType.get(Timeout.class);
@@ -233,6 +242,102 @@ public abstract class AbstractApplication<P extends ApplicationProcess> extends
             // determine the custom closing behavior for the application
             OptionsByType closingOptions = OptionsByType.of(options);
 
+            try
+            {
+                beginClosing(options, closingOptions);
+            }
+            finally
+            {
+                try
+                {
+                    completeClosing(options, closingOptions);
+                }
+                finally
+                {
+                    closedFuture.complete(null);
+                }
+            }
+        }
+    }
+
+
+    @Override
+    public CompletableFuture<Void> closeAsync(Option... options)
+    {
+        if (closed.compareAndSet(false, true))
+        {
+            // determine the custom closing behavior for the application
+            OptionsByType closingOptions = OptionsByType.of(options);
+
+            // determine how long to wait for the process to terminate before forcibly destroying it
+            Timeout timeout = closingOptions.getOrDefault(Timeout.class, defaultTimeout);
+
+            RuntimeException     failure;
+            CompletableFuture<?> exited;
+
+            try
+            {
+                beginClosing(options, closingOptions);
+
+                failure = null;
+                exited  = ProcessExitMonitor.within(process.onExit(), timeout.to(TimeUnit.MILLISECONDS));
+            }
+            catch (RuntimeException e)
+            {
+                // the process may not terminate, so release the resources without waiting
+                failure = e;
+                exited  = CompletableFuture.completedFuture(null);
+            }
+
+            RuntimeException beginFailure = failure;
+
+            // complete closing once the process has terminated, without blocking a thread while waiting
+            exited.handle((exitValue, throwable) -> throwable)
+            .thenAcceptAsync(throwable -> {
+                                 if (throwable instanceof TimeoutException)
+                                 {
+                                     // the process didn't terminate when requested
+                                     process.destroyForcibly();
+                                 }
+
+                                 completeClosing(options, closingOptions);
+                             },
+                             ProcessExitMonitor.getExecutor())
+            .whenComplete((result, throwable) -> {
+                              if (beginFailure == null && throwable == null)
+                              {
+                                  closedFuture.complete(null);
+                              }
+                              else
+                              {
+                                  closedFuture.completeExceptionally(beginFailure == null ? throwable : beginFailure);
+                              }
+                          });
+        }
+
+        return closedFuture;
+    }
+
+
+    @Override
+    public CompletableFuture<Integer> onExit()
+    {
+        return process.onExit();
+    }
+
+
+    /**
+     * Begins closing the {@link Application}, notifying the interested parties
+     * and requesting the underlying {@link ApplicationProcess} to terminate.
+     *
+     * @param options         the {@link Option}s for closing
+     * @param closingOptions  the {@link OptionsByType} for closing
+     */
+    private void beginClosing(Option[]      options,
+                              OptionsByType closingOptions)
+    {
+        try
+        {
             // ------ notify any ApplicationListener-based Features (about closing) ------
 
             for (ApplicationListener listener : getInstancesOf(ApplicationListener.class))
@@ -276,99 +381,114 @@ public abstract class AbstractApplication<P extends ApplicationProcess> extends
                     // TODO: if diagnostics are enabled we should output the exception
                 }
             }
-
+        }
+        finally
+        {
             // ------ close the process ------
 
-            // close the process
+            // always close the process, even when notifying the interested parties fails
             process.close();
+        }
+    }
 
-            // ------ clean up ------
-
-            // terminate the thread that is writing to the process standard in
-            try
-            {
-                stdinThread.interrupt();
-            }
-            catch (Exception e)
-            {
-                // nothing to do here as we don't care
-            }
 
-            // terminate the thread that is reading from the process standard out
-            try
-            {
-                stdoutThread.interrupt();
-            }
-            catch (Exception e)
-            {
-                // nothing to do here as we don't care
-            }
+    /**
+     * Completes closing the {@link Application}, once the underlying {@link ApplicationProcess}
+     * has been requested to terminate, releasing resources and notifying the interested parties.
+     * The caller is responsible for completing the {@link #closedFuture}.
+     *
+     * @param options         the {@link Option}s for closing
+     * @param closingOptions  the {@link OptionsByType} for closing
+     */
+    private void completeClosing(Option[]      options,
+                                 OptionsByType closingOptions)
+    {
+        // ------ clean up ------
 
-            try
-            {
-                stdoutThread.join();
-            }
-            catch (InterruptedException e)
-            {
-                // nothing to do here as we don't care
-            }
+        // terminate the thread that is writing to the process standard in
+        try
+        {
+            stdinThread.interrupt();
+        }
+        catch (Exception e)
+        {
+            // nothing to do here as we don't care
+        }
 
-            // terminate the thread that is reading from the process standard err
-            try
-            {
-                stderrThread.interrupt();
-            }
-            catch (Exception e)
-            {
-                // nothing to do here as we don't care
-            }
+        // terminate the thread that is reading from the process standard out
+        try
+        {
+            stdoutThread.interrupt();
+        }
+        catch (Exception e)
+        {
+            // nothing to do here as we don't care
+        }
 
-            try
-            {
-                stderrThread.join();
-            }
-            catch (InterruptedException e)
-            {
-                // nothing to do here as we don't care
-            }
+        try
+        {
+            stdoutThread.join();
+        }
+        catch (InterruptedException e)
+        {
+            // nothing to do here as we don't care
+        }
 
-            try
-            {
-                console.close();
-            }
-            catch (Exception e)
-            {
-                // nothing to do here as we don't care
-            }
+        // terminate the thread that is reading from the process standard err
+        try
+        {
+            stderrThread.interrupt();
+        }
+        catch (Exception e)
+        {
+            // nothing to do here as we don't care
+        }
 
-            try
-            {
-                // wait for the application to terminate
-                waitFor(options);
-            }
-            catch (RuntimeException e)
-            {
-                // nothing to do here as we don't care
-            }
+        try
+        {
+            stderrThread.join();
+        }
+        catch (InterruptedException e)
+        {
+            // nothing to do here as we don't care
+        }
 
-            // ------ notify ApplicationListeners-based Options (about being closed) ------
+        try
+        {
+            console.close();
+        }
+        catch (Exception e)
+        {
+            // nothing to do here as we don't care
+        }
 
-            for (ApplicationListener listener : getOptions().getInstancesOf(ApplicationListener.class))
-            {
-                listener.onClosed(this, closingOptions);
-            }
+        try
+        {
+            // wait for the application to terminate
+            waitFor(options);
+        }
+        catch (RuntimeException e)
+        {
+            // nothing to do here as we don't care
+        }
 
-            // ------ notify ApplicationListener-based Features (about being closed) ------
+        // ------ notify ApplicationListeners-based Options (about being closed) ------
 
-            for (ApplicationListener listener : getInstancesOf(ApplicationListener.class))
-            {
-                listener.onClosed(this, closingOptions);
-            }
+        for (ApplicationListener listener : getOptions().getInstancesOf(ApplicationListener.class))
+        {
+            listener.onClosed(this, closingOptions);
+        }
 
-            // ----- remove all of the features -----
+        // ------ notify ApplicationListener-based Features (about being closed) ------
 
-            removeAllFeatures();
+        for (ApplicationListener listener : getInstancesOf(ApplicationListener.class))
+        {
+            listener.onClosed(this, closingOptions);
         }
+
+        // ----- remove all of the features -----
+
+        removeAllFeatures();
     }
 
 
@@ -39,6 +39,7 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -227,6 +228,9 @@ public abstract class AbstractAssembly<A extends Application> implements Assembl
             // add the application to the assembly
             applications.add(application);
 
+            // be notified when the application terminates
+            watch(application);
+
             // notify the assembly implementation that it has expanded
             onExpanded(Collections.singletonList(application), application.getOptions());
         }
@@ -370,6 +374,9 @@ public abstract class AbstractAssembly<A extends Application> implements Assembl
 
             // add the application to the assembly
             applications.add(application);
+
+            // be notified when the application terminates
+            watch(application);
         }
 
         // notify the assembly that it has expanded with the launched applications
@@ -377,6 +384,41 @@ public abstract class AbstractAssembly<A extends Application> implements Assembl
     }
 
 
+    /**
+     * Arranges for {@link #onExited(Application, int)} to be called when the specified
+     * {@link Application} terminates while it's a member of the {@link Assembly}.
+     *
+     * @param application  the {@link Application}
+     */
+    private void watch(A application)
+    {
+        application.onExit().whenComplete((exitValue, throwable) -> {
+                                              if (throwable == null &&!isClosed()
+                                                  && applications.contains(application))
+                                              {
+                                                  onExited(application, exitValue);
+                                              }
+                                          });
+    }
+
+
+    /**
+     * Called when an {@link Application} in the {@link Assembly} terminates without
+     * having been closed, allowing {@link Assembly} implementations to react to the
+     * termination immediately, for example by relaunching the {@link Application}.
+     * <p>
+     * This method is called asynchronously and must not block.
+     *
+     * @param application  the {@link Application} that terminated
+     * @param exitValue    the exit value of the {@link Application}
+     */
+    protected void onExited(A   application,
+                            int exitValue)
+    {
+        // SKIP: nothing to do by default when an application terminates
+    }
+
+
     /**
      * Called when the {@link Assembly} is first created and after the
      * {@link #expand(int, Platform, Class, Option...)}, {@link #add(Application)} and
@@ -594,6 +636,44 @@ public abstract class AbstractAssembly<A extends Application> implements Assembl
     }
 
 
+    @Override
+    public CompletableFuture<Void> closeAsync(Option... options)
+    {
+        if (isClosed.compareAndSet(false, true))
+        {
+            ArrayList<CompletableFuture<Void>> futures = new ArrayList<>();
+
+            // close the applications concurrently
+            for (A application : applications)
+            {
+                if (application != null)
+                {
+                    // ensure the assembly is no longer a feature so that won't be called back for lifecycle events
+                    application.remove(Assembly.class);
+
+                    try
+                    {
+                        futures.add(application.closeAsync(options).exceptionally(throwable -> null));
+                    }
+                    catch (Exception e)
+                    {
+                        // skip: we always ignore
+                    }
+                }
+            }
+
+            // now remove the applications
+            applications.clear();
+
+            return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()]));
+        }
+        else
+        {
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+
     @Override
     public void onClosing(A             application,
                           OptionsByType optionsByType)
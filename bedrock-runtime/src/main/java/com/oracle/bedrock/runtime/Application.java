@@ -32,6 +32,7 @@ import com.oracle.bedrock.options.Timeout;
 import com.oracle.bedrock.runtime.options.ApplicationClosingBehavior;
 
 import java.io.Closeable;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * A platform and location independent mechanism to represent, access and
@@ -93,6 +94,25 @@ public interface Application extends Extensible, Closeable
     void close(Option... options);
 
 
+    /**
+     * Asynchronously closes and terminates the running {@link Application} using the
+     * specified {@link Option}s, returning a {@link CompletableFuture} that is completed
+     * once the {@link Application} has been closed, as if {@link #close(Option...)} had returned.
+     * <p>
+     * By default {@link #close(Option...)} is performed by a shared {@link Thread}.
+     *
+     * @param options  the {@link Option}s indicating how to close the application.
+     *
+     * @return a {@link CompletableFuture} completed when the {@link Application} has been closed
+     *
+     * @see ApplicationClosingBehavior
+     */
+    default CompletableFuture<Void> closeAsync(Option... options)
+    {
+        return CompletableFuture.runAsync(() -> close(options), ProcessExitMonitor.getExecutor());
+    }
+
+
     /**
      * Determines if the {@link Application} is operational, has not been closed
      * and closing has not been commenced.
@@ -135,6 +155,23 @@ public interface Application extends Extensible, Closeable
     int exitValue();
 
 
+    /**
+     * Obtains a {@link CompletableFuture} that is completed with the exit value of the
+     * {@link Application} when it terminates, regardless of whether it was closed or
+     * terminated by itself.
+     * <p>
+     * By default a shared {@link Thread} {@link #waitFor(Option...)}s the termination, for each call.
+     * Implementations should override this method, typically returning the
+     * {@link ApplicationProcess#onExit()} of their {@link ApplicationProcess}.
+     *
+     * @return a {@link CompletableFuture} of the exit value
+     */
+    default CompletableFuture<Integer> onExit()
+    {
+        return CompletableFuture.supplyAsync(() -> waitFor(), ProcessExitMonitor.getExecutor());
+    }
+
+
     /**
      * Obtain the identity for the {@link Application}.  This is typically
      * the underlying process id (pid), but in some circumstances this may be
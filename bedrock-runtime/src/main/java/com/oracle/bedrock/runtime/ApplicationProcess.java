@@ -32,6 +32,7 @@ import com.oracle.bedrock.options.Timeout;
 import java.io.Closeable;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * An internal interface used to represent an executing or previously executed
@@ -78,6 +79,18 @@ public interface ApplicationProcess extends Closeable
     public void close();
 
 
+    /**
+     * Forcibly terminates the {@link ApplicationProcess}, typically when it has failed
+     * to terminate after being {@link #close()}d.
+     * <p>
+     * By default the {@link ApplicationProcess} is simply {@link #close()}d again.
+     */
+    public default void destroyForcibly()
+    {
+        close();
+    }
+
+
     /**
      * Determines the exit value of the {@link ApplicationProcess} after it terminated.
      *
@@ -128,4 +141,20 @@ public interface ApplicationProcess extends Closeable
      * @throws RuntimeException  if there was a problem wait for termination
      */
     public int waitFor(Option... options);
+
+
+    /**
+     * Obtains a {@link CompletableFuture} that is completed with the exit value of the
+     * {@link ApplicationProcess} when it terminates.
+     * <p>
+     * By default a shared {@link Thread} {@link #waitFor(Option...)}s the termination, for each call.
+     * Implementations should override this method, returning a single {@link CompletableFuture}
+     * completed when they detect termination, without blocking a {@link Thread} while waiting.
+     *
+     * @return a {@link CompletableFuture} of the exit value
+     */
+    public default CompletableFuture<Integer> onExit()
+    {
+        return CompletableFuture.supplyAsync(() -> waitFor(), ProcessExitMonitor.getExecutor());
+    }
 }
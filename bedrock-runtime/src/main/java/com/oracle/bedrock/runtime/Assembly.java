@@ -29,6 +29,7 @@ import com.oracle.bedrock.Option;
 import com.oracle.bedrock.runtime.options.ApplicationClosingBehavior;
 
 import java.io.Closeable;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Represents a collection of related {@link Application}s at runtime.
@@ -69,4 +70,23 @@ public interface Assembly<A extends Application> extends Iterable<A>, Closeable
      * @see ApplicationClosingBehavior
      */
     void close(Option... options);
+
+
+    /**
+     * Asynchronously closes the {@link Assembly} including all of the {@link Application}s
+     * that are part of the {@link Assembly}, returning a {@link CompletableFuture} that is
+     * completed once all of the {@link Application}s have been closed.
+     * <p>
+     * By default {@link #close(Option...)} is performed by a shared {@link Thread}.
+     *
+     * @param options  the {@link Option}s indicating how to close the {@link Application}s
+     *
+     * @return a {@link CompletableFuture} completed when the {@link Application}s have been closed
+     *
+     * @see ApplicationClosingBehavior
+     */
+    default CompletableFuture<Void> closeAsync(Option... options)
+    {
+        return CompletableFuture.runAsync(() -> close(options), ProcessExitMonitor.getExecutor());
+    }
 }
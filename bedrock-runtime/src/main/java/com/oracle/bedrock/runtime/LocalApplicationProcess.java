@@ -31,11 +31,22 @@ import com.oracle.bedrock.annotations.Internal;
 import com.oracle.bedrock.deferred.DeferredHelper;
 import com.oracle.bedrock.options.Timeout;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.management.ManagementFactory;
 import java.lang.management.RuntimeMXBean;
 import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static com.oracle.bedrock.deferred.DeferredHelper.eventually;
 import static com.oracle.bedrock.deferred.DeferredHelper.invoking;
@@ -58,6 +69,16 @@ public class LocalApplicationProcess implements ApplicationProcess
      */
     protected Process process;
 
+    /**
+     * The {@link CompletableFuture} completed when the {@link Process} terminates (lazily created).
+     */
+    private CompletableFuture<Integer> exitFuture;
+
+    /**
+     * Should the descendant processes of the {@link Process} be reaped when closed?
+     */
+    private volatile boolean reapDescendants;
+
 
     /**
      * Construct a {@link LocalApplicationProcess} based on a Java {@link Process}.
@@ -77,10 +98,133 @@ public class LocalApplicationProcess implements ApplicationProcess
     }
 
 
+    @Override
+    public void destroyForcibly()
+    {
+        process.destroyForcibly();
+    }
+
+
     @Override
     public void close()
     {
+        // determine the descendants before destroying the process (after which they are re-parented)
+        List<Long> descendants = reapDescendants ? getDescendantIds() : Collections.emptyList();
+
         process.destroy();
+
+        // reap any remaining descendants
+        if (!descendants.isEmpty())
+        {
+            List<String> command = new ArrayList<>();
+
+            command.add("kill");
+
+            for (long descendant : descendants)
+            {
+                command.add(Long.toString(descendant));
+            }
+
+            try
+            {
+                new ProcessBuilder(command).redirectErrorStream(true).start();
+            }
+            catch (IOException e)
+            {
+                // SKIP: we can't reap the descendants
+            }
+        }
+    }
+
+
+    /**
+     * Sets if the descendant processes of the {@link Process} should be terminated when
+     * the {@link LocalApplicationProcess} is closed.
+     *
+     * @param reapDescendants  <code>true</code> to reap the descendant processes
+     *
+     * @see com.oracle.bedrock.runtime.options.DescendantReaping
+     */
+    public void setReapDescendants(boolean reapDescendants)
+    {
+        this.reapDescendants = reapDescendants;
+    }
+
+
+    @Override
+    public synchronized CompletableFuture<Integer> onExit()
+    {
+        if (exitFuture == null)
+        {
+            exitFuture = ProcessExitMonitor.onExit(process);
+        }
+
+        return exitFuture;
+    }
+
+
+    /**
+     * Determines the identifiers of the living descendant processes of the {@link Process},
+     * using the Linux <code>/proc</code> file system.
+     *
+     * @return the descendant process identifiers, empty when they can't be determined
+     */
+    protected List<Long> getDescendantIds()
+    {
+        ArrayList<Long> descendants = new ArrayList<>();
+        long            id          = getId();
+        Path            proc        = Paths.get("/proc");
+
+        if (id <= 0 ||!process.isAlive() ||!Files.isDirectory(proc))
+        {
+            return descendants;
+        }
+
+        // determine the children of each process
+        HashMap<Long, List<Long>> children = new HashMap<>();
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(proc, "[0-9]*"))
+        {
+            for (Path path : stream)
+            {
+                try
+                {
+                    String stat = new String(Files.readAllBytes(path.resolve("stat")), StandardCharsets.US_ASCII);
+
+                    // the parent identifier is the second field after the parenthesized command name
+                    String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+
+                    children.computeIfAbsent(Long.parseLong(fields[1]), parent -> new ArrayList<>())
+                    .add(Long.parseLong(path.getFileName().toString()));
+                }
+                catch (IOException | RuntimeException e)
+                {
+                    // SKIP: the process may have terminated
+                }
+            }
+        }
+        catch (IOException | RuntimeException e)
+        {
+            return descendants;
+        }
+
+        // walk the process tree from the process
+        ArrayList<Long> parents = new ArrayList<>();
+
+        parents.add(id);
+
+        for (int i = 0; i < parents.size(); i++)
+        {
+            List<Long> descendantIds = children.get(parents.get(i));
+
+            if (descendantIds != null)
+            {
+                parents.addAll(descendantIds);
+                descendants.addAll(descendantIds);
+            }
+        }
+
+        return descendants;
     }
 
 
@@ -0,0 +1,294 @@
+/*
+ * File: ProcessExitMonitor.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of 
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+package com.oracle.bedrock.runtime;
+
+import com.oracle.bedrock.annotations.Internal;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Detects the termination of local {@link Process}es without dedicating a {@link Thread}
+ * to each {@link Process}, completing a {@link CompletableFuture} with the exit value of
+ * each {@link Process} when it terminates.
+ * <p>
+ * A single daemon {@link Thread} periodically polls the monitored {@link Process}es
+ * using {@link Process#isAlive()}, which doesn't block.  Other kinds of processes, for
+ * example remote processes, may be monitored using a non-blocking probe of their exit
+ * value.  Asynchronous completions, like cleaning up after a process has terminated,
+ * are executed by a shared pool of daemon {@link Thread}s.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+@Internal
+public class ProcessExitMonitor
+{
+    /**
+     * The interval (in milliseconds) between polling the {@link Process}es.
+     */
+    private static final long POLLING_INTERVAL_MS = 10;
+
+    /**
+     * The single {@link Thread} polling the {@link Process}es.
+     */
+    private static final ScheduledExecutorService POLLER =
+        Executors.newSingleThreadScheduledExecutor(new ThreadFactory("ProcessExitMonitor"));
+
+    /**
+     * The pool of {@link Thread}s for asynchronous completions.
+     */
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(new ThreadFactory("ProcessExit"));
+
+    /**
+     * The {@link Process}es being monitored.
+     */
+    private static final ConcurrentLinkedQueue<Monitored> MONITORED = new ConcurrentLinkedQueue<>();
+
+    static
+    {
+        POLLER.scheduleWithFixedDelay(ProcessExitMonitor::poll,
+                                      POLLING_INTERVAL_MS,
+                                      POLLING_INTERVAL_MS,
+                                      TimeUnit.MILLISECONDS);
+    }
+
+
+    /**
+     * Obtains a {@link CompletableFuture} that is completed with the exit value of the specified
+     * {@link Process} when it terminates.
+     *
+     * @param process  the {@link Process}
+     *
+     * @return a {@link CompletableFuture} of the exit value
+     */
+    public static CompletableFuture<Integer> onExit(Process process)
+    {
+        return onExit(() -> process.isAlive() ? null : process.exitValue());
+    }
+
+
+    /**
+     * Obtains a {@link CompletableFuture} that is completed with the exit value provided by the
+     * specified probe, once the probe indicates that a process has terminated.
+     * <p>
+     * The probe is called periodically by a shared {@link Thread} and must not block.
+     *
+     * @param probe  the {@link Supplier} of the exit value, returning <code>null</code> while
+     *               the process is running
+     *
+     * @return a {@link CompletableFuture} of the exit value
+     */
+    public static CompletableFuture<Integer> onExit(Supplier<Integer> probe)
+    {
+        Monitored monitored = new Monitored(probe);
+
+        if (!monitored.complete())
+        {
+            MONITORED.add(monitored);
+        }
+
+        return monitored.future;
+    }
+
+
+    /**
+     * Obtains a {@link CompletableFuture} that is completed as the specified {@link CompletableFuture}
+     * is completed, or exceptionally with a {@link TimeoutException} when it is not completed
+     * within the specified time.
+     *
+     * @param <T>        the type of value
+     * @param future     the {@link CompletableFuture}
+     * @param timeoutMS  the maximum time to wait (in milliseconds) for completion
+     *
+     * @return a {@link CompletableFuture}
+     */
+    public static <T> CompletableFuture<T> within(CompletableFuture<T> future,
+                                                  long                 timeoutMS)
+    {
+        CompletableFuture<T> result = new CompletableFuture<>();
+
+        ScheduledFuture<?> timer = POLLER.schedule(() -> result.completeExceptionally(new TimeoutException("Not completed within "
+                                                                                                           + timeoutMS
+                                                                                                           + "ms")),
+                                                   timeoutMS,
+                                                   TimeUnit.MILLISECONDS);
+
+        future.whenComplete((value, throwable) -> {
+                                timer.cancel(false);
+
+                                if (throwable == null)
+                                {
+                                    result.complete(value);
+                                }
+                                else
+                                {
+                                    result.completeExceptionally(throwable);
+                                }
+                            });
+
+        return result;
+    }
+
+
+    /**
+     * Obtains the shared {@link Executor} for asynchronous completions.
+     *
+     * @return the {@link Executor}
+     */
+    public static Executor getExecutor()
+    {
+        return EXECUTOR;
+    }
+
+
+    /**
+     * Polls the monitored {@link Process}es, completing those that have terminated.
+     */
+    private static void poll()
+    {
+        for (Monitored monitored : MONITORED)
+        {
+            try
+            {
+                Integer exitValue = monitored.probe.get();
+
+                if (exitValue != null)
+                {
+                    MONITORED.remove(monitored);
+
+                    // complete asynchronously so that dependent actions don't delay polling
+                    EXECUTOR.execute(() -> monitored.future.complete(exitValue));
+                }
+            }
+            catch (RuntimeException e)
+            {
+                MONITORED.remove(monitored);
+                EXECUTOR.execute(() -> monitored.future.completeExceptionally(e));
+            }
+        }
+    }
+
+
+    /**
+     * A process being monitored.
+     */
+    private static class Monitored
+    {
+        /**
+         * The probe of the exit value of the process.
+         */
+        private final Supplier<Integer> probe;
+
+        /**
+         * The {@link CompletableFuture} to complete when the {@link Process} terminates.
+         */
+        private final CompletableFuture<Integer> future;
+
+
+        /**
+         * Constructs a {@link Monitored}.
+         *
+         * @param probe  the probe of the exit value of the process
+         */
+        private Monitored(Supplier<Integer> probe)
+        {
+            this.probe  = probe;
+            this.future = new CompletableFuture<>();
+        }
+
+
+        /**
+         * Completes the {@link CompletableFuture} when the process has terminated.
+         *
+         * @return <code>true</code> if the process has terminated
+         */
+        private boolean complete()
+        {
+            try
+            {
+                Integer exitValue = probe.get();
+
+                return exitValue != null && future.complete(exitValue);
+            }
+            catch (RuntimeException e)
+            {
+                return future.completeExceptionally(e);
+            }
+        }
+    }
+
+
+    /**
+     * A {@link java.util.concurrent.ThreadFactory} producing named daemon {@link Thread}s.
+     */
+    private static class ThreadFactory implements java.util.concurrent.ThreadFactory
+    {
+        /**
+         * The prefix for the names of the {@link Thread}s.
+         */
+        private final String prefix;
+
+        /**
+         * The number of {@link Thread}s created.
+         */
+        private final AtomicInteger count = new AtomicInteger(0);
+
+
+        /**
+         * Constructs a {@link ThreadFactory}.
+         *
+         * @param prefix  the prefix for the names of the {@link Thread}s
+         */
+        private ThreadFactory(String prefix)
+        {
+            this.prefix = prefix;
+        }
+
+
+        @Override
+        public Thread newThread(Runnable runnable)
+        {
+            Thread thread = new Thread(runnable);
+
+            thread.setDaemon(true);
+            thread.setName(prefix + "-" + count.incrementAndGet());
+
+            return thread;
+        }
+    }
+}
@@ -30,6 +30,7 @@ import com.oracle.bedrock.Bedrock;
 import com.oracle.bedrock.annotations.Internal;
 import com.oracle.bedrock.lang.StringHelper;
 import com.oracle.bedrock.runtime.options.Arguments;
+import com.oracle.bedrock.runtime.options.DescendantReaping;
 import com.oracle.bedrock.runtime.options.DisplayName;
 import com.oracle.bedrock.runtime.options.EnvironmentVariables;
 import com.oracle.bedrock.runtime.options.ErrorStreamRedirection;
@@ -259,8 +260,13 @@ public class SimpleApplicationLauncher implements ApplicationLauncher<Applicatio
                                                                                                        LocalApplicationProcess.class,
                                                                                                        OptionsByType.class);
 
+            // establish a LocalApplicationProcess to represent the underlying Process
+            LocalApplicationProcess localProcess = new LocalApplicationProcess(process);
+
+            localProcess.setReapDescendants(launchOptions.get(DescendantReaping.class).isEnabled());
+
             // create the application
-            application = constructor.newInstance(platform, new LocalApplicationProcess(process), launchOptions);
+            application = constructor.newInstance(platform, localProcess, launchOptions);
         }
         catch (Exception e)
         {
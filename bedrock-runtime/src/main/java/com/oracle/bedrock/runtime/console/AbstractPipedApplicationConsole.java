@@ -54,6 +54,12 @@ public abstract class AbstractPipedApplicationConsole implements ApplicationCons
      */
     public static final int DEFAULT_PIPE_SIZE = 1024;
 
+    /**
+     * Should output overflow into a spill file rather than block when
+     * the pipe is full?
+     */
+    private final boolean spillToDisk;
+
     /**
      * Readers and Writers for managing stdout.
      */
@@ -95,21 +101,47 @@ public abstract class AbstractPipedApplicationConsole implements ApplicationCons
      */
     public AbstractPipedApplicationConsole(int     pipeSize,
                                            boolean diagnosticMode)
+    {
+        this(pipeSize, diagnosticMode, false);
+    }
+
+
+    /**
+     * Constructs an {@link AbstractPipedApplicationConsole}.
+     * <p>
+     * When spilling to disk is enabled, output that can't be immediately written
+     * to a full pipe is buffered in memory and then in a memory-mapped spill file,
+     * instead of blocking the thread writing the output (and ultimately the
+     * {@link com.oracle.bedrock.runtime.Application} producing it).
+     *
+     * @param pipeSize         the size of the pipe's buffers
+     * @param diagnosticMode   if true, output to this console is formatted
+     *                         with application details and line numbers
+     * @param spillToDisk      if true, output overflows to disk rather than blocking
+     *
+     * @see SpillingPipedWriter
+     *
+     * @throws RuntimeException if an error occurs creating this {@link AbstractPipedApplicationConsole}
+     */
+    public AbstractPipedApplicationConsole(int     pipeSize,
+                                           boolean diagnosticMode,
+                                           boolean spillToDisk)
     {
         try
         {
             PipedReader pipedOutputReader = new PipedReader(pipeSize);
 
             this.diagnosticMode    = diagnosticMode;
+            this.spillToDisk       = spillToDisk;
 
             this.stdoutReader      = new BufferedReader(pipedOutputReader);
-            this.stdoutPipedWriter = new PipedWriter(pipedOutputReader);
+            this.stdoutPipedWriter = createPipedWriter(pipedOutputReader);
             this.stdoutWriter      = new PrintWriter(stdoutPipedWriter);
 
             PipedReader pipedErrorReader = new PipedReader(pipeSize);
 
             this.stderrReader      = new BufferedReader(pipedErrorReader);
-            this.stderrPipedWriter = new PipedWriter(pipedErrorReader);
+            this.stderrPipedWriter = createPipedWriter(pipedErrorReader);
             this.stderrWriter      = new PrintWriter(stderrPipedWriter);
 
             this.stdinReader       = new PipedReader(pipeSize);
@@ -122,6 +154,47 @@ public abstract class AbstractPipedApplicationConsole implements ApplicationCons
     }
 
 
+    /**
+     * Creates the {@link PipedWriter} connected to the specified {@link PipedReader}.
+     *
+     * @param reader  the {@link PipedReader}
+     *
+     * @return a {@link PipedWriter}
+     *
+     * @throws IOException if connecting to the {@link PipedReader} fails
+     */
+    private PipedWriter createPipedWriter(PipedReader reader) throws IOException
+    {
+        return spillToDisk
+               ? new SpillingPipedWriter(reader, SpillingPipedWriter.DEFAULT_MEMORY_THRESHOLD)
+               : new PipedWriter(reader);
+    }
+
+
+    /**
+     * Obtains the total number of bytes of stdout and stderr output that have been
+     * spilled to disk because a consumer of this {@link ApplicationConsole} fell behind.
+     *
+     * @return the number of spilled bytes (always zero when spilling is disabled)
+     */
+    public long getSpilledBytes()
+    {
+        long bytes = 0;
+
+        if (stdoutPipedWriter instanceof SpillingPipedWriter)
+        {
+            bytes += ((SpillingPipedWriter) stdoutPipedWriter).getSpilledBytes();
+        }
+
+        if (stderrPipedWriter instanceof SpillingPipedWriter)
+        {
+            bytes += ((SpillingPipedWriter) stderrPipedWriter).getSpilledBytes();
+        }
+
+        return bytes;
+    }
+
+
     @Override
     public PrintWriter getOutputWriter()
     {
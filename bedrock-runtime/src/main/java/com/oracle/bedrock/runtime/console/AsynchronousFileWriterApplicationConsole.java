@@ -0,0 +1,873 @@
+/*
+ * File: AsynchronousFileWriterApplicationConsole.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+package com.oracle.bedrock.runtime.console;
+
+import com.oracle.bedrock.lang.ThreadFactories;
+import com.oracle.bedrock.runtime.ApplicationConsole;
+import com.oracle.bedrock.runtime.ApplicationConsoleBuilder;
+import com.oracle.bedrock.runtime.java.io.NullReader;
+import com.oracle.bedrock.util.Duration;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * An {@link ApplicationConsole} that asynchronously writes standard output and
+ * error streams to a specified file, and uses a {@link NullReader} for standard input.
+ * <p>
+ * Unlike the {@link FileWriterApplicationConsole}, output is not written on the
+ * thread redirecting the application output.  Instead lines are placed on a
+ * bounded queue that is drained in batches by a dedicated writer {@link Thread},
+ * using large buffered writes.  Should the queue become full, the configured
+ * {@link OverflowPolicy} determines whether output is discarded or the redirecting
+ * thread is blocked.
+ * <p>
+ * Files may optionally be rotated when they exceed a maximum size and/or after
+ * a specified interval, in which case the rotated segments are named
+ * <code>file.1</code>, <code>file.2</code> etc, and may optionally be compressed
+ * in the background using gzip (producing <code>file.1.gz</code> etc).
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+public class AsynchronousFileWriterApplicationConsole implements ApplicationConsole
+{
+    /**
+     * The default capacity of the queue of pending output.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 16 * 1024;
+
+    /**
+     * The default size of the buffer used to write to a file.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The maximum number of pending chunks of output written in a single batch.
+     */
+    private static final int MAXIMUM_BATCH_SIZE = 1024;
+
+    /**
+     * The maximum time (in milliseconds) the writer {@link Thread} will wait for
+     * output before checking for time-based rotation.
+     */
+    private static final long MAXIMUM_POLLING_TIME_MS = 250;
+
+    /**
+     * The marker placed on the queue when the {@link ApplicationConsole} is closed,
+     * after which the writer {@link Thread} terminates (compared by identity).
+     */
+    private static final String END_OF_OUTPUT = new String("END_OF_OUTPUT");
+
+    /**
+     * The {@link File} to which output is written.
+     */
+    private final File file;
+
+    /**
+     * If true, application output should be formatted to
+     * include application information.
+     */
+    private final boolean diagnosticMode;
+
+    /**
+     * The {@link OverflowPolicy} to use when the queue is full.
+     */
+    private final OverflowPolicy overflowPolicy;
+
+    /**
+     * The maximum size (in bytes) of a file before it is rotated
+     * (zero when size-based rotation is disabled).
+     */
+    private final long maximumFileSize;
+
+    /**
+     * The interval (in milliseconds) after which a file is rotated
+     * (zero when time-based rotation is disabled).
+     */
+    private final long rotationIntervalMS;
+
+    /**
+     * Should rotated files be compressed using gzip?
+     */
+    private final boolean compressRotatedFiles;
+
+    /**
+     * The queue of output waiting to be written.
+     */
+    private final BlockingQueue<String> queue;
+
+    /**
+     * The Standard Output {@link PrintWriter}.
+     */
+    private final PrintWriter outputWriter;
+
+    /**
+     * The Standard Error {@link PrintWriter}.
+     */
+    private final PrintWriter errorWriter;
+
+    /**
+     * The Standard Input {@link Reader}.
+     */
+    private final Reader inputReader;
+
+    /**
+     * The {@link Thread} that writes queued output to the file.
+     */
+    private final Thread writerThread;
+
+    /**
+     * The {@link ExecutorService} used to compress rotated files.
+     */
+    private final ExecutorService compressor;
+
+    /**
+     * Has the {@link ApplicationConsole} been closed?
+     */
+    private final AtomicBoolean closed;
+
+    /**
+     * The number of chunks of output that were discarded due to the queue being full.
+     */
+    private final AtomicLong discardedCount;
+
+    /**
+     * The number of files that have been rotated.
+     */
+    private final AtomicLong rotationCount;
+
+    /**
+     * The {@link IOException} that terminated the writer {@link Thread}
+     * (<code>null</code> while output is being written).
+     */
+    private volatile IOException failure;
+
+
+    /**
+     * Constructs an {@link AsynchronousFileWriterApplicationConsole} that appends
+     * to the specified file without rotation, blocking when the queue is full.
+     *
+     * @param fileName  the file name of the log file
+     *
+     * @throws IOException if opening the file fails
+     */
+    public AsynchronousFileWriterApplicationConsole(String fileName) throws IOException
+    {
+        this(new File(fileName), true, DEFAULT_QUEUE_CAPACITY, OverflowPolicy.BLOCK, 0, null, false);
+    }
+
+
+    /**
+     * Constructs an {@link AsynchronousFileWriterApplicationConsole}.
+     *
+     * @param file                  the {@link File} to which to write output
+     * @param diagnosticMode        if true, output to this console is formatted
+     *                              with application details and line numbers
+     * @param queueCapacity         the maximum number of chunks of output that may be queued
+     * @param overflowPolicy        the {@link OverflowPolicy} to use when the queue is full
+     * @param maximumFileSize       the maximum size of a file in bytes before it is rotated
+     *                              (zero or less disables size-based rotation)
+     * @param rotationInterval      the {@link Duration} after which a file is rotated
+     *                              (<code>null</code> or zero disables time-based rotation)
+     * @param compressRotatedFiles  should rotated files be compressed using gzip
+     *
+     * @throws IOException if opening the file fails
+     */
+    public AsynchronousFileWriterApplicationConsole(File           file,
+                                                    boolean        diagnosticMode,
+                                                    int            queueCapacity,
+                                                    OverflowPolicy overflowPolicy,
+                                                    long           maximumFileSize,
+                                                    Duration       rotationInterval,
+                                                    boolean        compressRotatedFiles) throws IOException
+    {
+        this.file                 = file;
+        this.diagnosticMode       = diagnosticMode;
+        this.overflowPolicy       = overflowPolicy == null ? OverflowPolicy.BLOCK : overflowPolicy;
+        this.maximumFileSize      = Math.max(0, maximumFileSize);
+        this.rotationIntervalMS   = rotationInterval == null ? 0 : Math.max(0,
+                                                                            rotationInterval
+                                                                            .to(TimeUnit.MILLISECONDS));
+        this.compressRotatedFiles = compressRotatedFiles;
+
+        this.queue                = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.closed               = new AtomicBoolean(false);
+        this.discardedCount       = new AtomicLong(0);
+        this.rotationCount        = new AtomicLong(0);
+        this.failure              = null;
+
+        this.outputWriter         = new PrintWriter(new QueueingWriter());
+        this.errorWriter          = new PrintWriter(new QueueingWriter());
+        this.inputReader          = new NullReader();
+
+        this.compressor           = Executors.newSingleThreadExecutor(ThreadFactories.usingDaemonThreads(true));
+
+        // open the file before starting the writer so that failures are reported to the caller
+        FileSink sink = new FileSink();
+
+        this.writerThread = new Thread(sink);
+        this.writerThread.setDaemon(true);
+        this.writerThread.setName("AsynchronousFileWriter [" + file.getName() + "]");
+        this.writerThread.start();
+    }
+
+
+    @Override
+    public void close()
+    {
+        // flush anything remaining in the writers (while output can still be queued)
+        outputWriter.flush();
+        errorWriter.flush();
+
+        if (closed.compareAndSet(false, true))
+        {
+            try
+            {
+                inputReader.close();
+            }
+            catch (IOException e)
+            {
+                // SKIP: we don't care if an exception occurs - we're closing
+            }
+
+            try
+            {
+                // the writer thread drains the queue up to the end of output before terminating
+                while (!queue.offer(END_OF_OUTPUT, MAXIMUM_POLLING_TIME_MS, TimeUnit.MILLISECONDS))
+                {
+                    if (failure != null ||!writerThread.isAlive())
+                    {
+                        break;
+                    }
+                }
+
+                writerThread.join();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+
+            compressor.shutdown();
+
+            try
+            {
+                compressor.awaitTermination(1, TimeUnit.MINUTES);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+
+    @Override
+    public PrintWriter getOutputWriter()
+    {
+        return outputWriter;
+    }
+
+
+    @Override
+    public PrintWriter getErrorWriter()
+    {
+        return errorWriter;
+    }
+
+
+    @Override
+    public Reader getInputReader()
+    {
+        return inputReader;
+    }
+
+
+    @Override
+    public boolean isDiagnosticsEnabled()
+    {
+        return diagnosticMode;
+    }
+
+
+    /**
+     * Obtains the number of chunks of output that have been discarded due to
+     * the queue being full (according to the {@link OverflowPolicy}).
+     *
+     * @return the number of discarded chunks of output
+     */
+    public long getDiscardedCount()
+    {
+        return discardedCount.get();
+    }
+
+
+    /**
+     * Obtains the number of times the file has been rotated.
+     *
+     * @return the number of rotations
+     */
+    public long getRotationCount()
+    {
+        return rotationCount.get();
+    }
+
+
+    /**
+     * Obtains the {@link IOException} that prevented output from being written,
+     * after which all output is discarded.
+     *
+     * @return the {@link IOException} or <code>null</code> if output is being written
+     */
+    public IOException getFailure()
+    {
+        return failure;
+    }
+
+
+    /**
+     * Determines if output can no longer be written, either because the
+     * {@link ApplicationConsole} has been closed or writing has failed.
+     *
+     * @return <code>true</code> if output can no longer be written
+     */
+    private boolean isWriterTerminated()
+    {
+        return failure != null || (closed.get() &&!writerThread.isAlive());
+    }
+
+
+    /**
+     * Places the specified output on to the queue for writing, according to
+     * the {@link OverflowPolicy}.  Output is discarded once it can no longer be written.
+     *
+     * @param output  the output to write
+     */
+    private void enqueue(String output)
+    {
+        if (isWriterTerminated())
+        {
+            discardedCount.incrementAndGet();
+
+            return;
+        }
+
+        switch (overflowPolicy)
+        {
+        case DISCARD_NEWEST :
+            if (!queue.offer(output))
+            {
+                discardedCount.incrementAndGet();
+            }
+
+            break;
+
+        case DISCARD_OLDEST :
+            while (!queue.offer(output))
+            {
+                if (queue.poll() != null)
+                {
+                    discardedCount.incrementAndGet();
+                }
+            }
+
+            break;
+
+        default :
+            try
+            {
+                // wait for space, but never for a writer that has terminated
+                while (!queue.offer(output, MAXIMUM_POLLING_TIME_MS, TimeUnit.MILLISECONDS))
+                {
+                    if (isWriterTerminated())
+                    {
+                        discardedCount.incrementAndGet();
+
+                        break;
+                    }
+                }
+            }
+            catch (InterruptedException e)
+            {
+                discardedCount.incrementAndGet();
+                Thread.currentThread().interrupt();
+            }
+
+            break;
+        }
+    }
+
+
+    /**
+     * Obtains a {@link ApplicationConsoleBuilder} for the
+     * {@link AsynchronousFileWriterApplicationConsole}, without rotation.
+     *
+     * @param directory  the existing directory in which to create the files
+     * @param prefix     the prefix to use for files (may be null)
+     *
+     * @return a {@link ApplicationConsoleBuilder}
+     */
+    public static ApplicationConsoleBuilder builder(String directory,
+                                                    String prefix)
+    {
+        return builder(directory, prefix, OverflowPolicy.BLOCK, 0, null, false);
+    }
+
+
+    /**
+     * Obtains a {@link ApplicationConsoleBuilder} for the
+     * {@link AsynchronousFileWriterApplicationConsole}.
+     *
+     * @param directory             the existing directory in which to create the files
+     * @param prefix                the prefix to use for files (may be null)
+     * @param overflowPolicy        the {@link OverflowPolicy} to use when the queue is full
+     * @param maximumFileSize       the maximum size of a file in bytes before it is rotated
+     *                              (zero or less disables size-based rotation)
+     * @param rotationInterval      the {@link Duration} after which a file is rotated
+     *                              (<code>null</code> disables time-based rotation)
+     * @param compressRotatedFiles  should rotated files be compressed using gzip
+     *
+     * @return a {@link ApplicationConsoleBuilder}
+     */
+    public static ApplicationConsoleBuilder builder(final String         directory,
+                                                    final String         prefix,
+                                                    final OverflowPolicy overflowPolicy,
+                                                    final long           maximumFileSize,
+                                                    final Duration       rotationInterval,
+                                                    final boolean        compressRotatedFiles)
+    {
+        return new ApplicationConsoleBuilder()
+        {
+            @Override
+            public ApplicationConsole build(String applicationName)
+            {
+                // normalize the directory
+                String normalizedDirectory = directory.trim();
+
+                if (!normalizedDirectory.endsWith(File.separator))
+                {
+                    normalizedDirectory = normalizedDirectory + File.separator;
+                }
+
+                // ensure the directory exists
+                File file = new File(normalizedDirectory);
+
+                if (file.exists())
+                {
+                    // normalize the prefix
+                    String normalizedPrefix = prefix == null ? "" : prefix.trim();
+
+                    if (normalizedPrefix.length() > 0 &&!normalizedPrefix.endsWith("-"))
+                    {
+                        normalizedPrefix = normalizedPrefix + "-";
+                    }
+
+                    // normalize the application name
+                    String normalizedApplicationName = applicationName.trim();
+
+                    String fileName = normalizedDirectory + normalizedPrefix + normalizedApplicationName;
+
+                    try
+                    {
+                        return new AsynchronousFileWriterApplicationConsole(new File(fileName),
+                                                                            true,
+                                                                            DEFAULT_QUEUE_CAPACITY,
+                                                                            overflowPolicy,
+                                                                            maximumFileSize,
+                                                                            rotationInterval,
+                                                                            compressRotatedFiles);
+                    }
+                    catch (IOException e)
+                    {
+                        throw new RuntimeException("Failed to create file:" + fileName, e);
+                    }
+                }
+                else
+                {
+                    throw new RuntimeException("The specified directory [" + directory + "] does not exist");
+                }
+            }
+        };
+    }
+
+
+    /**
+     * The policy to apply when output is produced faster than it can be written,
+     * and the queue of pending output is full.
+     */
+    public enum OverflowPolicy
+    {
+        /**
+         * Block the thread producing output until space is available
+         * (no output is lost).
+         */
+        BLOCK,
+
+        /**
+         * Discard the output that could not be queued.
+         */
+        DISCARD_NEWEST,
+
+        /**
+         * Discard the oldest queued output to make room for the new output.
+         */
+        DISCARD_OLDEST
+    }
+
+
+    /**
+     * A {@link Writer} that accumulates written characters and places them on
+     * the queue as a single chunk each time it is flushed.
+     */
+    private class QueueingWriter extends Writer
+    {
+        /**
+         * The characters written since the last flush.
+         */
+        private final StringBuilder builder = new StringBuilder(256);
+
+
+        @Override
+        public synchronized void write(char[] chars,
+                                       int    offset,
+                                       int    length)
+        {
+            builder.append(chars, offset, length);
+
+            // avoid accumulating unbounded content when not flushed
+            if (builder.length() >= DEFAULT_BUFFER_SIZE)
+            {
+                flush();
+            }
+        }
+
+
+        @Override
+        public synchronized void flush()
+        {
+            if (builder.length() > 0)
+            {
+                String output = builder.toString();
+
+                builder.setLength(0);
+
+                enqueue(output);
+            }
+        }
+
+
+        @Override
+        public void close()
+        {
+            flush();
+        }
+    }
+
+
+    /**
+     * An {@link OutputStream} that counts the number of bytes written.
+     */
+    private static class CountingOutputStream extends FilterOutputStream
+    {
+        /**
+         * The number of bytes written.
+         */
+        private long count;
+
+
+        /**
+         * Constructs a {@link CountingOutputStream}.
+         *
+         * @param outputStream  the underlying {@link OutputStream}
+         */
+        CountingOutputStream(OutputStream outputStream)
+        {
+            super(outputStream);
+        }
+
+
+        @Override
+        public void write(int b) throws IOException
+        {
+            out.write(b);
+            count++;
+        }
+
+
+        @Override
+        public void write(byte[] bytes,
+                          int    offset,
+                          int    length) throws IOException
+        {
+            out.write(bytes, offset, length);
+            count += length;
+        }
+    }
+
+
+    /**
+     * The {@link Runnable} that drains the queue, writing batches of output
+     * to the current file and rotating the file as required.
+     */
+    private class FileSink implements Runnable
+    {
+        /**
+         * The {@link CountingOutputStream} for the current file.
+         */
+        private CountingOutputStream counter;
+
+        /**
+         * The {@link Writer} for the current file.
+         */
+        private Writer writer;
+
+        /**
+         * The time (in milliseconds) the current file was opened.
+         */
+        private long openedAtMS;
+
+        /**
+         * The sequence number of the last rotated file.
+         */
+        private long sequence;
+
+        /**
+         * Is rotation enabled?  Rotation is disabled when a file can't be rotated,
+         * in which case output continues to be appended to the current file.
+         */
+        private boolean rotationEnabled;
+
+
+        /**
+         * Constructs a {@link FileSink}, opening the file for appending.
+         *
+         * @throws IOException if opening the file fails
+         */
+        FileSink() throws IOException
+        {
+            sequence        = 0;
+            rotationEnabled = maximumFileSize > 0 || rotationIntervalMS > 0;
+
+            open();
+        }
+
+
+        /**
+         * Opens the file for appending.
+         *
+         * @throws IOException if opening the file fails
+         */
+        private void open() throws IOException
+        {
+            counter       = new CountingOutputStream(new FileOutputStream(file, true));
+            counter.count = file.length();
+            writer        = new BufferedWriter(new OutputStreamWriter(counter, StandardCharsets.UTF_8),
+                                               DEFAULT_BUFFER_SIZE);
+            openedAtMS    = System.currentTimeMillis();
+        }
+
+
+        /**
+         * Determines if the current file should be rotated.
+         *
+         * @return <code>true</code> if the file should be rotated
+         */
+        private boolean isRotationRequired()
+        {
+            return rotationEnabled && counter.count > 0
+                   && ((maximumFileSize > 0 && counter.count >= maximumFileSize)
+                       || (rotationIntervalMS > 0 && System.currentTimeMillis() - openedAtMS >= rotationIntervalMS));
+        }
+
+
+        /**
+         * Rotates the current file, optionally compressing the rotated segment.
+         *
+         * @throws IOException if rotation fails
+         */
+        private void rotate() throws IOException
+        {
+            writer.close();
+
+            // never replace existing rotated files (for example those from previous runs)
+            File rotated;
+
+            do
+            {
+                sequence++;
+                rotated = new File(file.getPath() + "." + sequence);
+            }
+            while (rotated.exists() || new File(rotated.getPath() + ".gz").exists());
+
+            if (file.renameTo(rotated))
+            {
+                rotationCount.incrementAndGet();
+
+                if (compressRotatedFiles)
+                {
+                    File segment = rotated;
+
+                    compressor.submit(() -> compress(segment));
+                }
+            }
+            else
+            {
+                // continue appending to the current file rather than attempting to rotate every batch
+                rotationEnabled = false;
+            }
+
+            open();
+        }
+
+
+        @Override
+        public void run()
+        {
+            ArrayList<String> batch = new ArrayList<>(MAXIMUM_BATCH_SIZE);
+            boolean           ended = false;
+
+            try
+            {
+                while (!ended)
+                {
+                    String output = queue.poll(MAXIMUM_POLLING_TIME_MS, TimeUnit.MILLISECONDS);
+
+                    if (output != null)
+                    {
+                        batch.add(output);
+                        queue.drainTo(batch, MAXIMUM_BATCH_SIZE - 1);
+
+                        for (int i = 0; i < batch.size() &&!ended; i++)
+                        {
+                            String chunk = batch.get(i);
+
+                            if (chunk == END_OF_OUTPUT)
+                            {
+                                // output queued after closing is never written
+                                discardedCount.addAndGet(batch.size() - i - 1);
+
+                                ended = true;
+                            }
+                            else
+                            {
+                                writer.write(chunk);
+                            }
+                        }
+
+                        batch.clear();
+
+                        writer.flush();
+                    }
+
+                    if (isRotationRequired())
+                    {
+                        rotate();
+                    }
+                }
+            }
+            catch (InterruptedException e)
+            {
+                // SKIP: we've been asked to terminate
+            }
+            catch (IOException e)
+            {
+                // record the failure so that output is no longer queued (or waited upon)
+                failure = e;
+            }
+            finally
+            {
+                try
+                {
+                    writer.close();
+                }
+                catch (IOException e)
+                {
+                    // SKIP: we don't care if an exception occurs - we're closing
+                }
+
+                // release the output that will never be written (along with any waiting threads)
+                discardedCount.addAndGet(queue.size());
+                queue.clear();
+            }
+        }
+    }
+
+
+    /**
+     * Compresses the specified {@link File} using gzip, replacing it with
+     * a file of the same name with a ".gz" suffix.
+     *
+     * @param source  the {@link File} to compress
+     */
+    private static void compress(File source)
+    {
+        File target = new File(source.getPath() + ".gz");
+
+        try (InputStream input = new FileInputStream(source);
+            OutputStream output = new GZIPOutputStream(new FileOutputStream(target), DEFAULT_BUFFER_SIZE))
+        {
+            byte[] buffer = new byte[DEFAULT_BUFFER_SIZE];
+            int    read;
+
+            while ((read = input.read(buffer)) >= 0)
+            {
+                output.write(buffer, 0, read);
+            }
+        }
+        catch (IOException e)
+        {
+            // leave the uncompressed file in place
+            target.delete();
+
+            return;
+        }
+
+        source.delete();
+    }
+}
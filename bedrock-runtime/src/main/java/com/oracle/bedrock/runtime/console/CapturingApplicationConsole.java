@@ -122,7 +122,26 @@ public class CapturingApplicationConsole extends AbstractPipedApplicationConsole
                                        boolean diagnosticMode,
                                        int     pipeSize)
     {
-        super(pipeSize, diagnosticMode);
+        this(maximumLines, diagnosticMode, pipeSize, false);
+    }
+
+
+    /**
+     * Constructs {@link CapturingApplicationConsole}.
+     *
+     * @param maximumLines    the number of lines of output to keep
+     * @param diagnosticMode  if true, output to this console is not formatted
+     *                        with application details or line numbers
+     * @param pipeSize        the size of the pipe's buffers
+     * @param spillToDisk     if true, output overflows to disk rather than blocking
+     *                        when output can't be captured fast enough
+     */
+    public CapturingApplicationConsole(int     maximumLines,
+                                       boolean diagnosticMode,
+                                       int     pipeSize,
+                                       boolean spillToDisk)
+    {
+        super(pipeSize, diagnosticMode, spillToDisk);
 
         this.maximumLines = maximumLines;
 
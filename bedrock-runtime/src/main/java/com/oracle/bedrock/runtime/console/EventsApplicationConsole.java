@@ -75,7 +75,23 @@ public class EventsApplicationConsole extends AbstractPipedApplicationConsole
      */
     public EventsApplicationConsole()
     {
-        super(DEFAULT_PIPE_SIZE, false);
+        this(false);
+    }
+
+
+    /**
+     * Constructs {@link EventsApplicationConsole}.
+     * <p>
+     * When spilling to disk is enabled, slow {@link Listener}s won't block the
+     * {@link com.oracle.bedrock.runtime.Application} producing the output.
+     * Instead output is buffered in a spill file until the {@link Listener}s
+     * catch up.
+     *
+     * @param spillToDisk  if true, output overflows to disk rather than blocking
+     */
+    public EventsApplicationConsole(boolean spillToDisk)
+    {
+        super(DEFAULT_PIPE_SIZE, false, spillToDisk);
 
         this.stdoutListeners = new ConcurrentLinkedQueue<>();
         this.stderrListeners = new ConcurrentLinkedQueue<>();
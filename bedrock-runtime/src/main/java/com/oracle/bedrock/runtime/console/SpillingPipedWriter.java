@@ -0,0 +1,516 @@
+/*
+ * File: SpillingPipedWriter.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+package com.oracle.bedrock.runtime.console;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PipedReader;
+import java.io.PipedWriter;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link PipedWriter} that never blocks the writing {@link Thread} when the
+ * connected {@link PipedReader} falls behind.
+ * <p>
+ * Written content is buffered in memory up to a threshold, after which it overflows
+ * into a memory-mapped spill file.  A dedicated daemon {@link Thread} drains the
+ * buffered and spilled content, in order, into the connected {@link PipedReader}
+ * as the consumer catches up.  The spill file is used as a circular buffer, so
+ * that the space of drained content is reused, and is only enlarged when the
+ * content waiting to be drained exceeds its capacity.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+public class SpillingPipedWriter extends PipedWriter
+{
+    /**
+     * The default number of characters that may be buffered in memory before spilling.
+     */
+    public static final int DEFAULT_MEMORY_THRESHOLD = 64 * 1024;
+
+    /**
+     * The initial capacity (in bytes) of the memory-mapped spill file.
+     */
+    private static final int INITIAL_SPILL_CAPACITY = 1024 * 1024;
+
+    /**
+     * The maximum capacity (in bytes) of the memory-mapped spill file, being the largest
+     * mappable size that holds a whole number of characters.
+     */
+    private static final int MAXIMUM_SPILL_CAPACITY = Integer.MAX_VALUE & ~1;
+
+    /**
+     * The number of characters that may be buffered in memory before spilling.
+     */
+    private final int memoryThreshold;
+
+    /**
+     * The pending chunks of content, either {@link String}s (in memory)
+     * or {@link Region}s (in the spill file), in the order they were written.
+     */
+    private final ArrayDeque<Object> chunks;
+
+    /**
+     * The number of characters currently buffered in memory.
+     */
+    private int memoryCharacters;
+
+    /**
+     * The {@link RandomAccessFile} used for spilling (lazily created).
+     */
+    private RandomAccessFile spillFile;
+
+    /**
+     * The {@link File} used for spilling (lazily created).
+     */
+    private File spillPath;
+
+    /**
+     * The {@link MappedByteBuffer} of the spill file.
+     */
+    private MappedByteBuffer spillBuffer;
+
+    /**
+     * The position (in bytes) in the spill file at which the next spill will be written.
+     */
+    private int spillPosition;
+
+    /**
+     * The position (in bytes) in the spill file from which the next spilled content will be drained.
+     */
+    private int drainPosition;
+
+    /**
+     * The number of spilled bytes waiting to be drained.
+     */
+    private long pendingSpilledBytes;
+
+    /**
+     * The total number of bytes that have been spilled.
+     */
+    private final AtomicLong spilledBytes;
+
+    /**
+     * The number of times content has overflowed into the spill file.
+     */
+    private final AtomicLong spillCount;
+
+    /**
+     * Has the {@link SpillingPipedWriter} been closed?
+     */
+    private boolean closed;
+
+    /**
+     * The {@link Thread} draining content into the {@link PipedReader}.
+     */
+    private final Thread drainer;
+
+
+    /**
+     * Constructs a {@link SpillingPipedWriter} connected to the specified {@link PipedReader}.
+     *
+     * @param reader           the {@link PipedReader} to connect to
+     * @param memoryThreshold  the number of characters to buffer in memory before spilling
+     *
+     * @throws IOException if connecting to the {@link PipedReader} fails
+     */
+    public SpillingPipedWriter(PipedReader reader,
+                               int         memoryThreshold) throws IOException
+    {
+        super(reader);
+
+        this.memoryThreshold  = Math.max(0, memoryThreshold);
+        this.chunks           = new ArrayDeque<>();
+        this.memoryCharacters = 0;
+        this.spilledBytes     = new AtomicLong(0);
+        this.spillCount       = new AtomicLong(0);
+        this.closed           = false;
+
+        this.drainer          = new Thread(this::drain);
+        this.drainer.setDaemon(true);
+        this.drainer.setName("SpillingPipedWriter Drainer");
+        this.drainer.start();
+    }
+
+
+    @Override
+    public void write(int c) throws IOException
+    {
+        write(new char[] {(char) c}, 0, 1);
+    }
+
+
+    @Override
+    public void write(char[] chars,
+                      int    offset,
+                      int    length) throws IOException
+    {
+        if (length <= 0)
+        {
+            return;
+        }
+
+        synchronized (chunks)
+        {
+            if (closed)
+            {
+                throw new IOException("Pipe closed");
+            }
+
+            // once spilling has started, continue spilling until the spill file has been drained
+            if (pendingSpilledBytes == 0 && memoryCharacters + length <= memoryThreshold)
+            {
+                chunks.add(new String(chars, offset, length));
+                memoryCharacters += length;
+            }
+            else
+            {
+                chunks.add(spill(chars, offset, length));
+            }
+
+            chunks.notifyAll();
+        }
+    }
+
+
+    @Override
+    public void flush()
+    {
+        // SKIP: the drainer flushes the underlying pipe as content is drained
+    }
+
+
+    @Override
+    public void close()
+    {
+        synchronized (chunks)
+        {
+            closed = true;
+            chunks.notifyAll();
+        }
+    }
+
+
+    /**
+     * Obtains the total number of bytes that have been spilled to disk.
+     *
+     * @return the number of spilled bytes
+     */
+    public long getSpilledBytes()
+    {
+        return spilledBytes.get();
+    }
+
+
+    /**
+     * Obtains the number of bytes currently spilled to disk that are waiting to be drained.
+     *
+     * @return the number of pending spilled bytes
+     */
+    public long getPendingSpilledBytes()
+    {
+        synchronized (chunks)
+        {
+            return pendingSpilledBytes;
+        }
+    }
+
+
+    /**
+     * Obtains the number of times content has overflowed into the spill file.
+     *
+     * @return the number of spills
+     */
+    public long getSpillCount()
+    {
+        return spillCount.get();
+    }
+
+
+    /**
+     * Writes the specified characters into the spill file (must be called while
+     * synchronized on the chunks).
+     *
+     * @param chars   the characters
+     * @param offset  the offset of the first character
+     * @param length  the number of characters
+     *
+     * @return the {@link Region} of the spill file containing the characters
+     *
+     * @throws IOException if spilling fails
+     */
+    private Region spill(char[] chars,
+                         int    offset,
+                         int    length) throws IOException
+    {
+        int bytes = length * 2;
+
+        ensureSpillCapacity(pendingSpilledBytes + bytes);
+
+        Region region = new Region(spillPosition, length);
+
+        // the spilled content wraps around to the start of the spill file when it reaches the end
+        for (int i = 0; i < length; i++)
+        {
+            spillBuffer.putChar(spillPosition, chars[offset + i]);
+            spillPosition = advance(spillPosition);
+        }
+
+        if (pendingSpilledBytes == 0)
+        {
+            spillCount.incrementAndGet();
+        }
+
+        pendingSpilledBytes += bytes;
+        spilledBytes.addAndGet(bytes);
+
+        return region;
+    }
+
+
+    /**
+     * Obtains the position of the character following that at the specified position
+     * in the spill file, wrapping around to the start of the spill file at its end.
+     *
+     * @param position  the position (in bytes) of a character
+     *
+     * @return the position (in bytes) of the next character
+     */
+    private int advance(int position)
+    {
+        position += 2;
+
+        return position == spillBuffer.capacity() ? 0 : position;
+    }
+
+
+    /**
+     * Ensures the spill file is mapped with at least the specified capacity
+     * (must be called while synchronized on the chunks).
+     * <p>
+     * When the spill file is enlarged, pending content that has wrapped around to the
+     * start of the spill file is moved to follow the content at the end of the spill
+     * file, so that the pending content remains contiguous in the enlarged spill file.
+     *
+     * @param capacity  the required capacity in bytes
+     *
+     * @throws IOException if the spill file can't be created or mapped
+     */
+    private void ensureSpillCapacity(long capacity) throws IOException
+    {
+        if (capacity > MAXIMUM_SPILL_CAPACITY)
+        {
+            throw new IOException("Spill file capacity exceeded");
+        }
+
+        if (spillFile == null)
+        {
+            spillPath = File.createTempFile("bedrock-console-", ".spill");
+            spillPath.deleteOnExit();
+
+            spillFile = new RandomAccessFile(spillPath, "rw");
+        }
+
+        if (spillBuffer == null || spillBuffer.capacity() < capacity)
+        {
+            int  previous = spillBuffer == null ? 0 : spillBuffer.capacity();
+            long size     = spillBuffer == null ? INITIAL_SPILL_CAPACITY : previous;
+
+            while (size < capacity)
+            {
+                size = Math.min(size * 2, MAXIMUM_SPILL_CAPACITY);
+            }
+
+            spillBuffer = spillFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+
+            // the pending content wraps when the next spill position isn't after the drain position
+            if (pendingSpilledBytes > 0 && spillPosition <= drainPosition)
+            {
+                ByteBuffer wrapped = spillBuffer.duplicate();
+
+                wrapped.limit(spillPosition);
+
+                ByteBuffer target = spillBuffer.duplicate();
+
+                target.position(previous);
+                target.put(wrapped);
+
+                for (Object chunk : chunks)
+                {
+                    if (chunk instanceof Region && ((Region) chunk).position < drainPosition)
+                    {
+                        ((Region) chunk).position += previous;
+                    }
+                }
+
+                spillPosition += previous;
+            }
+        }
+    }
+
+
+    /**
+     * Drains the pending chunks into the connected {@link PipedReader}, until closed.
+     */
+    private void drain()
+    {
+        try
+        {
+            while (true)
+            {
+                char[] content;
+
+                synchronized (chunks)
+                {
+                    while (chunks.isEmpty() &&!closed)
+                    {
+                        chunks.wait();
+                    }
+
+                    Object chunk = chunks.poll();
+
+                    if (chunk == null)
+                    {
+                        break;
+                    }
+                    else if (chunk instanceof String)
+                    {
+                        String string = (String) chunk;
+
+                        memoryCharacters -= string.length();
+                        content          = string.toCharArray();
+                    }
+                    else
+                    {
+                        Region region = (Region) chunk;
+
+                        content       = new char[region.length];
+                        drainPosition = region.position;
+
+                        for (int i = 0; i < region.length; i++)
+                        {
+                            content[i]    = spillBuffer.getChar(drainPosition);
+                            drainPosition = advance(drainPosition);
+                        }
+
+                        pendingSpilledBytes -= region.length * 2;
+
+                        // restart from the beginning of the spill file once it has been drained
+                        if (pendingSpilledBytes == 0)
+                        {
+                            spillPosition = 0;
+                            drainPosition = 0;
+                        }
+                    }
+                }
+
+                // write outside of synchronization as this may block until the reader catches up
+                super.write(content, 0, content.length);
+                super.flush();
+            }
+        }
+        catch (InterruptedException | IOException e)
+        {
+            // SKIP: the reader has gone away or we've been asked to terminate
+        }
+        finally
+        {
+            synchronized (chunks)
+            {
+                closed = true;
+
+                chunks.clear();
+
+                memoryCharacters    = 0;
+                pendingSpilledBytes = 0;
+                spillBuffer         = null;
+
+                if (spillFile != null)
+                {
+                    try
+                    {
+                        spillFile.close();
+                    }
+                    catch (IOException e)
+                    {
+                        // SKIP: we don't care if an exception occurs - we're closing
+                    }
+
+                    spillPath.delete();
+                }
+            }
+
+            try
+            {
+                super.close();
+            }
+            catch (IOException e)
+            {
+                // SKIP: we don't care if an exception occurs - we're closing
+            }
+        }
+    }
+
+
+    /**
+     * A region of characters in the spill file.
+     */
+    private static class Region
+    {
+        /**
+         * The position (in bytes) of the region in the spill file
+         * (which changes when pending content is moved as the spill file is enlarged).
+         */
+        private int position;
+
+        /**
+         * The number of characters in the region.
+         */
+        private final int length;
+
+
+        /**
+         * Constructs a {@link Region}.
+         *
+         * @param position  the position (in bytes) of the region
+         * @param length    the number of characters in the region
+         */
+        Region(int position,
+               int length)
+        {
+            this.position = position;
+            this.length   = length;
+        }
+    }
+}
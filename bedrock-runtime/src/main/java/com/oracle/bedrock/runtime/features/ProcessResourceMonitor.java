@@ -0,0 +1,674 @@
+/*
+ * File: ProcessResourceMonitor.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of 
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+package com.oracle.bedrock.runtime.features;
+
+import com.oracle.bedrock.diagnostics.TimeSeries;
+import com.oracle.bedrock.extensible.AbstractFeature;
+import com.oracle.bedrock.extensible.Extensible;
+import com.oracle.bedrock.runtime.Application;
+import com.oracle.bedrock.runtime.LocalPlatform;
+import com.oracle.bedrock.util.Duration;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A {@link com.oracle.bedrock.extensible.Feature} that periodically samples the operating system
+ * resources used by the process of an {@link Application} launched by the {@link LocalPlatform},
+ * using the Linux <code>/proc</code> file system.
+ * <p>
+ * The CPU time, CPU utilization, resident memory, number of threads, number of open file descriptors
+ * and the bytes read and written by the process are recorded as {@link TimeSeries}.  Optional
+ * {@link Threshold}s may be defined, violations of which are logged and may be asserted using
+ * {@link #assertWithinThresholds()}.
+ * <p>
+ * All {@link ProcessResourceMonitor}s are sampled by a single shared {@link Thread}.  On platforms
+ * without a <code>/proc</code> file system, or for {@link Application}s that aren't local processes,
+ * the {@link ProcessResourceMonitor} does nothing.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+public class ProcessResourceMonitor extends AbstractFeature
+{
+    /**
+     * The accumulated CPU time (user and system) of the process, in milliseconds.
+     */
+    public static final String CPU_TIME = "cpu.time";
+
+    /**
+     * The CPU utilization of the process since the previous sample, where 1.0 is one fully utilized CPU.
+     */
+    public static final String CPU_UTILIZATION = "cpu.utilization";
+
+    /**
+     * The resident memory of the process, in bytes.
+     */
+    public static final String RESIDENT_MEMORY = "memory.resident";
+
+    /**
+     * The number of threads of the process.
+     */
+    public static final String THREADS = "threads";
+
+    /**
+     * The number of open file descriptors of the process.
+     */
+    public static final String FILE_DESCRIPTORS = "file.descriptors";
+
+    /**
+     * The accumulated bytes read by the process (including from pipes and sockets).
+     */
+    public static final String IO_READ = "io.read";
+
+    /**
+     * The accumulated bytes written by the process (including to pipes and sockets).
+     */
+    public static final String IO_WRITE = "io.write";
+
+    /**
+     * The default number of samples retained for each resource.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * The number of clock ticks per second reported by <code>/proc</code> (USER_HZ),
+     * which is fixed at 100 on Linux platforms.
+     */
+    private static final long CLOCK_TICKS_PER_SECOND = 100;
+
+    /**
+     * The <code>/proc</code> file system.
+     */
+    private static final Path PROC = Paths.get("/proc");
+
+    /**
+     * The {@link Logger} for this class.
+     */
+    private static final Logger LOGGER = Logger.getLogger(ProcessResourceMonitor.class.getName());
+
+    /**
+     * The single scheduler {@link Thread} shared by all {@link ProcessResourceMonitor}s.
+     */
+    private static final ScheduledExecutorService SCHEDULER;
+
+    static
+    {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new ThreadFactory());
+
+        executor.setRemoveOnCancelPolicy(true);
+
+        SCHEDULER = executor;
+    }
+
+    /**
+     * The interval between samples.
+     */
+    private final Duration interval;
+
+    /**
+     * The {@link Threshold}s to check.
+     */
+    private final Threshold[] thresholds;
+
+    /**
+     * The {@link TimeSeries} for each resource, by resource name.
+     */
+    private final LinkedHashMap<String, TimeSeries> timeSeries;
+
+    /**
+     * The {@link Threshold} violations that have occurred.
+     */
+    private final LinkedHashMap<Threshold, String> violations;
+
+    /**
+     * The <code>/proc</code> directory of the process being monitored.
+     */
+    private volatile Path processDirectory;
+
+    /**
+     * The {@link ScheduledFuture} for sampling.
+     */
+    private ScheduledFuture<?> schedule;
+
+    /**
+     * The CPU time (in milliseconds) at the previous sample (-1 when there is no previous sample).
+     */
+    private long previousCpuTimeMS;
+
+    /**
+     * The time (in nanoseconds) of the previous sample.
+     */
+    private long previousSampleNS;
+
+
+    /**
+     * Constructs a {@link ProcessResourceMonitor}, retaining the {@link #DEFAULT_CAPACITY}
+     * number of samples for each resource.
+     *
+     * @param interval    the interval between samples
+     * @param thresholds  the {@link Threshold}s to check
+     */
+    public ProcessResourceMonitor(Duration     interval,
+                                  Threshold... thresholds)
+    {
+        if (interval.to(TimeUnit.MILLISECONDS) <= 0)
+        {
+            throw new IllegalArgumentException("The sampling interval must be positive");
+        }
+
+        this.interval          = interval;
+        this.thresholds        = thresholds.clone();
+        this.timeSeries        = new LinkedHashMap<>();
+        this.violations        = new LinkedHashMap<>();
+        this.previousCpuTimeMS = -1;
+
+        for (String resource : new String[] {CPU_TIME, CPU_UTILIZATION, RESIDENT_MEMORY, THREADS, FILE_DESCRIPTORS,
+                                             IO_READ, IO_WRITE})
+        {
+            timeSeries.put(resource, new TimeSeries(resource, DEFAULT_CAPACITY));
+        }
+    }
+
+
+    /**
+     * Determines if process resources can be monitored on this platform.
+     *
+     * @return <code>true</code> if the <code>/proc</code> file system is available
+     */
+    public static boolean isSupported()
+    {
+        return Files.isReadable(PROC.resolve("self").resolve("stat"));
+    }
+
+
+    /**
+     * Obtains the {@link TimeSeries} for the specified resource.
+     *
+     * @param resource  the name of the resource, for example {@link #RESIDENT_MEMORY}
+     *
+     * @return the {@link TimeSeries} or <code>null</code> if the resource is unknown
+     */
+    public TimeSeries getTimeSeries(String resource)
+    {
+        return timeSeries.get(resource);
+    }
+
+
+    /**
+     * Obtains the {@link Threshold} violations that have occurred.
+     *
+     * @return the descriptions of the violations
+     */
+    public List<String> getViolations()
+    {
+        synchronized (violations)
+        {
+            return new ArrayList<>(violations.values());
+        }
+    }
+
+
+    /**
+     * Asserts that no {@link Threshold}s have been exceeded.
+     *
+     * @throws AssertionError when one or more {@link Threshold}s have been exceeded
+     */
+    public void assertWithinThresholds()
+    {
+        List<String> violations = getViolations();
+
+        if (!violations.isEmpty())
+        {
+            throw new AssertionError("Process resource thresholds exceeded: " + violations);
+        }
+    }
+
+
+    @Override
+    public void onAddingTo(Extensible extensible)
+    {
+        super.onAddingTo(extensible);
+
+        Application application = extensible.get(Application.class);
+
+        // only processes launched by the LocalPlatform are visible through /proc
+        if (application != null && application.getPlatform() instanceof LocalPlatform && application.getId() > 0
+            && isSupported())
+        {
+            processDirectory = PROC.resolve(Long.toString(application.getId()));
+
+            long intervalMS = interval.to(TimeUnit.MILLISECONDS);
+
+            synchronized (this)
+            {
+                schedule = SCHEDULER.scheduleAtFixedRate(this::sample, 0, intervalMS, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+
+    @Override
+    public void onRemovingFrom(Extensible extensible)
+    {
+        cancel();
+
+        super.onRemovingFrom(extensible);
+    }
+
+
+    /**
+     * Stops sampling.
+     */
+    private synchronized void cancel()
+    {
+        if (schedule != null)
+        {
+            schedule.cancel(false);
+            schedule = null;
+        }
+
+        processDirectory = null;
+    }
+
+
+    /**
+     * Takes a sample of the resources used by the process, ceasing sampling once the process has terminated.
+     */
+    protected void sample()
+    {
+        Path directory = processDirectory;
+
+        if (directory == null)
+        {
+            return;
+        }
+
+        try
+        {
+            long   timestamp = System.currentTimeMillis();
+            long   sampleNS  = System.nanoTime();
+            String stat      = new String(Files.readAllBytes(directory.resolve("stat")), StandardCharsets.US_ASCII);
+
+            // the command name may contain spaces, so the fields are parsed after its closing parenthesis
+            // (the first of these fields is the 3rd field of the stat file)
+            String[] fields    = stat.substring(stat.lastIndexOf(')') + 2).trim().split("\\s+");
+            long     cpuTimeMS = (Long.parseLong(fields[11]) + Long.parseLong(fields[12])) * 1000
+                                 / CLOCK_TICKS_PER_SECOND;
+
+            record(directory, timestamp, CPU_TIME, cpuTimeMS);
+            record(directory, timestamp, THREADS, Long.parseLong(fields[17]));
+
+            synchronized (this)
+            {
+                if (previousCpuTimeMS >= 0 && sampleNS > previousSampleNS)
+                {
+                    record(directory,
+                           timestamp,
+                           CPU_UTILIZATION,
+                           (cpuTimeMS - previousCpuTimeMS) * 1000000.0 / (sampleNS - previousSampleNS));
+                }
+
+                previousCpuTimeMS = cpuTimeMS;
+                previousSampleNS  = sampleNS;
+            }
+
+            for (String line : Files.readAllLines(directory.resolve("status"), StandardCharsets.US_ASCII))
+            {
+                if (line.startsWith("VmRSS:"))
+                {
+                    record(directory, timestamp, RESIDENT_MEMORY, Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024);
+                }
+            }
+
+            int descriptors = 0;
+
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory.resolve("fd")))
+            {
+                for (Path ignored : stream)
+                {
+                    descriptors++;
+                }
+
+                record(directory, timestamp, FILE_DESCRIPTORS, descriptors);
+            }
+            catch (IOException | SecurityException e)
+            {
+                // SKIP: the file descriptors of the process may not be accessible
+            }
+
+            try
+            {
+                for (String line : Files.readAllLines(directory.resolve("io"), StandardCharsets.US_ASCII))
+                {
+                    if (line.startsWith("rchar:"))
+                    {
+                        record(directory, timestamp, IO_READ, Long.parseLong(line.substring(6).trim()));
+                    }
+                    else if (line.startsWith("wchar:"))
+                    {
+                        record(directory, timestamp, IO_WRITE, Long.parseLong(line.substring(6).trim()));
+                    }
+                }
+            }
+            catch (IOException | SecurityException e)
+            {
+                // SKIP: the I/O statistics of the process may not be accessible
+            }
+        }
+        catch (IOException | RuntimeException e)
+        {
+            // the process has terminated when its /proc directory no longer exists
+            if (!Files.exists(directory))
+            {
+                cancel();
+            }
+        }
+    }
+
+
+    /**
+     * Records a sample of a resource, checking the {@link Threshold}s for the resource.
+     *
+     * @param directory  the <code>/proc</code> directory of the process
+     * @param timestamp  the time of the sample (in milliseconds since the epoch)
+     * @param resource   the name of the resource
+     * @param value      the value of the sample
+     */
+    private void record(Path   directory,
+                        long   timestamp,
+                        String resource,
+                        double value)
+    {
+        timeSeries.get(resource).add(timestamp, value);
+
+        for (Threshold threshold : thresholds)
+        {
+            if (threshold.resource.equals(resource) && value > threshold.maximum)
+            {
+                synchronized (violations)
+                {
+                    // only the first violation of each threshold is retained and logged
+                    if (!violations.containsKey(threshold))
+                    {
+                        String violation = String.format("%s of %s exceeded %s (was %s)",
+                                                         resource,
+                                                         directory,
+                                                         threshold.maximum,
+                                                         value);
+
+                        violations.put(threshold, violation);
+
+                        LOGGER.log(Level.WARNING, violation);
+                    }
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Aggregates the samples of a resource from each of the specified {@link Application}s
+     * (typically the members of an {@link com.oracle.bedrock.runtime.Assembly}) into a single
+     * {@link TimeSeries}, by summing the samples of the {@link Application}s for each sampling
+     * interval.  {@link Application}s without a {@link ProcessResourceMonitor} are ignored.
+     *
+     * @param applications  the {@link Application}s
+     * @param resource      the name of the resource, for example {@link #RESIDENT_MEMORY}
+     *
+     * @return a new {@link TimeSeries} containing the sum of the samples from all of the
+     *         {@link Application}s for each sampling interval
+     *
+     * @see TimeSeries#sum(String, long, java.util.Collection)
+     */
+    public static TimeSeries aggregate(Iterable<? extends Application> applications,
+                                       String                          resource)
+    {
+        List<TimeSeries> series     = new ArrayList<>();
+        long             intervalMS = 1;
+
+        for (Application application : applications)
+        {
+            ProcessResourceMonitor monitor = application.get(ProcessResourceMonitor.class);
+            TimeSeries             samples = monitor == null ? null : monitor.getTimeSeries(resource);
+
+            if (samples != null)
+            {
+                series.add(samples);
+
+                intervalMS = Math.max(intervalMS, monitor.interval.to(TimeUnit.MILLISECONDS));
+            }
+        }
+
+        return TimeSeries.sum(resource, intervalMS, series);
+    }
+
+
+    /**
+     * Determines the total of the latest samples of a resource from each of the specified
+     * {@link Application}s (typically the members of an {@link com.oracle.bedrock.runtime.Assembly}),
+     * for example the total resident memory of an {@link com.oracle.bedrock.runtime.Assembly}.
+     *
+     * @param applications  the {@link Application}s
+     * @param resource      the name of the resource, for example {@link #RESIDENT_MEMORY}
+     *
+     * @return the total of the latest samples, zero when there are none
+     */
+    public static double total(Iterable<? extends Application> applications,
+                               String                          resource)
+    {
+        double total = 0;
+
+        for (Application application : applications)
+        {
+            ProcessResourceMonitor monitor = application.get(ProcessResourceMonitor.class);
+            TimeSeries             samples = monitor == null ? null : monitor.getTimeSeries(resource);
+
+            if (samples != null && samples.size() > 0)
+            {
+                total += samples.getLatest();
+            }
+        }
+
+        return total;
+    }
+
+
+    /**
+     * Asserts that none of the {@link ProcessResourceMonitor}s of the specified {@link Application}s
+     * (typically the members of an {@link com.oracle.bedrock.runtime.Assembly}) have exceeded their
+     * {@link Threshold}s.
+     *
+     * @param applications  the {@link Application}s
+     *
+     * @throws AssertionError when one or more {@link Threshold}s have been exceeded
+     */
+    public static void assertWithinThresholds(Iterable<? extends Application> applications)
+    {
+        List<String> violations = new ArrayList<>();
+
+        for (Application application : applications)
+        {
+            ProcessResourceMonitor monitor = application.get(ProcessResourceMonitor.class);
+
+            if (monitor != null)
+            {
+                violations.addAll(monitor.getViolations());
+            }
+        }
+
+        if (!violations.isEmpty())
+        {
+            throw new AssertionError("Process resource thresholds exceeded: " + violations);
+        }
+    }
+
+
+    /**
+     * A maximum permitted value for a resource.
+     */
+    public static class Threshold
+    {
+        /**
+         * The name of the resource.
+         */
+        private final String resource;
+
+        /**
+         * The maximum permitted value of the resource.
+         */
+        private final double maximum;
+
+
+        /**
+         * Constructs a {@link Threshold}.
+         *
+         * @param resource  the name of the resource
+         * @param maximum   the maximum permitted value of the resource
+         */
+        private Threshold(String resource,
+                          double maximum)
+        {
+            this.resource = resource;
+            this.maximum  = maximum;
+        }
+
+
+        /**
+         * Creates a {@link Threshold} for the specified resource.
+         *
+         * @param resource  the name of the resource, for example {@link #RESIDENT_MEMORY}
+         * @param maximum   the maximum permitted value of the resource
+         *
+         * @return a new {@link Threshold}
+         */
+        public static Threshold of(String resource,
+                                   double maximum)
+        {
+            return new Threshold(resource, maximum);
+        }
+
+
+        /**
+         * Creates a {@link Threshold} for the resident memory of a process.
+         *
+         * @param bytes  the maximum number of bytes
+         *
+         * @return a new {@link Threshold}
+         */
+        public static Threshold residentMemory(long bytes)
+        {
+            return new Threshold(RESIDENT_MEMORY, bytes);
+        }
+
+
+        /**
+         * Creates a {@link Threshold} for the number of threads of a process.
+         *
+         * @param threads  the maximum number of threads
+         *
+         * @return a new {@link Threshold}
+         */
+        public static Threshold threads(int threads)
+        {
+            return new Threshold(THREADS, threads);
+        }
+
+
+        /**
+         * Creates a {@link Threshold} for the number of open file descriptors of a process.
+         *
+         * @param descriptors  the maximum number of open file descriptors
+         *
+         * @return a new {@link Threshold}
+         */
+        public static Threshold fileDescriptors(int descriptors)
+        {
+            return new Threshold(FILE_DESCRIPTORS, descriptors);
+        }
+
+
+        /**
+         * Creates a {@link Threshold} for the CPU utilization of a process.
+         *
+         * @param cpus  the maximum number of fully utilized CPUs, for example 1.5
+         *
+         * @return a new {@link Threshold}
+         */
+        public static Threshold cpuUtilization(double cpus)
+        {
+            return new Threshold(CPU_UTILIZATION, cpus);
+        }
+
+
+        @Override
+        public String toString()
+        {
+            return "Threshold{" + resource + " <= " + maximum + "}";
+        }
+    }
+
+
+    /**
+     * A {@link java.util.concurrent.ThreadFactory} producing the daemon {@link Thread}
+     * for sampling process resources.
+     */
+    private static class ThreadFactory implements java.util.concurrent.ThreadFactory
+    {
+        /**
+         * The number of {@link Thread}s created.
+         */
+        private final AtomicInteger count = new AtomicInteger(0);
+
+
+        @Override
+        public Thread newThread(Runnable runnable)
+        {
+            Thread thread = new Thread(runnable);
+
+            thread.setDaemon(true);
+            thread.setName("ProcessResourceMonitor-" + count.incrementAndGet());
+
+            return thread;
+        }
+    }
+}
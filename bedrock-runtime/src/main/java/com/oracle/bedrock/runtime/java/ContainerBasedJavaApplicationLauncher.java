@@ -401,33 +401,34 @@ public class ContainerBasedJavaApplicationLauncher<A extends JavaApplication> im
                                               PipedInputStream     pipedInputStream,
                                               String               targetClassName)
     {
-        // remember the current context ClassLoader of the thread
-        // (so that we can return it back to normal when we're finished executing)
-        ClassLoader originalClassLoader = Thread.currentThread().getContextClassLoader();
-
         try
         {
-            // set the context ClassLoader of the Thread to be that of the
-            // ContainerClassLoader
-            Thread.currentThread().setContextClassLoader(containerClassLoader);
-
-            // and associate the Thread with the Scope in the Container
-            Container.associateThreadWith(containerClassLoader.getContainerScope());
-
-            // create the Remote Channel
-            Class<?> remoteChannelClass = containerClassLoader.loadClass(PipeBasedRemoteChannel.class.getName());
-
-            Constructor<?> constructor = remoteChannelClass.getConstructor(PipedOutputStream.class,
+            // configure the channel with the Thread temporarily associated with the Scope and
+            // ContainerClassLoader, without affecting any existing association of the Thread
+            // (so that concurrent and nested launches are isolated from each other)
+            Container.callWithin(containerClassLoader.getContainerScope(),
+                                 containerClassLoader,
+                                 () -> {
+                                     // create the Remote Channel
+                                     Class<?> remoteChannelClass =
+                                         containerClassLoader.loadClass(PipeBasedRemoteChannel.class.getName());
+
+                                     Constructor<?> constructor =
+                                         remoteChannelClass.getConstructor(PipedOutputStream.class,
                                                                            PipedInputStream.class);
 
-            Object remoteChannel = constructor.newInstance(pipedOutputStream, pipedInputStream);
+                                     Object remoteChannel = constructor.newInstance(pipedOutputStream,
+                                                                                    pipedInputStream);
 
-            // open the RemoteChannel
-            remoteChannelClass.getMethod("open").invoke(remoteChannel);
+                                     // open the RemoteChannel
+                                     remoteChannelClass.getMethod("open").invoke(remoteChannel);
 
-            // save the RemoteChannel into the ContainerScope so that we can resolve it from within
-            // the application when required
-            containerClassLoader.getContainerScope().setRemoteChannel(remoteChannel);
+                                     // save the RemoteChannel into the ContainerScope so that we can resolve
+                                     // it from within the application when required
+                                     containerClassLoader.getContainerScope().setRemoteChannel(remoteChannel);
+
+                                     return null;
+                                 });
         }
         catch (ClassNotFoundException e)
         {
@@ -438,14 +439,6 @@ public class ContainerBasedJavaApplicationLauncher<A extends JavaApplication> im
         {
             throw new RuntimeException(e);
         }
-        finally
-        {
-            // afterwards dissociate the Thread from the Scope in the Container
-            Container.dissociateThread();
-
-            // and return the current context ClassLoader back to normal
-            Thread.currentThread().setContextClassLoader(originalClassLoader);
-        }
     }
 
 
@@ -551,6 +544,12 @@ public class ContainerBasedJavaApplicationLauncher<A extends JavaApplication> im
          */
         private CompletableFuture<Void> destroyListener;
 
+        /**
+         * The {@link CompletableFuture} completed when the application terminates,
+         * either by its start future completing or by being closed.
+         */
+        private final CompletableFuture<Integer> exitFuture;
+
         /**
          * The {@link RemoteChannel} over which communication to and from the {@link JavaApplication}
          * will occur.
@@ -604,6 +603,8 @@ public class ContainerBasedJavaApplicationLauncher<A extends JavaApplication> im
             this.channel          = new PipeBasedRemoteChannel(outboundChannelOutputStream, inboundChannelInputStream);
 
             this.systemProperties = systemProperties;
+
+            this.exitFuture       = new CompletableFuture<>();
         }
 
 
@@ -686,6 +687,13 @@ public class ContainerBasedJavaApplicationLauncher<A extends JavaApplication> im
         }
 
 
+        @Override
+        public CompletableFuture<Integer> onExit()
+        {
+            return exitFuture;
+        }
+
+
         /**
          * Starts the application.
          *
@@ -696,6 +704,8 @@ public class ContainerBasedJavaApplicationLauncher<A extends JavaApplication> im
             if (applicationController == null)
             {
                 startListener = null;
+
+                exitFuture.complete(0);
             }
             else
             {
@@ -707,6 +717,18 @@ public class ContainerBasedJavaApplicationLauncher<A extends JavaApplication> im
                 channel.open();
 
                 startListener = applicationController.start(this);
+
+                // the application terminates when its start future completes (as per waitFor)
+                startListener.whenComplete((result, throwable) -> {
+                                               if (throwable == null)
+                                               {
+                                                   exitFuture.complete(0);
+                                               }
+                                               else
+                                               {
+                                                   exitFuture.completeExceptionally(throwable);
+                                               }
+                                           });
             }
         }
 
@@ -740,6 +762,19 @@ public class ContainerBasedJavaApplicationLauncher<A extends JavaApplication> im
 
             // notify the container to stop managing the scope
             Container.unmanage(scope);
+
+            // the application has now terminated
+            exitFuture.complete(0);
+
+            // close the class loader (releasing the jars it shares with other containers)
+            try
+            {
+                containerClassLoader.close();
+            }
+            catch (IOException e)
+            {
+                LOGGER.log(Level.WARNING, "An exception occurred while closing the application class loader", e);
+            }
         }
 
 
@@ -34,6 +34,7 @@ import com.oracle.bedrock.deferred.PermanentlyUnavailableException;
 import com.oracle.bedrock.deferred.TemporarilyUnavailableException;
 import com.oracle.bedrock.lang.ExpressionEvaluator;
 import com.oracle.bedrock.lang.StringHelper;
+import com.oracle.bedrock.options.Diagnostics;
 import com.oracle.bedrock.options.Timeout;
 import com.oracle.bedrock.options.Variable;
 import com.oracle.bedrock.options.Variables;
@@ -68,9 +69,11 @@ import com.oracle.bedrock.runtime.options.DisplayName;
 import com.oracle.bedrock.runtime.options.EnvironmentVariables;
 import com.oracle.bedrock.runtime.options.ErrorStreamRedirection;
 import com.oracle.bedrock.runtime.options.Executable;
+import com.oracle.bedrock.runtime.options.DescendantReaping;
 import com.oracle.bedrock.runtime.options.Orphanable;
 import com.oracle.bedrock.runtime.options.WorkingDirectory;
 import com.oracle.bedrock.table.Cell;
+import com.oracle.bedrock.table.Row;
 import com.oracle.bedrock.table.Table;
 import com.oracle.bedrock.table.Tabularize;
 import com.oracle.bedrock.util.ReflectionHelper;
@@ -128,6 +131,7 @@ public class LocalJavaApplicationLauncher<A extends JavaApplication> implements
                     OptionsByType optionsByType)
     {
         // establish the diagnostics output table
+        // (expensive rows are added lazily as the table is only rendered when it's logged)
         Table diagnosticsTable = new Table();
 
         diagnosticsTable.getOptions().add(Table.orderByColumn(0));
@@ -242,9 +246,7 @@ public class LocalJavaApplicationLauncher<A extends JavaApplication> implements
 
         if (variables.size() > 0)
         {
-            Table table = Tabularize.tabularize(variables);
-
-            diagnosticsTable.addRow("", table.toString());
+            diagnosticsTable.addRow(() -> Row.of("", Tabularize.tabularize(variables).toString()));
         }
 
         // ----- establish java specific environment variables -----
@@ -336,10 +338,15 @@ public class LocalJavaApplicationLauncher<A extends JavaApplication> implements
         processBuilder.command().add(useModules ? "--module-path" : "-cp");
         processBuilder.command().add(classPath.toString(launchOptions.asArray()));
 
-        Table classPathTable = classPath.getTable();
+        ClassPath resolvedClassPath = classPath;
+
+        diagnosticsTable.addRow(() -> {
+                                    Table classPathTable = resolvedClassPath.getTable();
+
+                                    classPathTable.getOptions().add(Cell.Separator.of(""));
 
-        classPathTable.getOptions().add(Cell.Separator.of(""));
-        diagnosticsTable.addRow("Class Path", classPathTable.toString());
+                                    return Row.of("Class Path", classPathTable.toString());
+                                });
 
         // ----- establish Bedrock specific system properties -----
 
@@ -400,7 +407,7 @@ public class LocalJavaApplicationLauncher<A extends JavaApplication> implements
         // establish the URI for this (parent) process
         String parentURI = "//" + parentAddress.getHostAddress() + ":" + server.getPort();
 
-        systemPropertiesTable.addRow(Settings.PARENT_URI, parentURI.toString());
+        systemPropertiesTable.addRow(() -> Row.of(Settings.PARENT_URI, parentURI));
 
         processBuilder.command().add("-D" + Settings.PARENT_URI + "=" + parentURI);
 
@@ -409,7 +416,7 @@ public class LocalJavaApplicationLauncher<A extends JavaApplication> implements
 
         processBuilder.command().add("-D" + Settings.ORPHANABLE + "=" + orphanable.isOrphanable());
 
-        systemPropertiesTable.addRow(Settings.ORPHANABLE, Boolean.toString(orphanable.isOrphanable()));
+        systemPropertiesTable.addRow(() -> Row.of(Settings.ORPHANABLE, Boolean.toString(orphanable.isOrphanable())));
 
         // ----- establish the system properties for the java application -----
 
@@ -427,11 +434,11 @@ public class LocalJavaApplicationLauncher<A extends JavaApplication> implements
                 processBuilder.command().add("-D" + propertyName
                                              + (propertyValue.isEmpty() ? "" : "=" + propertyValue));
 
-                systemPropertiesTable.addRow(propertyName, propertyValue);
+                systemPropertiesTable.addRow(() -> Row.of(propertyName, propertyValue));
             }
         }
 
-        diagnosticsTable.addRow("System Properties", systemPropertiesTable.toString());
+        diagnosticsTable.addRow(() -> Row.of("System Properties", systemPropertiesTable.toString()));
 
         // ----- establish Java Virtual Machine options -----
 
@@ -534,16 +541,21 @@ public class LocalJavaApplicationLauncher<A extends JavaApplication> implements
         diagnosticsTable.addRow("Standard Error Device",
                                 redirection.isEnabled() ? "stdout" : "stderr");
 
-        diagnosticsTable.addRow("Application Launch Time",
-                                new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date()));
+        Date launchTime = new Date();
+
+        diagnosticsTable.addRow(() -> Row.of("Application Launch Time",
+                                             new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(launchTime)));
 
         // TODO: add all of the Profile options to the table
 
         // ----- start the local process -----
 
-        if (LOGGER.isLoggable(Level.INFO))
+        // the launch diagnostics are only logged at INFO when Diagnostics are enabled
+        Level diagnosticsLevel = launchOptions.get(Diagnostics.class).isEnabled() ? Level.INFO : Level.FINE;
+
+        if (LOGGER.isLoggable(diagnosticsLevel))
         {
-            LOGGER.log(Level.INFO,
+            LOGGER.log(diagnosticsLevel,
                        "Oracle Bedrock " + Bedrock.getVersion() + ": Starting Application...\n"
                        + "------------------------------------------------------------------------\n"
                        + diagnosticsTable.toString() + "\n"
@@ -569,6 +581,8 @@ public class LocalJavaApplicationLauncher<A extends JavaApplication> implements
                                                                                        server,
                                                                                        systemProperties);
 
+        localJavaProcess.setReapDescendants(launchOptions.get(DescendantReaping.class).isEnabled());
+
         // determine the application class that will represent the running application
         Class<? extends A> applicationClass = metaClass.getImplementationClass(platform, launchOptions);
 
@@ -76,6 +76,49 @@ public abstract class AbstractDelegatingOutputStream extends FilterOutputStream
     }
 
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The {@link Scope} is resolved once for the entire array of bytes, rather
+     * than for each byte (as {@link FilterOutputStream} would otherwise do).
+     */
+    @Override
+    public void write(byte[] bytes,
+                      int    offset,
+                      int    length) throws IOException
+    {
+        ContainerScope scope = Container.getContainerScope();
+
+        if (scope == null)
+        {
+            super.out.write(bytes, offset, length);
+        }
+        else
+        {
+            getOutputStreamFor(scope).write(bytes, offset, length);
+        }
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void flush() throws IOException
+    {
+        ContainerScope scope = Container.getContainerScope();
+
+        if (scope == null)
+        {
+            super.out.flush();
+        }
+        else
+        {
+            getOutputStreamFor(scope).flush();
+        }
+    }
+
+
     /**
      * Obtains the {@link OutputStream} from the {@link Scope} to
      * which output will be delegated.
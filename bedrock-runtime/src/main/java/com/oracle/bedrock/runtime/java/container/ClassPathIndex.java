@@ -0,0 +1,739 @@
+/*
+ * File: ClassPathIndex.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+package com.oracle.bedrock.runtime.java.container;
+
+import com.oracle.bedrock.annotations.Internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.SoftReference;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.security.CodeSigner;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+
+/**
+ * An immutable index of the resources available in the entries of a class path,
+ * shared by all {@link ContainerClassLoader}s so that the same jars are opened,
+ * scanned and read only once, regardless of the number of containers using them.
+ * <p>
+ * The indexed jars are reference counted.  A jar is closed (and no longer shared)
+ * once every {@link ClassPathIndex} using it has been {@link #release() released}.
+ * <p>
+ * Jars declaring a manifest <code>Class-Path</code> and multi-release jars are not
+ * fully indexed.  Searches that reach such entries are reported as unknown, so that
+ * a {@link ClassLoader} falls back to searching the class path itself.
+ * <p>
+ * The index only provides the bytes of classes and resources.  {@link Class}es
+ * are always defined by each {@link ContainerClassLoader}, ensuring that class
+ * identity remains isolated per container.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+@Internal
+public class ClassPathIndex
+{
+    /**
+     * The {@link Root}s currently in use, shared by all {@link ClassPathIndex}es,
+     * keyed by the external form of their {@link URL}.
+     */
+    private static final ConcurrentHashMap<String, Root> ROOTS = new ConcurrentHashMap<>();
+
+    /**
+     * The {@link Root}s of the {@link ClassPathIndex}, in class path order, with
+     * <code>null</code> for the entries that could not be indexed.
+     */
+    private final List<Root> roots;
+
+    /**
+     * Is every entry of the class path indexed?  When <code>false</code> some
+     * entries could not be indexed (for example non-file based {@link URL}s, jars
+     * with a manifest <code>Class-Path</code> or multi-release jars) and a
+     * {@link ClassLoader} must fall back to searching those itself.
+     */
+    private final boolean complete;
+
+    /**
+     * Has the {@link ClassPathIndex} been released?
+     */
+    private final AtomicBoolean released;
+
+
+    /**
+     * Constructs a {@link ClassPathIndex}.
+     *
+     * @param roots     the {@link Root}s of the index
+     * @param complete  is every entry of the class path indexed
+     */
+    private ClassPathIndex(List<Root> roots,
+                           boolean    complete)
+    {
+        this.roots    = roots;
+        this.complete = complete;
+        this.released = new AtomicBoolean(false);
+    }
+
+
+    /**
+     * Obtains a {@link ClassPathIndex} for the specified class path {@link URL}s,
+     * reusing the indexed entries currently in use where they have not been modified.
+     * The {@link ClassPathIndex} must be {@link #release() released} once it's no
+     * longer required.
+     *
+     * @param urls  the class path {@link URL}s
+     *
+     * @return a {@link ClassPathIndex}
+     */
+    public static ClassPathIndex of(URL[] urls)
+    {
+        ArrayList<Root> roots    = new ArrayList<>(urls.length);
+        boolean         complete = true;
+
+        for (URL url : urls)
+        {
+            Root root = acquireRoot(url);
+
+            // unindexed entries remain in the list so that searches respect class path order
+            roots.add(root);
+
+            if (root == null || root.hasClassPath())
+            {
+                complete = false;
+            }
+        }
+
+        return new ClassPathIndex(Collections.unmodifiableList(roots), complete);
+    }
+
+
+    /**
+     * Releases the {@link ClassPathIndex}, closing the jars that are no longer used
+     * by any other {@link ClassPathIndex}.  Resources may no longer be read from a
+     * released {@link ClassPathIndex}.
+     */
+    public void release()
+    {
+        if (released.compareAndSet(false, true))
+        {
+            for (Root root : roots)
+            {
+                if (root != null && root.release())
+                {
+                    ROOTS.remove(root.key, root);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Acquires the shared {@link Root} for the specified {@link URL}, indexing it
+     * if it isn't in use or has been modified since it was indexed.
+     *
+     * @param url  the {@link URL}
+     *
+     * @return the acquired {@link Root} or <code>null</code> if the {@link URL} can't be indexed
+     */
+    private static Root acquireRoot(URL url)
+    {
+        if (!"file".equals(url.getProtocol()))
+        {
+            return null;
+        }
+
+        File file;
+
+        try
+        {
+            file = new File(url.toURI());
+        }
+        catch (URISyntaxException | IllegalArgumentException e)
+        {
+            return null;
+        }
+
+        String key = url.toExternalForm();
+
+        while (true)
+        {
+            long modified = file.lastModified();
+            long length   = file.length();
+
+            // a superseded root remains open until the indexes using it are released
+            Root root = ROOTS.compute(key,
+                                      (k, existing) -> existing != null && existing.isCurrent(modified, length)
+                                                       ? existing : Root.index(key, url, file, modified, length));
+
+            if (root.isIndexed())
+            {
+                if (root.acquire())
+                {
+                    return root;
+                }
+
+                // SKIP: the root was concurrently closed, so index it again
+            }
+            else
+            {
+                ROOTS.remove(key, root);
+
+                return null;
+            }
+        }
+    }
+
+
+    /**
+     * Determines if every entry of the class path is indexed.
+     *
+     * @return <code>true</code> if every entry is indexed
+     */
+    public boolean isComplete()
+    {
+        return complete;
+    }
+
+
+    /**
+     * Locates the first {@link Root} (in class path order) containing the
+     * specified resource.  When the {@link ClassPathIndex} isn't {@link #isComplete() complete}
+     * a <code>null</code> result means that the resource is unknown to the index (as it may be
+     * in an entry that isn't indexed), not that the resource doesn't exist.
+     *
+     * @param resourceName  the name of the resource (using '/' separators)
+     *
+     * @return the {@link Root} or <code>null</code> if no indexed {@link Root} is known to contain
+     *         the resource
+     */
+    public Root locate(String resourceName)
+    {
+        for (Root root : roots)
+        {
+            if (root == null)
+            {
+                // the resource may be in an entry that isn't indexed
+                return null;
+            }
+            else if (root.contains(resourceName))
+            {
+                return root;
+            }
+            else if (root.hasClassPath())
+            {
+                // the resource may be in a jar on the manifest Class-Path (which isn't indexed)
+                return null;
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Locates all of the {@link Root}s (in class path order) containing the
+     * specified resource.
+     *
+     * @param resourceName  the name of the resource (using '/' separators)
+     *
+     * @return the {@link Root}s containing the resource
+     */
+    public List<Root> locateAll(String resourceName)
+    {
+        ArrayList<Root> located = new ArrayList<>();
+
+        for (Root root : roots)
+        {
+            if (root != null && root.contains(resourceName))
+            {
+                located.add(root);
+            }
+        }
+
+        return located;
+    }
+
+
+    /**
+     * An indexed entry of a class path, either a jar or a directory.
+     */
+    public static class Root
+    {
+        /**
+         * The key of the {@link Root} in the shared {@link Root}s.
+         */
+        private final String key;
+
+        /**
+         * The {@link URL} of the {@link Root}.
+         */
+        private final URL url;
+
+        /**
+         * The {@link File} of the {@link Root}.
+         */
+        private final File file;
+
+        /**
+         * The last modified time of the {@link File} when it was indexed.
+         */
+        private final long modified;
+
+        /**
+         * The length of the {@link File} when it was indexed.
+         */
+        private final long length;
+
+        /**
+         * The {@link JarFile} when the {@link Root} is a jar (otherwise <code>null</code>).
+         */
+        private final JarFile jarFile;
+
+        /**
+         * The names of the entries in the jar (<code>null</code> for directories).
+         */
+        private final Set<String> entries;
+
+        /**
+         * The {@link Manifest} of the jar (may be <code>null</code>).
+         */
+        private final Manifest manifest;
+
+        /**
+         * Is the jar signed?  Signed jars require verification by the {@link ClassLoader}.
+         */
+        private final boolean signed;
+
+        /**
+         * Does the {@link Manifest} of the jar declare a <code>Class-Path</code>?
+         */
+        private final boolean classPath;
+
+        /**
+         * Could the {@link Root} be indexed?
+         */
+        private final boolean indexed;
+
+        /**
+         * The number of {@link ClassPathIndex}es using the {@link Root}. (guarded by this)
+         */
+        private int references;
+
+        /**
+         * Has the {@link Root} been closed? (guarded by this)
+         */
+        private boolean closed;
+
+        /**
+         * The {@link CodeSource} for {@link Class}es defined from the {@link Root}.
+         */
+        private final CodeSource codeSource;
+
+        /**
+         * The cached bytes of classes read from the jar, keyed by resource name.
+         */
+        private final ConcurrentHashMap<String, SoftReference<byte[]>> bytes;
+
+
+        /**
+         * Constructs a {@link Root}.
+         *
+         * @param key       the key of the {@link Root}
+         * @param url       the {@link URL}
+         * @param file      the {@link File}
+         * @param modified  the last modified time of the {@link File}
+         * @param length    the length of the {@link File}
+         * @param jarFile   the {@link JarFile} (or <code>null</code> for directories)
+         * @param entries   the names of the entries in the jar
+         * @param manifest  the {@link Manifest} of the jar
+         * @param signed    is the jar signed
+         * @param indexed   could the {@link Root} be indexed
+         */
+        private Root(String      key,
+                     URL         url,
+                     File        file,
+                     long        modified,
+                     long        length,
+                     JarFile     jarFile,
+                     Set<String> entries,
+                     Manifest    manifest,
+                     boolean     signed,
+                     boolean     indexed)
+        {
+            this.key        = key;
+            this.url        = url;
+            this.file       = file;
+            this.modified   = modified;
+            this.length     = length;
+            this.jarFile    = jarFile;
+            this.entries    = entries;
+            this.manifest   = manifest;
+            this.signed     = signed;
+            this.classPath  = manifest != null
+                              && manifest.getMainAttributes().getValue(Attributes.Name.CLASS_PATH) != null;
+            this.indexed    = indexed;
+            this.references = 0;
+            this.closed     = false;
+            this.codeSource = new CodeSource(url, (CodeSigner[]) null);
+            this.bytes      = new ConcurrentHashMap<>();
+        }
+
+
+        /**
+         * Indexes the specified class path entry.
+         *
+         * @param key       the key of the entry
+         * @param url       the {@link URL} of the entry
+         * @param file      the {@link File} of the entry
+         * @param modified  the last modified time of the {@link File}
+         * @param length    the length of the {@link File}
+         *
+         * @return the {@link Root}
+         */
+        private static Root index(String key,
+                                  URL    url,
+                                  File   file,
+                                  long   modified,
+                                  long   length)
+        {
+            if (file.isFile())
+            {
+                JarFile jarFile = null;
+
+                try
+                {
+                    jarFile = new JarFile(file);
+
+                    Manifest manifest = jarFile.getManifest();
+
+                    if (manifest != null
+                        && "true".equalsIgnoreCase(manifest.getMainAttributes().getValue("Multi-Release")))
+                    {
+                        // the versioned entries of multi-release jars are resolved by the URLClassLoader
+                        jarFile.close();
+
+                        return new Root(key, url, file, modified, length, null, null, null, false, false);
+                    }
+
+                    Set<String> entries = new HashSet<>();
+                    boolean     signed  = false;
+
+                    for (Enumeration<JarEntry> enumeration = jarFile.entries(); enumeration.hasMoreElements(); )
+                    {
+                        String name = enumeration.nextElement().getName();
+
+                        entries.add(name);
+
+                        if (name.startsWith("META-INF/") && name.endsWith(".SF"))
+                        {
+                            signed = true;
+                        }
+                    }
+
+                    return new Root(key,
+                                    url,
+                                    file,
+                                    modified,
+                                    length,
+                                    jarFile,
+                                    Collections.unmodifiableSet(entries),
+                                    manifest,
+                                    signed,
+                                    true);
+                }
+                catch (IOException e)
+                {
+                    close(jarFile);
+
+                    // an unreadable jar contains nothing
+                    return new Root(key, url, file, modified, length, null, Collections.emptySet(), null, false, true);
+                }
+            }
+            else if (file.isDirectory())
+            {
+                return new Root(key, url, file, modified, length, null, null, null, false, true);
+            }
+            else
+            {
+                // a non-existent entry contains nothing
+                return new Root(key, url, file, modified, length, null, Collections.emptySet(), null, false, true);
+            }
+        }
+
+
+        /**
+         * Closes the specified {@link JarFile}, ignoring failures.
+         *
+         * @param jarFile  the {@link JarFile} (may be <code>null</code>)
+         */
+        private static void close(JarFile jarFile)
+        {
+            if (jarFile != null)
+            {
+                try
+                {
+                    jarFile.close();
+                }
+                catch (IOException e)
+                {
+                    // SKIP: there's nothing more that can be done
+                }
+            }
+        }
+
+
+        /**
+         * Determines if the {@link Root} may be shared for the {@link File} in its
+         * current state, that is, it's open and the {@link File} hasn't been modified.
+         *
+         * @param modified  the current last modified time of the {@link File}
+         * @param length    the current length of the {@link File}
+         *
+         * @return <code>true</code> if the {@link Root} is current
+         */
+        private synchronized boolean isCurrent(long modified,
+                                               long length)
+        {
+            return !closed && this.modified == modified && this.length == length;
+        }
+
+
+        /**
+         * Determines if the {@link Root} could be indexed.
+         *
+         * @return <code>true</code> if the {@link Root} is indexed
+         */
+        private boolean isIndexed()
+        {
+            return indexed;
+        }
+
+
+        /**
+         * Acquires a reference to the {@link Root}.
+         *
+         * @return <code>true</code> if acquired, <code>false</code> if the {@link Root} has been closed
+         */
+        private synchronized boolean acquire()
+        {
+            if (closed)
+            {
+                return false;
+            }
+
+            references++;
+
+            return true;
+        }
+
+
+        /**
+         * Releases a reference to the {@link Root}, closing it when it's no longer referenced.
+         *
+         * @return <code>true</code> if the {@link Root} was closed
+         */
+        private synchronized boolean release()
+        {
+            if (!closed && --references <= 0)
+            {
+                closed = true;
+
+                close(jarFile);
+                bytes.clear();
+
+                return true;
+            }
+
+            return false;
+        }
+
+
+        /**
+         * Determines if the {@link Root} contains the specified resource.
+         *
+         * @param resourceName  the name of the resource
+         *
+         * @return <code>true</code> if the resource is contained in the {@link Root}
+         */
+        public boolean contains(String resourceName)
+        {
+            return entries == null ? new File(file, resourceName).isFile() : entries.contains(resourceName);
+        }
+
+
+        /**
+         * Determines if the {@link Manifest} of the jar declares a <code>Class-Path</code>,
+         * the entries of which aren't indexed.
+         *
+         * @return <code>true</code> if the jar declares a <code>Class-Path</code>
+         */
+        public boolean hasClassPath()
+        {
+            return classPath;
+        }
+
+
+        /**
+         * Obtains the {@link URL} of the {@link Root}.
+         *
+         * @return the {@link URL}
+         */
+        public URL getURL()
+        {
+            return url;
+        }
+
+
+        /**
+         * Obtains the {@link Manifest} of the {@link Root}.
+         *
+         * @return the {@link Manifest} or <code>null</code> if there is none
+         */
+        public Manifest getManifest()
+        {
+            return manifest;
+        }
+
+
+        /**
+         * Determines if the {@link Root} is a signed jar.
+         *
+         * @return <code>true</code> if the {@link Root} is signed
+         */
+        public boolean isSigned()
+        {
+            return signed;
+        }
+
+
+        /**
+         * Obtains the {@link CodeSource} for {@link Class}es defined from the {@link Root}.
+         *
+         * @return the {@link CodeSource}
+         */
+        public CodeSource getCodeSource()
+        {
+            return codeSource;
+        }
+
+
+        /**
+         * Obtains the {@link URL} of the specified resource in the {@link Root}.
+         *
+         * @param resourceName  the name of the resource
+         *
+         * @return the {@link URL} of the resource
+         */
+        public URL getResourceURL(String resourceName)
+        {
+            try
+            {
+                return jarFile == null
+                       ? new File(file, resourceName).toURI().toURL()
+                       : new URL("jar:" + url.toExternalForm() + "!/" + resourceName);
+            }
+            catch (MalformedURLException e)
+            {
+                return null;
+            }
+        }
+
+
+        /**
+         * Obtains the bytes of the specified resource.  The bytes of resources in jars are
+         * cached and shared, so callers must not modify them.
+         *
+         * @param resourceName  the name of the resource
+         *
+         * @return the bytes or <code>null</code> if the resource could not be read
+         */
+        public byte[] getBytes(String resourceName)
+        {
+            try
+            {
+                if (jarFile == null)
+                {
+                    return Files.readAllBytes(new File(file, resourceName).toPath());
+                }
+
+                SoftReference<byte[]> reference = bytes.get(resourceName);
+                byte[]                content   = reference == null ? null : reference.get();
+
+                if (content == null)
+                {
+                    JarEntry entry = jarFile.getJarEntry(resourceName);
+
+                    if (entry == null)
+                    {
+                        return null;
+                    }
+
+                    try (InputStream inputStream = jarFile.getInputStream(entry))
+                    {
+                        ByteArrayOutputStream buffer =
+                            new ByteArrayOutputStream(entry.getSize() > 0 ? (int) entry.getSize() : 4096);
+                        byte[] chunk = new byte[8192];
+                        int    read;
+
+                        while ((read = inputStream.read(chunk)) >= 0)
+                        {
+                            buffer.write(chunk, 0, read);
+                        }
+
+                        content = buffer.toByteArray();
+                    }
+
+                    bytes.put(resourceName, new SoftReference<>(content));
+                }
+
+                return content;
+            }
+            catch (IOException | IllegalStateException e)
+            {
+                // an IllegalStateException is thrown when the jar has been closed
+                return null;
+            }
+        }
+    }
+}
@@ -30,7 +30,11 @@ import com.oracle.bedrock.runtime.LocalPlatform;
 import com.oracle.bedrock.runtime.network.AvailablePortIterator;
 
 import java.io.PrintStream;
-import java.util.HashSet;
+import java.lang.ref.WeakReference;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The {@link Container} class provides mechanisms to establish and dismantal
@@ -76,10 +80,39 @@ public class Container
      */
     private static InheritableThreadLocal<ContainerScope> threadScope;
 
+    /**
+     * The {@link ContainerScope} most recently resolved for the current {@link Thread}
+     * using its context {@link ClassLoader}, avoiding walking the {@link ClassLoader}
+     * hierarchy each time a {@link ContainerScope} is required, typically each time
+     * an application in a {@link Container} writes to stdout or stderr.
+     */
+    private static ThreadLocal<ResolvedScope> resolvedScope;
+
+    /**
+     * The generation of {@link ContainerScope} associations, incremented each time
+     * an association changes, to invalidate previously resolved {@link ContainerScope}s.
+     */
+    private static AtomicLong associationGeneration;
+
     /**
      * The current set of {@link ContainerScope}s being managed by the {@link Container}.
      */
-    private static HashSet<ContainerScope> scopes;
+    private static Set<ContainerScope> scopes;
+
+    /**
+     * The monitor used to serialize starting and stopping the {@link Container},
+     * together with adding and removing the managed {@link ContainerScope}s, so that
+     * the {@link Container} can't be stopped while a {@link ContainerScope} is being managed.
+     * <p>
+     * This is only held briefly, not while applications are launched, so that applications
+     * may be concurrently launched in the {@link Container}.
+     */
+    private static final Object LIFECYCLE_MONITOR = new Object();
+
+    /**
+     * Is the {@link Container} currently started?
+     */
+    private static volatile boolean started;
 
 
     /**
@@ -90,41 +123,49 @@ public class Container
         // establish the ability to track Scopes by thread
         threadScope = new InheritableThreadLocal<ContainerScope>();
 
+        // establish the ability to cache resolved Scopes by thread
+        resolvedScope         = new ThreadLocal<ResolvedScope>();
+        associationGeneration = new AtomicLong(0);
+
         // create a PlatformScope representing the platform itself
         platformScope = new PlatformScope(getAvailablePorts());
 
         // establish the scopes set to track scopes being managed
-        scopes = new HashSet<ContainerScope>();
+        scopes = ConcurrentHashMap.newKeySet();
     }
 
 
     /**
      * Starts the containment of application resources.
      */
-    public synchronized static void start()
+    public static void start()
     {
-        // are we running as a container?
-        if (System.getProperties() instanceof DelegatingProperties)
-        {
-            // SKIP: we're already running as a container so do nothing!
-        }
-        else
+        synchronized (LIFECYCLE_MONITOR)
         {
-            // establish the default scope to use when a thread isn't isolated
-            defaultScope = new DefaultScope(platformScope);
-
-            // ensure that the JMX MBean Server for the default Scope is the
-            // DelegatingMBeanServerBuilder so that we can isolate MBeanServers
-            defaultScope.getProperties().setProperty(ContainerMBeanServerBuilder.PROPERTY_JMX_MBEAN_SERVER_BUILDER,
-                                                     DelegatingMBeanServerBuilder.class.getCanonicalName());
-
-            System.setProperties(new DelegatingProperties(defaultScope.getProperties()));
-            System.setOut(new PrintStream(new DelegatingStdOutOutputStream(platformScope.getStandardOutput()), true));
-            System.setErr(new PrintStream(new DelegatingStdErrOutputStream(platformScope.getStandardError()), true));
-            System.setIn(new DelegatingStdInInputStream(platformScope.getStandardInput()));
+            // are we running as a container?
+            if (System.getProperties() instanceof DelegatingProperties)
+            {
+                // SKIP: we're already running as a container so do nothing!
+            }
+            else
+            {
+                // establish the default scope to use when a thread isn't isolated
+                defaultScope = new DefaultScope(platformScope);
+
+                // ensure that the JMX MBean Server for the default Scope is the
+                // DelegatingMBeanServerBuilder so that we can isolate MBeanServers
+                defaultScope.getProperties().setProperty(ContainerMBeanServerBuilder.PROPERTY_JMX_MBEAN_SERVER_BUILDER,
+                                                         DelegatingMBeanServerBuilder.class.getCanonicalName());
+
+                System.setProperties(new DelegatingProperties(defaultScope.getProperties()));
+                System.setOut(new PrintStream(new DelegatingStdOutOutputStream(platformScope.getStandardOutput()),
+                                              true));
+                System.setErr(new PrintStream(new DelegatingStdErrOutputStream(platformScope.getStandardError()),
+                                              true));
+                System.setIn(new DelegatingStdInInputStream(platformScope.getStandardInput()));
+            }
 
-            // establish the scopes set to track the scopes being managed
-            scopes = new HashSet<ContainerScope>();
+            started = true;
         }
     }
 
@@ -132,22 +173,27 @@ public class Container
     /**
      * Stops the containment of application resources.
      */
-    public synchronized static void stop()
+    public static void stop()
     {
-        // are we running as a container?
-        if (System.getProperties() instanceof DelegatingProperties)
+        synchronized (LIFECYCLE_MONITOR)
         {
-            System.setProperties(platformScope.getProperties());
-            System.setOut(platformScope.getStandardOutput());
-            System.setErr(platformScope.getStandardError());
+            // are we running as a container?
+            if (System.getProperties() instanceof DelegatingProperties)
+            {
+                System.setProperties(platformScope.getProperties());
+                System.setOut(platformScope.getStandardOutput());
+                System.setErr(platformScope.getStandardError());
 
-            // close and clear the default scope as we are no longer running in a container
-            defaultScope.close();
-            defaultScope = null;
-        }
-        else
-        {
-            // SKIP: we're not running as a container so do nothing!
+                // close and clear the default scope as we are no longer running in a container
+                defaultScope.close();
+                defaultScope = null;
+            }
+            else
+            {
+                // SKIP: we're not running as a container so do nothing!
+            }
+
+            started = false;
         }
     }
 
@@ -156,16 +202,26 @@ public class Container
      * Adds the specified {@link ContainerScope} to the {@link Container} for managing.
      * <p>
      * Should the {@link Container} not be {@link #start()}ed, it will automatically be started.
+     * <p>
+     * {@link ContainerScope}s may be concurrently managed by multiple {@link Thread}s.
      *
      * @param scope  the {@link ContainerScope} to manage
      */
-    public synchronized static void manage(ContainerScope scope)
+    public static void manage(ContainerScope scope)
     {
-        // add the scope we're now managing
-        if (scopes.add(scope))
+        synchronized (LIFECYCLE_MONITOR)
         {
-            // ensure that the container is started
-            start();
+            // add the scope we're now managing
+            if (scopes.add(scope))
+            {
+                associationGeneration.incrementAndGet();
+
+                // ensure that the container is started
+                if (!started)
+                {
+                    start();
+                }
+            }
         }
     }
 
@@ -178,12 +234,70 @@ public class Container
      *
      * @param scope  the {@link ContainerScope} to unmanage
      */
+    public static void unmanage(ContainerScope scope)
+    {
+        synchronized (LIFECYCLE_MONITOR)
+        {
+            if (scopes.remove(scope))
+            {
+                associationGeneration.incrementAndGet();
+
+                // only stop when there are no longer any scopes to manage
+                if (scopes.isEmpty())
+                {
+                    stop();
+                }
+            }
+        }
+    }
 
-    public synchronized static void unmanage(ContainerScope scope)
+
+    /**
+     * Calls the specified {@link Callable} with the calling {@link Thread} temporarily
+     * associated with the specified {@link ContainerScope} and context {@link ClassLoader},
+     * after which the previous association and context {@link ClassLoader} of the
+     * {@link Thread} are restored.
+     * <p>
+     * Unlike {@link #associateThreadWith(ContainerScope)}, the calling {@link Thread}
+     * may already be associated with another {@link ContainerScope}, allowing
+     * applications to be launched concurrently, including from within other containers.
+     *
+     * @param scope        the {@link ContainerScope}
+     * @param classLoader  the context {@link ClassLoader}
+     * @param callable     the {@link Callable} to call
+     * @param <T>          the type of result
+     *
+     * @return the result of the {@link Callable}
+     *
+     * @throws Exception when the {@link Callable} fails
+     */
+    public static <T> T callWithin(ContainerScope scope,
+                                   ClassLoader    classLoader,
+                                   Callable<T>    callable) throws Exception
     {
-        if (scopes.remove(scope))
+        Thread         thread              = Thread.currentThread();
+        ClassLoader    originalClassLoader = thread.getContextClassLoader();
+        ContainerScope originalScope       = threadScope.get();
+
+        try
         {
-            stop();
+            thread.setContextClassLoader(classLoader);
+            threadScope.set(scope);
+
+            return callable.call();
+        }
+        finally
+        {
+            if (originalScope == null)
+            {
+                threadScope.remove();
+            }
+            else
+            {
+                threadScope.set(originalScope);
+            }
+
+            thread.setContextClassLoader(originalClassLoader);
         }
     }
 
@@ -207,7 +321,24 @@ public class Container
         {
             // as it's not associated with the calling thread, try to find
             // the scope using the class loader of the thread
-            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+            ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+            long        generation         = associationGeneration.get();
+
+            // attempt to use the previously resolved scope for the context class loader
+            ResolvedScope resolved = resolvedScope.get();
+
+            if (resolved != null)
+            {
+                if (resolved.isFor(contextClassLoader, generation))
+                {
+                    return resolved.getScope();
+                }
+
+                // discard the stale resolution, rather than retaining it until it's replaced
+                resolvedScope.remove();
+            }
+
+            ClassLoader classLoader = contextClassLoader;
 
             while (scope == null && classLoader != null)
             {
@@ -220,6 +351,8 @@ public class Container
                     classLoader = classLoader.getParent();
                 }
             }
+
+            resolvedScope.set(new ResolvedScope(contextClassLoader, generation, scope));
         }
 
         return scope;
@@ -274,6 +407,7 @@ public class Container
             if (existingScope == null)
             {
                 threadScope.set(scope);
+                associationGeneration.incrementAndGet();
             }
             else
             {
@@ -303,6 +437,7 @@ public class Container
         else
         {
             threadScope.remove();
+            associationGeneration.incrementAndGet();
         }
     }
 
@@ -318,4 +453,75 @@ public class Container
     {
         return LocalPlatform.get().getAvailablePorts();
     }
+
+
+    /**
+     * A {@link ContainerScope} resolved for a context {@link ClassLoader}
+     * during a generation of {@link ContainerScope} associations.
+     */
+    private static class ResolvedScope
+    {
+        /**
+         * The context {@link ClassLoader} for which the {@link ContainerScope} was resolved
+         * (weakly referenced so that resolving doesn't prevent unloading).
+         */
+        private final WeakReference<ClassLoader> classLoader;
+
+        /**
+         * The generation of associations during which the {@link ContainerScope} was resolved.
+         */
+        private final long generation;
+
+        /**
+         * The resolved {@link ContainerScope} (weakly referenced so that threads that are no
+         * longer used don't prevent a closed {@link ContainerScope} from being collected).
+         */
+        private final WeakReference<ContainerScope> scope;
+
+
+        /**
+         * Constructs a {@link ResolvedScope}.
+         *
+         * @param classLoader  the context {@link ClassLoader}
+         * @param generation   the generation of associations
+         * @param scope        the resolved {@link ContainerScope}
+         */
+        private ResolvedScope(ClassLoader    classLoader,
+                              long           generation,
+                              ContainerScope scope)
+        {
+            this.classLoader = new WeakReference<>(classLoader);
+            this.generation  = generation;
+            this.scope       = scope == null ? null : new WeakReference<>(scope);
+        }
+
+
+        /**
+         * Obtains the resolved {@link ContainerScope}.
+         *
+         * @return the {@link ContainerScope} (may be <code>null</code>)
+         */
+        private ContainerScope getScope()
+        {
+            return scope == null ? null : scope.get();
+        }
+
+
+        /**
+         * Determines if the {@link ResolvedScope} is valid for the specified
+         * context {@link ClassLoader} and generation of associations.
+         *
+         * @param classLoader  the context {@link ClassLoader}
+         * @param generation   the generation of associations
+         *
+         * @return <code>true</code> if the {@link ResolvedScope} may be used
+         */
+        private boolean isFor(ClassLoader classLoader,
+                              long        generation)
+        {
+            return this.generation == generation
+                   && this.classLoader.get() == classLoader
+                   && (scope == null || scope.get() != null);
+        }
+    }
 }
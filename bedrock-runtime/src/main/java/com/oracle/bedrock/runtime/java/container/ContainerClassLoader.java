@@ -31,16 +31,21 @@ import com.oracle.bedrock.runtime.PropertiesBuilder;
 import com.oracle.bedrock.runtime.java.ClassPath;
 import com.oracle.bedrock.runtime.network.AvailablePortIterator;
 
+import java.io.IOException;
 import java.net.URL;
 import java.security.AllPermission;
 import java.security.CodeSource;
 import java.security.PermissionCollection;
 import java.security.Permissions;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
 
 /**
  * A {@link ContainerClassLoader} is a specialized {@link ContainerScopeClassLoader}
@@ -53,6 +58,12 @@ import java.util.Set;
  * isolate regular Java Applications, much like an application server would do
  * for Java EE applications.  That is, this {@link ClassLoader} provides
  * infrastructure for the scoping, containment of applications in one process.
+ * <p>
+ * {@link ContainerClassLoader}s are parallel capable and share a {@link ClassPathIndex}
+ * of the jars and directories on their {@link ClassPath}, so that creating many
+ * containers with the same {@link ClassPath} doesn't repeatedly open, scan and read
+ * the same jars.  {@link Class}es are however always defined by each
+ * {@link ContainerClassLoader}, so class identity remains isolated per container.
  *
  * @see Container
  * @see ContainerScopeClassLoader
@@ -85,24 +96,29 @@ public class ContainerClassLoader extends ContainerScopeClassLoader
      * The names of the packages (as prefixes) to load from the parent
      * {@link ClassLoader}.  ie: these are the "shared" packages.
      */
-    private Set<String> packagesToLoadFromParent = new HashSet<String>();
+    private Set<String> packagesToLoadFromParent = new CopyOnWriteArraySet<String>();
 
     /**
      * The names of the packages (as prefixes) the must be loaded by this container
      * {@link ClassLoader}.  These override the classes that may be
      * declared as loading from the parent.
      */
-    private Set<String> packagesToLoadInContainer = new HashSet<String>();
+    private Set<String> packagesToLoadInContainer = new CopyOnWriteArraySet<String>();
 
     /**
      * The {@link Class}es currently loaded by the {@link ContainerClassLoader}.
      */
-    private Map<String, Class<?>> loadedClasses = new HashMap<String, Class<?>>();
+    private ConcurrentHashMap<String, Class<?>> loadedClasses = new ConcurrentHashMap<String, Class<?>>();
 
     /**
-     * The currently loaded resources.
+     * The currently loaded resources (including those that could not be found).
      */
-    private Map<String, URL> loadedResources = new HashMap<String, URL>();
+    private ConcurrentHashMap<String, Optional<URL>> loadedResources = new ConcurrentHashMap<String, Optional<URL>>();
+
+    /**
+     * The names of the {@link Package}s the {@link ContainerClassLoader} has attempted to define.
+     */
+    private Set<String> definedPackages = ConcurrentHashMap.newKeySet();
 
     /**
      * The root {@link ClassLoader}.
@@ -119,6 +135,20 @@ public class ContainerClassLoader extends ContainerScopeClassLoader
      */
     private ClassPath classPath;
 
+    /**
+     * The {@link ClassPathIndex} of the {@link ClassPath} (shared between containers).
+     */
+    private ClassPathIndex classPathIndex;
+
+
+    /**
+     * Static Initialization.
+     */
+    static
+    {
+        ClassLoader.registerAsParallelCapable();
+    }
+
 
     /**
      * Constructs a {@link ContainerClassLoader}.
@@ -132,8 +162,9 @@ public class ContainerClassLoader extends ContainerScopeClassLoader
                                  ContainerScope scope)
     {
         super(classPath, null, scope);
-        parentClassLoader = parent;
-        this.classPath    = classPath;
+        parentClassLoader   = parent;
+        this.classPath      = classPath;
+        this.classPathIndex = ClassPathIndex.of(classPath.getURLs());
 
         while (parent.getParent() != null)
         {
@@ -390,16 +421,126 @@ public class ContainerClassLoader extends ContainerScopeClassLoader
 
 
     @Override
-    public URL getResource(String name)
+    protected Class<?> findClass(String name) throws ClassNotFoundException
     {
-        URL c = loadedResources.get(name);
+        String               resourceName = name.replace('.', '/') + ".class";
+        ClassPathIndex.Root  root         = classPathIndex.locate(resourceName);
 
-        if (c == null)
+        if (root == null)
+        {
+            // only a complete index knows the class doesn't exist, otherwise it's unknown
+            if (classPathIndex.isComplete())
+            {
+                throw new ClassNotFoundException(name);
+            }
+
+            return super.findClass(name);
+        }
+        else if (root.isSigned())
+        {
+            // signed jars require verification by the URLClassLoader
+            return super.findClass(name);
+        }
+
+        byte[] bytes = root.getBytes(resourceName);
+
+        if (bytes == null)
+        {
+            return super.findClass(name);
+        }
+
+        definePackageFor(name, root);
+
+        return defineClass(name, bytes, 0, bytes.length, root.getCodeSource());
+    }
+
+
+    /**
+     * Defines the {@link Package} of the specified {@link Class} name (if not already defined),
+     * using the {@link java.util.jar.Manifest} of the {@link ClassPathIndex.Root} from which
+     * the {@link Class} is being loaded.
+     *
+     * @param className  the name of the {@link Class}
+     * @param root       the {@link ClassPathIndex.Root} containing the {@link Class}
+     */
+    private void definePackageFor(String              className,
+                                  ClassPathIndex.Root root)
+    {
+        int index = className.lastIndexOf('.');
+
+        if (index > 0)
+        {
+            String packageName = className.substring(0, index);
+
+            // only attempt to define each package once (avoiding getPackage, which is deprecated in Java 9+)
+            if (definedPackages.add(packageName))
+            {
+                try
+                {
+                    if (root.getManifest() == null)
+                    {
+                        definePackage(packageName, null, null, null, null, null, null, null);
+                    }
+                    else
+                    {
+                        definePackage(packageName, root.getManifest(), root.getURL());
+                    }
+                }
+                catch (IllegalArgumentException e)
+                {
+                    // SKIP: the package has already been defined
+                }
+            }
+        }
+    }
+
+
+    @Override
+    public URL findResource(String name)
+    {
+        ClassPathIndex.Root root = classPathIndex.locate(name);
+
+        if (root == null)
+        {
+            return classPathIndex.isComplete() ? null : super.findResource(name);
+        }
+        else
+        {
+            return root.getResourceURL(name);
+        }
+    }
+
+
+    @Override
+    public Enumeration<URL> findResources(String name) throws IOException
+    {
+        if (!classPathIndex.isComplete())
         {
-            c = findResource(name);
-            loadedResources.put(name, c);
+            return super.findResources(name);
         }
 
+        List<URL> urls = new ArrayList<>();
+
+        for (ClassPathIndex.Root root : classPathIndex.locateAll(name))
+        {
+            URL url = root.getResourceURL(name);
+
+            if (url != null)
+            {
+                urls.add(url);
+            }
+        }
+
+        return Collections.enumeration(urls);
+    }
+
+
+    @Override
+    public URL getResource(String name)
+    {
+        URL c = loadedResources.computeIfAbsent(name, resourceName -> Optional.ofNullable(findResource(resourceName)))
+                .orElse(null);
+
         if (c == null)
         {
             c = super.getResource(name);
@@ -407,4 +548,14 @@ public class ContainerClassLoader extends ContainerScopeClassLoader
 
         return c;
     }
+
+
+    @Override
+    public void close() throws IOException
+    {
+        // release the shared jars of the index, closing those no longer used by other containers
+        classPathIndex.release();
+
+        super.close();
+    }
 }
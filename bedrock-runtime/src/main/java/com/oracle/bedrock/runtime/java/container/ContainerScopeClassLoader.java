@@ -50,6 +50,15 @@ public class ContainerScopeClassLoader extends URLClassLoader
     private ContainerScope m_containerScope;
 
 
+    /**
+     * Static Initialization.
+     */
+    static
+    {
+        ClassLoader.registerAsParallelCapable();
+    }
+
+
     /**
      * Constructs a {@link ContainerScopeClassLoader} with the parent {@link ClassLoader}
      * being the current {@link Thread} context and the {@link ContainerScope} being the
@@ -27,17 +27,21 @@ package com.oracle.bedrock.runtime.java.features;
 
 import com.oracle.bedrock.deferred.Cached;
 import com.oracle.bedrock.deferred.Deferred;
+import com.oracle.bedrock.deferred.ExpiringCached;
 import com.oracle.bedrock.deferred.PermanentlyUnavailableException;
 import com.oracle.bedrock.deferred.jmx.DeferredJMXConnector;
 import com.oracle.bedrock.deferred.jmx.DeferredMBeanAttribute;
+import com.oracle.bedrock.deferred.jmx.DeferredMBeanAttributes;
 import com.oracle.bedrock.deferred.jmx.DeferredMBeanInfo;
 import com.oracle.bedrock.deferred.jmx.DeferredMBeanProxy;
+import com.oracle.bedrock.deferred.jmx.MBeanNotificationSubscription;
 import com.oracle.bedrock.extensible.AbstractFeature;
 import com.oracle.bedrock.extensible.Extensible;
 import com.oracle.bedrock.extensible.Feature;
 import com.oracle.bedrock.options.Timeout;
 import com.oracle.bedrock.runtime.java.JavaApplication;
 import com.oracle.bedrock.runtime.java.profiles.JmxProfile;
+import com.oracle.bedrock.util.Duration;
 
 import javax.management.MBeanInfo;
 import javax.management.ObjectInstance;
@@ -45,8 +49,16 @@ import javax.management.ObjectName;
 import javax.management.QueryExp;
 import javax.management.remote.JMXConnector;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
+import static com.oracle.bedrock.deferred.DeferredHelper.allOf;
 import static com.oracle.bedrock.deferred.DeferredHelper.cached;
 import static com.oracle.bedrock.deferred.DeferredHelper.ensured;
 import static com.oracle.bedrock.deferred.DeferredHelper.within;
@@ -110,11 +122,31 @@ public class JmxFeature extends AbstractFeature
      */
     public static final String SUN_MANAGEMENT_JMXREMOTE_ACCESS_FILE = "com.sun.management.jmxremote.access.file";
 
+    /**
+     * The time-to-live of cached MBean proxies and {@link MBeanInfo}s.
+     */
+    public static final Duration CACHE_TIME_TO_LIVE = Duration.of(30, TimeUnit.SECONDS);
+
     /**
      * The {@link Cached} representing the {@link JMXConnector}.
      */
     protected Cached<JMXConnector> cachedJmxConnector;
 
+    /**
+     * The {@link ExpiringCached} {@link MBeanInfo}s, by {@link ObjectName}.
+     */
+    protected ConcurrentHashMap<ObjectName, ExpiringCached<MBeanInfo>> cachedMBeanInfos;
+
+    /**
+     * The {@link ExpiringCached} MBean proxies, by {@link ObjectName} and proxy {@link Class}.
+     */
+    protected ConcurrentHashMap<ObjectName, ConcurrentHashMap<Class<?>, ExpiringCached<?>>> cachedMBeanProxies;
+
+    /**
+     * The {@link MBeanNotificationSubscription}s, by {@link ObjectName}.
+     */
+    protected ConcurrentHashMap<ObjectName, MBeanNotificationSubscription> subscriptions;
+
 
     /**
      * Determines if the {@link JmxFeature} is supportable by the specified {@link JavaApplication}.
@@ -181,6 +213,12 @@ public class JmxFeature extends AbstractFeature
         // use a CachedResource as once the JMXConnector is established
         // we don't want to create another JMXConnector for the application
         cachedJmxConnector = cached(new DeferredJMXConnector(url));
+
+        // MBean proxies and MBeanInfos are cached for a limited time to avoid
+        // repeatedly acquiring them while remaining reasonably up-to-date
+        cachedMBeanInfos   = new ConcurrentHashMap<>();
+        cachedMBeanProxies = new ConcurrentHashMap<>();
+        subscriptions      = new ConcurrentHashMap<>();
     }
 
 
@@ -190,8 +228,19 @@ public class JmxFeature extends AbstractFeature
         super.onRemovingFrom(extensible);
 
         // close the JMXConnector (if we've got one)
+        // remove the notification listeners (while we have a connector)
+        for (MBeanNotificationSubscription subscription : subscriptions.values())
+        {
+            subscription.close();
+        }
+
+        subscriptions.clear();
+
         JMXConnector jmxConnector = cachedJmxConnector.release();
 
+        cachedMBeanInfos.clear();
+        cachedMBeanProxies.clear();
+
         if (jmxConnector != null)
         {
             try
@@ -262,9 +311,182 @@ public class JmxFeature extends AbstractFeature
     }
 
 
+    /**
+     * Obtains a {@link Deferred} representing a snapshot of multiple attributes of the
+     * MBeans with the specified name (or pattern), registered with the JMX infrastructure
+     * of the {@link JmxFeature}.  The attributes of each MBean are acquired with a single request.
+     *
+     * @param objectName      the name (or pattern) of the MBeans defining the attributes
+     * @param attributeNames  the names of the MBean attributes
+     *
+     * @return a {@link Deferred} of the attributes by MBean name
+     *
+     * @see DeferredMBeanAttributes
+     */
+    public Deferred<Map<ObjectName, Map<String, Object>>> getDeferredMBeanAttributes(ObjectName objectName,
+                                                                                     String...  attributeNames)
+    {
+        return new DeferredMBeanAttributes(cachedJmxConnector, objectName, attributeNames);
+    }
+
+
+    /**
+     * Obtains the values of the specified attributes of an MBean registered with the
+     * JMX infrastructure of the {@link JmxFeature}, using a single request.
+     * <p>
+     * If the JMX infrastructure in the {@link JmxFeature} is not yet
+     * available, it will block and wait for the default application timeout
+     * until it becomes available.
+     *
+     * @param objectName      the name of the MBean defining the attributes
+     * @param attributeNames  the names of the MBean attributes
+     *
+     * @return the attribute values by attribute name (omitting those that could not be read)
+     */
+    public Map<String, Object> getMBeanAttributes(ObjectName objectName,
+                                                  String...  attributeNames)
+    {
+        Map<String, Object> attributes = ensured(getDeferredMBeanAttributes(objectName, attributeNames),
+                                                 within(getDefaultTimeout())).get().get(objectName);
+
+        return attributes == null ? Collections.emptyMap() : attributes;
+    }
+
+
+    /**
+     * Obtains the values of the specified attributes of the MBeans matching the specified
+     * name pattern, registered with the JMX infrastructure of the {@link JmxFeature}.
+     * <p>
+     * If the JMX infrastructure in the {@link JmxFeature} is not yet
+     * available, it will block and wait for the default application timeout
+     * until it becomes available.
+     *
+     * @param pattern         the name pattern of the MBeans defining the attributes
+     * @param attributeNames  the names of the MBean attributes
+     *
+     * @return the attribute values by attribute name, by MBean name
+     */
+    public Map<ObjectName, Map<String, Object>> queryMBeanAttributes(ObjectName pattern,
+                                                                     String...  attributeNames)
+    {
+        return ensured(getDeferredMBeanAttributes(pattern, attributeNames), within(getDefaultTimeout())).get();
+    }
+
+
+    /**
+     * Obtains the values of the specified attributes of the MBeans matching the specified
+     * name pattern, for each of the specified {@link JavaApplication}s (typically the
+     * members of an {@link com.oracle.bedrock.runtime.Assembly}), concurrently requesting
+     * the attributes from each {@link JavaApplication}.
+     * <p>
+     * If the JMX infrastructure of any {@link JavaApplication} is not yet
+     * available, it will block and wait for the longest default application timeout
+     * until they are all available.
+     *
+     * @param applications    the {@link JavaApplication}s, each with a {@link JmxFeature}
+     * @param pattern         the name pattern of the MBeans defining the attributes
+     * @param attributeNames  the names of the MBean attributes
+     *
+     * @return the attribute values by attribute name, by MBean name, by {@link JavaApplication} name
+     *
+     * @throws IllegalArgumentException when a {@link JavaApplication} doesn't have a {@link JmxFeature}
+     */
+    public static Map<String, Map<ObjectName, Map<String, Object>>> queryMBeanAttributes(Iterable<? extends JavaApplication> applications,
+                                                                                         ObjectName                          pattern,
+                                                                                         String...                           attributeNames)
+    {
+        List<String>                                         names     = new ArrayList<>();
+        List<Deferred<Map<ObjectName, Map<String, Object>>>> deferreds = new ArrayList<>();
+        Timeout                                              timeout   = null;
+
+        for (JavaApplication application : applications)
+        {
+            JmxFeature feature = application.get(JmxFeature.class);
+
+            if (feature == null)
+            {
+                throw new IllegalArgumentException("The application [" + application.getName()
+                                                   + "] does not have a JmxFeature");
+            }
+
+            names.add(application.getName());
+            deferreds.add(feature.getDeferredMBeanAttributes(pattern, attributeNames));
+
+            Timeout defaultTimeout = feature.getDefaultTimeout();
+
+            if (timeout == null || defaultTimeout.to(TimeUnit.MILLISECONDS) > timeout.to(TimeUnit.MILLISECONDS))
+            {
+                timeout = defaultTimeout;
+            }
+        }
+
+        LinkedHashMap<String, Map<ObjectName, Map<String, Object>>> snapshots = new LinkedHashMap<>();
+
+        if (!deferreds.isEmpty())
+        {
+            // concurrently acquire the attributes from all of the applications
+            List<Map<ObjectName, Map<String, Object>>> results = ensured(allOf(deferreds), within(timeout)).get();
+
+            for (int i = 0; i < names.size(); i++)
+            {
+                snapshots.put(names.get(i), results.get(i));
+            }
+        }
+
+        return snapshots;
+    }
+
+
+    /**
+     * Obtains the {@link MBeanNotificationSubscription} for the notifications of an MBean
+     * registered with the JMX infrastructure of the {@link JmxFeature}.
+     * <p>
+     * {@link MBeanNotificationSubscription}s are shared and managed by the {@link JmxFeature},
+     * being closed when the {@link JmxFeature} is removed.
+     *
+     * @param objectName  the name of the MBean
+     *
+     * @return the {@link MBeanNotificationSubscription}
+     */
+    public MBeanNotificationSubscription getMBeanNotificationSubscription(ObjectName objectName)
+    {
+        return subscriptions.computeIfAbsent(objectName,
+                                             name -> new MBeanNotificationSubscription(cachedJmxConnector, name));
+    }
+
+
+    /**
+     * Obtains a push-based {@link Deferred} representing the last-known value of an
+     * MBean attribute registered with the JMX infrastructure of the {@link JmxFeature}.
+     * <p>
+     * Unlike {@link #getDeferredMBeanAttribute(ObjectName, String, Class)}, the attribute
+     * is only read once, after which the value is updated using the attribute change
+     * notifications of the MBean.  Waiting for the value reacts to notifications as they arrive,
+     * without polling the MBean.  The attributes of MBeans that don't send attribute change
+     * notifications are polled.
+     *
+     * @param <T>             the type of the MBean attribute
+     * @param objectName      the name of the MBean defining the attribute
+     * @param attributeName   the name of the MBean attribute
+     * @param attributeClass  the {@link Class} of the MBean attribute
+     *
+     * @return a {@link Deferred} of type T for the attribute value
+     *
+     * @see MBeanNotificationSubscription
+     */
+    public <T> Deferred<T> getNotifiedMBeanAttribute(ObjectName objectName,
+                                                     String     attributeName,
+                                                     Class<T>   attributeClass)
+    {
+        return getMBeanNotificationSubscription(objectName).getDeferredAttribute(attributeName, attributeClass);
+    }
+
+
     /**
      * Obtains a {@link Deferred} representing a local proxy to an MBean
      * registered with the JMX infrastructure of the {@link JmxFeature}.
+     * <p>
+     * Proxies are cached (and shared) for the {@link #CACHE_TIME_TO_LIVE}.
      *
      * @param objectName  the name of the MBean
      * @param proxyClass  the type of the proxy
@@ -273,10 +495,16 @@ public class JmxFeature extends AbstractFeature
      *
      * @return a {@link Deferred} of type T
      */
+    @SuppressWarnings("unchecked")
     public <T> Deferred<T> getDeferredMBeanProxy(ObjectName objectName,
                                                  Class<T>   proxyClass)
     {
-        return new Cached<T>(new DeferredMBeanProxy<T>(cachedJmxConnector, objectName, proxyClass));
+        return (Deferred<T>) cachedMBeanProxies.computeIfAbsent(objectName, name -> new ConcurrentHashMap<>())
+                                               .computeIfAbsent(proxyClass,
+                                                                type -> cached(new DeferredMBeanProxy<T>(cachedJmxConnector,
+                                                                                                         objectName,
+                                                                                                         proxyClass),
+                                                                               CACHE_TIME_TO_LIVE));
     }
 
 
@@ -304,6 +532,8 @@ public class JmxFeature extends AbstractFeature
     /**
      * Obtains a {@link Deferred} representing an {@link MBeanInfo}
      * registered with the JMX infrastructure of the {@link JmxFeature}.
+     * <p>
+     * {@link MBeanInfo}s are cached (and shared) for the {@link #CACHE_TIME_TO_LIVE}.
      *
      * @param objectName  the name of the MBean
      *
@@ -311,7 +541,9 @@ public class JmxFeature extends AbstractFeature
      */
     public Deferred<MBeanInfo> getDeferredMBeanInfo(ObjectName objectName)
     {
-        return new DeferredMBeanInfo(cachedJmxConnector, objectName);
+        return cachedMBeanInfos.computeIfAbsent(objectName,
+                                                name -> cached(new DeferredMBeanInfo(cachedJmxConnector, name),
+                                                               CACHE_TIME_TO_LIVE));
     }
 
 
@@ -0,0 +1,793 @@
+/*
+ * File: MetricsSamplerFeature.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of 
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+package com.oracle.bedrock.runtime.java.features;
+
+import com.oracle.bedrock.diagnostics.TimeSeries;
+import com.oracle.bedrock.extensible.AbstractFeature;
+import com.oracle.bedrock.extensible.Extensible;
+import com.oracle.bedrock.runtime.concurrent.RemoteCallable;
+import com.oracle.bedrock.runtime.java.JavaApplication;
+import com.oracle.bedrock.util.Duration;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+/**
+ * A {@link com.oracle.bedrock.extensible.Feature} that periodically samples a configured set of
+ * MBean attributes of a {@link JavaApplication}, recording them as {@link TimeSeries}, so that
+ * tests may assert on rates and percentiles rather than individual values.
+ * <p>
+ * When the {@link JavaApplication} has a {@link JmxFeature}, attributes are sampled using JMX,
+ * otherwise they are sampled in-process using a {@link RemoteCallable}.  All
+ * {@link MetricsSamplerFeature}s share a single scheduler, which only triggers samples,
+ * with the (possibly remote) attribute reads being performed asynchronously.  A sample is
+ * skipped when the previous sample of the {@link JavaApplication} has yet to complete, and
+ * a sample that fails to complete within the sample timeout is abandoned.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+public class MetricsSamplerFeature extends AbstractFeature
+{
+    /**
+     * The default number of samples retained for each {@link Metric}.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * The minimum time (in milliseconds) allowed for a sample to complete before it is abandoned.
+     * Samples are otherwise allowed the sampling interval to complete.
+     */
+    public static final long MINIMUM_SAMPLE_TIMEOUT_MS = 5000;
+
+    /**
+     * The maximum number of {@link Thread}s concurrently reading attributes using JMX.
+     */
+    private static final int MAXIMUM_READERS = 8;
+
+    /**
+     * The scheduler shared by all {@link MetricsSamplerFeature}s, used only to trigger
+     * samples and their timeouts, so that it is never blocked by reading attributes.
+     */
+    private static final ScheduledExecutorService SCHEDULER;
+
+    /**
+     * The bounded pool of {@link Thread}s shared by all {@link MetricsSamplerFeature}s for reading
+     * attributes using JMX, which may block.  Reads that don't complete in time are cancelled,
+     * so that hung reads can't accumulate {@link Thread}s.
+     */
+    private static final ThreadPoolExecutor READERS;
+
+    static
+    {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new ThreadFactory("Scheduler"));
+
+        executor.setRemoveOnCancelPolicy(true);
+
+        SCHEDULER = executor;
+
+        READERS = new ThreadPoolExecutor(MAXIMUM_READERS,
+                                         MAXIMUM_READERS,
+                                         60,
+                                         TimeUnit.SECONDS,
+                                         new LinkedBlockingQueue<>(),
+                                         new ThreadFactory("Reader"));
+
+        READERS.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * The interval between samples.
+     */
+    private final Duration interval;
+
+    /**
+     * The {@link Metric}s to sample.
+     */
+    private final Metric[] metrics;
+
+    /**
+     * The {@link TimeSeries} for each {@link Metric}, by {@link Metric} name.
+     */
+    private final LinkedHashMap<String, TimeSeries> timeSeries;
+
+    /**
+     * Is a sample currently being taken?
+     */
+    private final AtomicBoolean sampling;
+
+    /**
+     * The {@link JavaApplication} being sampled.
+     */
+    private volatile JavaApplication application;
+
+    /**
+     * The {@link ScheduledFuture} for sampling.
+     */
+    private ScheduledFuture<?> schedule;
+
+
+    /**
+     * Constructs a {@link MetricsSamplerFeature} retaining the {@link #DEFAULT_CAPACITY}
+     * number of samples for each {@link Metric}.
+     *
+     * @param interval  the interval between samples
+     * @param metrics   the {@link Metric}s to sample
+     */
+    public MetricsSamplerFeature(Duration  interval,
+                                 Metric... metrics)
+    {
+        this(interval, DEFAULT_CAPACITY, metrics);
+    }
+
+
+    /**
+     * Constructs a {@link MetricsSamplerFeature}.
+     *
+     * @param interval  the interval between samples
+     * @param capacity  the maximum number of samples to retain for each {@link Metric}
+     * @param metrics   the {@link Metric}s to sample
+     */
+    public MetricsSamplerFeature(Duration  interval,
+                                 int       capacity,
+                                 Metric... metrics)
+    {
+        if (interval.to(TimeUnit.MILLISECONDS) <= 0)
+        {
+            throw new IllegalArgumentException("The sampling interval must be positive");
+        }
+
+        this.interval   = interval;
+        this.metrics    = metrics.clone();
+        this.timeSeries = new LinkedHashMap<>();
+        this.sampling   = new AtomicBoolean(false);
+
+        for (Metric metric : metrics)
+        {
+            if (timeSeries.put(metric.getName(), new TimeSeries(metric.getName(), capacity)) != null)
+            {
+                throw new IllegalArgumentException("The metric [" + metric.getName() + "] is defined more than once");
+            }
+        }
+    }
+
+
+    /**
+     * Obtains the interval between samples.
+     *
+     * @return the interval
+     */
+    public Duration getInterval()
+    {
+        return interval;
+    }
+
+
+    /**
+     * Obtains the names of the {@link Metric}s being sampled.
+     *
+     * @return the {@link Metric} names
+     */
+    public Iterable<String> getMetricNames()
+    {
+        return Collections.unmodifiableSet(timeSeries.keySet());
+    }
+
+
+    /**
+     * Obtains the {@link TimeSeries} for the specified {@link Metric}.
+     *
+     * @param metricName  the name of the {@link Metric}
+     *
+     * @return the {@link TimeSeries} or <code>null</code> if the {@link Metric} is not being sampled
+     */
+    public TimeSeries getTimeSeries(String metricName)
+    {
+        return timeSeries.get(metricName);
+    }
+
+
+    @Override
+    public void onAddingTo(Extensible extensible)
+    {
+        super.onAddingTo(extensible);
+
+        application = extensible.get(JavaApplication.class);
+
+        long intervalMS = interval.to(TimeUnit.MILLISECONDS);
+
+        synchronized (this)
+        {
+            schedule = SCHEDULER.scheduleAtFixedRate(this::sample, intervalMS, intervalMS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+
+    @Override
+    public void onRemovingFrom(Extensible extensible)
+    {
+        synchronized (this)
+        {
+            if (schedule != null)
+            {
+                schedule.cancel(false);
+                schedule = null;
+            }
+        }
+
+        application = null;
+
+        super.onRemovingFrom(extensible);
+    }
+
+
+    /**
+     * Takes a sample of the {@link Metric}s, unless the previous sample is still being taken.
+     * <p>
+     * The attributes are read asynchronously, with the sample being abandoned when it doesn't
+     * complete within the larger of the sampling interval and {@link #MINIMUM_SAMPLE_TIMEOUT_MS}.
+     */
+    protected void sample()
+    {
+        JavaApplication application = this.application;
+
+        if (application == null ||!sampling.compareAndSet(false, true))
+        {
+            return;
+        }
+
+        long                        timestamp = System.currentTimeMillis();
+        CompletableFuture<double[]> result    = new CompletableFuture<>();
+
+        try
+        {
+            JmxFeature jmxFeature = application.get(JmxFeature.class);
+
+            if (jmxFeature == null)
+            {
+                CompletableFuture<double[]> values = application.submit(new MBeanAttributeReader(metrics));
+
+                values.whenComplete((sampled, throwable) -> {
+                                        if (throwable == null)
+                                        {
+                                            result.complete(sampled);
+                                        }
+                                        else
+                                        {
+                                            result.completeExceptionally(throwable);
+                                        }
+                                    });
+            }
+            else
+            {
+                Future<?> reading = READERS.submit(() -> {
+                                                       try
+                                                       {
+                                                           result.complete(read(jmxFeature));
+                                                       }
+                                                       catch (RuntimeException e)
+                                                       {
+                                                           result.completeExceptionally(e);
+                                                       }
+                                                   });
+
+                // abandon (and interrupt) a read that doesn't complete in time
+                result.whenComplete((sampled, throwable) -> {
+                                        if (throwable instanceof TimeoutException)
+                                        {
+                                            reading.cancel(true);
+                                        }
+                                    });
+            }
+        }
+        catch (RuntimeException e)
+        {
+            // the application may be closing; we'll try again on the next sample
+            result.completeExceptionally(e);
+        }
+
+        if (!result.isDone())
+        {
+            long timeoutMS = Math.max(interval.to(TimeUnit.MILLISECONDS), MINIMUM_SAMPLE_TIMEOUT_MS);
+
+            ScheduledFuture<?> timeout = SCHEDULER.schedule(() -> result.completeExceptionally(new TimeoutException()),
+                                                            timeoutMS,
+                                                            TimeUnit.MILLISECONDS);
+
+            result.whenComplete((sampled, throwable) -> timeout.cancel(false));
+        }
+
+        // values that arrive after the sample has been abandoned are ignored
+        result.whenComplete((sampled, throwable) -> {
+                                try
+                                {
+                                    if (sampled != null)
+                                    {
+                                        record(timestamp, sampled);
+                                    }
+                                }
+                                finally
+                                {
+                                    sampling.set(false);
+                                }
+                            });
+    }
+
+
+    /**
+     * Reads the values of the {@link Metric}s using the specified {@link JmxFeature},
+     * which may block until the JMX connection responds.
+     *
+     * @param jmxFeature  the {@link JmxFeature}
+     *
+     * @return the values of the {@link Metric}s, {@link Double#NaN} when unavailable
+     */
+    private double[] read(JmxFeature jmxFeature)
+    {
+        return evaluate(metrics, (objectName, attributeNames) -> {
+                            try
+                            {
+                                return jmxFeature.getDeferredMBeanAttributes(objectName, attributeNames).get();
+                            }
+                            catch (RuntimeException e)
+                            {
+                                return null;
+                            }
+                        });
+    }
+
+
+    /**
+     * Records the sampled values of the {@link Metric}s, ignoring those that are unavailable.
+     *
+     * @param timestamp  the time of the sample (in milliseconds since the epoch)
+     * @param values     the values of the {@link Metric}s
+     */
+    private void record(long     timestamp,
+                        double[] values)
+    {
+        for (int i = 0; i < metrics.length && i < values.length; i++)
+        {
+            if (!Double.isNaN(values[i]))
+            {
+                timeSeries.get(metrics[i].getName()).add(timestamp, values[i]);
+            }
+        }
+    }
+
+
+    /**
+     * Writes the samples of all of the {@link Metric}s as comma-separated-values, including a header.
+     *
+     * @param appendable  the {@link Appendable} to which to write
+     *
+     * @throws IOException when writing fails
+     *
+     * @see TimeSeries#writeCSV(Appendable)
+     */
+    public void writeCSV(Appendable appendable) throws IOException
+    {
+        appendable.append("metric,timestamp,value\n");
+
+        for (TimeSeries series : timeSeries.values())
+        {
+            series.writeCSV(appendable);
+        }
+    }
+
+
+    /**
+     * Writes the samples of all of the {@link Metric}s as a JSON array of {@link TimeSeries}.
+     *
+     * @param appendable  the {@link Appendable} to which to write
+     *
+     * @throws IOException when writing fails
+     *
+     * @see TimeSeries#writeJSON(Appendable)
+     */
+    public void writeJSON(Appendable appendable) throws IOException
+    {
+        appendable.append('[');
+
+        boolean first = true;
+
+        for (TimeSeries series : timeSeries.values())
+        {
+            appendable.append(first ? "" : ",");
+            series.writeJSON(appendable);
+
+            first = false;
+        }
+
+        appendable.append(']');
+    }
+
+
+    /**
+     * Aggregates the samples of a {@link Metric} from each of the specified {@link JavaApplication}s
+     * (typically the members of an {@link com.oracle.bedrock.runtime.Assembly}) into a single
+     * {@link TimeSeries}, by summing the samples of the {@link JavaApplication}s for each sampling
+     * interval.  {@link JavaApplication}s without a {@link MetricsSamplerFeature} sampling the
+     * {@link Metric} are ignored.
+     *
+     * @param applications  the {@link JavaApplication}s
+     * @param metricName    the name of the {@link Metric}
+     *
+     * @return a new {@link TimeSeries} containing the sum of the samples from all of the
+     *         {@link JavaApplication}s for each sampling interval
+     *
+     * @see TimeSeries#sum(String, long, java.util.Collection)
+     */
+    public static TimeSeries aggregate(Iterable<? extends JavaApplication> applications,
+                                       String                              metricName)
+    {
+        List<TimeSeries> series     = new ArrayList<>();
+        long             intervalMS = 1;
+
+        for (JavaApplication application : applications)
+        {
+            MetricsSamplerFeature feature = application.get(MetricsSamplerFeature.class);
+            TimeSeries            samples = feature == null ? null : feature.getTimeSeries(metricName);
+
+            if (samples != null)
+            {
+                series.add(samples);
+
+                intervalMS = Math.max(intervalMS, feature.interval.to(TimeUnit.MILLISECONDS));
+            }
+        }
+
+        return TimeSeries.sum(metricName, intervalMS, series);
+    }
+
+
+    /**
+     * Evaluates the values of the specified {@link Metric}s, reading the attributes of each MBean
+     * (or MBean name pattern) once.  When an MBean name pattern matches several MBeans, the
+     * value of a {@link Metric} is the sum of the values from each MBean.
+     *
+     * @param metrics  the {@link Metric}s
+     * @param reader   the function to read the attributes of the MBeans matching an {@link ObjectName},
+     *                 returning <code>null</code> when they are unavailable
+     *
+     * @return the values of the {@link Metric}s, {@link Double#NaN} when unavailable
+     */
+    static double[] evaluate(Metric[]                                                           metrics,
+                             BiFunction<ObjectName, String[], Map<ObjectName, Map<String, Object>>> reader)
+    {
+        // determine the attributes required from each MBean
+        LinkedHashMap<ObjectName, LinkedHashSet<String>> required = new LinkedHashMap<>();
+
+        for (Metric metric : metrics)
+        {
+            required.computeIfAbsent(metric.getObjectName(), name -> new LinkedHashSet<>()).add(metric.getAttribute());
+        }
+
+        HashMap<ObjectName, Map<ObjectName, Map<String, Object>>> attributes = new HashMap<>();
+
+        for (Map.Entry<ObjectName, LinkedHashSet<String>> entry : required.entrySet())
+        {
+            attributes.put(entry.getKey(), reader.apply(entry.getKey(), entry.getValue().toArray(new String[0])));
+        }
+
+        double[] values = new double[metrics.length];
+
+        for (int i = 0; i < metrics.length; i++)
+        {
+            Map<ObjectName, Map<String, Object>> mbeans = attributes.get(metrics[i].getObjectName());
+
+            values[i] = Double.NaN;
+
+            if (mbeans != null)
+            {
+                for (Map<String, Object> mbean : mbeans.values())
+                {
+                    double value = metrics[i].valueOf(mbean);
+
+                    if (!Double.isNaN(value))
+                    {
+                        values[i] = Double.isNaN(values[i]) ? value : values[i] + value;
+                    }
+                }
+            }
+        }
+
+        return values;
+    }
+
+
+    /**
+     * A named, numeric MBean attribute to sample.
+     */
+    public static class Metric implements Serializable
+    {
+        /**
+         * The name of the {@link Metric}.
+         */
+        private final String name;
+
+        /**
+         * The name (or name pattern) of the MBean.
+         */
+        private final ObjectName objectName;
+
+        /**
+         * The name of the MBean attribute.
+         */
+        private final String attribute;
+
+        /**
+         * The key of the {@link CompositeData} item in the attribute (may be <code>null</code>).
+         */
+        private final String key;
+
+
+        /**
+         * Constructs a {@link Metric}.
+         *
+         * @param name        the name of the {@link Metric}
+         * @param objectName  the name (or name pattern) of the MBean
+         * @param attribute   the name of the MBean attribute, optionally followed by a "."
+         *                    and the key of a {@link CompositeData} item, eg: "HeapMemoryUsage.used"
+         */
+        public Metric(String     name,
+                      ObjectName objectName,
+                      String     attribute)
+        {
+            int dot = attribute.indexOf('.');
+
+            this.name       = name;
+            this.objectName = objectName;
+            this.attribute  = dot < 0 ? attribute : attribute.substring(0, dot);
+            this.key        = dot < 0 ? null : attribute.substring(dot + 1);
+        }
+
+
+        /**
+         * Obtains the name of the {@link Metric}.
+         *
+         * @return the name
+         */
+        public String getName()
+        {
+            return name;
+        }
+
+
+        /**
+         * Obtains the name (or name pattern) of the MBean.
+         *
+         * @return the {@link ObjectName}
+         */
+        public ObjectName getObjectName()
+        {
+            return objectName;
+        }
+
+
+        /**
+         * Obtains the name of the MBean attribute.
+         *
+         * @return the attribute name
+         */
+        public String getAttribute()
+        {
+            return attribute;
+        }
+
+
+        /**
+         * Determines the numeric value of the {@link Metric} from the specified MBean attributes.
+         *
+         * @param attributes  the MBean attributes, by attribute name
+         *
+         * @return the value or {@link Double#NaN} if the value is not available or not numeric
+         */
+        public double valueOf(Map<String, Object> attributes)
+        {
+            Object value = attributes == null ? null : attributes.get(attribute);
+
+            if (key != null && value instanceof CompositeData)
+            {
+                CompositeData compositeData = (CompositeData) value;
+
+                value = compositeData.containsKey(key) ? compositeData.get(key) : null;
+            }
+
+            if (value instanceof Number)
+            {
+                return ((Number) value).doubleValue();
+            }
+            else if (value instanceof Boolean)
+            {
+                return ((Boolean) value) ? 1 : 0;
+            }
+            else
+            {
+                return Double.NaN;
+            }
+        }
+
+
+        @Override
+        public String toString()
+        {
+            return "Metric{" + name + "=" + objectName + ":" + attribute + (key == null ? "" : "." + key) + "}";
+        }
+
+
+        /**
+         * Creates a {@link Metric}.
+         *
+         * @param name        the name of the {@link Metric}
+         * @param objectName  the name (or name pattern) of the MBean
+         * @param attribute   the name of the MBean attribute, optionally followed by a "."
+         *                    and the key of a {@link CompositeData} item, eg: "HeapMemoryUsage.used"
+         *
+         * @return a new {@link Metric}
+         *
+         * @throws IllegalArgumentException when the MBean name is malformed
+         */
+        public static Metric of(String name,
+                                String objectName,
+                                String attribute)
+        {
+            try
+            {
+                return new Metric(name, new ObjectName(objectName), attribute);
+            }
+            catch (MalformedObjectNameException e)
+            {
+                throw new IllegalArgumentException("The MBean name [" + objectName + "] is malformed", e);
+            }
+        }
+    }
+
+
+    /**
+     * A {@link RemoteCallable} to evaluate {@link Metric}s in-process, using the platform {@link MBeanServer}.
+     */
+    public static class MBeanAttributeReader implements RemoteCallable<double[]>
+    {
+        /**
+         * The {@link Metric}s to evaluate.
+         */
+        private final Metric[] metrics;
+
+
+        /**
+         * Constructs a {@link MBeanAttributeReader}.
+         *
+         * @param metrics  the {@link Metric}s to evaluate
+         */
+        public MBeanAttributeReader(Metric... metrics)
+        {
+            this.metrics = metrics;
+        }
+
+
+        @Override
+        public double[] call() throws Exception
+        {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+            return evaluate(metrics, (objectName, attributeNames) -> {
+                                         LinkedHashMap<ObjectName, Map<String, Object>> mbeans = new LinkedHashMap<>();
+
+                                         for (ObjectName name : server.queryNames(objectName, null))
+                                         {
+                                             try
+                                             {
+                                                 HashMap<String, Object> values = new HashMap<>();
+
+                                                 for (Attribute attribute : server.getAttributes(name,
+                                                                                                 attributeNames)
+                                                                                                 .asList())
+                                                 {
+                                                     values.put(attribute.getName(), attribute.getValue());
+                                                 }
+
+                                                 mbeans.put(name, values);
+                                             }
+                                             catch (Exception e)
+                                             {
+                                                 // SKIP: the MBean may have been unregistered
+                                             }
+                                         }
+
+                                         return mbeans;
+                                     });
+        }
+    }
+
+
+    /**
+     * A {@link java.util.concurrent.ThreadFactory} producing daemon {@link Thread}s
+     * for sampling metrics.
+     */
+    private static class ThreadFactory implements java.util.concurrent.ThreadFactory
+    {
+        /**
+         * The role of the {@link Thread}s created, included in their names.
+         */
+        private final String role;
+
+        /**
+         * The number of {@link Thread}s created.
+         */
+        private final AtomicInteger count = new AtomicInteger(0);
+
+
+        /**
+         * Constructs a {@link ThreadFactory}.
+         *
+         * @param role  the role of the {@link Thread}s created
+         */
+        ThreadFactory(String role)
+        {
+            this.role = role;
+        }
+
+
+        @Override
+        public Thread newThread(Runnable runnable)
+        {
+            Thread thread = new Thread(runnable);
+
+            thread.setDaemon(true);
+            thread.setName("MetricsSampler-" + role + "-" + count.incrementAndGet());
+
+            return thread;
+        }
+    }
+}
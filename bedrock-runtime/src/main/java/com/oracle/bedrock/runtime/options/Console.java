@@ -28,6 +28,7 @@ package com.oracle.bedrock.runtime.options;
 import com.oracle.bedrock.Option;
 import com.oracle.bedrock.runtime.ApplicationConsole;
 import com.oracle.bedrock.runtime.ApplicationConsoleBuilder;
+import com.oracle.bedrock.runtime.console.AsynchronousFileWriterApplicationConsole;
 import com.oracle.bedrock.runtime.console.FileWriterApplicationConsole;
 import com.oracle.bedrock.runtime.console.NullApplicationConsole;
 import com.oracle.bedrock.runtime.console.SystemApplicationConsole;
@@ -109,6 +110,21 @@ public class Console implements ApplicationConsoleBuilder
     }
 
 
+    /**
+     * Constructs an {@link ApplicationConsoleBuilder} for the {@link AsynchronousFileWriterApplicationConsole}.
+     *
+     * @param directory  the directory in which to write the files
+     * @param prefix     the file-name prefix
+     *
+     * @return an {@link ApplicationConsoleBuilder}
+     */
+    public static ApplicationConsoleBuilder asynchronousFile(String directory,
+                                                             String prefix)
+    {
+        return AsynchronousFileWriterApplicationConsole.builder(directory, prefix);
+    }
+
+
     @Override
     public ApplicationConsole build(String applicationName)
     {
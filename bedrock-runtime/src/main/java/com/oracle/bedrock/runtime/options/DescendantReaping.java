@@ -0,0 +1,129 @@
+/*
+ * File: DescendantReaping.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of 
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+package com.oracle.bedrock.runtime.options;
+
+import com.oracle.bedrock.Option;
+import com.oracle.bedrock.OptionsByType;
+import com.oracle.bedrock.runtime.Application;
+
+/**
+ * An {@link Option} to define if the descendant processes of a locally launched
+ * {@link Application} should be terminated (reaped) when the {@link Application} is closed.
+ * <p>
+ * Descendants are determined using the <code>/proc</code> file system, and thus reaping
+ * is only supported on Linux platforms.  By default descendants are not reaped, allowing
+ * {@link Orphanable} descendants to remain running.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+public class DescendantReaping implements Option
+{
+    /**
+     * Should descendant processes be reaped?
+     */
+    private boolean enabled;
+
+
+    /**
+     * Privately construct a {@link DescendantReaping}.
+     *
+     * @param enabled  should descendant processes be reaped?
+     */
+    private DescendantReaping(boolean enabled)
+    {
+        this.enabled = enabled;
+    }
+
+
+    /**
+     * Determines if descendant processes should be reaped.
+     *
+     * @return  <code>true</code> if descendant processes should be reaped
+     */
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+
+    @Override
+    public String toString()
+    {
+        return "DescendantReaping{" + (enabled ? "enabled" : "disabled") + "}";
+    }
+
+
+    @Override
+    public boolean equals(Object other)
+    {
+        if (this == other)
+        {
+            return true;
+        }
+
+        if (!(other instanceof DescendantReaping))
+        {
+            return false;
+        }
+
+        DescendantReaping that = (DescendantReaping) other;
+
+        return enabled == that.enabled;
+    }
+
+
+    @Override
+    public int hashCode()
+    {
+        return (enabled ? 1 : 0);
+    }
+
+
+    /**
+     * Obtains a {@link DescendantReaping} that terminates descendant processes.
+     *
+     * @return  a {@link DescendantReaping}
+     */
+    public static DescendantReaping enabled()
+    {
+        return new DescendantReaping(true);
+    }
+
+
+    /**
+     * Obtains a {@link DescendantReaping} that leaves descendant processes running.
+     *
+     * @return  a {@link DescendantReaping}
+     */
+    @OptionsByType.Default
+    public static DescendantReaping disabled()
+    {
+        return new DescendantReaping(false);
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * File: LocalApplicationProcessTest.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of 
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+package com.oracle.bedrock.runtime;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for the {@link LocalApplicationProcess}.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+public class LocalApplicationProcessTest
+{
+    @Test(timeout = 30000)
+    public void shouldCompleteOnExit() throws Exception
+    {
+        Assume.assumeTrue(Files.isDirectory(Paths.get("/proc")));
+
+        LocalApplicationProcess process = new LocalApplicationProcess(new ProcessBuilder("sh",
+                                                                                         "-c",
+                                                                                         "sleep 1; exit 3").start());
+
+        assertThat(process.onExit().get(20, TimeUnit.SECONDS), is(3));
+        assertThat(process.onExit().isDone(), is(true));
+    }
+
+
+    @Test(timeout = 30000)
+    public void shouldCompleteOnExitWhenProbeReportsExitValue() throws Exception
+    {
+        AtomicReference<Integer> exitValue = new AtomicReference<>();
+
+        CompletableFuture<Integer> future = ProcessExitMonitor.onExit(exitValue::get);
+
+        assertThat(future.isDone(), is(false));
+
+        exitValue.set(7);
+
+        assertThat(future.get(20, TimeUnit.SECONDS), is(7));
+    }
+
+
+    @Test(timeout = 30000)
+    public void shouldTimeOutWhenNotCompletedWithinTimeout() throws Exception
+    {
+        CompletableFuture<Integer> pending = new CompletableFuture<>();
+
+        try
+        {
+            ProcessExitMonitor.within(pending, 100).get(20, TimeUnit.SECONDS);
+
+            fail("The future should have timed out");
+        }
+        catch (ExecutionException e)
+        {
+            assertThat(e.getCause(), is(instanceOf(TimeoutException.class)));
+        }
+
+        CompletableFuture<Integer> completing = new CompletableFuture<>();
+        CompletableFuture<Integer> future     = ProcessExitMonitor.within(completing, 60000);
+
+        completing.complete(5);
+
+        assertThat(future.get(20, TimeUnit.SECONDS), is(5));
+    }
+
+
+    @Test(timeout = 30000)
+    public void shouldReapDescendantsWhenClosed() throws Exception
+    {
+        Assume.assumeTrue(Files.isDirectory(Paths.get("/proc")));
+
+        LocalApplicationProcess process = new LocalApplicationProcess(new ProcessBuilder("sh",
+                                                                                         "-c",
+                                                                                         "sleep 60 & wait").start());
+
+        process.setReapDescendants(true);
+
+        List<Long> descendants = process.getDescendantIds();
+
+        while (descendants.isEmpty())
+        {
+            Thread.sleep(50);
+
+            descendants = process.getDescendantIds();
+        }
+
+        process.close();
+        process.onExit().get(20, TimeUnit.SECONDS);
+
+        for (long descendant : descendants)
+        {
+            while (isRunning(descendant))
+            {
+                Thread.sleep(50);
+            }
+        }
+    }
+
+
+    /**
+     * Determines if the specified process is running (neither terminated nor a zombie).
+     *
+     * @param id  the process identifier
+     *
+     * @return <code>true</code> if the process is running
+     */
+    private static boolean isRunning(long id)
+    {
+        try
+        {
+            Path   stat    = Paths.get("/proc", Long.toString(id), "stat");
+            String content = new String(Files.readAllBytes(stat), StandardCharsets.US_ASCII);
+
+            return content.charAt(content.lastIndexOf(')') + 2) != 'Z';
+        }
+        catch (Exception e)
+        {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * File: AsynchronousFileWriterApplicationConsoleTest.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+package com.oracle.bedrock.runtime.console;
+
+import com.oracle.bedrock.runtime.console.AsynchronousFileWriterApplicationConsole.OverflowPolicy;
+import org.junit.Assume;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for the {@link AsynchronousFileWriterApplicationConsole}.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+public class AsynchronousFileWriterApplicationConsoleTest
+{
+    @ClassRule
+    public static TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+
+    @Test
+    public void shouldWriteAllOutputWhenClosed() throws Exception
+    {
+        File file = temporaryFolder.newFile();
+
+        AsynchronousFileWriterApplicationConsole console =
+            new AsynchronousFileWriterApplicationConsole(file.getCanonicalPath());
+
+        for (int i = 0; i < 1000; i++)
+        {
+            console.getOutputWriter().println("out " + i);
+            console.getOutputWriter().flush();
+            console.getErrorWriter().println("err " + i);
+            console.getErrorWriter().flush();
+        }
+
+        console.close();
+
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+
+        assertThat(lines.size(), is(2000));
+        assertThat(lines.get(0), is("out 0"));
+        assertThat(lines.get(1999), is("err 999"));
+        assertThat(console.getDiscardedCount(), is(0L));
+    }
+
+
+    @Test(timeout = 30000)
+    public void shouldWriteOutputFlushedByClose() throws Exception
+    {
+        for (int attempt = 0; attempt < 100; attempt++)
+        {
+            File file = temporaryFolder.newFile();
+
+            AsynchronousFileWriterApplicationConsole console =
+                new AsynchronousFileWriterApplicationConsole(file.getCanonicalPath());
+
+            // the final line is only written to the queue when the console is closed
+            console.getOutputWriter().println("first");
+            console.getOutputWriter().flush();
+            console.getOutputWriter().print("last");
+
+            console.close();
+
+            List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+
+            assertThat(lines, contains("first", "last"));
+            assertThat(console.getDiscardedCount(), is(0L));
+        }
+    }
+
+
+    @Test
+    public void shouldRotateAndCompressBySize() throws Exception
+    {
+        File file = temporaryFolder.newFile();
+
+        AsynchronousFileWriterApplicationConsole console = new AsynchronousFileWriterApplicationConsole(file,
+                                                                                                        false,
+                                                                                                        16,
+                                                                                                        OverflowPolicy
+                                                                                                        .BLOCK,
+                                                                                                        100,
+                                                                                                        null,
+                                                                                                        true);
+
+        for (int i = 0; i < 100; i++)
+        {
+            console.getOutputWriter().println("line " + i);
+            console.getOutputWriter().flush();
+        }
+
+        console.close();
+
+        assertThat(console.getRotationCount(), greaterThan(0L));
+
+        File rotated = new File(file.getPath() + ".1.gz");
+
+        assertThat(rotated.exists(), is(true));
+        assertThat(new File(file.getPath() + ".1").exists(), is(false));
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(new FileInputStream(rotated)),
+                                                                              StandardCharsets.UTF_8)))
+        {
+            assertThat(reader.readLine(), is("line 0"));
+        }
+    }
+
+
+    @Test
+    public void shouldNotReplaceExistingRotatedFiles() throws Exception
+    {
+        File file     = temporaryFolder.newFile();
+        File previous = new File(file.getPath() + ".1");
+
+        Files.write(previous.toPath(), Collections.singletonList("previous"), StandardCharsets.UTF_8);
+
+        AsynchronousFileWriterApplicationConsole console = new AsynchronousFileWriterApplicationConsole(file,
+                                                                                                        false,
+                                                                                                        16,
+                                                                                                        OverflowPolicy
+                                                                                                        .BLOCK,
+                                                                                                        5,
+                                                                                                        null,
+                                                                                                        false);
+
+        console.getOutputWriter().println("line 0");
+        console.getOutputWriter().flush();
+
+        console.close();
+
+        assertThat(Files.readAllLines(previous.toPath(), StandardCharsets.UTF_8), contains("previous"));
+        assertThat(Files.readAllLines(new File(file.getPath() + ".2").toPath(), StandardCharsets.UTF_8),
+                   contains("line 0"));
+    }
+
+
+    @Test(timeout = 30000)
+    public void shouldDiscardOutputOnceWritingFails() throws Exception
+    {
+        File file = new File("/dev/full");
+
+        Assume.assumeTrue(file.exists());
+
+        AsynchronousFileWriterApplicationConsole console = new AsynchronousFileWriterApplicationConsole(file,
+                                                                                                        false,
+                                                                                                        1,
+                                                                                                        OverflowPolicy
+                                                                                                        .BLOCK,
+                                                                                                        0,
+                                                                                                        null,
+                                                                                                        false);
+
+        // the writer fails on the first batch, after which blocking writes must not wait forever
+        for (int i = 0; i < 100; i++)
+        {
+            console.getOutputWriter().println("line " + i);
+            console.getOutputWriter().flush();
+        }
+
+        console.close();
+
+        assertThat(console.getFailure(), is(notNullValue()));
+        assertThat(console.getDiscardedCount(), greaterThan(0L));
+    }
+
+
+    @Test
+    public void shouldBeDiagnosticModeByDefault() throws Exception
+    {
+        File file = temporaryFolder.newFile();
+
+        AsynchronousFileWriterApplicationConsole console =
+            new AsynchronousFileWriterApplicationConsole(file.getCanonicalPath());
+
+        assertThat(console.isDiagnosticsEnabled(), is(true));
+
+        console.close();
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * File: SpillingPipedWriterTest.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+package com.oracle.bedrock.runtime.console;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.PipedReader;
+import java.io.PrintWriter;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for the {@link SpillingPipedWriter}.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+public class SpillingPipedWriterTest
+{
+    @Test(timeout = 30000)
+    public void shouldSpillWithoutBlockingWhenReaderFallsBehind() throws Exception
+    {
+        PipedReader         pipedReader = new PipedReader(64);
+        SpillingPipedWriter pipedWriter = new SpillingPipedWriter(pipedReader, 1024);
+        PrintWriter         writer      = new PrintWriter(pipedWriter);
+
+        // nothing is reading, so a regular pipe would block almost immediately
+        for (int i = 0; i < 10000; i++)
+        {
+            writer.println("line " + i);
+        }
+
+        writer.close();
+
+        assertThat(pipedWriter.getSpilledBytes(), greaterThan(0L));
+        assertThat(pipedWriter.getSpillCount(), greaterThan(0L));
+
+        BufferedReader reader = new BufferedReader(pipedReader);
+
+        for (int i = 0; i < 10000; i++)
+        {
+            assertThat(reader.readLine(), is("line " + i));
+        }
+
+        assertThat(reader.readLine(), is(nullValue()));
+        assertThat(pipedWriter.getPendingSpilledBytes(), is(0L));
+    }
+
+
+    @Test(timeout = 60000)
+    public void shouldReuseDrainedSpillSpaceWhileReaderLags() throws Exception
+    {
+        PipedReader         pipedReader = new PipedReader(64);
+        SpillingPipedWriter pipedWriter = new SpillingPipedWriter(pipedReader, 0);
+        PrintWriter         writer      = new PrintWriter(pipedWriter);
+        BufferedReader      reader      = new BufferedReader(pipedReader);
+        int                 written     = 0;
+        int                 read        = 0;
+
+        // the reader never catches up, so the spill file wraps and is enlarged while wrapped
+        for (int round = 0; round < 10; round++)
+        {
+            for (int i = 0; i < 20000; i++)
+            {
+                writer.println("line " + written++);
+            }
+
+            for (int i = 0; i < 15000; i++)
+            {
+                assertThat(reader.readLine(), is("line " + read++));
+            }
+
+            assertThat(pipedWriter.getPendingSpilledBytes(), greaterThan(0L));
+        }
+
+        writer.close();
+
+        while (read < written)
+        {
+            assertThat(reader.readLine(), is("line " + read++));
+        }
+
+        // more was spilled than the initial capacity of the spill file, without losing or reordering content
+        assertThat(reader.readLine(), is(nullValue()));
+        assertThat(pipedWriter.getSpilledBytes(), greaterThan(1024L * 1024L));
+    }
+
+
+    @Test(timeout = 30000)
+    public void shouldNotSpillWhenReaderKeepsUp() throws Exception
+    {
+        PipedReader         pipedReader = new PipedReader(1024);
+        SpillingPipedWriter pipedWriter = new SpillingPipedWriter(pipedReader, 64 * 1024);
+        PrintWriter         writer      = new PrintWriter(pipedWriter);
+        BufferedReader      reader      = new BufferedReader(pipedReader);
+
+        for (int i = 0; i < 100; i++)
+        {
+            writer.println("line " + i);
+
+            assertThat(reader.readLine(), is("line " + i));
+        }
+
+        writer.close();
+
+        assertThat(reader.readLine(), is(nullValue()));
+        assertThat(pipedWriter.getSpilledBytes(), is(0L));
+    }
+}
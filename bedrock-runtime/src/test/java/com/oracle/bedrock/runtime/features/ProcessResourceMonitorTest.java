@@ -0,0 +1,111 @@
+/*
+ * File: ProcessResourceMonitorTest.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+package com.oracle.bedrock.runtime.features;
+
+import com.oracle.bedrock.runtime.Application;
+import com.oracle.bedrock.runtime.LocalPlatform;
+import com.oracle.bedrock.runtime.features.ProcessResourceMonitor.Threshold;
+import com.oracle.bedrock.util.Duration;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the {@link ProcessResourceMonitor}.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+public class ProcessResourceMonitorTest
+{
+    @Test
+    public void shouldSampleProcessResources()
+    {
+        Assume.assumeTrue(ProcessResourceMonitor.isSupported());
+
+        // monitor this process
+        String      name        = ManagementFactory.getRuntimeMXBean().getName();
+        long        pid         = Long.parseLong(name.substring(0, name.indexOf('@')));
+        Application application = mock(Application.class);
+
+        when(application.get(Application.class)).thenReturn(application);
+        when(application.getPlatform()).thenReturn(LocalPlatform.get());
+        when(application.getId()).thenReturn(pid);
+
+        ProcessResourceMonitor monitor = new ProcessResourceMonitor(Duration.of(1, TimeUnit.HOURS),
+                                                                    Threshold.threads(1),
+                                                                    Threshold.residentMemory(Long.MAX_VALUE));
+
+        when(application.get(ProcessResourceMonitor.class)).thenReturn(monitor);
+
+        monitor.onAddingTo(application);
+
+        try
+        {
+            monitor.sample();
+            monitor.sample();
+        }
+        finally
+        {
+            monitor.onRemovingFrom(application);
+        }
+
+        assertThat(monitor.getTimeSeries(ProcessResourceMonitor.CPU_TIME).size(), is(greaterThan(0)));
+        assertThat(monitor.getTimeSeries(ProcessResourceMonitor.RESIDENT_MEMORY).getLatest(), is(greaterThan(0.0)));
+        assertThat(monitor.getTimeSeries(ProcessResourceMonitor.THREADS).getLatest(), is(greaterThan(1.0)));
+        assertThat(monitor.getTimeSeries(ProcessResourceMonitor.FILE_DESCRIPTORS).getLatest(), is(greaterThan(0.0)));
+        assertThat(monitor.getTimeSeries(ProcessResourceMonitor.CPU_UTILIZATION).size(), is(greaterThan(0)));
+        assertThat(ProcessResourceMonitor.total(Collections.singletonList(application),
+                                                ProcessResourceMonitor.THREADS),
+                   is(greaterThan(1.0)));
+
+        // only the thread threshold should have been violated
+        assertThat(monitor.getViolations().size(), is(1));
+
+        try
+        {
+            ProcessResourceMonitor.assertWithinThresholds(Collections.singletonList(application));
+
+            fail("Expected the thread threshold to be exceeded");
+        }
+        catch (AssertionError e)
+        {
+            assertThat(e.getMessage().contains(ProcessResourceMonitor.THREADS), is(true));
+        }
+    }
+}
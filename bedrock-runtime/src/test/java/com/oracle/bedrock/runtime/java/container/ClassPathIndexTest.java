@@ -0,0 +1,176 @@
+/*
+ * File: ClassPathIndexTest.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+
+package com.oracle.bedrock.runtime.java.container;
+
+import com.oracle.bedrock.runtime.java.ClassPath;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Unit Tests for the {@link ClassPathIndex}.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+public class ClassPathIndexTest
+{
+    /**
+     * The folder in which jars are created.
+     */
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+
+    /**
+     * Ensure that a jar shared by {@link ClassPathIndex}es is only closed once
+     * every {@link ClassPathIndex} using it has been released.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void shouldCloseSharedJarOnceReleased() throws Exception
+    {
+        File           jar    = createJar("shared.jar", null, "resource.txt");
+        URL[]          urls   = new URL[] {jar.toURI().toURL()};
+
+        ClassPathIndex index1 = ClassPathIndex.of(urls);
+        ClassPathIndex index2 = ClassPathIndex.of(urls);
+
+        assertThat(index1.isComplete(), is(true));
+
+        ClassPathIndex.Root root = index1.locate("resource.txt");
+
+        assertThat(root, is(notNullValue()));
+        assertThat(index2.locate("resource.txt") == root, is(true));
+
+        index1.release();
+
+        assertThat(root.getBytes("resource.txt"), is(notNullValue()));
+
+        index2.release();
+
+        assertThat(root.getBytes("resource.txt"), is(nullValue()));
+
+        // a new index re-opens the jar
+        ClassPathIndex index3 = ClassPathIndex.of(urls);
+
+        assertThat(index3.locate("resource.txt").getBytes("resource.txt"), is(notNullValue()));
+
+        index3.release();
+    }
+
+
+    /**
+     * Ensure that resources in jars on a manifest Class-Path, which aren't indexed,
+     * are still found by a {@link ContainerClassLoader}.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void shouldFallBackForJarsOnManifestClassPath() throws Exception
+    {
+        File           dependency = createJar("dependency.jar", null, "dependency.txt");
+        File           jar        = createJar("application.jar", dependency.getName(), "application.txt");
+
+        ClassPathIndex index      = ClassPathIndex.of(new URL[] {jar.toURI().toURL()});
+
+        assertThat(index.isComplete(), is(false));
+        assertThat(index.locate("application.txt"), is(notNullValue()));
+        assertThat(index.locate("dependency.txt"), is(nullValue()));
+
+        index.release();
+
+        ContainerClassLoader loader = ContainerClassLoader.newInstance("Test",
+                                                                       new ClassPath(jar.getAbsolutePath()),
+                                                                       System.getProperties());
+
+        try
+        {
+            assertThat(loader.findResource("dependency.txt"), is(notNullValue()));
+        }
+        finally
+        {
+            loader.close();
+        }
+    }
+
+
+    /**
+     * Creates a jar containing the specified resources.
+     *
+     * @param name           the name of the jar
+     * @param classPath      the manifest Class-Path of the jar (may be null)
+     * @param resourceNames  the names of the resources in the jar
+     *
+     * @return the jar {@link File}
+     *
+     * @throws Exception
+     */
+    private File createJar(String    name,
+                           String    classPath,
+                           String... resourceNames) throws Exception
+    {
+        File     file     = new File(temporaryFolder.getRoot(), name);
+        Manifest manifest = new Manifest();
+
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+
+        if (classPath != null)
+        {
+            manifest.getMainAttributes().put(Attributes.Name.CLASS_PATH, classPath);
+        }
+
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(file), manifest))
+        {
+            for (String resourceName : resourceNames)
+            {
+                out.putNextEntry(new JarEntry(resourceName));
+                out.write(resourceName.getBytes(StandardCharsets.UTF_8));
+                out.closeEntry();
+            }
+        }
+
+        return file;
+    }
+}
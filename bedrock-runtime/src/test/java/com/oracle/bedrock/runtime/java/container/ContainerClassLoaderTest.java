@@ -296,4 +296,73 @@ public class ContainerClassLoaderTest
             thread.setContextClassLoader(saved);
         }
     }
+
+
+    /**
+     * Ensure that ContainerClassLoaders sharing the same jars load the same
+     * resources but define isolated Classes.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void shouldIsolateClassesLoadedFromSharedClassPathIndex() throws Exception
+    {
+        ClassPath   classPath = ClassPath.ofResource("LICENSE");
+        ClassLoader loader1   = ContainerClassLoader.newInstance("Test-1", classPath, System.getProperties());
+        ClassLoader loader2   = ContainerClassLoader.newInstance("Test-2", classPath, System.getProperties());
+
+        Class<?>    result1   = loader1.loadClass(Mockito.class.getCanonicalName());
+        Class<?>    result2   = loader2.loadClass(Mockito.class.getCanonicalName());
+
+        assertThat(result1.getClassLoader(), sameInstance(loader1));
+        assertThat(result2.getClassLoader(), sameInstance(loader2));
+        assertThat(result1.equals(result2), is(false));
+        assertThat(result1.getPackage().getName(), is(Mockito.class.getPackage().getName()));
+
+        assertThat(loader1.getResource("LICENSE").toExternalForm(),
+                   is(loader2.getResource("LICENSE").toExternalForm()));
+    }
+
+
+    /**
+     * Ensure that a ContainerClassLoader can concurrently load Classes.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void shouldLoadClassesConcurrently() throws Exception
+    {
+        ClassPath   classPath = ClassPath.ofResource("LICENSE");
+        ClassLoader loader    = ContainerClassLoader.newInstance("Test", classPath, System.getProperties());
+
+        Thread[]    threads   = new Thread[4];
+        Class<?>[]  results   = new Class<?>[threads.length];
+
+        for (int i = 0; i < threads.length; i++)
+        {
+            final int index = i;
+
+            threads[i] = new Thread(() -> {
+                                        try
+                                        {
+                                            results[index] = loader.loadClass(Mockito.class.getCanonicalName());
+                                        }
+                                        catch (ClassNotFoundException e)
+                                        {
+                                            throw new RuntimeException(e);
+                                        }
+                                    });
+            threads[i].start();
+        }
+
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        for (Class<?> result : results)
+        {
+            assertThat(result, sameInstance(results[0]));
+        }
+    }
 }
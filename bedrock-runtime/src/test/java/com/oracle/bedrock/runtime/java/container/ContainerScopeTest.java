@@ -27,10 +27,15 @@ package com.oracle.bedrock.runtime.java.container;
 
 import org.junit.Test;
 
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
 import java.util.Properties;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
@@ -92,4 +97,98 @@ public class ContainerScopeTest
 
         assertThat(scope.getProperties().isEmpty(), is(true));
     }
+
+
+    /**
+     * Ensure that output written via a {@link DelegatingStdOutOutputStream} is
+     * delegated to the {@link ContainerScope} associated with the calling {@link Thread}.
+     */
+    @Test
+    public void shouldDelegateOutputToAssociatedScope() throws Exception
+    {
+        ContainerScope scope  = new ContainerScope("test");
+        PrintStream    stdout = new PrintStream(new DelegatingStdOutOutputStream(System.out), true);
+
+        Container.associateThreadWith(scope);
+
+        try
+        {
+            stdout.println("Hello World");
+        }
+        finally
+        {
+            Container.dissociateThread();
+        }
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(scope.getStandardOutputInputStream()));
+
+        assertThat(reader.readLine(), is("Hello World"));
+
+        scope.close();
+    }
+
+
+    /**
+     * Ensure that output without a line separator is immediately available from a {@link ContainerScope}.
+     */
+    @Test(timeout = 30000)
+    public void shouldNotDelayOutputWithoutLineSeparator() throws Exception
+    {
+        ContainerScope scope  = new ContainerScope("test");
+        PrintStream    stdout = new PrintStream(new DelegatingStdOutOutputStream(System.out));
+
+        Container.associateThreadWith(scope);
+
+        try
+        {
+            stdout.print("Password: ");
+        }
+        finally
+        {
+            Container.dissociateThread();
+        }
+
+        InputStream input  = scope.getStandardOutputInputStream();
+        byte[]      prompt = new byte["Password: ".length()];
+
+        for (int offset = 0; offset < prompt.length; )
+        {
+            offset += input.read(prompt, offset, prompt.length - offset);
+        }
+
+        assertThat(new String(prompt), is("Password: "));
+
+        scope.close();
+    }
+
+
+    /**
+     * Ensure that a {@link ContainerScope} resolved using the context {@link ClassLoader}
+     * is invalidated when the context {@link ClassLoader} changes.
+     */
+    @Test
+    public void shouldResolveScopeUsingContextClassLoader() throws Exception
+    {
+        ContainerScope scope    = new ContainerScope("test");
+        Thread         thread   = Thread.currentThread();
+        ClassLoader    original = thread.getContextClassLoader();
+
+        try (ContainerScopeClassLoader classLoader = new ContainerScopeClassLoader(scope))
+        {
+            assertThat(Container.getContainerScope(), is(nullValue()));
+
+            thread.setContextClassLoader(classLoader);
+
+            assertThat(Container.getContainerScope(), is(sameInstance(scope)));
+            assertThat(Container.getContainerScope(), is(sameInstance(scope)));
+        }
+        finally
+        {
+            thread.setContextClassLoader(original);
+        }
+
+        assertThat(Container.getContainerScope(), is(nullValue()));
+
+        scope.close();
+    }
 }
@@ -0,0 +1,207 @@
+/*
+ * File: ContainerTest.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+package com.oracle.bedrock.runtime.java.container;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Unit Tests for the {@link Container}.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+public class ContainerTest
+{
+    /**
+     * Ensure that {@link ContainerScope}s may be concurrently managed and unmanaged,
+     * and that the {@link Container} stops once the last {@link ContainerScope} is unmanaged.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void shouldConcurrentlyManageScopes() throws Exception
+    {
+        int                  count   = 8;
+        CountDownLatch       latch   = new CountDownLatch(1);
+        List<ContainerScope> scopes  = new ArrayList<>();
+        List<Thread>         threads = new ArrayList<>();
+
+        for (int i = 0; i < count; i++)
+        {
+            ContainerScope scope = new ContainerScope("test-" + i);
+
+            scopes.add(scope);
+
+            Thread thread = new Thread(() -> {
+                                           try
+                                           {
+                                               latch.await();
+                                           }
+                                           catch (InterruptedException e)
+                                           {
+                                               return;
+                                           }
+
+                                           Container.manage(scope);
+                                       });
+
+            threads.add(thread);
+            thread.start();
+        }
+
+        latch.countDown();
+
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        assertThat(System.getProperties(), instanceOf(DelegatingProperties.class));
+
+        for (int i = 0; i < count - 1; i++)
+        {
+            Container.unmanage(scopes.get(i));
+
+            assertThat(System.getProperties(), instanceOf(DelegatingProperties.class));
+        }
+
+        Container.unmanage(scopes.get(count - 1));
+
+        assertThat(System.getProperties(), not(instanceOf(DelegatingProperties.class)));
+
+        for (ContainerScope scope : scopes)
+        {
+            scope.close();
+        }
+    }
+
+
+    /**
+     * Ensure that a {@link ContainerScope} is never managed by a stopped {@link Container},
+     * when {@link ContainerScope}s are concurrently managed and unmanaged.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void shouldRemainStartedWhileScopesAreManaged() throws Exception
+    {
+        int            count   = 4;
+        CountDownLatch latch   = new CountDownLatch(1);
+        AtomicBoolean  stopped = new AtomicBoolean(false);
+        List<Thread>   threads = new ArrayList<>();
+
+        for (int i = 0; i < count; i++)
+        {
+            ContainerScope scope = new ContainerScope("test-" + i);
+
+            Thread thread = new Thread(() -> {
+                                           try
+                                           {
+                                               latch.await();
+                                           }
+                                           catch (InterruptedException e)
+                                           {
+                                               return;
+                                           }
+
+                                           for (int j = 0; j < 500; j++)
+                                           {
+                                               Container.manage(scope);
+
+                                               if (!(System.getProperties() instanceof DelegatingProperties))
+                                               {
+                                                   stopped.set(true);
+                                               }
+
+                                               Container.unmanage(scope);
+                                           }
+
+                                           scope.close();
+                                       });
+
+            threads.add(thread);
+            thread.start();
+        }
+
+        latch.countDown();
+
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        assertThat(stopped.get(), is(false));
+        assertThat(System.getProperties(), not(instanceOf(DelegatingProperties.class)));
+    }
+
+
+    /**
+     * Ensure that calling within a {@link ContainerScope} restores the previous
+     * association of the calling {@link Thread}.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void shouldRestoreAssociationAfterCallingWithinScope() throws Exception
+    {
+        ContainerScope outer  = new ContainerScope("outer");
+        ContainerScope inner  = new ContainerScope("inner");
+        ClassLoader    loader = Thread.currentThread().getContextClassLoader();
+
+        Container.associateThreadWith(outer);
+
+        try
+        {
+            ContainerScope scope = Container.callWithin(inner, loader, Container::getContainerScope);
+
+            assertThat(scope, is(sameInstance(inner)));
+            assertThat(Container.getContainerScope(), is(sameInstance(outer)));
+        }
+        finally
+        {
+            Container.dissociateThread();
+        }
+
+        assertThat(Container.getContainerScope(), is(nullValue()));
+
+        outer.close();
+        inner.close();
+    }
+}
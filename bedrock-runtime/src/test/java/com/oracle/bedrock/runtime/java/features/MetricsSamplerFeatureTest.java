@@ -0,0 +1,225 @@
+/*
+ * File: MetricsSamplerFeatureTest.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+package com.oracle.bedrock.runtime.java.features;
+
+import com.oracle.bedrock.Option;
+import com.oracle.bedrock.deferred.Deferred;
+import com.oracle.bedrock.diagnostics.TimeSeries;
+import com.oracle.bedrock.runtime.concurrent.RemoteCallable;
+import com.oracle.bedrock.runtime.java.JavaApplication;
+import com.oracle.bedrock.runtime.java.features.MetricsSamplerFeature.Metric;
+import com.oracle.bedrock.util.Duration;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the {@link MetricsSamplerFeature}.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+public class MetricsSamplerFeatureTest
+{
+    @Test
+    public void shouldReadMetricsInProcess() throws Exception
+    {
+        MetricsSamplerFeature.MBeanAttributeReader reader =
+            new MetricsSamplerFeature.MBeanAttributeReader(Metric.of("heap", "java.lang:type=Memory",
+                                                                     "HeapMemoryUsage.used"),
+                                                           Metric.of("threads", "java.lang:type=Threading",
+                                                                     "ThreadCount"),
+                                                           Metric.of("collections",
+                                                                     "java.lang:type=GarbageCollector,*",
+                                                                     "CollectionCount"),
+                                                           Metric.of("missing", "example:type=Missing", "Value"));
+
+        double[] values = reader.call();
+
+        assertThat(values[0], is(greaterThan(0.0)));
+        assertThat(values[1], is(greaterThan(0.0)));
+        assertThat(values[2] >= 0, is(true));
+        assertThat(Double.isNaN(values[3]), is(true));
+    }
+
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldSampleIntoTimeSeries() throws Exception
+    {
+        JavaApplication application = mock(JavaApplication.class);
+
+        when(application.get(JavaApplication.class)).thenReturn(application);
+        when(application.getName()).thenReturn("application");
+        when(application.submit(any(RemoteCallable.class),
+                                any(Option[].class))).thenAnswer(invocation -> {
+                                                                     RemoteCallable<?> callable =
+                                                                         invocation.getArgument(0);
+
+                                                                     return CompletableFuture
+                                                                     .completedFuture(callable.call());
+                                                                 });
+
+        MetricsSamplerFeature feature = new MetricsSamplerFeature(Duration.of(1, TimeUnit.HOURS),
+                                                                  Metric.of("threads",
+                                                                            "java.lang:type=Threading",
+                                                                            "ThreadCount"));
+
+        when(application.get(MetricsSamplerFeature.class)).thenReturn(feature);
+
+        feature.onAddingTo(application);
+
+        try
+        {
+            feature.sample();
+            feature.sample();
+        }
+        finally
+        {
+            feature.onRemovingFrom(application);
+        }
+
+        TimeSeries series = feature.getTimeSeries("threads");
+
+        assertThat(series.size(), is(2));
+        assertThat(series.getPercentile(50), is(greaterThan(0.0)));
+        // the aggregate of a single application has its latest sample for each sampling interval
+        TimeSeries aggregate = MetricsSamplerFeature.aggregate(Collections.singletonList(application), "threads");
+
+        assertThat(aggregate.getLatest(), is(series.getLatest()));
+
+        StringBuilder csv = new StringBuilder();
+
+        feature.writeCSV(csv);
+
+        assertThat(csv.toString(), startsWith("metric,timestamp,value\nthreads,"));
+    }
+
+
+    @Test(timeout = 30000)
+    @SuppressWarnings("unchecked")
+    public void shouldAbandonSamplesThatDoNotComplete() throws Exception
+    {
+        JavaApplication application = mock(JavaApplication.class);
+
+        when(application.get(JavaApplication.class)).thenReturn(application);
+        when(application.submit(any(RemoteCallable.class),
+                                any(Option[].class))).thenReturn(new CompletableFuture<>())
+                                .thenAnswer(invocation -> {
+                                                RemoteCallable<?> callable = invocation.getArgument(0);
+
+                                                return CompletableFuture.completedFuture(callable.call());
+                                            });
+
+        MetricsSamplerFeature feature = new MetricsSamplerFeature(Duration.of(100, TimeUnit.MILLISECONDS),
+                                                                  Metric.of("threads",
+                                                                            "java.lang:type=Threading",
+                                                                            "ThreadCount"));
+
+        feature.onAddingTo(application);
+
+        try
+        {
+            TimeSeries series = feature.getTimeSeries("threads");
+            long       start  = System.currentTimeMillis();
+
+            // the first sample never completes, so no others are taken until it is abandoned
+            while (series.size() == 0)
+            {
+                assertThat(System.currentTimeMillis() - start < 20000, is(true));
+
+                Thread.sleep(100);
+            }
+
+            assertThat(System.currentTimeMillis() - start >= MetricsSamplerFeature.MINIMUM_SAMPLE_TIMEOUT_MS - 100,
+                       is(true));
+        }
+        finally
+        {
+            feature.onRemovingFrom(application);
+        }
+    }
+
+
+    @Test(timeout = 30000)
+    public void shouldInterruptReadsThatDoNotComplete() throws Exception
+    {
+        CountDownLatch  interrupted = new CountDownLatch(1);
+        JavaApplication application = mock(JavaApplication.class);
+        Deferred<?>     hung        = mock(Deferred.class,
+                                           invocation -> {
+                                               if (invocation.getMethod().getName().equals("get"))
+                                               {
+                                                   try
+                                                   {
+                                                       Thread.sleep(Long.MAX_VALUE);
+                                                   }
+                                                   catch (InterruptedException e)
+                                                   {
+                                                       interrupted.countDown();
+                                                   }
+                                               }
+
+                                               return null;
+                                           });
+        JmxFeature      jmxFeature  = mock(JmxFeature.class,
+                                           invocation -> invocation.getMethod().getName()
+                                           .equals("getDeferredMBeanAttributes") ? hung : null);
+
+        when(application.get(JavaApplication.class)).thenReturn(application);
+        when(application.get(JmxFeature.class)).thenReturn(jmxFeature);
+
+        MetricsSamplerFeature feature = new MetricsSamplerFeature(Duration.of(100, TimeUnit.MILLISECONDS),
+                                                                  Metric.of("threads",
+                                                                            "java.lang:type=Threading",
+                                                                            "ThreadCount"));
+
+        feature.onAddingTo(application);
+
+        try
+        {
+            // the hung read is interrupted once the sample is abandoned
+            assertThat(interrupted.await(20, TimeUnit.SECONDS), is(true));
+        }
+        finally
+        {
+            feature.onRemovingFrom(application);
+        }
+    }
+}
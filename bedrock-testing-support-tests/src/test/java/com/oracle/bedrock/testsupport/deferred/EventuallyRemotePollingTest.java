@@ -0,0 +1,160 @@
+/*
+ * File: EventuallyRemotePollingTest.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+package com.oracle.bedrock.testsupport.deferred;
+
+import com.oracle.bedrock.deferred.options.RetryFrequency;
+import com.oracle.bedrock.options.Timeout;
+import com.oracle.bedrock.runtime.concurrent.RemoteCallable;
+import com.oracle.bedrock.runtime.java.JavaApplication;
+import com.oracle.bedrock.runtime.java.JavaVirtualMachine;
+import com.oracle.bedrock.runtime.java.options.ClassName;
+import com.oracle.bedrock.runtime.options.Arguments;
+import com.oracle.bedrock.testsupport.deferred.options.RemotePolling;
+import com.oracle.bedrock.testsupport.junit.SleepingApplication;
+import org.hamcrest.BaseMatcher;
+import org.hamcrest.Description;
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Functional tests for {@link Eventually} assertions using {@link RemotePolling}.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+public class EventuallyRemotePollingTest
+{
+    /**
+     * Ensure that an {@link Eventually} assertion using {@link RemotePolling} is polled
+     * by the {@link JavaApplication}, instead of by the asserting application.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void shouldPollRemotely() throws Exception
+    {
+        try (JavaApplication application = JavaVirtualMachine.get().launch(JavaApplication.class,
+                                                                            ClassName.of(SleepingApplication.class),
+                                                                            Arguments.of("60")))
+        {
+            Eventually.assertThat(application,
+                                  new Counting(),
+                                  new AtLeast(3),
+                                  RemotePolling.enabled(),
+                                  RetryFrequency.every(10, TimeUnit.MILLISECONDS),
+                                  Timeout.after(30, TimeUnit.SECONDS));
+
+            // the counter and matcher were only used by the application (which has its own copies)
+            assertThat(application.submit(new CountOf()).get(), is(3));
+            assertThat(Counting.COUNTER.get(), is(0));
+            assertThat(AtLeast.MATCHES.get(), is(0));
+        }
+    }
+
+
+    /**
+     * A {@link RemoteCallable} that returns an incrementing count.
+     */
+    public static class Counting implements RemoteCallable<Integer>
+    {
+        /**
+         * The counter incremented by each call.
+         */
+        static final AtomicInteger COUNTER = new AtomicInteger();
+
+
+        @Override
+        public Integer call() throws Exception
+        {
+            return COUNTER.incrementAndGet();
+        }
+    }
+
+
+    /**
+     * A {@link RemoteCallable} that returns the current count of the {@link Counting} {@link RemoteCallable}.
+     */
+    public static class CountOf implements RemoteCallable<Integer>
+    {
+        @Override
+        public Integer call() throws Exception
+        {
+            return Counting.COUNTER.get();
+        }
+    }
+
+
+    /**
+     * A {@link Serializable} {@link org.hamcrest.Matcher} for values at least a minimum.
+     */
+    public static class AtLeast extends BaseMatcher<Integer> implements Serializable
+    {
+        /**
+         * The number of values matched.
+         */
+        static final AtomicInteger MATCHES = new AtomicInteger();
+
+        /**
+         * The minimum value.
+         */
+        private final int minimum;
+
+
+        /**
+         * Constructs an {@link AtLeast}.
+         *
+         * @param minimum  the minimum value
+         */
+        public AtLeast(int minimum)
+        {
+            this.minimum = minimum;
+        }
+
+
+        @Override
+        public boolean matches(Object item)
+        {
+            MATCHES.incrementAndGet();
+
+            return item instanceof Integer && (Integer) item >= minimum;
+        }
+
+
+        @Override
+        public void describeTo(Description description)
+        {
+            description.appendText("at least ").appendValue(minimum);
+        }
+    }
+}
@@ -33,7 +33,10 @@ import com.oracle.bedrock.testsupport.junit.options.TestClasses;
 import com.oracle.bedrock.runtime.Platform;
 import com.oracle.bedrock.runtime.LocalPlatform;
 import com.oracle.bedrock.runtime.java.ClassPath;
+import com.oracle.bedrock.runtime.java.JavaApplication;
 import com.oracle.bedrock.runtime.java.JavaVirtualMachine;
+import com.oracle.bedrock.runtime.java.options.ClassName;
+import com.oracle.bedrock.runtime.options.DisplayName;
 import com.oracle.bedrock.testsupport.junit.JUnitTestRun;
 import com.oracle.bedrock.testsupport.junit.JUnitTextReporter;
 import com.oracle.bedrock.testsupport.junit.JUnitXmlReporter;
@@ -50,6 +53,7 @@ import java.io.FileReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
@@ -133,6 +137,34 @@ public class JUnitTest
     }
 
 
+    @Test
+    public void shouldRunJUnitTestsAcrossWorkers() throws Exception
+    {
+        SimpleJUnitTestListener listener = new SimpleJUnitTestListener();
+        TestClasses             tests    = TestClasses.of(JUnit4Test.class, MyOtherTest.class, MyBadTest.class);
+
+        try (JavaApplication worker1 = platform.launch(JavaApplication.class,
+                                                       ClassName.of(JUnitTestRunner.class),
+                                                       DisplayName.of("worker-1"));
+            JavaApplication worker2 = platform.launch(JavaApplication.class,
+                                                      ClassName.of(JUnitTestRunner.class),
+                                                      DisplayName.of("worker-2")))
+        {
+            JUnitTestCoordinator coordinator = new JUnitTestCoordinator(Arrays.asList(worker1, worker2));
+
+            assertThat(coordinator.run(tests, listener.asOption()), is(3));
+
+            assertThat(listener.awaitCompletion(2, TimeUnit.MINUTES), is(true));
+        }
+
+        assertThat(listener.hasTestFailures(), is(true));
+        assertThat(listener.getTestCount(), is(7));
+        assertThat(listener.getErrorCount(), is(1));
+        assertThat(listener.getFailureCount(), is(2));
+        assertThat(listener.getSkipCount(), is(4));
+    }
+
+
     @Test
     public void shouldRunJUnitTestsAndPrintXmlReport() throws Exception
     {
@@ -25,6 +25,8 @@
 
 package com.oracle.bedrock.testsupport.deferred;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Supporting interfaces for concurrent assertion.
  * <p>
@@ -67,6 +69,14 @@ public class Concurrent
         boolean isClosed();
 
 
+        /**
+         * Obtains a snapshot of the {@link Statistics} concerning the evaluation of the {@link Assertion}.
+         *
+         * @return the {@link Statistics}
+         */
+        Statistics getStatistics();
+
+
         /**
          * Ensures that a {@link Throwable} doesn't contain any suppressed {@link AssertionError}s and
          * if it does, re-throws the first encountered.
@@ -89,4 +99,125 @@ public class Concurrent
             }
         }
     }
+
+
+    /**
+     * An immutable snapshot of the evaluation latency statistics for an {@link Assertion}.
+     */
+    public static class Statistics
+    {
+        /**
+         * The number of evaluations performed.
+         */
+        private final long evaluationCount;
+
+        /**
+         * The total time spent evaluating (in nanoseconds).
+         */
+        private final long totalLatencyNS;
+
+        /**
+         * The minimum time spent for an evaluation (in nanoseconds).
+         */
+        private final long minimumLatencyNS;
+
+        /**
+         * The maximum time spent for an evaluation (in nanoseconds).
+         */
+        private final long maximumLatencyNS;
+
+
+        /**
+         * Constructs a {@link Statistics}.
+         *
+         * @param evaluationCount   the number of evaluations performed
+         * @param totalLatencyNS    the total time spent evaluating (in nanoseconds)
+         * @param minimumLatencyNS  the minimum time spent for an evaluation (in nanoseconds)
+         * @param maximumLatencyNS  the maximum time spent for an evaluation (in nanoseconds)
+         */
+        public Statistics(long evaluationCount,
+                          long totalLatencyNS,
+                          long minimumLatencyNS,
+                          long maximumLatencyNS)
+        {
+            this.evaluationCount  = evaluationCount;
+            this.totalLatencyNS   = totalLatencyNS;
+            this.minimumLatencyNS = evaluationCount == 0 ? 0 : minimumLatencyNS;
+            this.maximumLatencyNS = maximumLatencyNS;
+        }
+
+
+        /**
+         * Obtains the number of evaluations performed.
+         *
+         * @return the number of evaluations
+         */
+        public long getEvaluationCount()
+        {
+            return evaluationCount;
+        }
+
+
+        /**
+         * Obtains the minimum time spent for an evaluation.
+         *
+         * @param units  the {@link TimeUnit} for the result
+         *
+         * @return the minimum latency
+         */
+        public long getMinimumLatency(TimeUnit units)
+        {
+            return units.convert(minimumLatencyNS, TimeUnit.NANOSECONDS);
+        }
+
+
+        /**
+         * Obtains the maximum time spent for an evaluation.
+         *
+         * @param units  the {@link TimeUnit} for the result
+         *
+         * @return the maximum latency
+         */
+        public long getMaximumLatency(TimeUnit units)
+        {
+            return units.convert(maximumLatencyNS, TimeUnit.NANOSECONDS);
+        }
+
+
+        /**
+         * Obtains the mean time spent for an evaluation.
+         *
+         * @param units  the {@link TimeUnit} for the result
+         *
+         * @return the mean latency
+         */
+        public long getMeanLatency(TimeUnit units)
+        {
+            return evaluationCount == 0 ? 0 : units.convert(totalLatencyNS / evaluationCount, TimeUnit.NANOSECONDS);
+        }
+
+
+        /**
+         * Obtains the total time spent evaluating.
+         *
+         * @param units  the {@link TimeUnit} for the result
+         *
+         * @return the total latency
+         */
+        public long getTotalLatency(TimeUnit units)
+        {
+            return units.convert(totalLatencyNS, TimeUnit.NANOSECONDS);
+        }
+
+
+        @Override
+        public String toString()
+        {
+            return String.format("Statistics{evaluations=%d, min=%dus, mean=%dus, max=%dus}",
+                                 evaluationCount,
+                                 getMinimumLatency(TimeUnit.MICROSECONDS),
+                                 getMeanLatency(TimeUnit.MICROSECONDS),
+                                 getMaximumLatency(TimeUnit.MICROSECONDS));
+        }
+    }
 }
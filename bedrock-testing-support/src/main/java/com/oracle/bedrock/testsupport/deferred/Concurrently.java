@@ -30,6 +30,7 @@ import com.oracle.bedrock.OptionsByType;
 import com.oracle.bedrock.deferred.Deferred;
 import com.oracle.bedrock.deferred.DeferredFunction;
 import com.oracle.bedrock.deferred.DeferredHelper;
+import com.oracle.bedrock.deferred.PermanentlyUnavailableException;
 import com.oracle.bedrock.testsupport.deferred.options.FailFast;
 import com.oracle.bedrock.deferred.options.InitialDelay;
 import com.oracle.bedrock.deferred.options.MaximumRetryDelay;
@@ -37,8 +38,16 @@ import com.oracle.bedrock.deferred.options.RetryFrequency;
 import com.oracle.bedrock.options.Timeout;
 import com.oracle.bedrock.runtime.concurrent.RemoteCallable;
 import com.oracle.bedrock.runtime.java.JavaApplication;
+import com.oracle.bedrock.util.Duration;
 import org.hamcrest.Matcher;
-
+import org.hamcrest.StringDescription;
+
+import java.util.Iterator;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 import static com.oracle.bedrock.deferred.DeferredHelper.eventually;
@@ -65,6 +74,10 @@ import static com.oracle.bedrock.deferred.DeferredHelper.valueOf;
  * try-with-resources blocks.  When not, they should always be closed to ensure correct
  * clean-up of background resources used for concurrent assertion.
  * <p>
+ * Concurrent assertions don't each require a dedicated {@link Thread}.  Instead they
+ * are periodically evaluated using a shared pool of daemon {@link Thread}s, allowing
+ * large numbers of concurrent assertions to be registered.
+ * <p>
  * To control "fail-fast" semantics, where by the {@link Concurrent.Assertion} may interrupt the
  * {@link Thread} that created the {@link Concurrent.Assertion}, the {@link FailFast} option
  * should be specified.
@@ -98,7 +111,14 @@ import static com.oracle.bedrock.deferred.DeferredHelper.valueOf;
 public class Concurrently
 {
     /**
-     * Creates a background thread to repetitively assert that a value satisfies the
+     * The shared {@link ScheduledExecutorService} used to evaluate {@link ConcurrentAssertion}s
+     * (lazily created).
+     */
+    private static volatile ScheduledExecutorService scheduler;
+
+
+    /**
+     * Commences background evaluation to repetitively assert that a value satisfies the
      * specified {@link Matcher} using the specified {@link Option}s.
      * <p>
      * Should the value be the result of a call to {@link DeferredHelper#invoking(Deferred)}
@@ -124,7 +144,7 @@ public class Concurrently
 
 
     /**
-     * Creates a background thread to repetitively assert that a value will
+     * Commences background evaluation to repetitively assert that a value will
      * satisfy the specified {@link Matcher}.
      * <p>
      * Should the value be the result of a call to {@link DeferredHelper#invoking(Deferred)}
@@ -150,7 +170,7 @@ public class Concurrently
 
 
     /**
-     * Creates a background thread to repetitively assert that a value satisfies the
+     * Commences background evaluation to repetitively assert that a value satisfies the
      * specified {@link Matcher} using the provided {@link Option}s.
      * <p>
      * Should the value be the result of a call to {@link DeferredHelper#invoking(Deferred)}
@@ -178,7 +198,7 @@ public class Concurrently
 
 
     /**
-     * Creates a background thread to repetitively assert that a {@link Deferred}
+     * Commences background evaluation to repetitively assert that a {@link Deferred}
      * value, when available, satisfies the specified {@link Matcher} using
      * constraints defined by the provided {@link Option}s.
      *
@@ -200,10 +220,7 @@ public class Concurrently
         // create the assertion
         ConcurrentAssertion<T> assertion = new ConcurrentAssertion<T>(message, deferred, matcher, options);
 
-        // start the assertion in the background
-        assertion.setDaemon(true);
-        assertion.setName("ConcurrentAssertion");
-
+        // start evaluating the assertion in the background
         assertion.start();
 
         return assertion;
@@ -259,7 +276,7 @@ public class Concurrently
 
 
     /**
-     * Creates a background thread to repetitively assert that the specified {@link RemoteCallable}
+     * Commences background evaluation to repetitively assert that the specified {@link RemoteCallable}
      * submitted to the {@link JavaApplication} matches the specified {@link Matcher}.
      *
      * @param <T>          the type of the value
@@ -280,7 +297,7 @@ public class Concurrently
 
 
     /**
-     * Creates a background thread to repetitively assert that the specified {@link RemoteCallable}
+     * Commences background evaluation to repetitively assert that the specified {@link RemoteCallable}
      * submitted to the {@link JavaApplication} matches the specified {@link Matcher}
      * using the specified {@link Option}s.
      *
@@ -304,11 +321,60 @@ public class Concurrently
 
 
     /**
-     * An implementation of a concurrent {@link Concurrent.Assertion}.
+     * Obtains the shared {@link ScheduledExecutorService} used to evaluate {@link ConcurrentAssertion}s.
+     *
+     * @return the {@link ScheduledExecutorService}
+     */
+    static ScheduledExecutorService getScheduler()
+    {
+        ScheduledExecutorService scheduler = Concurrently.scheduler;
+
+        if (scheduler == null)
+        {
+            synchronized (Concurrently.class)
+            {
+                scheduler = Concurrently.scheduler;
+
+                if (scheduler == null)
+                {
+                    AtomicInteger counter = new AtomicInteger(0);
+
+                    ScheduledThreadPoolExecutor executor =
+                        new ScheduledThreadPoolExecutor(Math.max(2, Runtime.getRuntime().availableProcessors()),
+                                                        runnable -> {
+                                                            Thread thread = new Thread(runnable);
+
+                                                            thread.setDaemon(true);
+                                                            thread.setName("ConcurrentAssertion-"
+                                                                           + counter.incrementAndGet());
+
+                                                            return thread;
+                                                        });
+
+                    // ensure closed assertions don't linger in the queue
+                    executor.setRemoveOnCancelPolicy(true);
+
+                    Concurrently.scheduler = scheduler = executor;
+                }
+            }
+        }
+
+        return scheduler;
+    }
+
+
+    /**
+     * An implementation of a concurrent {@link Concurrent.Assertion}, periodically
+     * evaluated using the shared {@link ScheduledExecutorService}, instead of
+     * requiring a dedicated {@link Thread}.
+     * <p>
+     * Evaluations are scheduled according to the {@link InitialDelay}, {@link RetryFrequency}
+     * and {@link MaximumRetryDelay}.  Should a value not be resolved and matched at least once
+     * during each {@link Timeout} period, the {@link Concurrent.Assertion} fails.
      *
      * @param <T>  the type of value being asserted
      */
-    static class ConcurrentAssertion<T> extends Thread implements Concurrent.Assertion
+    static class ConcurrentAssertion<T> implements Concurrent.Assertion, Runnable
     {
         /**
          * The optional message for the {@link AssertionError}.
@@ -335,6 +401,46 @@ public class Concurrently
          */
         private final Thread creatingThread;
 
+        /**
+         * The initial delay before commencing evaluation.
+         */
+        private final long initialDelayDurationMS;
+
+        /**
+         * The maximum delay between evaluations.
+         */
+        private final long maximumPollingDurationMS;
+
+        /**
+         * The duration in which a value must be resolved and matched at least once.
+         */
+        private final long maximumRetryDurationMS;
+
+        /**
+         * The delays to use between evaluations for the current period.
+         */
+        private Iterator<Duration> retryDurations;
+
+        /**
+         * The time the current period commenced.
+         */
+        private long periodStartedMS;
+
+        /**
+         * The number of times successfully matched in the current period.
+         */
+        private int matchCount;
+
+        /**
+         * The number of matches attempted in the current period.
+         */
+        private int attemptCount;
+
+        /**
+         * The {@link ScheduledFuture} for the next evaluation.
+         */
+        private volatile ScheduledFuture<?> future;
+
         /**
          * The last encountered {@link AssertionError}.
          */
@@ -350,12 +456,37 @@ public class Concurrently
          */
         private volatile boolean closed;
 
+        /**
+         * A flag indicating if the {@link ConcurrentAssertion} is currently being evaluated.
+         */
+        private volatile boolean evaluating;
+
         /**
          * A flag indicating if the {@link AssertionError} should be thrown
          * when closing (in the {@link #close()} method).
          */
         private volatile boolean throwAssertionErrorWhenClosing;
 
+        /**
+         * The number of evaluations performed.
+         */
+        private long evaluationCount;
+
+        /**
+         * The total time spent evaluating (in nanoseconds).
+         */
+        private long totalLatencyNS;
+
+        /**
+         * The minimum time spent for an evaluation (in nanoseconds).
+         */
+        private long minimumLatencyNS;
+
+        /**
+         * The maximum time spent for an evaluation (in nanoseconds).
+         */
+        private long maximumLatencyNS;
+
 
         /**
          * Constructs a {@link ConcurrentAssertion}.
@@ -379,7 +510,35 @@ public class Concurrently
             this.assertionError                 = null;
             this.closing                        = false;
             this.closed                         = false;
+            this.evaluating                     = false;
             this.throwAssertionErrorWhenClosing = true;
+
+            this.initialDelayDurationMS = optionsByType.getOrDefault(InitialDelay.class,
+                                                                     InitialDelay.none()).to(TimeUnit.MILLISECONDS);
+
+            this.maximumRetryDurationMS = optionsByType.getOrDefault(Timeout.class,
+                                                                     Timeout.after(DeferredHelper.getDefaultEnsuredMaximumRetryDuration()))
+                                                                     .to(TimeUnit.MILLISECONDS);
+
+            this.maximumPollingDurationMS = optionsByType.getOrDefault(MaximumRetryDelay.class,
+                                                                       MaximumRetryDelay.of(DeferredHelper.getDefaultEnsuredMaximumPollingDuration()))
+                                                                       .to(TimeUnit.MILLISECONDS);
+
+            this.evaluationCount  = 0;
+            this.totalLatencyNS   = 0;
+            this.minimumLatencyNS = Long.MAX_VALUE;
+            this.maximumLatencyNS = 0;
+        }
+
+
+        /**
+         * Commences evaluation of the {@link ConcurrentAssertion} using the shared scheduler.
+         */
+        void start()
+        {
+            commencePeriod(System.currentTimeMillis());
+
+            future = getScheduler().schedule(this, initialDelayDurationMS, TimeUnit.MILLISECONDS);
         }
 
 
@@ -406,14 +565,31 @@ public class Concurrently
         }
 
 
+        @Override
+        public synchronized Concurrent.Statistics getStatistics()
+        {
+            return new Concurrent.Statistics(evaluationCount, totalLatencyNS, minimumLatencyNS, maximumLatencyNS);
+        }
+
+
         @Override
         public void close()
         {
             // we're now closing
             closing = true;
 
-            // interrupt ourselves to commence clean up
-            this.interrupt();
+            // cancel the next evaluation (an evaluation in progress will complete the close)
+            ScheduledFuture<?> future = this.future;
+
+            if (future != null)
+            {
+                future.cancel(false);
+            }
+
+            if (!evaluating)
+            {
+                closed = true;
+            }
 
             // throw the AssertionError (if we have one and we're throwing them)
             // (to allow it to be caught or seen as suppressed)
@@ -427,34 +603,175 @@ public class Concurrently
         @Override
         public void run()
         {
+            evaluating = true;
+
             try
             {
-                while (!closing)
+                if (!closing && evaluate())
+                {
+                    future = getScheduler().schedule(this, nextDelayMS(), TimeUnit.MILLISECONDS);
+                }
+                else
                 {
-                    Repetitively.assertThat(message, deferred, matcher, optionsByType.asArray());
+                    closed = true;
                 }
             }
             catch (AssertionError e)
             {
-                if (e.getCause() instanceof InterruptedException && closing)
+                assertionError = e;
+                closed         = true;
+
+                if (optionsByType.get(FailFast.class).isEnabled())
+                {
+                    // attempt to interrupt the thread that created the ConcurrentAssertion
+                    creatingThread.interrupt();
+                }
+            }
+            finally
+            {
+                evaluating = false;
+
+                if (closing)
+                {
+                    closed = true;
+                }
+            }
+        }
+
+
+        /**
+         * Evaluates the {@link Deferred} value once, using the {@link Matcher}.
+         *
+         * @return <code>true</code> if evaluation should continue, <code>false</code> otherwise
+         *
+         * @throws AssertionError  when the {@link Matcher} fails or a value can't be resolved
+         */
+        private boolean evaluate() throws AssertionError
+        {
+            long started = System.nanoTime();
+
+            try
+            {
+                T object = deferred.get();
+
+                // count this attempt
+                attemptCount++;
+
+                if (matcher.matches(object))
                 {
-                    // we're ok being interrupted while closing!
+                    // continue matching!
+                    matchCount++;
                 }
                 else
                 {
-                    assertionError = e;
+                    // generate a description for the match failure
+                    StringDescription description = new StringDescription();
+
+                    matcher.describeMismatch(object, description);
 
-                    if (optionsByType.get(FailFast.class).isEnabled())
-                    {
-                        // attempt to interrupt the thread that created the ConcurrentAssertion
-                        creatingThread.interrupt();
-                    }
+                    // throw an assertion with the error
+                    throw new AssertionError((message == null ? "" : message + ": ") + description.toString()
+                                             + " (attempted " + attemptCount + " time(s), succeeded " + matchCount
+                                             + " time(s))");
                 }
             }
+            catch (PermanentlyUnavailableException | UnsupportedOperationException e)
+            {
+                // give up immediately!
+                throw new AssertionError("Failed to resolve value for " + deferred, e);
+            }
+            catch (RuntimeException e)
+            {
+                // SKIP: we assume all other runtime exceptions
+                // (including temporarily unavailable) simply means that we should retry
+            }
             finally
             {
-                closed = true;
+                record(System.nanoTime() - started);
             }
+
+            long now = System.currentTimeMillis();
+
+            // ensure a value was resolved and matched at least once during the period
+            if (maximumRetryDurationMS >= 0 && now - periodStartedMS >= maximumRetryDurationMS)
+            {
+                if (matchCount == 0)
+                {
+                    throw new AssertionError("Failed to resolve a value for " + deferred);
+                }
+
+                commencePeriod(now);
+            }
+
+            // we can only continue while we have retry durations
+            if (retryDurations.hasNext())
+            {
+                return true;
+            }
+            else
+            {
+                throw new AssertionError("Exhausted retry time-out durations");
+            }
+        }
+
+
+        /**
+         * Determines the delay before the next evaluation.
+         *
+         * @return the delay in milliseconds
+         */
+        private long nextDelayMS()
+        {
+            long durationMS = retryDurations.next().to(TimeUnit.MILLISECONDS);
+
+            // ensure we don't wait longer than the maximum polling duration
+            if (durationMS > maximumPollingDurationMS)
+            {
+                durationMS = maximumPollingDurationMS;
+            }
+
+            // ensure we don't wait beyond the end of the current period
+            if (maximumRetryDurationMS >= 0)
+            {
+                long remainingMS = periodStartedMS + maximumRetryDurationMS - System.currentTimeMillis();
+
+                if (durationMS > remainingMS)
+                {
+                    durationMS = remainingMS;
+                }
+            }
+
+            return Math.max(0, durationMS);
+        }
+
+
+        /**
+         * Commences a new period in which a value must be resolved and matched.
+         *
+         * @param now  the current time in milliseconds
+         */
+        private void commencePeriod(long now)
+        {
+            periodStartedMS = now;
+            matchCount      = 0;
+            attemptCount    = 0;
+            retryDurations  = optionsByType.getOrDefault(RetryFrequency.class,
+                                                         RetryFrequency.of(DeferredHelper.getDefaultEnsuredRetryDurationsIterable()))
+                                                         .get().iterator();
+        }
+
+
+        /**
+         * Records the latency of an evaluation.
+         *
+         * @param latencyNS  the latency in nanoseconds
+         */
+        private synchronized void record(long latencyNS)
+        {
+            evaluationCount++;
+            totalLatencyNS   += latencyNS;
+            minimumLatencyNS = Math.min(minimumLatencyNS, latencyNS);
+            maximumLatencyNS = Math.max(maximumLatencyNS, latencyNS);
         }
     }
 }
@@ -26,8 +26,10 @@
 package com.oracle.bedrock.testsupport.deferred;
 
 import com.oracle.bedrock.deferred.Deferred;
+import com.oracle.bedrock.deferred.DeferredSignal;
 import com.oracle.bedrock.deferred.Existing;
 import com.oracle.bedrock.deferred.PermanentlyUnavailableException;
+import com.oracle.bedrock.deferred.Signalling;
 import com.oracle.bedrock.deferred.TemporarilyUnavailableException;
 import com.oracle.bedrock.deferred.UnavailableException;
 import com.oracle.bedrock.testsupport.matchers.ThrowableMatcher;
@@ -46,7 +48,7 @@ import org.hamcrest.Matcher;
  *
  * @author Brian Oliver
  */
-public class DeferredMatch<T> implements Deferred<Boolean>
+public class DeferredMatch<T> implements Deferred<Boolean>, Signalling
 {
     /**
      * The {@link Deferred} that we want to match with a {@link Matcher}.
@@ -169,6 +171,13 @@ public class DeferredMatch<T> implements Deferred<Boolean>
     }
 
 
+    @Override
+    public DeferredSignal getSignal()
+    {
+        return DeferredSignal.of(deferred);
+    }
+
+
     @Override
     public Class<Boolean> getDeferredClass()
     {
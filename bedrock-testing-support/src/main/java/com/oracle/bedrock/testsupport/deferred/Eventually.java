@@ -26,6 +26,7 @@
 package com.oracle.bedrock.testsupport.deferred;
 
 import com.oracle.bedrock.Option;
+import com.oracle.bedrock.OptionsByType;
 import com.oracle.bedrock.deferred.Deferred;
 import com.oracle.bedrock.deferred.DeferredFunction;
 import com.oracle.bedrock.deferred.DeferredHelper;
@@ -37,10 +38,12 @@ import com.oracle.bedrock.deferred.options.RetryFrequency;
 import com.oracle.bedrock.options.Timeout;
 import com.oracle.bedrock.runtime.concurrent.RemoteCallable;
 import com.oracle.bedrock.runtime.java.JavaApplication;
+import com.oracle.bedrock.testsupport.deferred.options.RemotePolling;
 import org.hamcrest.Matcher;
 import org.hamcrest.StringDescription;
 
 import java.io.NotSerializableException;
+import java.io.Serializable;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
@@ -67,6 +70,13 @@ import static com.oracle.bedrock.deferred.DeferredHelper.valueOf;
  */
 public class Eventually
 {
+    /**
+     * The additional time allowed, beyond the {@link Timeout}, for a {@link RemoteEventually}
+     * to be submitted to and its result returned from a {@link JavaApplication}.
+     */
+    private static final long REMOTE_POLLING_GRACE_PERIOD_MS = 30000;
+
+
     /**
      * Asserts that a value will eventually satisfy the specified {@link Matcher}
      * using the specified {@link Option}s.
@@ -290,6 +300,11 @@ public class Eventually
      * Asserts that the specified {@link RemoteCallable} submitted to
      * the {@link JavaApplication} will eventually satisfy the specified matcher
      * using the provided {@link Option}s.
+     * <p>
+     * When {@link RemotePolling} is enabled and the {@link Matcher} is {@link Serializable},
+     * the {@link RemoteCallable}, {@link Matcher} and retry policy are submitted to the
+     * {@link JavaApplication} in a single operation, with polling performed locally by the
+     * {@link JavaApplication}, instead of each attempt requiring a round-trip.
      *
      * @param <T>          the type of the value
      *
@@ -305,7 +320,83 @@ public class Eventually
                                       Matcher<? super T> matcher,
                                       Option...          options) throws AssertionError
     {
-        assertThat(valueOf(new DeferredRemoteExecution<T>(application, callable)), matcher, options);
+        OptionsByType optionsByType = OptionsByType.of(options);
+
+        if (optionsByType.get(RemotePolling.class).isEnabled() && matcher instanceof Serializable)
+        {
+            assertRemotely(application, callable, matcher, optionsByType);
+        }
+        else
+        {
+            assertThat(valueOf(new DeferredRemoteExecution<T>(application, callable)), matcher, options);
+        }
+    }
+
+
+    /**
+     * Asserts that the specified {@link RemoteCallable} will eventually satisfy the specified
+     * {@link Serializable} {@link Matcher}, by submitting a {@link RemoteEventually} to the
+     * {@link JavaApplication}, so that polling occurs within the {@link JavaApplication}.
+     *
+     * @param <T>            the type of the value
+     *
+     * @param application    the {@link JavaApplication} to which the {@link RemoteCallable} will be submitted
+     * @param callable       the {@link RemoteCallable}
+     * @param matcher        the {@link Matcher} representing the desire condition to match
+     * @param optionsByType  the {@link OptionsByType}
+     *
+     * @throws AssertionError  if the assertion fails
+     */
+    private static <T> void assertRemotely(JavaApplication    application,
+                                           RemoteCallable<T>  callable,
+                                           Matcher<? super T> matcher,
+                                           OptionsByType      optionsByType) throws AssertionError
+    {
+        RemoteEventually<T>         remoteEventually = new RemoteEventually<>(callable, matcher, optionsByType);
+        RemoteEventually.Outcome<T> outcome;
+
+        try
+        {
+            long durationMS = remoteEventually.getMaximumDurationMS();
+
+            outcome = durationMS < 0
+                      ? application.submit(remoteEventually).get()
+                      : application.submit(remoteEventually).get(durationMS + REMOTE_POLLING_GRACE_PERIOD_MS,
+                                                                 TimeUnit.MILLISECONDS);
+        }
+        catch (Exception e)
+        {
+            AssertionError error = new AssertionError("Unexpected exception when attempting to remotely resolve a value for ["
+                                                      + callable + "] to evaluate with matcher [" + matcher + "]");
+
+            error.initCause(e);
+
+            throw error;
+        }
+
+        if (!outcome.isMatched())
+        {
+            if (outcome.isResolved())
+            {
+                // ask the matcher to describe the matching problem
+                StringDescription description = new StringDescription();
+
+                matcher.describeMismatch(outcome.getValue(), description);
+
+                throw new AssertionError("Matcher [" + matcher + "] failed to match last resolved value ["
+                                         + outcome.getValue() + "] for [" + callable + "] after "
+                                         + outcome.getAttempts() + " remote attempt(s) due to "
+                                         + description.toString());
+            }
+            else
+            {
+                throw new AssertionError("Failed to resolve a value for [" + callable
+                                         + "] to evaluate with matcher [" + matcher + "] after "
+                                         + outcome.getAttempts() + " remote attempt(s)"
+                                         + (outcome.getException() == null ? "" : " (" + outcome.getException()
+                                                                                  + " thrown)"));
+            }
+        }
     }
 
 
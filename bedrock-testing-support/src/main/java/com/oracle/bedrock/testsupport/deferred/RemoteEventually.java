@@ -0,0 +1,372 @@
+/*
+ * File: RemoteEventually.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+package com.oracle.bedrock.testsupport.deferred;
+
+import com.oracle.bedrock.OptionsByType;
+import com.oracle.bedrock.deferred.DeferredHelper;
+import com.oracle.bedrock.deferred.PermanentlyUnavailableException;
+import com.oracle.bedrock.deferred.options.InitialDelay;
+import com.oracle.bedrock.deferred.options.MaximumRetryDelay;
+import com.oracle.bedrock.deferred.options.RetryFrequency;
+import com.oracle.bedrock.options.Timeout;
+import com.oracle.bedrock.runtime.concurrent.RemoteCallable;
+import com.oracle.bedrock.util.Duration;
+import org.hamcrest.Matcher;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link RemoteCallable} that repetitively evaluates another {@link RemoteCallable}
+ * in the application in which it is executed, until the result satisfies a
+ * {@link Matcher}, or a {@link Timeout} occurs.
+ * <p>
+ * This allows the polling required by {@link Eventually} to be performed within
+ * a remote application, turning a round-trip per attempt into a single round-trip.
+ * As the {@link Matcher} and retry policy are shipped with the {@link RemoteCallable},
+ * the {@link Matcher} must be {@link Serializable}.  The retry policy is captured as
+ * the sequence of retry delays covering the {@link Timeout}.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ *
+ * @param <T>  the type of value produced by the {@link RemoteCallable} being evaluated
+ */
+public class RemoteEventually<T> implements RemoteCallable<RemoteEventually.Outcome<T>>
+{
+    /**
+     * The maximum number of retry delays to capture from a {@link RetryFrequency}.
+     */
+    private static final int MAXIMUM_RETRY_DELAYS = 1024;
+
+    /**
+     * The {@link RemoteCallable} to evaluate.
+     */
+    private final RemoteCallable<T> callable;
+
+    /**
+     * The {@link Matcher} the result must satisfy.
+     */
+    private final Matcher<? super T> matcher;
+
+    /**
+     * The initial delay before commencing evaluation (in milliseconds).
+     */
+    private final long initialDelayDurationMS;
+
+    /**
+     * The total maximum retry duration (in milliseconds), negative for no time-out.
+     */
+    private final long maximumRetryDurationMS;
+
+    /**
+     * The maximum delay between attempts (in milliseconds).
+     */
+    private final long maximumPollingDurationMS;
+
+    /**
+     * The retry delays captured from the {@link RetryFrequency} (in milliseconds).
+     */
+    private final long[] retryDurationsMS;
+
+    /**
+     * Should the last retry delay be repeated once the captured retry delays are exhausted?
+     */
+    private final boolean repeatLastRetryDuration;
+
+
+    /**
+     * Constructs a {@link RemoteEventually}.
+     *
+     * @param callable       the {@link RemoteCallable} to evaluate
+     * @param matcher        the {@link Serializable} {@link Matcher}
+     * @param optionsByType  the {@link OptionsByType} defining the retry policy
+     */
+    public RemoteEventually(RemoteCallable<T>  callable,
+                            Matcher<? super T> matcher,
+                            OptionsByType      optionsByType)
+    {
+        if (!(matcher instanceof Serializable))
+        {
+            throw new IllegalArgumentException("The Matcher [" + matcher + "] is not Serializable");
+        }
+
+        this.callable = callable;
+        this.matcher  = matcher;
+
+        this.initialDelayDurationMS = optionsByType.getOrDefault(InitialDelay.class,
+                                                                 InitialDelay.none()).to(TimeUnit.MILLISECONDS);
+
+        this.maximumRetryDurationMS = optionsByType.getOrDefault(Timeout.class,
+                                                                 Timeout.after(DeferredHelper.getDefaultEnsuredMaximumRetryDuration()))
+                                                                 .to(TimeUnit.MILLISECONDS);
+
+        this.maximumPollingDurationMS = optionsByType.getOrDefault(MaximumRetryDelay.class,
+                                                                   MaximumRetryDelay.of(DeferredHelper.getDefaultEnsuredMaximumPollingDuration()))
+                                                                   .to(TimeUnit.MILLISECONDS);
+
+        // capture enough of the (possibly infinite) retry delays to cover the time-out
+        Iterator<Duration> durations = optionsByType.getOrDefault(RetryFrequency.class,
+                                                                  RetryFrequency.of(DeferredHelper.getDefaultEnsuredRetryDurationsIterable()))
+                                                                  .get().iterator();
+
+        long[] captured = new long[MAXIMUM_RETRY_DELAYS];
+        int    count    = 0;
+        long   total    = 0;
+
+        while (count < captured.length && durations.hasNext()
+               && (maximumRetryDurationMS < 0 || total < maximumRetryDurationMS))
+        {
+            long durationMS = Math.min(durations.next().to(TimeUnit.MILLISECONDS), maximumPollingDurationMS);
+
+            captured[count++] = durationMS;
+            total             += Math.max(durationMS, 1);
+        }
+
+        this.retryDurationsMS        = Arrays.copyOf(captured, count);
+        this.repeatLastRetryDuration = count > 0 && durations.hasNext();
+    }
+
+
+    @Override
+    public Outcome<T> call() throws Exception
+    {
+        long remainingRetryDurationMS = maximumRetryDurationMS;
+
+        if (initialDelayDurationMS > 0)
+        {
+            Thread.sleep(initialDelayDurationMS);
+
+            remainingRetryDurationMS -= initialDelayDurationMS;
+        }
+
+        int       attempts  = 0;
+        int       retry     = 0;
+        boolean   hasValue  = false;
+        T         value     = null;
+        Throwable throwable = null;
+
+        do
+        {
+            long started = System.currentTimeMillis();
+
+            attempts++;
+
+            try
+            {
+                value     = callable.call();
+                hasValue  = true;
+                throwable = null;
+
+                if (matcher.matches(value))
+                {
+                    return new Outcome<>(true, true, value, attempts, null);
+                }
+            }
+            catch (PermanentlyUnavailableException | UnsupportedOperationException e)
+            {
+                // give up immediately!
+                return new Outcome<>(false, false, null, attempts, e.toString());
+            }
+            catch (Exception e)
+            {
+                // SKIP: we assume all other exceptions simply means that we should retry
+                throwable = e;
+            }
+
+            remainingRetryDurationMS -= Math.max(0, System.currentTimeMillis() - started);
+
+            if (maximumRetryDurationMS < 0 || remainingRetryDurationMS > 0)
+            {
+                long durationMS;
+
+                if (retry < retryDurationsMS.length)
+                {
+                    durationMS = retryDurationsMS[retry++];
+                }
+                else if (repeatLastRetryDuration)
+                {
+                    durationMS = retryDurationsMS[retryDurationsMS.length - 1];
+                }
+                else
+                {
+                    // we've run out of retry durations
+                    break;
+                }
+
+                // ensure we don't wait longer that the remaining duration
+                if (maximumRetryDurationMS >= 0 && durationMS > remainingRetryDurationMS)
+                {
+                    durationMS = remainingRetryDurationMS;
+                }
+
+                if (durationMS > 0)
+                {
+                    Thread.sleep(durationMS);
+                }
+
+                remainingRetryDurationMS -= durationMS;
+            }
+        }
+        while (maximumRetryDurationMS < 0 || remainingRetryDurationMS > 0);
+
+        return new Outcome<>(false, hasValue, value, attempts, throwable == null ? null : throwable.toString());
+    }
+
+
+    /**
+     * Obtains the maximum time the {@link RemoteEventually} may take to evaluate.
+     *
+     * @return the maximum duration in milliseconds, negative when there is no time-out
+     */
+    public long getMaximumDurationMS()
+    {
+        return maximumRetryDurationMS < 0 ? -1 : initialDelayDurationMS + maximumRetryDurationMS;
+    }
+
+
+    @Override
+    public String toString()
+    {
+        return "RemoteEventually{callable=" + callable + ", matcher=" + matcher + "}";
+    }
+
+
+    /**
+     * The outcome of evaluating a {@link RemoteEventually}.
+     *
+     * @param <T>  the type of value
+     */
+    public static class Outcome<T> implements Serializable
+    {
+        /**
+         * Did the value satisfy the {@link Matcher}?
+         */
+        private final boolean matched;
+
+        /**
+         * Was a value resolved?
+         */
+        private final boolean resolved;
+
+        /**
+         * The last resolved value.
+         */
+        private final T value;
+
+        /**
+         * The number of attempts made.
+         */
+        private final int attempts;
+
+        /**
+         * A description of the last exception that occurred (<code>null</code> when none).
+         */
+        private final String exception;
+
+
+        /**
+         * Constructs an {@link Outcome}.
+         *
+         * @param matched    did the value satisfy the {@link Matcher}?
+         * @param resolved   was a value resolved?
+         * @param value      the last resolved value
+         * @param attempts   the number of attempts made
+         * @param exception  a description of the last exception (<code>null</code> when none)
+         */
+        public Outcome(boolean matched,
+                       boolean resolved,
+                       T       value,
+                       int     attempts,
+                       String  exception)
+        {
+            this.matched   = matched;
+            this.resolved  = resolved;
+            this.value     = value;
+            this.attempts  = attempts;
+            this.exception = exception;
+        }
+
+
+        /**
+         * Determines if the value satisfied the {@link Matcher}.
+         *
+         * @return <code>true</code> if matched, <code>false</code> otherwise
+         */
+        public boolean isMatched()
+        {
+            return matched;
+        }
+
+
+        /**
+         * Determines if a value was resolved.
+         *
+         * @return <code>true</code> if a value was resolved, <code>false</code> otherwise
+         */
+        public boolean isResolved()
+        {
+            return resolved;
+        }
+
+
+        /**
+         * Obtains the last resolved value.
+         *
+         * @return the last resolved value
+         */
+        public T getValue()
+        {
+            return value;
+        }
+
+
+        /**
+         * Obtains the number of attempts made to resolve and match the value.
+         *
+         * @return the number of attempts
+         */
+        public int getAttempts()
+        {
+            return attempts;
+        }
+
+
+        /**
+         * Obtains a description of the last exception that occurred.
+         *
+         * @return the exception description or <code>null</code> when none occurred
+         */
+        public String getException()
+        {
+            return exception;
+        }
+    }
+}
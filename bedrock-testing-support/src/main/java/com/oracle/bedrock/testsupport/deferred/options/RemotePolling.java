@@ -0,0 +1,134 @@
+/*
+ * File: RemotePolling.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+package com.oracle.bedrock.testsupport.deferred.options;
+
+import com.oracle.bedrock.Option;
+import com.oracle.bedrock.OptionsByType;
+import com.oracle.bedrock.runtime.concurrent.RemoteCallable;
+import com.oracle.bedrock.runtime.java.JavaApplication;
+import com.oracle.bedrock.testsupport.deferred.Eventually;
+
+/**
+ * An {@link Option} to specify if the polling required to assert a {@link RemoteCallable}
+ * submitted to a {@link JavaApplication} should be performed by the {@link JavaApplication}
+ * itself, instead of each attempt requiring a round-trip from the asserting application.
+ * <p>
+ * Remote polling is only possible when the matcher used for an assertion is serializable.
+ * When it is not, assertions are polled as usual by the asserting application.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @see Eventually#assertThat(JavaApplication, RemoteCallable, org.hamcrest.Matcher, Option...)
+ *
+ * @author Brian Oliver
+ */
+public class RemotePolling implements Option
+{
+    /**
+     * Should polling be performed remotely?
+     */
+    private final boolean enabled;
+
+
+    /**
+     * Constructs a {@link RemotePolling}.
+     *
+     * @param enabled  should polling be performed remotely?
+     */
+    private RemotePolling(boolean enabled)
+    {
+        this.enabled = enabled;
+    }
+
+
+    /**
+     * Determines if remote polling is enabled
+     *
+     * @return <code>true</code> if remote polling is enabled,
+     *         <code>false</code> otherwise
+     */
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+
+    /**
+     * Obtains an enabled {@link RemotePolling}.
+     *
+     * @return a {@link RemotePolling}
+     */
+    public static RemotePolling enabled()
+    {
+        return new RemotePolling(true);
+    }
+
+
+    /**
+     * Obtains a disabled {@link RemotePolling}.
+     *
+     * @return a {@link RemotePolling}
+     */
+    @OptionsByType.Default
+    public static RemotePolling disabled()
+    {
+        return new RemotePolling(false);
+    }
+
+
+    @Override
+    public String toString()
+    {
+        return "RemotePolling{" + enabled + '}';
+    }
+
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o)
+        {
+            return true;
+        }
+
+        if (!(o instanceof RemotePolling))
+        {
+            return false;
+        }
+
+        RemotePolling that = (RemotePolling) o;
+
+        return enabled == that.enabled;
+    }
+
+
+    @Override
+    public int hashCode()
+    {
+        return (enabled ? 1 : 0);
+    }
+}
@@ -30,17 +30,34 @@ import com.oracle.bedrock.options.Decoration;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.PrintStream;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * A base class for generating JUnit reports.
  * <p>
+ * The report for a test class is written as soon as the test class finishes, after which
+ * the {@link TestResults} for the test class are released, so that the memory used by a
+ * reporter is bounded by the test classes in progress, not the size of the test run.
+ * An asynchronous {@link JUnitReporter} writes reports using a background {@link Thread},
+ * so that (slow) report writing doesn't delay the processing of test events.
+ * <p>
  * Copyright (c) 2016. All Rights Reserved. Oracle Corporation.<br>
  * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
  *
@@ -49,10 +66,34 @@ import java.util.concurrent.atomic.AtomicInteger;
 public abstract class JUnitReporter implements JUnitTestListener
 {
     /**
-     * A {@link Map} of {@link TestResults} instances keyed by the test class name.
+     * The {@link Logger} for this class.
+     */
+    private static Logger LOGGER = Logger.getLogger(JUnitReporter.class.getName());
+
+    /**
+     * The maximum number of test class reports waiting to be written by an
+     * asynchronous {@link JUnitReporter} before the reporting {@link Thread}s wait.
+     */
+    public static final int MAXIMUM_PENDING_REPORTS = 64;
+
+    /**
+     * The maximum number of seconds a reporting {@link Thread} waits for an asynchronous
+     * {@link JUnitReporter} to accept a report, before writing the report itself.
+     */
+    public static final int MAXIMUM_PENDING_REPORT_WAIT_SECONDS = 30;
+
+    /**
+     * A {@link Map} of {@link TestResults} instances keyed by the test class name,
+     * for the test classes that are yet to finish.
      */
     private Map<String, TestResults> results = new ConcurrentHashMap<>();
 
+    /**
+     * The names of the test classes that have finished, for which late events are dropped
+     * (until the test class is started again).
+     */
+    private Set<String> finished = ConcurrentHashMap.newKeySet();
+
     /**
      * The folder to write the test report to.
      */
@@ -63,9 +104,34 @@ public abstract class JUnitReporter implements JUnitTestListener
      */
     private Properties testProperties;
 
+    /**
+     * The {@link TestDurations} of the test classes, persisted in the
+     * report folder (when there is one) as the test run completes.
+     */
+    private final TestDurations testDurations;
+
+    /**
+     * The {@link ThreadPoolExecutor} writing reports in the background
+     * (null when reports are written synchronously).
+     */
+    private final ThreadPoolExecutor writer;
 
     /**
-     * Create a {@link JUnitReporter} with the specified output folder.
+     * The {@link BlockingQueue} of reports waiting to be written by the writer
+     * (null when reports are written synchronously).
+     */
+    private final BlockingQueue<Runnable> pendingReports;
+
+    /**
+     * The first failure to write a report in the background, raised when the
+     * JUnit test run completes.
+     */
+    private final AtomicReference<RuntimeException> writeFailure;
+
+
+    /**
+     * Create a {@link JUnitReporter} with the specified output folder, that
+     * writes reports synchronously.
      * <p>
      * If the output folder is null the report will be written to {@link System#out}.
      *
@@ -74,7 +140,68 @@ public abstract class JUnitReporter implements JUnitTestListener
      */
     protected JUnitReporter(File reportFolder)
     {
-        this.reportFolder = reportFolder;
+        this(reportFolder, false);
+    }
+
+
+    /**
+     * Create a {@link JUnitReporter} with the specified output folder.
+     * <p>
+     * If the output folder is null the report will be written to {@link System#out}.
+     *
+     * @param reportFolder  the folder to write the report file to or null if the
+     *                      report should be written to {@link System#out}
+     * @param asynchronous  should reports be written by a background {@link Thread}
+     */
+    protected JUnitReporter(File    reportFolder,
+                            boolean asynchronous)
+    {
+        this.reportFolder  = reportFolder;
+        this.testDurations = new TestDurations();
+        this.writeFailure  = new AtomicReference<>();
+
+        if (asynchronous)
+        {
+            this.pendingReports = new ArrayBlockingQueue<>(MAXIMUM_PENDING_REPORTS);
+
+            // a single thread preserves the order of the reports, with a bounded queue on which
+            // reporting threads wait (rather than accumulate test results) when writing falls behind,
+            // for a bounded time after which they write the report themselves
+            this.writer = new ThreadPoolExecutor(1,
+                                                 1,
+                                                 30,
+                                                 TimeUnit.SECONDS,
+                                                 pendingReports,
+                                                 new ThreadFactory(),
+                                                 (runnable, executor) -> {
+                                                     try
+                                                     {
+                                                         if (!pendingReports.offer(runnable,
+                                                                                   MAXIMUM_PENDING_REPORT_WAIT_SECONDS,
+                                                                                   TimeUnit.SECONDS))
+                                                         {
+                                                             LOGGER.warning("Writing a JUnit report synchronously as "
+                                                                            + MAXIMUM_PENDING_REPORTS
+                                                                            + " reports are waiting to be written");
+
+                                                             runnable.run();
+                                                         }
+                                                     }
+                                                     catch (InterruptedException e)
+                                                     {
+                                                         Thread.currentThread().interrupt();
+
+                                                         throw new RejectedExecutionException(e);
+                                                     }
+                                                 });
+
+            this.writer.allowCoreThreadTimeOut(true);
+        }
+        else
+        {
+            this.writer         = null;
+            this.pendingReports = null;
+        }
     }
 
 
@@ -103,6 +230,76 @@ public abstract class JUnitReporter implements JUnitTestListener
     }
 
 
+    /**
+     * Obtain the {@link TestResults} for the test class of the specified {@link Event},
+     * unless the test class has already finished.
+     *
+     * @param event  the {@link Event}
+     *
+     * @return  the {@link TestResults} for the test class or null if the event
+     *          arrived after the test class finished and should be dropped
+     */
+    private TestResults resultsOf(Event event)
+    {
+        String className = event.getClassName();
+
+        if (finished.contains(className))
+        {
+            LOGGER.fine("Dropping the " + event.getType() + " event received after " + className + " finished");
+
+            return null;
+        }
+
+        return ensureTest(className);
+    }
+
+
+    /**
+     * Determines if reports are written asynchronously, by a background {@link Thread}.
+     *
+     * @return  true if reports are written asynchronously
+     */
+    public boolean isAsynchronous()
+    {
+        return writer != null;
+    }
+
+
+    /**
+     * Waits for the reports of the finished test classes to be written.
+     *
+     * @throws RuntimeException  when a report failed to be written
+     */
+    public void flush()
+    {
+        if (writer != null)
+        {
+            try
+            {
+                // reports are written in order, so once this completes so have the preceding reports
+                writer.submit(() -> {}).get();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+
+                throw new RuntimeException(e);
+            }
+            catch (ExecutionException e)
+            {
+                throw new RuntimeException(e.getCause());
+            }
+        }
+
+        RuntimeException failure = writeFailure.getAndSet(null);
+
+        if (failure != null)
+        {
+            throw failure;
+        }
+    }
+
+
     /**
      * Obtain the System properties used by the test run.
      *
@@ -114,6 +311,17 @@ public abstract class JUnitReporter implements JUnitTestListener
     }
 
 
+    /**
+     * Obtain the {@link TestDurations} of the test classes reported.
+     *
+     * @return  the {@link TestDurations} of the test classes reported
+     */
+    public TestDurations getTestDurations()
+    {
+        return testDurations;
+    }
+
+
     /**
      * Obtain this {@link JUnitReporter} instance as an {@link Option}
      *
@@ -157,6 +365,22 @@ public abstract class JUnitReporter implements JUnitTestListener
     @Override
     public void junitCompleted(Event event)
     {
+        flush();
+
+        File reportFolder = getReportFolder();
+
+        if (reportFolder != null && reportFolder.isDirectory() && testDurations.size() > 0)
+        {
+            try
+            {
+                testDurations.save(new File(reportFolder, TestDurations.FILE_NAME));
+            }
+            catch (IOException e)
+            {
+                // the durations only order future test runs, so failing to save them doesn't fail this one
+                LOGGER.log(Level.WARNING, "Failed to save the test durations in " + reportFolder, e);
+            }
+        }
     }
 
 
@@ -167,6 +391,7 @@ public abstract class JUnitReporter implements JUnitTestListener
 
         if (className != null)
         {
+            finished.remove(className);
             ensureTest(className).addEvent(event);
         }
 
@@ -183,14 +408,24 @@ public abstract class JUnitReporter implements JUnitTestListener
     @Override
     public void testStarted(Event event)
     {
-        TestResults test = ensureTest(event.getClassName());
+        TestResults test = resultsOf(event);
 
-        test.incrementTestCount();
+        if (test != null)
+        {
+            test.incrementTestCount();
+        }
     }
 
 
     public void testClassStarted(Event event)
     {
+        String className = event.getClassName();
+
+        if (className != null)
+        {
+            // a test class may be run again, in which case its events are reported again
+            finished.remove(className);
+        }
     }
 
 
@@ -203,11 +438,52 @@ public abstract class JUnitReporter implements JUnitTestListener
             return;
         }
 
-        TestResults test = ensureTest(className);
-        float       time = ((float) event.getTime()) / 1000.0f;
+        // the finished test class is no longer tracked, so its results are released once written
+        // (and late events for it are dropped rather than accumulated)
+        finished.add(className);
+
+        TestResults test = results.remove(className);
+
+        if (test == null)
+        {
+            test = new TestResults(className);
+        }
+
+        float time = ((float) event.getTime()) / 1000.0f;
 
         test.setTestTimeSeconds(time);
+        testDurations.record(className, event.getTime());
+
+        if (writer == null)
+        {
+            writeReport(test);
+        }
+        else
+        {
+            TestResults finished = test;
+
+            writer.execute(() -> {
+                               try
+                               {
+                                   writeReport(finished);
+                               }
+                               catch (RuntimeException e)
+                               {
+                                   writeFailure.compareAndSet(null, e);
+                               }
+                           });
+        }
+    }
 
+
+    /**
+     * Write the report for the specified {@link TestResults} to {@link System#out}
+     * or a file in the report folder.
+     *
+     * @param test  the {@link TestResults} to use to write the report
+     */
+    private void writeReport(TestResults test)
+    {
         File reportFolder = getReportFolder();
 
         if (reportFolder == null)
@@ -218,7 +494,7 @@ public abstract class JUnitReporter implements JUnitTestListener
         {
             try
             {
-                String fileName   = getReportFileName(className);
+                String fileName   = getReportFileName(test.getClassName());
                 File   reportFile = new File(reportFolder, fileName);
 
                 try (PrintStream out = new PrintStream(reportFile))
@@ -237,49 +513,64 @@ public abstract class JUnitReporter implements JUnitTestListener
     @Override
     public void testSucceeded(Event event)
     {
-        TestResults test = ensureTest(event.getClassName());
+        TestResults test = resultsOf(event);
 
-        test.addEvent(event);
+        if (test != null)
+        {
+            test.addEvent(event);
+        }
     }
 
 
     @Override
     public void testIgnored(Event event)
     {
-        TestResults test = ensureTest(event.getClassName());
+        TestResults test = resultsOf(event);
 
-        test.addEvent(event);
-        test.incrementSkipCount();
+        if (test != null)
+        {
+            test.addEvent(event);
+            test.incrementSkipCount();
+        }
     }
 
 
     @Override
     public void testFailed(Event event)
     {
-        TestResults test = ensureTest(event.getClassName());
+        TestResults test = resultsOf(event);
 
-        test.addEvent(event);
-        test.incrementFailureCount();
+        if (test != null)
+        {
+            test.addEvent(event);
+            test.incrementFailureCount();
+        }
     }
 
 
     @Override
     public void testError(Event event)
     {
-        TestResults test = ensureTest(event.getClassName());
+        TestResults test = resultsOf(event);
 
-        test.addEvent(event);
-        test.incrementErrorCount();
+        if (test != null)
+        {
+            test.addEvent(event);
+            test.incrementErrorCount();
+        }
     }
 
 
     @Override
     public void testAssumptionFailure(Event event)
     {
-        TestResults test = ensureTest(event.getClassName());
+        TestResults test = resultsOf(event);
 
-        test.addEvent(event);
-        test.incrementSkipCount();
+        if (test != null)
+        {
+            test.addEvent(event);
+            test.incrementSkipCount();
+        }
     }
 
 
@@ -477,4 +768,29 @@ public abstract class JUnitReporter implements JUnitTestListener
             return errorCount.get();
         }
     }
+
+
+    /**
+     * A {@link java.util.concurrent.ThreadFactory} producing daemon {@link Thread}s
+     * for writing reports.
+     */
+    private static class ThreadFactory implements java.util.concurrent.ThreadFactory
+    {
+        /**
+         * The number of {@link Thread}s created.
+         */
+        private static final AtomicInteger COUNT = new AtomicInteger(0);
+
+
+        @Override
+        public Thread newThread(Runnable runnable)
+        {
+            Thread thread = new Thread(runnable);
+
+            thread.setDaemon(true);
+            thread.setName("JUnitReporter-" + COUNT.incrementAndGet());
+
+            return thread;
+        }
+    }
 }
@@ -0,0 +1,502 @@
+/*
+ * File: JUnitTestCoordinator.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of 
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+
+package com.oracle.bedrock.testsupport.junit;
+
+import com.oracle.bedrock.Option;
+import com.oracle.bedrock.OptionsByType;
+import com.oracle.bedrock.runtime.Assembly;
+import com.oracle.bedrock.runtime.concurrent.RemoteEvent;
+import com.oracle.bedrock.runtime.concurrent.RemoteEventListener;
+import com.oracle.bedrock.runtime.java.JavaApplication;
+import com.oracle.bedrock.runtime.java.options.ClassName;
+import com.oracle.bedrock.testsupport.junit.options.TestClasses;
+import com.oracle.bedrock.testsupport.junit.options.Tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Coordinates the execution of a test suite across a number of test {@link JavaApplication}s
+ * (workers), each running a {@link JUnitTestRunner} (ie: launched with
+ * {@link ClassName#of(Class) ClassName.of(JUnitTestRunner.class)}), such as those
+ * of an {@link Assembly}.
+ * <p>
+ * The test {@link Class}es of the test suite are resolved by the {@link JUnitTestCoordinator}
+ * and placed in a shared queue, ordered longest-running first according to the provided
+ * {@link TestDurations}, as recorded by a {@link JUnitReporter}.  Each worker takes the next
+ * test {@link Class} from the queue as soon as it has completed its previous test {@link Class},
+ * so that the test suite completes in roughly the total time divided by the number of workers.
+ * <p>
+ * The {@link JUnitTestListener.Event}s raised by the workers are merged and delivered, one at a time,
+ * to the {@link JUnitTestListener}s specified when running the test suite, as if the test suite
+ * had been run by a single {@link JUnitTestRun}.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+public class JUnitTestCoordinator
+{
+    /**
+     * The {@link Logger} for this class.
+     */
+    private static Logger LOGGER = Logger.getLogger(JUnitTestCoordinator.class.getName());
+
+    /**
+     * The workers running {@link JUnitTestRunner}s.
+     */
+    private final List<JavaApplication> workers;
+
+    /**
+     * The {@link TestDurations} used to order the test {@link Class}es
+     * (null when they are loaded from the report folders of the {@link JUnitReporter}s).
+     */
+    private final TestDurations testDurations;
+
+    /**
+     * Has the {@link JUnitTestCoordinator} been requested to stop?
+     */
+    private volatile boolean stopped;
+
+
+    /**
+     * Constructs a {@link JUnitTestCoordinator} for the specified workers, ordering
+     * the test {@link Class}es using the {@link TestDurations} previously saved by the
+     * {@link JUnitReporter}s that report the test suite.
+     *
+     * @param workers  the workers running {@link JUnitTestRunner}s
+     */
+    public JUnitTestCoordinator(Iterable<? extends JavaApplication> workers)
+    {
+        this(workers, null);
+    }
+
+
+    /**
+     * Constructs a {@link JUnitTestCoordinator} for the specified workers.
+     *
+     * @param workers        the workers running {@link JUnitTestRunner}s
+     * @param testDurations  the {@link TestDurations} used to order the test {@link Class}es,
+     *                       or null to use those previously saved by the {@link JUnitReporter}s
+     *                       that report the test suite
+     */
+    public JUnitTestCoordinator(Iterable<? extends JavaApplication> workers,
+                                TestDurations                       testDurations)
+    {
+        this.workers = new ArrayList<>();
+
+        workers.forEach(this.workers::add);
+
+        if (this.workers.isEmpty())
+        {
+            throw new IllegalArgumentException("At least one worker is required to run tests");
+        }
+
+        this.testDurations = testDurations;
+        this.stopped       = false;
+    }
+
+
+    /**
+     * Runs the test suite defined by the specified {@link Option}s across the workers,
+     * waiting for the test suite to complete.
+     * <p>
+     * The {@link TestClasses} and {@link JUnitTestListener}s (typically {@link JUnitReporter}s)
+     * are used by the {@link JUnitTestCoordinator}, with all other {@link java.io.Serializable}
+     * {@link Option}s, including JUnit {@link org.junit.runner.notification.RunListener}s, provided
+     * to the workers to run each test {@link Class}.
+     *
+     * @param options  the {@link Option}s defining the test suite
+     *
+     * @return  the number of test {@link Class}es that were run
+     */
+    public int run(Option... options)
+    {
+        OptionsByType                 optionsByType = OptionsByType.of(options);
+        Map<String, TestClasses>      testClasses   = new LinkedHashMap<>();
+        List<JUnitTestListener>       listeners     = new ArrayList<>();
+        List<CompletableFuture<Void>> completions   = new ArrayList<>();
+        AtomicInteger                 count         = new AtomicInteger(0);
+
+        // resolve the test classes to run (in the order they are defined)
+        for (TestClasses classes : optionsByType.get(Tests.class))
+        {
+            for (Class<?> testClass : classes.resolveTestClasses())
+            {
+                testClasses.putIfAbsent(testClass.getName(), classes);
+            }
+        }
+
+        optionsByType.getInstancesOf(JUnitTestListener.class).forEach(listeners::add);
+
+        // the workers don't require the tests as they are provided one at a time
+        OptionsByType workerOptions = OptionsByType.of(optionsByType);
+
+        workerOptions.remove(Tests.class);
+
+        TestDurations durations  = testDurations == null ? loadTestDurations(listeners) : testDurations;
+        Queue<String> queue      = new ConcurrentLinkedQueue<>(durations.longestFirst(testClasses.keySet()));
+        Dispatcher    dispatcher = new Dispatcher(listeners);
+
+        for (JavaApplication worker : workers)
+        {
+            worker.addListener(dispatcher, JUnitTestRunner.STREAM_NAME);
+        }
+
+        long start = System.currentTimeMillis();
+
+        dispatcher.dispatch(JUnitTestListener.Event.junitStarted());
+
+        try
+        {
+            for (JavaApplication worker : workers)
+            {
+                CompletableFuture<Void> completion = new CompletableFuture<>();
+
+                completions.add(completion);
+
+                runNext(worker, queue, testClasses, workerOptions, dispatcher, count, completion);
+            }
+
+            CompletableFuture.allOf(completions.toArray(new CompletableFuture[completions.size()])).get();
+        }
+        catch (InterruptedException e)
+        {
+            stop();
+
+            Thread.currentThread().interrupt();
+        }
+        catch (ExecutionException e)
+        {
+            LOGGER.log(Level.SEVERE, "Failed to coordinate the test suite", e.getCause());
+        }
+        finally
+        {
+            for (JavaApplication worker : workers)
+            {
+                worker.removeListener(dispatcher, JUnitTestRunner.STREAM_NAME);
+            }
+
+            // report the test classes that weren't run because every worker failed
+            if (!stopped)
+            {
+                IllegalStateException failure = new IllegalStateException("No workers remain to run the test class");
+
+                for (String className = queue.poll(); className != null; className = queue.poll())
+                {
+                    dispatcher.dispatchFailure(className, 0, failure);
+                }
+            }
+
+            dispatcher.dispatch(JUnitTestListener.Event.junitCompleted(System.currentTimeMillis() - start));
+        }
+
+        return count.get();
+    }
+
+
+    /**
+     * Requests that the test suite stops, halting the test {@link Class}es currently
+     * being run by the workers (which will then terminate) and not running those remaining.
+     */
+    public void stop()
+    {
+        stopped = true;
+
+        for (JavaApplication worker : workers)
+        {
+            try
+            {
+                worker.submit(new JUnitTestRunner.StopTests());
+            }
+            catch (RuntimeException e)
+            {
+                // SKIP: the worker may have already terminated
+            }
+        }
+    }
+
+
+    /**
+     * Loads the {@link TestDurations} saved in the report folders of the specified
+     * {@link JUnitReporter}s, as written when a test suite completes.
+     *
+     * @param listeners  the {@link JUnitTestListener}s of the test suite
+     *
+     * @return the {@link TestDurations}, empty when none were saved
+     */
+    private static TestDurations loadTestDurations(List<JUnitTestListener> listeners)
+    {
+        for (JUnitTestListener listener : listeners)
+        {
+            File reportFolder = listener instanceof JUnitReporter
+                                ? ((JUnitReporter) listener).getReportFolder() : null;
+            File file         = reportFolder == null ? null : new File(reportFolder, TestDurations.FILE_NAME);
+
+            if (file != null && file.exists())
+            {
+                try
+                {
+                    return TestDurations.load(file);
+                }
+                catch (IOException e)
+                {
+                    LOGGER.log(Level.WARNING, "Failed to load the test durations from " + file, e);
+                }
+            }
+        }
+
+        return new TestDurations();
+    }
+
+
+    /**
+     * Runs the next test {@link Class} in the queue using the specified worker,
+     * continuing to do so until the queue is empty, the {@link JUnitTestCoordinator}
+     * is stopped or the worker fails, at which point the completion is completed.
+     *
+     * @param worker         the worker
+     * @param queue          the queue of test {@link Class} names
+     * @param testClasses    the {@link TestClasses} by test {@link Class} name
+     * @param workerOptions  the {@link OptionsByType} for the worker
+     * @param dispatcher     the {@link Dispatcher} for {@link JUnitTestListener.Event}s
+     * @param count          the number of test {@link Class}es run
+     * @param completion     the {@link CompletableFuture} to complete
+     */
+    private void runNext(JavaApplication          worker,
+                         Queue<String>            queue,
+                         Map<String, TestClasses> testClasses,
+                         OptionsByType            workerOptions,
+                         Dispatcher               dispatcher,
+                         AtomicInteger            count,
+                         CompletableFuture<Void>  completion)
+    {
+        String className = stopped ? null : queue.poll();
+
+        if (className == null)
+        {
+            completion.complete(null);
+
+            return;
+        }
+
+        JUnitTestRunner.RunTestClass runTestClass = new JUnitTestRunner.RunTestClass(className,
+                                                                                     testClasses.get(className),
+                                                                                     workerOptions);
+        long                       start = System.currentTimeMillis();
+        CompletableFuture<Boolean> submitted;
+
+        try
+        {
+            submitted = worker.submit(runTestClass);
+        }
+        catch (RuntimeException e)
+        {
+            // the worker's channel may have closed, in which case treat it as a failed submission
+            submitted = new CompletableFuture<>();
+            submitted.completeExceptionally(e);
+        }
+
+        submitted.whenComplete((ran, throwable) -> {
+                                   if (throwable == null)
+                                   {
+                                       if (ran != null && ran)
+                                       {
+                                           count.incrementAndGet();
+                                       }
+
+                                       runNext(worker,
+                                               queue,
+                                               testClasses,
+                                               workerOptions,
+                                               dispatcher,
+                                               count,
+                                               completion);
+                                   }
+                                   else
+                                   {
+                                       // the worker failed (or terminated) so report the
+                                       // test class as an error and retire the worker
+                                       dispatcher.dispatchFailure(className,
+                                                                  System.currentTimeMillis() - start,
+                                                                  throwable);
+
+                                       completion.complete(null);
+                                   }
+                               });
+    }
+
+
+    /**
+     * Delivers {@link JUnitTestListener.Event}s to {@link JUnitTestListener}s, one at a time,
+     * ignoring the {@link JUnitTestListener.Event}s signalling the start and end of JUnit
+     * on individual workers.
+     */
+    private static class Dispatcher implements RemoteEventListener
+    {
+        /**
+         * The {@link JUnitTestListener}s.
+         */
+        private final List<JUnitTestListener> listeners;
+
+
+        /**
+         * Constructs a {@link Dispatcher}.
+         *
+         * @param listeners  the {@link JUnitTestListener}s
+         */
+        Dispatcher(List<JUnitTestListener> listeners)
+        {
+            this.listeners = listeners;
+        }
+
+
+        @Override
+        public void onEvent(RemoteEvent event)
+        {
+            JUnitTestListener.Event jUnitEvent = (JUnitTestListener.Event) event;
+
+            switch (jUnitEvent.getType())
+            {
+            case JUnitStarted :
+            case JUnitCompleted :
+                break;
+
+            default :
+                dispatch(jUnitEvent);
+            }
+        }
+
+
+        /**
+         * Dispatches {@link JUnitTestListener.Event}s reporting that a test {@link Class}
+         * failed due to a failure of a worker.
+         *
+         * @param className  the name of the test {@link Class}
+         * @param time       the time spent running the test {@link Class}
+         * @param throwable  the failure
+         */
+        void dispatchFailure(String    className,
+                             long      time,
+                             Throwable throwable)
+        {
+            Throwable cause = throwable.getCause() == null ? throwable : throwable.getCause();
+
+            dispatch(JUnitTestListener.Event.testClassStarted(className));
+            dispatch(JUnitTestListener.Event.testStarted(className, className));
+            dispatch(JUnitTestListener.Event.error(className,
+                                                   className,
+                                                   time,
+                                                   cause.getClass().getCanonicalName(),
+                                                   cause.getMessage(),
+                                                   cause.getStackTrace()));
+            dispatch(JUnitTestListener.Event.testClassFinished(className, time));
+        }
+
+
+        /**
+         * Dispatches the specified {@link JUnitTestListener.Event} to the {@link JUnitTestListener}s.
+         *
+         * @param event  the {@link JUnitTestListener.Event}
+         */
+        synchronized void dispatch(JUnitTestListener.Event event)
+        {
+            for (JUnitTestListener listener : listeners)
+            {
+                try
+                {
+                    switch (event.getType())
+                    {
+                    case JUnitStarted :
+                        listener.junitStarted(event);
+                        break;
+
+                    case JUnitCompleted :
+                        listener.junitCompleted(event);
+                        break;
+
+                    case testRunStarted :
+                        listener.testRunStarted(event);
+                        break;
+
+                    case testRunFinished :
+                        listener.testRunFinished(event);
+                        break;
+
+                    case testClassStarted :
+                        listener.testClassStarted(event);
+                        break;
+
+                    case testClassFinished :
+                        listener.testClassFinished(event);
+                        break;
+
+                    case testStarted :
+                        listener.testStarted(event);
+                        break;
+
+                    case testSuccess :
+                        listener.testSucceeded(event);
+                        break;
+
+                    case testIgnored :
+                        listener.testIgnored(event);
+                        break;
+
+                    case testAssumptionFailure :
+                        listener.testAssumptionFailure(event);
+                        break;
+
+                    case testFailure :
+                        listener.testFailed(event);
+                        break;
+
+                    case testError :
+                        listener.testError(event);
+                        break;
+                    }
+                }
+                catch (Exception e)
+                {
+                    LOGGER.log(Level.WARNING, "A JUnitTestListener failed to handle the event " + event, e);
+                }
+            }
+        }
+    }
+}
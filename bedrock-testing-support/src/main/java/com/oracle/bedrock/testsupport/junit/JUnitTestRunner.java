@@ -27,6 +27,7 @@ package com.oracle.bedrock.testsupport.junit;
 
 import com.oracle.bedrock.Option;
 import com.oracle.bedrock.OptionsByType;
+import com.oracle.bedrock.testsupport.junit.options.Concurrency;
 import com.oracle.bedrock.testsupport.junit.options.TestClasses;
 import com.oracle.bedrock.testsupport.junit.options.Tests;
 import com.oracle.bedrock.options.Decoration;
@@ -39,18 +40,31 @@ import org.junit.runner.Description;
 import org.junit.runner.JUnitCore;
 import org.junit.runner.Request;
 import org.junit.runner.Result;
+import org.junit.runner.Runner;
 import org.junit.runner.manipulation.Filter;
 import org.junit.runner.notification.Failure;
 import org.junit.runner.notification.RunListener;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runner.notification.StoppedByUserException;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * A class that runs a set of JUnit tests.
@@ -62,6 +76,11 @@ import java.util.concurrent.CompletableFuture;
  */
 public class JUnitTestRunner implements Runnable
 {
+    /**
+     * The {@link Logger} for this class.
+     */
+    private static Logger LOGGER = Logger.getLogger(JUnitTestRunner.class.getName());
+
     /**
      * The name of the event stream that will be used to send JUnit test events.
      */
@@ -92,6 +111,12 @@ public class JUnitTestRunner implements Runnable
      */
     private OptionsByType optionsByType;
 
+    /**
+     * The {@link RunNotifier}s of the in-flight concurrent test runs and
+     * distributed test classes. (guarded by MONITOR)
+     */
+    private final Set<RunNotifier> notifiers = new HashSet<>();
+
 
     /**
      * The different states that this {@link JUnitTestRunner} can be in.
@@ -172,7 +197,7 @@ public class JUnitTestRunner implements Runnable
             }
             catch (Throwable e)
             {
-                e.printStackTrace();
+                LOGGER.log(Level.SEVERE, "Failed to run the tests", e);
             }
             finally
             {
@@ -286,6 +311,15 @@ public class JUnitTestRunner implements Runnable
             return;
         }
 
+        Concurrency concurrency = optionsByType.get(Concurrency.class);
+
+        if (!concurrency.isSequential())
+        {
+            runTestsConcurrently(optionsByType, tests, concurrency.getLevel());
+
+            return;
+        }
+
         JUnitCore jUnitCore = new JUnitCore();
         Result    result    = new Result();
         Listener  listener  = new Listener();
@@ -306,22 +340,245 @@ public class JUnitTestRunner implements Runnable
 
             for (Class<?> testClass : classes)
             {
-                Request request = Request.aClass(testClass);
+                jUnitCore.run(createRequest(testClass, filter));
 
-                if (filter != null)
+                // If the state has changed to stopped then we should exit
+                if (state == State.Stopped)
                 {
-                    request = request.filterWith(filter);
+                    return;
                 }
+            }
+        }
+    }
 
-                jUnitCore.run(request);
 
-                // If the state has changed to stopped then we should exit
-                if (state == State.Stopped)
+    /**
+     * Run the specified {@link Tests}, executing up to the specified number of
+     * test {@link Class}es concurrently.
+     * <p>
+     * All test {@link Class}es share a single {@link RunNotifier}, so that the
+     * {@link RunListener}s observe a single {@link Result} and a request to stop
+     * (see {@link #stop()}) halts every in-flight test {@link Class}.  Each test
+     * {@link Class} is executed entirely on one {@link Thread}, which keeps the
+     * {@link Thread} based event attribution of the {@link Listener} correct.
+     *
+     * @param optionsByType  the {@link OptionsByType} controlling the test run
+     * @param tests          the {@link Tests} to run
+     * @param concurrency    the maximum number of test {@link Class}es to run concurrently
+     */
+    private void runTestsConcurrently(OptionsByType optionsByType,
+                                      Tests         tests,
+                                      int           concurrency)
+    {
+        Result      result   = new Result();
+        RunNotifier notifier = createNotifier(result, new Listener(), optionsByType);
+
+        if (!register(notifier))
+        {
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency, new ThreadFactory());
+
+        try
+        {
+            Map<Future<?>, Class<?>> futures = new LinkedHashMap<>();
+
+            for (TestClasses testClasses : tests)
+            {
+                Set<Class<?>> classes = testClasses.resolveTestClasses();
+                Filter        filter  = testClasses.getTestFilter();
+
+                for (Class<?> testClass : classes)
                 {
-                    return;
+                    futures.put(executor.submit(() -> runRequest(createRequest(testClass, filter), notifier, result)),
+                                testClass);
                 }
             }
+
+            for (Map.Entry<Future<?>, Class<?>> entry : futures.entrySet())
+            {
+                try
+                {
+                    entry.getKey().get();
+                }
+                catch (ExecutionException e)
+                {
+                    LOGGER.log(Level.SEVERE,
+                               "Failed to run the test class " + entry.getValue().getName(),
+                               e.getCause());
+                }
+            }
+        }
+        catch (InterruptedException e)
+        {
+            notifier.pleaseStop();
+            Thread.currentThread().interrupt();
+        }
+        finally
+        {
+            executor.shutdownNow();
+
+            unregister(notifier);
+        }
+    }
+
+
+    /**
+     * Run the tests in the specified test {@link Class}, on the calling {@link Thread},
+     * without requiring a test run to have been started.
+     * <p>
+     * This allows the test {@link Class}es of a test suite to be distributed across a number
+     * of {@link JUnitTestRunner}s, one at a time.  Events are raised for the test {@link Class}
+     * as they would be for a test run, and a request to stop (see {@link #stop()}) halts
+     * the test {@link Class} before its next test.
+     *
+     * @param className      the name of the test {@link Class}
+     * @param filter         the optional {@link Filter} to apply (may be <code>null</code>)
+     * @param optionsByType  the {@link OptionsByType} controlling the test run
+     *
+     * @return  <code>true</code> if the test {@link Class} was run, <code>false</code>
+     *          if the {@link JUnitTestRunner} has been stopped
+     *
+     * @throws ClassNotFoundException  when the test {@link Class} can't be loaded
+     */
+    public boolean runTestClass(String        className,
+                                Filter        filter,
+                                OptionsByType optionsByType) throws ClassNotFoundException
+    {
+        Class<?>    testClass = Class.forName(className);
+        Result      result    = new Result();
+        RunNotifier notifier  = createNotifier(result, new AcknowledgingListener(), optionsByType);
+
+        if (!register(notifier))
+        {
+            return false;
         }
+
+        try
+        {
+            runRequest(createRequest(testClass, filter), notifier, result);
+        }
+        finally
+        {
+            unregister(notifier);
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Create a {@link RunNotifier} notifying the {@link Result}, the {@link Listener}
+     * and the {@link RunListener}s specified by the {@link OptionsByType}.
+     *
+     * @param result         the {@link Result}
+     * @param listener       the {@link Listener}
+     * @param optionsByType  the {@link OptionsByType} controlling the test run
+     *
+     * @return  the {@link RunNotifier}
+     */
+    private RunNotifier createNotifier(Result        result,
+                                       Listener      listener,
+                                       OptionsByType optionsByType)
+    {
+        RunNotifier notifier = new RunNotifier();
+
+        notifier.addListener(result.createListener());
+        notifier.addListener(listener);
+
+        for (RunListener runListener : optionsByType.getInstancesOf(RunListener.class))
+        {
+            // non-thread-safe listeners are serialized by the notifier
+            notifier.addListener(runListener);
+        }
+
+        return notifier;
+    }
+
+
+    /**
+     * Register an in-flight {@link RunNotifier}, so that it may be stopped.
+     *
+     * @param notifier  the {@link RunNotifier}
+     *
+     * @return  <code>true</code> if registered, <code>false</code> when the
+     *          {@link JUnitTestRunner} has been stopped
+     */
+    private boolean register(RunNotifier notifier)
+    {
+        synchronized (MONITOR)
+        {
+            return state != State.Stopped && notifiers.add(notifier);
+        }
+    }
+
+
+    /**
+     * Unregister a previously registered {@link RunNotifier}.
+     *
+     * @param notifier  the {@link RunNotifier}
+     */
+    private void unregister(RunNotifier notifier)
+    {
+        synchronized (MONITOR)
+        {
+            notifiers.remove(notifier);
+        }
+    }
+
+
+    /**
+     * Run the specified {@link Request} using the provided {@link RunNotifier},
+     * in the same manner as a {@link JUnitCore}, unless the {@link JUnitTestRunner}
+     * has been stopped.
+     *
+     * @param request   the {@link Request} to run
+     * @param notifier  the {@link RunNotifier} to notify
+     * @param result    the {@link Result} to report when the {@link Request} has been run
+     */
+    private void runRequest(Request     request,
+                            RunNotifier notifier,
+                            Result      result)
+    {
+        if (state == State.Stopped)
+        {
+            return;
+        }
+
+        Runner runner = request.getRunner();
+
+        notifier.fireTestRunStarted(runner.getDescription());
+
+        try
+        {
+            runner.run(notifier);
+        }
+        catch (StoppedByUserException e)
+        {
+            // SKIP: the test run was stopped while the class was in-flight
+        }
+        finally
+        {
+            notifier.fireTestRunFinished(result);
+        }
+    }
+
+
+    /**
+     * Create a {@link Request} to run the specified test {@link Class}.
+     *
+     * @param testClass  the test {@link Class}
+     * @param filter     the optional {@link Filter} to apply (may be <code>null</code>)
+     *
+     * @return  the {@link Request}
+     */
+    private static Request createRequest(Class<?> testClass,
+                                         Filter   filter)
+    {
+        Request request = Request.aClass(testClass);
+
+        return filter == null ? request : request.filterWith(filter);
     }
 
 
@@ -366,7 +623,10 @@ public class JUnitTestRunner implements Runnable
      * Set the current state to {@link State#Stopped}, which will cause
      * the application to exit.
      * <p>
-     * If a test run is in progress it will be halted after the current test class has completed.
+     * If a sequential test run is in progress it will be halted after the current test class has completed.
+     * If a concurrent test run is in progress, or test classes are being run individually
+     * (see {@link #runTestClass(String, Filter, OptionsByType)}), every in-flight test class will
+     * be halted before its next test.
      */
     public void stop()
     {
@@ -378,6 +638,9 @@ public class JUnitTestRunner implements Runnable
         synchronized (MONITOR)
         {
             state = State.Stopped;
+
+            notifiers.forEach(RunNotifier::pleaseStop);
+
             MONITOR.notifyAll();
         }
     }
@@ -401,7 +664,11 @@ public class JUnitTestRunner implements Runnable
     /**
      * An instance of a JUnit {@link RunListener} that listens for JUnit run events
      * and forwards them on the the {@link RemoteChannel} as {@link JUnitTestListener.Event}s.
+     * <p>
+     * As the state of the current test run is held per {@link Thread}, a single {@link Listener}
+     * may observe test classes being run concurrently, each on its own {@link Thread}.
      */
+    @RunListener.ThreadSafe
     public static class Listener extends RunListener
     {
         /**
@@ -697,6 +964,36 @@ public class JUnitTestRunner implements Runnable
     }
 
 
+    /**
+     * A {@link Listener} that waits for the final {@link JUnitTestListener.Event} of a
+     * test run to be processed, so that all of the {@link JUnitTestListener.Event}s for a test
+     * {@link Class} have been processed before the test {@link Class} is considered complete.
+     */
+    @RunListener.ThreadSafe
+    private static class AcknowledgingListener extends Listener
+    {
+        @Override
+        protected void raiseEvent(JUnitTestListener.Event event)
+        {
+            if (channel != null && event.getType() == JUnitTestListener.Event.Type.testRunFinished)
+            {
+                try
+                {
+                    channel.raise(event, STREAM_NAME, RemoteChannel.AcknowledgeWhen.PROCESSED).join();
+                }
+                catch (RuntimeException e)
+                {
+                    // SKIP: the channel has been closed
+                }
+            }
+            else
+            {
+                super.raiseEvent(event);
+            }
+        }
+    }
+
+
     /**
      * A {@link RemoteCallable} to use to start a test run.
      */
@@ -813,6 +1110,132 @@ public class JUnitTestRunner implements Runnable
     }
 
 
+    /**
+     * A {@link RemoteCallable} to use to run the tests in a single test {@link Class}.
+     */
+    public static class RunTestClass implements RemoteCallable<Boolean>
+    {
+        /**
+         * The {@link JUnitTestRunner} to use to run tests.
+         */
+        private transient JUnitTestRunner runner = JUnitTestRunner.INSTANCE;
+
+        /**
+         * The name of the test {@link Class} to run.
+         */
+        private String className;
+
+        /**
+         * The {@link TestClasses} from which the test {@link Class} was resolved.
+         */
+        private TestClasses testClasses;
+
+        /**
+         * The {@link Option}s to use for the test run.
+         */
+        private Option[] options;
+
+
+        /**
+         * Create a {@link RunTestClass} for the specified test {@link Class}.
+         *
+         * @param className      the name of the test {@link Class} to run
+         * @param testClasses    the {@link TestClasses} from which the test {@link Class}
+         *                       was resolved, defining the {@link Filter} to apply
+         * @param optionsByType  the {@link OptionsByType}s to use
+         */
+        public RunTestClass(String        className,
+                            TestClasses   testClasses,
+                            OptionsByType optionsByType)
+        {
+            this.className   = className;
+            this.testClasses = testClasses;
+            this.options     = new StartTests(optionsByType).getOptions();
+        }
+
+
+        /**
+         * Obtain the name of the test {@link Class} to run.
+         *
+         * @return  the name of the test {@link Class} to run
+         */
+        public String getClassName()
+        {
+            return className;
+        }
+
+
+        @Override
+        public Boolean call() throws Exception
+        {
+            if (runner == null)
+            {
+                runner = JUnitTestRunner.INSTANCE;
+            }
+
+            Filter filter = testClasses == null ? null : testClasses.getTestFilter();
+
+            return runner.runTestClass(className, filter, OptionsByType.of(options));
+        }
+
+
+        /**
+         * Set the {@link JUnitTestRunner} to use to run tests.
+         *
+         * @param runner  the {@link JUnitTestRunner} to use to
+         *                run tests
+         */
+        public void setRunner(JUnitTestRunner runner)
+        {
+            this.runner = runner;
+        }
+
+
+        /**
+         * Custom Java serialization logic (see {@link StartTests}).
+         *
+         * @param out  the stream to serialize to
+         *
+         * @throws IOException  if an error occurs
+         */
+        private void writeObject(ObjectOutputStream out) throws IOException
+        {
+            out.writeObject(className);
+            out.writeObject(testClasses);
+            out.writeInt(options.length);
+
+            for (Option option : options)
+            {
+                out.writeObject(option);
+            }
+        }
+
+
+        /**
+         * Custom Java serialization logic (see {@link StartTests}).
+         *
+         * @param in  the stream to deserialize from
+         *
+         * @throws IOException             when the option can't be read
+         * @throws ClassNotFoundException  when the option class can't be found
+         */
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+        {
+            className   = (String) in.readObject();
+            testClasses = (TestClasses) in.readObject();
+
+            int length = in.readInt();
+
+            options = new Option[length];
+
+            for (int i = 0; i < length; i++)
+            {
+                options[i] = (Option) in.readObject();
+            }
+        }
+    }
+
+
     /**
      * A {@link RemoteCallable} to use to stop a test run.
      */
@@ -847,4 +1270,29 @@ public class JUnitTestRunner implements Runnable
             runner.stop();
         }
     }
+
+
+    /**
+     * A {@link java.util.concurrent.ThreadFactory} producing daemon {@link Thread}s
+     * for running test classes concurrently.
+     */
+    private static class ThreadFactory implements java.util.concurrent.ThreadFactory
+    {
+        /**
+         * The number of {@link Thread}s created.
+         */
+        private final AtomicInteger count = new AtomicInteger(0);
+
+
+        @Override
+        public Thread newThread(Runnable runnable)
+        {
+            Thread thread = new Thread(runnable);
+
+            thread.setDaemon(true);
+            thread.setName("JUnitTestRunner-" + count.incrementAndGet());
+
+            return thread;
+        }
+    }
 }
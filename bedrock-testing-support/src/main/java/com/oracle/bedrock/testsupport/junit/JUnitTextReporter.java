@@ -70,6 +70,20 @@ public class JUnitTextReporter extends JUnitReporter
     }
 
 
+    /**
+     * Create a {@link JUnitTextReporter} that prints the
+     * report to a file in the specified folder.
+     *
+     * @param  reportFolder  the folder to print the report file to
+     * @param  asynchronous  should reports be written by a background {@link Thread}
+     */
+    public JUnitTextReporter(File    reportFolder,
+                             boolean asynchronous)
+    {
+        super(reportFolder, asynchronous);
+    }
+
+
     @Override
     public void writeReport(PrintStream out,
                             TestResults test)
@@ -135,7 +149,8 @@ public class JUnitTextReporter extends JUnitReporter
 
     /**
      * Obtain a {@link JUnitTextReporter} as an {@link Option}
-     * that will print test reports to the specified folder.
+     * that will print test reports to the specified folder,
+     * using a background {@link Thread}.
      *
      * @param folder  the folder to print test reports to
      *
@@ -149,7 +164,7 @@ public class JUnitTextReporter extends JUnitReporter
             throw new IllegalStateException("Report folder exists but is not a directory " + folder);
         }
 
-        return new JUnitTextReporter(folder).asOption();
+        return new JUnitTextReporter(folder, true).asOption();
     }
 
 
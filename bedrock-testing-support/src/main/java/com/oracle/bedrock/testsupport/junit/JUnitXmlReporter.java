@@ -33,6 +33,10 @@ import java.util.Properties;
 import java.util.Queue;
 import java.util.TreeSet;
 
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
 /**
  * An implementation of a {@link JUnitReporter} that produces an XML based report
  * in the same format as that produced by the Maven Surefire plugin.
@@ -44,6 +48,11 @@ import java.util.TreeSet;
  */
 public class JUnitXmlReporter extends JUnitReporter
 {
+    /**
+     * The {@link XMLOutputFactory} used to create the {@link XMLStreamWriter}s for reports.
+     */
+    private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
     /**
      * Constructs a {@link JUnitXmlReporter}.
      */
@@ -64,94 +73,245 @@ public class JUnitXmlReporter extends JUnitReporter
     }
 
 
+    /**
+     * Constructs a {@link JUnitXmlReporter}.
+     *
+     * @param reportFolder  the report folder
+     * @param asynchronous  should reports be written by a background {@link Thread}
+     */
+    public JUnitXmlReporter(File    reportFolder,
+                            boolean asynchronous)
+    {
+        super(reportFolder, asynchronous);
+    }
+
+
     @Override
     public void writeReport(PrintStream out,
                             TestResults test)
     {
         Queue<Event> results = test.getEvents();
 
-        out.println("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
-
-        out.printf("<testsuite name=\"%s\" time=\"%.3f\" tests=\"%d\" errors=\"%d\" skipped=\"%d\" failures=\"%d\">\n",
-                   test.getClassName(),
-                   test.getTestTime(),
-                   results.size(),
-                   test.getErrorCount(),
-                   test.getSkipCount(),
-                   test.getFailureCount());
-
-        Properties properties = getTestProperties();
-
-        if (properties != null)
+        try
         {
-            out.println("  <properties>");
+            // the XMLStreamWriter escapes the names, messages and properties and streams
+            // the report directly to the PrintStream
+            XMLStreamWriter xml = XML_OUTPUT_FACTORY.createXMLStreamWriter(out, "UTF-8");
 
-            for (String name : new TreeSet<>(properties.stringPropertyNames()))
-            {
-                out.printf("    <property name=\"%s\" value=\"%s\"/>\n", name, properties.getProperty(name));
-            }
+            xml.writeStartDocument("UTF-8", "1.0");
+            xml.writeCharacters("\n");
 
-            out.println("  </properties>");
-        }
-
-        for (Event result : results)
-        {
-            float testTime = ((float) result.getTime()) / 1000.0f;
+            xml.writeStartElement("testsuite");
+            xml.writeAttribute("name", sanitize(test.getClassName()));
+            xml.writeAttribute("time", String.format("%.3f", test.getTestTime()));
+            xml.writeAttribute("tests", String.valueOf(results.size()));
+            xml.writeAttribute("errors", String.valueOf(test.getErrorCount()));
+            xml.writeAttribute("skipped", String.valueOf(test.getSkipCount()));
+            xml.writeAttribute("failures", String.valueOf(test.getFailureCount()));
 
-            out.printf("  <testcase name=\"%s\" classname=\"%s\" time=\"%.3f\"",
-                       result.getName(),
-                       result.getClassName(),
-                       testTime);
+            Properties properties = getTestProperties();
 
-            if (result.isSkipped())
+            if (properties != null)
             {
-                String message = result.getMessage();
+                xml.writeCharacters("\n  ");
+                xml.writeStartElement("properties");
 
-                if (message == null)
-                {
-                    out.println(">\n    <skipped/>");
-                }
-                else
+                for (String name : new TreeSet<>(properties.stringPropertyNames()))
                 {
-                    out.printf(">\n    <skipped message=\"%s\"/>\n", message);
+                    xml.writeCharacters("\n    ");
+                    xml.writeEmptyElement("property");
+                    xml.writeAttribute("name", sanitize(name));
+                    xml.writeAttribute("value", sanitize(properties.getProperty(name)));
                 }
 
-                out.println("  </testcase>");
+                xml.writeCharacters("\n  ");
+                xml.writeEndElement();
             }
-            else if (result.isFailure() || result.isError())
+
+            for (Event result : results)
             {
-                String exception = result.getException();
-                String message   = result.getMessage();
+                float testTime = ((float) result.getTime()) / 1000.0f;
+
+                xml.writeCharacters("\n  ");
+
+                if (result.isSkipped())
+                {
+                    xml.writeStartElement("testcase");
+                    writeTestCaseAttributes(xml, result, testTime);
+
+                    xml.writeCharacters("\n    ");
+                    xml.writeEmptyElement("skipped");
 
-                out.printf(">\n    <failure message=\"%s\" type=\"%s\"", message, exception);
+                    String message = result.getMessage();
 
-                StackTraceElement[] stackTrace = result.getStackTrace();
+                    if (message != null)
+                    {
+                        xml.writeAttribute("message", sanitize(message));
+                    }
 
-                if (stackTrace != null)
+                    xml.writeCharacters("\n  ");
+                    xml.writeEndElement();
+                }
+                else if (result.isFailure() || result.isError())
                 {
-                    out.printf("><![CDATA[%s: %s\n", exception, message);
+                    String              exception  = result.getException();
+                    String              message    = result.getMessage();
+                    StackTraceElement[] stackTrace = result.getStackTrace();
 
-                    for (StackTraceElement element : stackTrace)
+                    xml.writeStartElement("testcase");
+                    writeTestCaseAttributes(xml, result, testTime);
+
+                    xml.writeCharacters("\n    ");
+
+                    if (stackTrace == null)
                     {
-                        out.println("\tat " + element.toString());
+                        xml.writeEmptyElement("failure");
+                        writeFailureAttributes(xml, message, exception);
                     }
+                    else
+                    {
+                        xml.writeStartElement("failure");
+                        writeFailureAttributes(xml, message, exception);
 
-                    out.println("]]></failure>");
+                        StringBuilder trace = new StringBuilder();
+
+                        trace.append(exception).append(": ").append(message).append('\n');
+
+                        for (StackTraceElement element : stackTrace)
+                        {
+                            trace.append("\tat ").append(element).append('\n');
+                        }
+
+                        writeCData(xml, sanitize(trace.toString()));
+
+                        xml.writeEndElement();
+                    }
+
+                    xml.writeCharacters("\n  ");
+                    xml.writeEndElement();
                 }
                 else
                 {
-                    out.println("/>");
+                    xml.writeEmptyElement("testcase");
+                    writeTestCaseAttributes(xml, result, testTime);
                 }
+            }
+
+            xml.writeCharacters("\n");
+            xml.writeEndElement();
+            xml.writeCharacters("\n");
+            xml.writeEndDocument();
 
-                out.println("  </testcase>");
+            // closing the XMLStreamWriter doesn't close the underlying PrintStream
+            xml.close();
+            out.flush();
+        }
+        catch (XMLStreamException e)
+        {
+            throw new RuntimeException("Failed to write the JUnit XML report for " + test.getClassName(), e);
+        }
+    }
+
+
+    /**
+     * Write the attributes of a testcase element for the specified {@link Event}.
+     *
+     * @param xml       the {@link XMLStreamWriter} to write to
+     * @param result    the {@link Event} of the test
+     * @param testTime  the time (in seconds) taken by the test
+     *
+     * @throws XMLStreamException  when the attributes could not be written
+     */
+    private void writeTestCaseAttributes(XMLStreamWriter xml,
+                                         Event           result,
+                                         float           testTime) throws XMLStreamException
+    {
+        xml.writeAttribute("name", sanitize(result.getName()));
+        xml.writeAttribute("classname", sanitize(result.getClassName()));
+        xml.writeAttribute("time", String.format("%.3f", testTime));
+    }
+
+
+    /**
+     * Write the attributes of a failure element.
+     *
+     * @param xml        the {@link XMLStreamWriter} to write to
+     * @param message    the failure message
+     * @param exception  the name of the exception that caused the failure
+     *
+     * @throws XMLStreamException  when the attributes could not be written
+     */
+    private void writeFailureAttributes(XMLStreamWriter xml,
+                                        String          message,
+                                        String          exception) throws XMLStreamException
+    {
+        xml.writeAttribute("message", sanitize(message));
+        xml.writeAttribute("type", sanitize(exception));
+    }
+
+
+    /**
+     * Write the specified text as CDATA, splitting the CDATA section wherever the text
+     * contains the CDATA terminator.
+     *
+     * @param xml   the {@link XMLStreamWriter} to write to
+     * @param text  the text to write
+     *
+     * @throws XMLStreamException  when the CDATA could not be written
+     */
+    private void writeCData(XMLStreamWriter xml,
+                            String          text) throws XMLStreamException
+    {
+        int start = 0;
+        int end   = text.indexOf("]]>");
+
+        while (end >= 0)
+        {
+            // end the section between the "]]" and ">" of the terminator
+            xml.writeCData(text.substring(start, end + 2));
+
+            start = end + 2;
+            end   = text.indexOf("]]>", start);
+        }
+
+        xml.writeCData(text.substring(start));
+    }
+
+
+    /**
+     * Obtain the specified text without the characters that can't be represented in XML 1.0,
+     * each of which is replaced with a '?'.
+     *
+     * @param text  the text to sanitize (may be null)
+     *
+     * @return  the sanitized text (the String "null" when the text is null)
+     */
+    static String sanitize(String text)
+    {
+        if (text == null)
+        {
+            return "null";
+        }
+
+        StringBuilder builder = null;
+
+        for (int i = 0; i < text.length(); i++)
+        {
+            char    c     = text.charAt(i);
+            boolean valid = c == '\t' || c == '\n' || c == '\r' || (c >= 0x20 && c <= 0xFFFD);
+
+            if (!valid && builder == null)
+            {
+                builder = new StringBuilder(text.length()).append(text, 0, i);
             }
-            else
+
+            if (builder != null)
             {
-                out.println("/>");
+                builder.append(valid ? c : '?');
             }
         }
 
-        out.println("</testsuite>");
+        return builder == null ? text : builder.toString();
     }
 
 
@@ -174,7 +334,7 @@ public class JUnitXmlReporter extends JUnitReporter
             throw new IllegalStateException("Report folder exists but is not a directory " + folder);
         }
 
-        return new JUnitXmlReporter(folder).asOption();
+        return new JUnitXmlReporter(folder, true).asOption();
     }
 
 
@@ -0,0 +1,887 @@
+/*
+ * File: TestClassIndex.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of 
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+
+package com.oracle.bedrock.testsupport.junit;
+
+import com.oracle.bedrock.annotations.Internal;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * An index of the classes on a class path, built by reading class files without
+ * loading (or initializing) the classes they define, used to determine which classes
+ * may be tests.
+ * <p>
+ * The entries of a class path are scanned concurrently.  The classes read from each
+ * archive and class file are shared by all {@link TestClassIndex}es, so that entries
+ * that have not been modified (according to their last modified time and length)
+ * are not scanned again.
+ * <p>
+ * The candidate test classes are a superset of those accepted by a
+ * {@link TestClassPredicate}, which should be used to test the candidates once loaded.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+@Internal
+public class TestClassIndex
+{
+    /**
+     * The {@link Scan}s of archives and class files, shared by all {@link TestClassIndex}es,
+     * keyed by their absolute path.
+     */
+    private static final ConcurrentHashMap<String, Scan> SCANS = new ConcurrentHashMap<>();
+
+    /**
+     * The class file access flag for an interface.
+     */
+    private static final int ACC_INTERFACE = 0x0200;
+
+    /**
+     * The class file access flag for an annotation.
+     */
+    private static final int ACC_ANNOTATION = 0x2000;
+
+    /**
+     * The class file access flag for an enum.
+     */
+    private static final int ACC_ENUM = 0x4000;
+
+    /**
+     * The class file access flag for a public member.
+     */
+    private static final int ACC_PUBLIC = 0x0001;
+
+    /**
+     * The class file access flag for a static member.
+     */
+    private static final int ACC_STATIC = 0x0008;
+
+    /**
+     * The descriptor of the JUnit {@link org.junit.runner.RunWith} annotation.
+     */
+    private static final String RUN_WITH = "Lorg/junit/runner/RunWith;";
+
+    /**
+     * The descriptor of the JUnit {@link org.junit.Test} annotation.
+     */
+    private static final String TEST = "Lorg/junit/Test;";
+
+    /**
+     * The internal name of the JUnit 3 {@link junit.framework.Test} interface.
+     */
+    private static final String JUNIT3_TEST = "junit/framework/Test";
+
+    /**
+     * The {@link ClassInfo}s of the index, keyed by internal class name.
+     * (when a class appears more than once on the class path, the first is indexed)
+     */
+    private final Map<String, ClassInfo> classes;
+
+
+    /**
+     * Constructs a {@link TestClassIndex}.
+     *
+     * @param classes  the {@link ClassInfo}s, in class path order
+     */
+    TestClassIndex(Collection<ClassInfo> classes)
+    {
+        this.classes = new LinkedHashMap<>();
+
+        for (ClassInfo info : classes)
+        {
+            this.classes.putIfAbsent(info.name, info);
+        }
+    }
+
+
+    /**
+     * Obtains a {@link TestClassIndex} for the specified class path entries (directories and
+     * archives), reusing previous scans of archives and class files that have not been modified.
+     *
+     * @param paths  the class path entries
+     *
+     * @return a {@link TestClassIndex}
+     *
+     * @throws IOException  when an entry can't be scanned
+     */
+    public static TestClassIndex of(List<Path> paths) throws IOException
+    {
+        try
+        {
+            List<List<ClassInfo>> scanned = paths.parallelStream().map(path -> {
+                                                                           try
+                                                                           {
+                                                                               return scan(path);
+                                                                           }
+                                                                           catch (IOException e)
+                                                                           {
+                                                                               throw new ScanException(e);
+                                                                           }
+                                                                       }).collect(Collectors.toList());
+
+            List<ClassInfo> classes = new ArrayList<>();
+
+            scanned.forEach(classes::addAll);
+
+            return new TestClassIndex(classes);
+        }
+        catch (ScanException e)
+        {
+            throw e.getCause();
+        }
+    }
+
+
+    /**
+     * Scans the specified class path entry for classes.
+     *
+     * @param path  the class path entry
+     *
+     * @return the {@link ClassInfo}s of the classes in the entry
+     *
+     * @throws IOException  when the entry can't be scanned
+     */
+    private static List<ClassInfo> scan(Path path) throws IOException
+    {
+        if (Files.isDirectory(path))
+        {
+            List<ClassInfo> classes = new ArrayList<>();
+
+            Files.walkFileTree(path,
+                               new SimpleFileVisitor<Path>()
+                               {
+                                   @Override
+                                   public FileVisitResult visitFile(Path                file,
+                                                                    BasicFileAttributes attributes) throws IOException
+                                   {
+                                       if (file.getFileName().toString().endsWith(".class"))
+                                       {
+                                           classes.addAll(getScan(file, attributes).classes);
+                                       }
+
+                                       return FileVisitResult.CONTINUE;
+                                   }
+                               });
+
+            return classes;
+        }
+        else if (Files.isRegularFile(path))
+        {
+            return getScan(path, Files.readAttributes(path, BasicFileAttributes.class)).classes;
+        }
+        else
+        {
+            return Collections.emptyList();
+        }
+    }
+
+
+    /**
+     * Obtains the shared {@link Scan} of the specified archive or class file, scanning
+     * it if it has not been scanned or has been modified since it was scanned.
+     *
+     * @param file        the archive or class file
+     * @param attributes  the {@link BasicFileAttributes} of the file
+     *
+     * @return the {@link Scan}
+     *
+     * @throws IOException  when the file can't be read
+     */
+    private static Scan getScan(Path                file,
+                                BasicFileAttributes attributes) throws IOException
+    {
+        String key      = file.toAbsolutePath().toString();
+        long   modified = attributes.lastModifiedTime().toMillis();
+        long   length   = attributes.size();
+        Scan   scan     = SCANS.get(key);
+
+        if (scan == null || scan.modified != modified || scan.length != length)
+        {
+            List<ClassInfo> classes = new ArrayList<>();
+
+            if (file.getFileName().toString().endsWith(".class"))
+            {
+                try (InputStream in = Files.newInputStream(file))
+                {
+                    add(classes, in);
+                }
+            }
+            else
+            {
+                try (ZipFile zipFile = new ZipFile(file.toFile()))
+                {
+                    for (Enumeration<? extends ZipEntry> entries = zipFile.entries(); entries.hasMoreElements(); )
+                    {
+                        ZipEntry entry = entries.nextElement();
+                        String   name  = entry.getName();
+
+                        // versioned classes of multi-release jars are not scanned
+                        if (!entry.isDirectory() && name.endsWith(".class") &&!name.startsWith("META-INF/"))
+                        {
+                            try (InputStream in = zipFile.getInputStream(entry))
+                            {
+                                add(classes, in);
+                            }
+                        }
+                    }
+                }
+            }
+
+            scan = new Scan(modified, length, Collections.unmodifiableList(classes));
+
+            SCANS.put(key, scan);
+        }
+
+        return scan;
+    }
+
+
+    /**
+     * Reads and adds the {@link ClassInfo} of a class file to a {@link List}, ignoring
+     * class files that can't be read.
+     *
+     * @param classes  the {@link List} of {@link ClassInfo}s
+     * @param in       the {@link InputStream} of the class file
+     */
+    private static void add(List<ClassInfo> classes,
+                            InputStream     in)
+    {
+        try
+        {
+            ClassInfo info = read(in);
+
+            if (info != null)
+            {
+                classes.add(info);
+            }
+        }
+        catch (IOException | RuntimeException e)
+        {
+            // SKIP: an unreadable class file can't be a test
+        }
+    }
+
+
+    /**
+     * Obtains the number of classes in the {@link TestClassIndex}.
+     *
+     * @return the number of classes
+     */
+    public int size()
+    {
+        return classes.size();
+    }
+
+
+    /**
+     * Obtains the {@link ClassInfo} for the specified class.
+     *
+     * @param className  the binary name of the class
+     *
+     * @return the {@link ClassInfo} or <code>null</code> if the class is not indexed
+     */
+    public ClassInfo getClassInfo(String className)
+    {
+        return classes.get(className.replace('.', '/'));
+    }
+
+
+    /**
+     * Obtains the binary names of the classes that may be tests, in class path order.
+     *
+     * @return the {@link Set} of candidate test class names
+     */
+    public Set<String> getCandidateClassNames()
+    {
+        Set<String> classNames = new LinkedHashSet<>();
+
+        for (ClassInfo info : classes.values())
+        {
+            if (isCandidate(info))
+            {
+                classNames.add(info.getClassName());
+            }
+        }
+
+        return classNames;
+    }
+
+
+    /**
+     * Determines whether the specified class may be a test, that is, whether a
+     * {@link TestClassPredicate} could accept the class once loaded.  When the
+     * hierarchy of the class can't be determined from the index the class is a candidate.
+     *
+     * @param info  the {@link ClassInfo}
+     *
+     * @return <code>true</code> if the class may be a test
+     */
+    boolean isCandidate(ClassInfo info)
+    {
+        if ((info.access & (ACC_INTERFACE | ACC_ANNOTATION | ACC_ENUM)) != 0 || info.isAnonymous())
+        {
+            return false;
+        }
+
+        if (info.hasSuiteMethod)
+        {
+            return true;
+        }
+
+        Set<String> visited = new HashSet<>();
+
+        for (ClassInfo current = info; current != null; )
+        {
+            // @RunWith is inherited and @Test methods are found in super classes
+            if (current.hasRunWith || current.hasTestMethod || isJUnit3Test(current.interfaces, visited))
+            {
+                return true;
+            }
+
+            String superName = current.superName;
+
+            if (superName == null || isPlatformClass(superName) ||!visited.add(superName))
+            {
+                return false;
+            }
+
+            current = classes.get(superName);
+
+            if (current == null)
+            {
+                // the super class isn't indexed, so we can't rule it out
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Determines whether any of the specified interfaces may be (or extend) the
+     * JUnit 3 {@link junit.framework.Test} interface.
+     *
+     * @param interfaces  the internal names of the interfaces
+     * @param visited     the internal names of the classes and interfaces already visited
+     *
+     * @return <code>true</code> if an interface may be a JUnit 3 test
+     */
+    private boolean isJUnit3Test(String[]    interfaces,
+                                 Set<String> visited)
+    {
+        for (String name : interfaces)
+        {
+            if (JUNIT3_TEST.equals(name))
+            {
+                return true;
+            }
+
+            if (isPlatformClass(name) ||!visited.add(name))
+            {
+                continue;
+            }
+
+            ClassInfo info = classes.get(name);
+
+            if (info == null || isJUnit3Test(info.interfaces, visited))
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Determines whether the specified class is provided by the Java platform,
+     * and thus can't be (or extend) a test.
+     *
+     * @param name  the internal name of the class
+     *
+     * @return <code>true</code> if the class is provided by the Java platform
+     */
+    private static boolean isPlatformClass(String name)
+    {
+        return name.startsWith("java/") || name.startsWith("javax/") || name.startsWith("sun/")
+               || name.startsWith("jdk/");
+    }
+
+
+    /**
+     * Reads the {@link ClassInfo} from the bytes of a class file.
+     *
+     * @param in  the {@link InputStream} of the class file
+     *
+     * @return the {@link ClassInfo} or <code>null</code> if the stream is not a class file
+     *
+     * @throws IOException  when the class file can't be read
+     */
+    static ClassInfo read(InputStream in) throws IOException
+    {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+
+        if (data.readInt() != 0xCAFEBABE)
+        {
+            return null;
+        }
+
+        // skip the minor and major versions
+        data.readUnsignedShort();
+        data.readUnsignedShort();
+
+        // read the constant pool, retaining the utf8 and class entries
+        int      count     = data.readUnsignedShort();
+        String[] utf8      = new String[count];
+        int[]    classRefs = new int[count];
+
+        for (int i = 1; i < count; i++)
+        {
+            int tag = data.readUnsignedByte();
+
+            switch (tag)
+            {
+            case 1 :    // Utf8
+                utf8[i] = data.readUTF();
+                break;
+
+            case 7 :    // Class
+                classRefs[i] = data.readUnsignedShort();
+                break;
+
+            case 8 :     // String
+            case 16 :    // MethodType
+            case 19 :    // Module
+            case 20 :    // Package
+                data.skipBytes(2);
+                break;
+
+            case 15 :    // MethodHandle
+                data.skipBytes(3);
+                break;
+
+            case 3 :     // Integer
+            case 4 :     // Float
+            case 9 :     // Fieldref
+            case 10 :    // Methodref
+            case 11 :    // InterfaceMethodref
+            case 12 :    // NameAndType
+            case 17 :    // Dynamic
+            case 18 :    // InvokeDynamic
+                data.skipBytes(4);
+                break;
+
+            case 5 :    // Long
+            case 6 :    // Double
+                data.skipBytes(8);
+                i++;
+                break;
+
+            default :
+                throw new IOException("Unknown constant pool tag " + tag);
+            }
+        }
+
+        int      access     = data.readUnsignedShort();
+        String   name       = utf8[classRefs[data.readUnsignedShort()]];
+        int      superIndex = data.readUnsignedShort();
+        String   superName  = superIndex == 0 ? null : utf8[classRefs[superIndex]];
+        String[] interfaces = new String[data.readUnsignedShort()];
+
+        for (int i = 0; i < interfaces.length; i++)
+        {
+            interfaces[i] = utf8[classRefs[data.readUnsignedShort()]];
+        }
+
+        // skip the fields
+        for (int fields = data.readUnsignedShort(); fields > 0; fields--)
+        {
+            data.skipBytes(6);
+            skipAttributes(data);
+        }
+
+        boolean hasTestMethod  = false;
+        boolean hasSuiteMethod = false;
+
+        for (int methods = data.readUnsignedShort(); methods > 0; methods--)
+        {
+            int    methodAccess = data.readUnsignedShort();
+            String methodName   = utf8[data.readUnsignedShort()];
+            String descriptor   = utf8[data.readUnsignedShort()];
+
+            if ("suite".equals(methodName)
+                && descriptor.startsWith("()L")
+                && (methodAccess & (ACC_PUBLIC | ACC_STATIC)) == (ACC_PUBLIC | ACC_STATIC))
+            {
+                hasSuiteMethod = true;
+            }
+
+            hasTestMethod |= readAnnotations(data, utf8).contains(TEST);
+        }
+
+        boolean hasRunWith = readAnnotations(data, utf8).contains(RUN_WITH);
+
+        return new ClassInfo(name, superName, interfaces, access, hasRunWith, hasTestMethod, hasSuiteMethod);
+    }
+
+
+    /**
+     * Reads the attributes of a class file structure, returning the descriptors of
+     * the runtime visible annotations.
+     *
+     * @param data  the {@link DataInputStream}
+     * @param utf8  the utf8 entries of the constant pool
+     *
+     * @return the annotation descriptors
+     *
+     * @throws IOException  when the class file can't be read
+     */
+    private static Set<String> readAnnotations(DataInputStream data,
+                                               String[]        utf8) throws IOException
+    {
+        Set<String> annotations = Collections.emptySet();
+
+        for (int attributes = data.readUnsignedShort(); attributes > 0; attributes--)
+        {
+            String name   = utf8[data.readUnsignedShort()];
+            int    length = data.readInt();
+
+            if ("RuntimeVisibleAnnotations".equals(name))
+            {
+                annotations = new HashSet<>();
+
+                for (int count = data.readUnsignedShort(); count > 0; count--)
+                {
+                    annotations.add(utf8[data.readUnsignedShort()]);
+                    skipElementValuePairs(data);
+                }
+            }
+            else
+            {
+                data.skipBytes(length);
+            }
+        }
+
+        return annotations;
+    }
+
+
+    /**
+     * Skips the attributes of a class file structure.
+     *
+     * @param data  the {@link DataInputStream}
+     *
+     * @throws IOException  when the class file can't be read
+     */
+    private static void skipAttributes(DataInputStream data) throws IOException
+    {
+        for (int attributes = data.readUnsignedShort(); attributes > 0; attributes--)
+        {
+            data.skipBytes(2);
+            data.skipBytes(data.readInt());
+        }
+    }
+
+
+    /**
+     * Skips the element value pairs of an annotation.
+     *
+     * @param data  the {@link DataInputStream}
+     *
+     * @throws IOException  when the class file can't be read
+     */
+    private static void skipElementValuePairs(DataInputStream data) throws IOException
+    {
+        for (int pairs = data.readUnsignedShort(); pairs > 0; pairs--)
+        {
+            data.skipBytes(2);
+            skipElementValue(data);
+        }
+    }
+
+
+    /**
+     * Skips an annotation element value.
+     *
+     * @param data  the {@link DataInputStream}
+     *
+     * @throws IOException  when the class file can't be read
+     */
+    private static void skipElementValue(DataInputStream data) throws IOException
+    {
+        int tag = data.readUnsignedByte();
+
+        switch (tag)
+        {
+        case 'e' :    // enum constant
+            data.skipBytes(4);
+            break;
+
+        case '@' :    // annotation
+            data.skipBytes(2);
+            skipElementValuePairs(data);
+            break;
+
+        case '[' :    // array
+            for (int values = data.readUnsignedShort(); values > 0; values--)
+            {
+                skipElementValue(data);
+            }
+
+            break;
+
+        default :    // constant or class
+            data.skipBytes(2);
+        }
+    }
+
+
+    /**
+     * The information required to determine whether a class may be a test,
+     * as read from its class file.
+     */
+    public static class ClassInfo
+    {
+        /**
+         * The internal name of the class.
+         */
+        private final String name;
+
+        /**
+         * The internal name of the super class (<code>null</code> for {@link Object}).
+         */
+        private final String superName;
+
+        /**
+         * The internal names of the interfaces directly implemented by the class.
+         */
+        private final String[] interfaces;
+
+        /**
+         * The class file access flags of the class.
+         */
+        private final int access;
+
+        /**
+         * Is the class annotated with {@link org.junit.runner.RunWith}?
+         */
+        private final boolean hasRunWith;
+
+        /**
+         * Does the class declare a method annotated with {@link org.junit.Test}?
+         */
+        private final boolean hasTestMethod;
+
+        /**
+         * Does the class declare a public static suite() method?
+         */
+        private final boolean hasSuiteMethod;
+
+
+        /**
+         * Constructs a {@link ClassInfo}.
+         *
+         * @param name            the internal name of the class
+         * @param superName       the internal name of the super class
+         * @param interfaces      the internal names of the interfaces
+         * @param access          the class file access flags
+         * @param hasRunWith      is the class annotated with {@link org.junit.runner.RunWith}
+         * @param hasTestMethod   does the class declare a method annotated with {@link org.junit.Test}
+         * @param hasSuiteMethod  does the class declare a public static suite() method
+         */
+        ClassInfo(String   name,
+                  String   superName,
+                  String[] interfaces,
+                  int      access,
+                  boolean  hasRunWith,
+                  boolean  hasTestMethod,
+                  boolean  hasSuiteMethod)
+        {
+            this.name           = name;
+            this.superName      = superName;
+            this.interfaces     = interfaces;
+            this.access         = access;
+            this.hasRunWith     = hasRunWith;
+            this.hasTestMethod  = hasTestMethod;
+            this.hasSuiteMethod = hasSuiteMethod;
+        }
+
+
+        /**
+         * Obtains the binary name of the class, as used by {@link Class#forName(String)}.
+         *
+         * @return the binary name of the class
+         */
+        public String getClassName()
+        {
+            return name.replace('/', '.');
+        }
+
+
+        /**
+         * Determines whether the class is anonymous, based on its name.
+         *
+         * @return <code>true</code> if the class is anonymous
+         */
+        public boolean isAnonymous()
+        {
+            int index = name.lastIndexOf('$');
+
+            if (index < 0 || index == name.length() - 1)
+            {
+                return false;
+            }
+
+            for (int i = index + 1; i < name.length(); i++)
+            {
+                if (!Character.isDigit(name.charAt(i)))
+                {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+
+        /**
+         * Determines whether the class is annotated with {@link org.junit.runner.RunWith}.
+         *
+         * @return <code>true</code> if the class is annotated with {@link org.junit.runner.RunWith}
+         */
+        public boolean hasRunWith()
+        {
+            return hasRunWith;
+        }
+
+
+        /**
+         * Determines whether the class declares a method annotated with {@link org.junit.Test}.
+         *
+         * @return <code>true</code> if the class declares a test method
+         */
+        public boolean hasTestMethod()
+        {
+            return hasTestMethod;
+        }
+
+
+        @Override
+        public String toString()
+        {
+            return "ClassInfo{" + getClassName() + "}";
+        }
+    }
+
+
+    /**
+     * The {@link ClassInfo}s read from an archive or class file.
+     */
+    private static class Scan
+    {
+        /**
+         * The last modified time of the file when it was scanned.
+         */
+        private final long modified;
+
+        /**
+         * The length of the file when it was scanned.
+         */
+        private final long length;
+
+        /**
+         * The {@link ClassInfo}s read from the file.
+         */
+        private final List<ClassInfo> classes;
+
+
+        /**
+         * Constructs a {@link Scan}.
+         *
+         * @param modified  the last modified time of the file
+         * @param length    the length of the file
+         * @param classes   the {@link ClassInfo}s read from the file
+         */
+        Scan(long            modified,
+             long            length,
+             List<ClassInfo> classes)
+        {
+            this.modified = modified;
+            this.length   = length;
+            this.classes  = classes;
+        }
+    }
+
+
+    /**
+     * An unchecked wrapper of an {@link IOException} raised while scanning concurrently.
+     */
+    private static class ScanException extends RuntimeException
+    {
+        /**
+         * Constructs a {@link ScanException}.
+         *
+         * @param cause  the {@link IOException}
+         */
+        ScanException(IOException cause)
+        {
+            super(cause);
+        }
+
+
+        @Override
+        public synchronized IOException getCause()
+        {
+            return (IOException) super.getCause();
+        }
+    }
+}
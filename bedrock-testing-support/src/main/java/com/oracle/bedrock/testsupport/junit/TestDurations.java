@@ -0,0 +1,212 @@
+/*
+ * File: TestDurations.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of 
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+
+package com.oracle.bedrock.testsupport.junit;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A history of the time taken to execute test classes, used to order the
+ * test classes of a test suite so that the longest running are executed first.
+ * <p>
+ * A {@link TestDurations} is recorded by a {@link JUnitReporter} and may be persisted
+ * as a properties file, mapping test class names to durations in milliseconds.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+public class TestDurations
+{
+    /**
+     * The name of the file in which a {@link JUnitReporter} persists {@link TestDurations}.
+     */
+    public static final String FILE_NAME = "test-durations.properties";
+
+    /**
+     * The durations (in milliseconds) keyed by test class name.
+     */
+    private final Map<String, Long> durations;
+
+
+    /**
+     * Constructs an empty {@link TestDurations}.
+     */
+    public TestDurations()
+    {
+        this.durations = new ConcurrentHashMap<>();
+    }
+
+
+    /**
+     * Records the time taken to execute the specified test class,
+     * replacing any previously recorded duration.
+     *
+     * @param className  the name of the test class
+     * @param millis     the time taken (in milliseconds)
+     */
+    public void record(String className,
+                       long   millis)
+    {
+        if (className != null && millis >= 0)
+        {
+            durations.put(className, millis);
+        }
+    }
+
+
+    /**
+     * Obtains the recorded time taken to execute the specified test class.
+     *
+     * @param className  the name of the test class
+     *
+     * @return the time taken (in milliseconds) or -1 when unknown
+     */
+    public long getDuration(String className)
+    {
+        Long millis = className == null ? null : durations.get(className);
+
+        return millis == null ? -1 : millis;
+    }
+
+
+    /**
+     * Obtains the number of test classes with recorded durations.
+     *
+     * @return the number of test classes
+     */
+    public int size()
+    {
+        return durations.size();
+    }
+
+
+    /**
+     * Orders the specified test class names longest-running first.
+     * <p>
+     * Test classes without a recorded duration are ordered before all others,
+     * as they may be new and long-running.  Test classes with equal durations are
+     * ordered by name.
+     *
+     * @param classNames  the test class names
+     *
+     * @return a new {@link List} of the ordered test class names
+     */
+    public List<String> longestFirst(Collection<String> classNames)
+    {
+        List<String> list = new ArrayList<>(classNames);
+
+        list.sort(Comparator.comparingLong((String className) -> {
+                                                long millis = getDuration(className);
+
+                                                return millis < 0 ? Long.MIN_VALUE : -millis;
+                                            }).thenComparing(Comparator.naturalOrder()));
+
+        return list;
+    }
+
+
+    /**
+     * Saves the {@link TestDurations} to the specified file, merging them with
+     * those previously saved, so that the durations of test classes that were
+     * not executed are retained.
+     *
+     * @param file  the file
+     *
+     * @throws IOException  when the file can't be read or written
+     */
+    public void save(File file) throws IOException
+    {
+        Properties properties = new Properties();
+
+        if (file.exists())
+        {
+            try (InputStream in = new FileInputStream(file))
+            {
+                properties.load(in);
+            }
+        }
+
+        durations.forEach((className, millis) -> properties.setProperty(className, Long.toString(millis)));
+
+        try (OutputStream out = new FileOutputStream(file))
+        {
+            properties.store(out, "Test class durations (milliseconds)");
+        }
+    }
+
+
+    /**
+     * Loads {@link TestDurations} from the specified file.
+     *
+     * @param file  the file
+     *
+     * @return the {@link TestDurations}, empty when the file doesn't exist
+     *
+     * @throws IOException  when the file can't be read
+     */
+    public static TestDurations load(File file) throws IOException
+    {
+        TestDurations testDurations = new TestDurations();
+
+        if (file != null && file.exists())
+        {
+            Properties properties = new Properties();
+
+            try (InputStream in = new FileInputStream(file))
+            {
+                properties.load(in);
+            }
+
+            for (String className : properties.stringPropertyNames())
+            {
+                try
+                {
+                    testDurations.record(className, Long.parseLong(properties.getProperty(className).trim()));
+                }
+                catch (NumberFormatException e)
+                {
+                    // SKIP: malformed durations are ignored
+                }
+            }
+        }
+
+        return testDurations;
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * File: Concurrency.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of 
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+
+package com.oracle.bedrock.testsupport.junit.options;
+
+import com.oracle.bedrock.Option;
+import com.oracle.bedrock.OptionsByType;
+
+import java.io.Serializable;
+
+/**
+ * An {@link Option} defining the maximum number of test {@link Class}es that a
+ * {@link com.oracle.bedrock.testsupport.junit.JUnitTestRunner} may execute concurrently.
+ * <p>
+ * By default test {@link Class}es are executed sequentially.  When a concurrency greater than one
+ * is specified, independent test {@link Class}es are executed concurrently, each on its own
+ * {@link Thread}, with the tests within each {@link Class} continuing to execute sequentially.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+public class Concurrency implements Option, Serializable
+{
+    /**
+     * The maximum number of test {@link Class}es to execute concurrently.
+     */
+    private final int level;
+
+
+    /**
+     * Constructs a {@link Concurrency}.
+     *
+     * @param level  the maximum number of test {@link Class}es to execute concurrently
+     */
+    private Concurrency(int level)
+    {
+        if (level < 1)
+        {
+            throw new IllegalArgumentException("The concurrency level must be at least 1");
+        }
+
+        this.level = level;
+    }
+
+
+    /**
+     * Obtains the maximum number of test {@link Class}es to execute concurrently.
+     *
+     * @return the concurrency level
+     */
+    public int getLevel()
+    {
+        return level;
+    }
+
+
+    /**
+     * Determines whether test {@link Class}es are executed sequentially.
+     *
+     * @return <code>true</code> when test {@link Class}es are executed sequentially,
+     *         <code>false</code> otherwise
+     */
+    public boolean isSequential()
+    {
+        return level == 1;
+    }
+
+
+    /**
+     * Obtains a {@link Concurrency} that executes test {@link Class}es sequentially.
+     *
+     * @return a sequential {@link Concurrency}
+     */
+    @OptionsByType.Default
+    public static Concurrency sequential()
+    {
+        return new Concurrency(1);
+    }
+
+
+    /**
+     * Obtains a {@link Concurrency} that executes up to the specified number of
+     * test {@link Class}es concurrently.
+     *
+     * @param level  the maximum number of test {@link Class}es to execute concurrently
+     *
+     * @return a {@link Concurrency}
+     */
+    public static Concurrency of(int level)
+    {
+        return new Concurrency(level);
+    }
+
+
+    /**
+     * Obtains a {@link Concurrency} that executes up to one test {@link Class} per
+     * available processor concurrently.
+     *
+     * @return a {@link Concurrency}
+     */
+    public static Concurrency availableProcessors()
+    {
+        return new Concurrency(Math.max(1, Runtime.getRuntime().availableProcessors()));
+    }
+
+
+    @Override
+    public boolean equals(Object other)
+    {
+        if (this == other)
+        {
+            return true;
+        }
+
+        if (!(other instanceof Concurrency))
+        {
+            return false;
+        }
+
+        return level == ((Concurrency) other).level;
+    }
+
+
+    @Override
+    public int hashCode()
+    {
+        return level;
+    }
+
+
+    @Override
+    public String toString()
+    {
+        return "Concurrency{" + level + "}";
+    }
+}
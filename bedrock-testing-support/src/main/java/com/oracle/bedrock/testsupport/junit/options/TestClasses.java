@@ -27,26 +27,20 @@ package com.oracle.bedrock.testsupport.junit.options;
 
 import com.oracle.bedrock.Option;
 import com.oracle.bedrock.OptionsByType;
+import com.oracle.bedrock.testsupport.junit.TestClassIndex;
 import com.oracle.bedrock.testsupport.junit.TestClassPredicate;
 import com.oracle.bedrock.runtime.java.ClassPath;
 import org.junit.runner.Description;
 import org.junit.runner.manipulation.Filter;
 
-import java.io.IOException;
 import java.io.Serializable;
 import java.net.URL;
-import java.nio.file.FileSystem;
-import java.nio.file.FileSystems;
-import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.SimpleFileVisitor;
-import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Predicate;
@@ -338,25 +332,34 @@ public abstract class TestClasses implements Option.Collectable, Option, Seriali
 
                             for (URL url : urLs)
                             {
-                                paths.add(Paths.get(url.toURI()));
-                            }
+                                Path path = Paths.get(url.toURI());
 
-                            for (Path path : paths)
-                            {
-                                if (Files.isDirectory(path))
+                                if (Files.isDirectory(path)
+                                    || (Files.isRegularFile(path)
+                                        && ClassPath.isResourceAnArchive(path.getFileName().toString())))
                                 {
-                                    testClasses.addAll(walkPath(path, predicate));
+                                    paths.add(path);
                                 }
-                                else
+                            }
+
+                            // only the candidate test classes are loaded (without being initialized)
+                            for (String className : TestClassIndex.of(paths).getCandidateClassNames())
+                            {
+                                try
                                 {
-                                    String fileName = path.getFileName().toString();
+                                    Class<?> testClass = Class.forName(className,
+                                                                       false,
+                                                                       TestClasses.class.getClassLoader());
 
-                                    if (Files.isRegularFile(path) && ClassPath.isResourceAnArchive(fileName))
+                                    if (predicate.test(testClass))
                                     {
-                                        testClasses.addAll(walkFileSystem(FileSystems.newFileSystem(path, null),
-                                                                          predicate));
+                                        testClasses.add(testClass);
                                     }
                                 }
+                                catch (ClassNotFoundException | LinkageError e)
+                                {
+                                    // ignored - can't load class so do not add it to tests
+                                }
                             }
 
                             this.classes = testClasses;
@@ -371,96 +374,6 @@ public abstract class TestClasses implements Option.Collectable, Option, Seriali
 
             return Collections.unmodifiableSet(classes);
         }
-
-
-        /**
-         * Walk the specified {@link FileSystem} and return all of the {@link Class}es that
-         * match the specified {@link Predicate}.
-         *
-         * @param fileSystem  the {@lin FileSystem} to search for matching {@link Class} files
-         * @param predicate   the {@link Predicate} to use to match {@link Class} files
-         *
-         * @return  the {@link Set} of {@link Class}es from the {@link FileSystem} that match the {@link Predicate}
-         *
-         * @throws IOException if there is an error walking the {@link FileSystem}
-         */
-        private Set<Class<?>> walkFileSystem(FileSystem          fileSystem,
-                                             Predicate<Class<?>> predicate) throws IOException
-        {
-            Set<Class<?>> testClasses = new HashSet<>();
-
-            for (Path path : fileSystem.getRootDirectories())
-            {
-                testClasses.addAll(walkPath(path, predicate));
-            }
-
-            return testClasses;
-        }
-
-
-        /**
-         * Walk the specified {@link Path} and return all of the {@link Class}es that
-         * match the specified {@link Predicate}.
-         *
-         * @param path       the {@lin Path} to search for matching {@link Class} files
-         * @param predicate  the {@link Predicate} to use to match {@link Class} files
-         *
-         * @return  the {@link Set} of {@link Class}es from the {@link Path} that match the {@link Predicate}
-         *
-         * @throws IOException if there is an error walking the {@link Path}
-         */
-        private List<Class<?>> walkPath(Path                path,
-                                        Predicate<Class<?>> predicate) throws IOException
-        {
-            List<Class<?>> testClasses = new ArrayList<>();
-
-            Files.walkFileTree(path,
-                               new SimpleFileVisitor<Path>()
-                               {
-                                   @Override
-                                   public FileVisitResult visitFile(Path                file,
-                                                                    BasicFileAttributes attrs) throws IOException
-                                   {
-                                       if (file.getFileName().toString().endsWith(".class"))
-                                       {
-                                           StringBuilder  className = new StringBuilder();
-                                           Iterator<Path> iterator  = path.relativize(file).iterator();
-
-                                           while (iterator.hasNext())
-                                           {
-                                               String name = iterator.next().toString();
-
-                                               if (iterator.hasNext())
-                                               {
-                                                   className.append(name).append('.');
-                                               }
-                                               else
-                                               {
-                                                   className.append(name.substring(0, name.length() - 6));
-                                               }
-                                           }
-
-                                           try
-                                           {
-                                               Class<?> testClass = Class.forName(className.toString());
-
-                                               if (predicate.test(testClass))
-                                               {
-                                                   testClasses.add(testClass);
-                                               }
-                                           }
-                                           catch (ClassNotFoundException e)
-                                           {
-                                               // ignored - can't load class so do not add it to tests
-                                           }
-                                       }
-
-                                       return FileVisitResult.CONTINUE;
-                                   }
-                               });
-
-            return testClasses;
-        }
     }
 
 
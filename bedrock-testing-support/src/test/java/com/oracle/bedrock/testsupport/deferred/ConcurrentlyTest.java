@@ -37,11 +37,14 @@ import org.hamcrest.Matcher;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static com.oracle.bedrock.deferred.DeferredHelper.invoking;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.core.Is.is;
@@ -219,4 +222,34 @@ public class ConcurrentlyTest
             Assert.assertThat(e.getMessage(), containsString("succeeded 0"));
         }
     }
+
+
+    /**
+     * Ensure that many {@link Concurrent.Assertion}s may be evaluated without
+     * requiring a {@link Thread} per assertion, and that evaluation statistics are recorded.
+     */
+    @Test
+    public void shouldEvaluateManyAssertionsWithSharedThreads()
+    {
+        int                        count      = 200;
+        int                        threads    = Thread.activeCount();
+        List<Concurrent.Assertion> assertions = new ArrayList<>();
+
+        for (int i = 0; i < count; i++)
+        {
+            assertions.add(Concurrently.assertThat(i, is(i)));
+        }
+
+        assertThat(Thread.activeCount() - threads, lessThan(count));
+
+        for (Concurrent.Assertion assertion : assertions)
+        {
+            Eventually.assertThat(invoking(assertion).getStatistics().getEvaluationCount(), greaterThan(1L));
+
+            assertion.check();
+            assertion.close();
+
+            Eventually.assertThat(invoking(assertion).isClosed(), is(true));
+        }
+    }
 }
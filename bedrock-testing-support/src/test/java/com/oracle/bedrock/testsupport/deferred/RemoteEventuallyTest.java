@@ -0,0 +1,188 @@
+/*
+ * File: RemoteEventuallyTest.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+package com.oracle.bedrock.testsupport.deferred;
+
+import com.oracle.bedrock.OptionsByType;
+import com.oracle.bedrock.deferred.options.RetryFrequency;
+import com.oracle.bedrock.options.Timeout;
+import com.oracle.bedrock.runtime.concurrent.RemoteCallable;
+import org.hamcrest.BaseMatcher;
+import org.hamcrest.Description;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Unit tests for the {@link RemoteEventually}.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+public class RemoteEventuallyTest
+{
+    /**
+     * The counter incremented by the {@link Counting} {@link RemoteCallable}.
+     */
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+
+
+    /**
+     * Ensure that a {@link RemoteEventually} polls locally until the {@link org.hamcrest.Matcher}
+     * is satisfied, after being serialized.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void shouldPollUntilMatched() throws Exception
+    {
+        COUNTER.set(0);
+
+        RemoteEventually<Integer> remoteEventually =
+            new RemoteEventually<>(new Counting(),
+                                   new AtLeast(3),
+                                   OptionsByType.of(RetryFrequency.every(10, TimeUnit.MILLISECONDS),
+                                                    Timeout.after(10, TimeUnit.SECONDS)));
+
+        RemoteEventually.Outcome<Integer> outcome = serialized(remoteEventually).call();
+
+        assertThat(outcome.isMatched(), is(true));
+        assertThat(outcome.getValue(), is(3));
+        assertThat(outcome.getAttempts(), is(3));
+        assertThat(outcome.getException(), is(nullValue()));
+    }
+
+
+    /**
+     * Ensure that a {@link RemoteEventually} returns the last resolved value when it times out.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void shouldReturnLastValueWhenTimedOut() throws Exception
+    {
+        COUNTER.set(0);
+
+        RemoteEventually<Integer> remoteEventually =
+            new RemoteEventually<>(new Counting(),
+                                   new AtLeast(Integer.MAX_VALUE),
+                                   OptionsByType.of(RetryFrequency.every(50, TimeUnit.MILLISECONDS),
+                                                    Timeout.after(500, TimeUnit.MILLISECONDS)));
+
+        RemoteEventually.Outcome<Integer> outcome = remoteEventually.call();
+
+        assertThat(outcome.isMatched(), is(false));
+        assertThat(outcome.isResolved(), is(true));
+        assertThat(outcome.getValue(), is(outcome.getAttempts()));
+    }
+
+
+    /**
+     * Serializes and deserializes the specified {@link RemoteEventually}.
+     *
+     * @param remoteEventually  the {@link RemoteEventually}
+     *
+     * @return the deserialized {@link RemoteEventually}
+     *
+     * @throws Exception
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> RemoteEventually<T> serialized(RemoteEventually<T> remoteEventually) throws Exception
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes))
+        {
+            output.writeObject(remoteEventually);
+        }
+
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())))
+        {
+            return (RemoteEventually<T>) input.readObject();
+        }
+    }
+
+
+    /**
+     * A {@link RemoteCallable} that returns an incrementing count.
+     */
+    public static class Counting implements RemoteCallable<Integer>
+    {
+        @Override
+        public Integer call() throws Exception
+        {
+            return COUNTER.incrementAndGet();
+        }
+    }
+
+
+    /**
+     * A {@link Serializable} {@link org.hamcrest.Matcher} for values at least a minimum.
+     */
+    public static class AtLeast extends BaseMatcher<Integer> implements Serializable
+    {
+        /**
+         * The minimum value.
+         */
+        private final int minimum;
+
+
+        /**
+         * Constructs an {@link AtLeast}.
+         *
+         * @param minimum  the minimum value
+         */
+        public AtLeast(int minimum)
+        {
+            this.minimum = minimum;
+        }
+
+
+        @Override
+        public boolean matches(Object item)
+        {
+            return item instanceof Integer && (Integer) item >= minimum;
+        }
+
+
+        @Override
+        public void describeTo(Description description)
+        {
+            description.appendText("at least ").appendValue(minimum);
+        }
+    }
+}
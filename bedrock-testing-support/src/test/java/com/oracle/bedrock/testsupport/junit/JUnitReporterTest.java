@@ -37,8 +37,11 @@ import org.mockito.ArgumentCaptor;
 import java.io.File;
 import java.io.PrintStream;
 import java.nio.file.Files;
+import java.util.List;
 import java.util.Properties;
 import java.util.Queue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
@@ -53,6 +56,7 @@ import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -396,6 +400,129 @@ public class JUnitReporterTest
     }
 
 
+    @Test
+    public void shouldRecordAndPersistTestDurations() throws Exception
+    {
+        File          folder   = temporaryFolder.newFolder();
+        JUnitReporter reporter = new JUnitReporterStub(folder)
+        {
+            @Override
+            public String getReportFileName(String className)
+            {
+                return className + ".txt";
+            }
+        };
+
+        reporter.testClassFinished(JUnitTestListener.Event.testClassFinished("FooTest", 1500L));
+        reporter.testClassFinished(JUnitTestListener.Event.testClassFinished("BarTest", 2500L));
+
+        assertThat(reporter.getTestDurations().getDuration("FooTest"), is(1500L));
+
+        reporter.junitCompleted(JUnitTestListener.Event.junitCompleted(4000L));
+
+        TestDurations durations = TestDurations.load(new File(folder, TestDurations.FILE_NAME));
+
+        assertThat(durations.getDuration("FooTest"), is(1500L));
+        assertThat(durations.getDuration("BarTest"), is(2500L));
+    }
+
+
+    @Test
+    public void shouldReleaseResultsOfFinishedTestClass() throws Exception
+    {
+        String                    className = "FooTest";
+        JUnitReporter             reporter  = new JUnitReporterStub(null);
+        JUnitReporter.TestResults results   = reporter.ensureTest(className);
+
+        reporter.testClassFinished(JUnitTestListener.Event.testClassFinished(className, 100L));
+
+        assertThat(reporter.ensureTest(className), is(not(sameInstance(results))));
+    }
+
+
+    @Test
+    public void shouldDropEventsReceivedAfterTestClassFinished() throws Exception
+    {
+        String        className   = "FooTest";
+        JUnitReporter reporterSpy = spy(new JUnitReporterStub(null));
+
+        reporterSpy.testStarted(JUnitTestListener.Event.testStarted("testFoo", className));
+        reporterSpy.testClassFinished(JUnitTestListener.Event.testClassFinished(className, 100L));
+
+        // late events for the finished test class are dropped rather than accumulated
+        reporterSpy.testStarted(JUnitTestListener.Event.testStarted("testBar", className));
+        reporterSpy.testFailed(JUnitTestListener.Event.failure("testBar", className, 10L, "java.lang.AssertionError",
+                                                               "late", new StackTraceElement[0]));
+
+        // until the test class is started again
+        reporterSpy.testClassStarted(JUnitTestListener.Event.testClassStarted(className));
+        reporterSpy.testClassFinished(JUnitTestListener.Event.testClassFinished(className, 100L));
+
+        ArgumentCaptor<JUnitReporter.TestResults> captor = ArgumentCaptor.forClass(JUnitReporter.TestResults.class);
+
+        verify(reporterSpy, times(2)).writeReport(same(System.out), captor.capture());
+
+        JUnitReporter.TestResults results = captor.getAllValues().get(1);
+
+        assertThat(results.getTestCount(), is(0));
+        assertThat(results.getFailureCount(), is(0));
+        assertThat(results.getEvents().isEmpty(), is(true));
+    }
+
+
+    @Test
+    public void shouldWriteReportsAsynchronously() throws Exception
+    {
+        File           folder   = temporaryFolder.newFolder();
+        CountDownLatch latch    = new CountDownLatch(1);
+        List<String>   threads  = new CopyOnWriteArrayList<>();
+        JUnitReporter  reporter = new JUnitReporter(folder, true)
+        {
+            @Override
+            public void writeReport(PrintStream out,
+                                    TestResults test)
+            {
+                try
+                {
+                    latch.await();
+                }
+                catch (InterruptedException e)
+                {
+                    throw new RuntimeException(e);
+                }
+
+                threads.add(Thread.currentThread().getName());
+                out.println(test.getClassName());
+            }
+
+
+            @Override
+            public String getReportFileName(String className)
+            {
+                return className + ".txt";
+            }
+        };
+
+        assertThat(reporter.isAsynchronous(), is(true));
+
+        reporter.testClassFinished(JUnitTestListener.Event.testClassFinished("FooTest", 1500L));
+        reporter.testClassFinished(JUnitTestListener.Event.testClassFinished("BarTest", 2500L));
+
+        // the reports are pending, but the event thread isn't held up
+        assertThat(threads.isEmpty(), is(true));
+
+        latch.countDown();
+
+        reporter.junitCompleted(JUnitTestListener.Event.junitCompleted(4000L));
+
+        assertThat(threads.size(), is(2));
+        assertThat(threads.get(0), is(not(Thread.currentThread().getName())));
+        assertThat(Files.readAllLines(new File(folder, "FooTest.txt").toPath()), contains("FooTest"));
+        assertThat(Files.readAllLines(new File(folder, "BarTest.txt").toPath()), contains("BarTest"));
+        assertThat(new File(folder, TestDurations.FILE_NAME).exists(), is(true));
+    }
+
+
     /**
      * A stub class to use for testing the abstract class {@link JUnitReporter}
      */
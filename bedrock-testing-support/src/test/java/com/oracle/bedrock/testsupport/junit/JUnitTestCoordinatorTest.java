@@ -0,0 +1,375 @@
+/*
+ * File: JUnitTestCoordinatorTest.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of 
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+
+package com.oracle.bedrock.testsupport.junit;
+
+import com.oracle.bedrock.options.Decoration;
+import com.oracle.bedrock.runtime.concurrent.RemoteEventListener;
+import com.oracle.bedrock.runtime.java.JavaApplication;
+import com.oracle.bedrock.testsupport.junit.JUnitTestListener.Event;
+import com.oracle.bedrock.testsupport.junit.options.TestClasses;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for the {@link JUnitTestCoordinator}.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+public class JUnitTestCoordinatorTest
+{
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+
+    @Test
+    public void shouldRunTestClassesLongestFirstAndMergeEvents() throws Exception
+    {
+        List<String>         executed  = Collections.synchronizedList(new ArrayList<>());
+        JavaApplication      worker    = worker(executed, false);
+        TestDurations        durations = new TestDurations();
+        RecordingListener    listener  = new RecordingListener();
+
+        durations.record(Integer.class.getName(), 100);
+        durations.record(Long.class.getName(), 5000);
+
+        JUnitTestCoordinator coordinator = new JUnitTestCoordinator(Collections.singletonList(worker), durations);
+
+        int count = coordinator.run(testClasses(Integer.class, Long.class, Short.class), Decoration.of(listener));
+
+        assertThat(count, is(3));
+        assertThat(executed, contains(Short.class.getName(), Long.class.getName(), Integer.class.getName()));
+
+        // the JUnit events of the worker are replaced by those of the coordinator
+        assertThat(listener.events.get(0), is("JUnitStarted:null"));
+        assertThat(listener.events.get(listener.events.size() - 1), is("JUnitCompleted:null"));
+        assertThat(listener.events.size(), is(2 + 3 * 2));
+    }
+
+
+    @Test
+    public void shouldReportTestClassesOfFailedWorkersAsErrors() throws Exception
+    {
+        List<String>         executed    = Collections.synchronizedList(new ArrayList<>());
+        JavaApplication      failed      = worker(executed, true);
+        JavaApplication      worker      = worker(executed, false);
+        RecordingListener    listener    = new RecordingListener();
+        JUnitTestCoordinator coordinator = new JUnitTestCoordinator(Arrays.asList(failed, worker));
+
+        int count = coordinator.run(testClasses(Integer.class, Long.class, Short.class), Decoration.of(listener));
+
+        assertThat(count, is(2));
+        assertThat(executed.size(), is(3));
+        assertThat(listener.events.contains("testError:" + executed.get(0)), is(true));
+    }
+
+
+    @Test
+    public void shouldReportRemainingTestClassesWhenAllWorkersFail() throws Exception
+    {
+        List<String>         executed    = Collections.synchronizedList(new ArrayList<>());
+        JavaApplication      failed      = worker(executed, true);
+        RecordingListener    listener    = new RecordingListener();
+        JUnitTestCoordinator coordinator = new JUnitTestCoordinator(Collections.singletonList(failed));
+
+        int count = coordinator.run(testClasses(Integer.class, Long.class, Short.class), Decoration.of(listener));
+
+        assertThat(count, is(0));
+        assertThat(executed.size(), is(1));
+        assertThat(listener.events.contains("testError:" + Integer.class.getName()), is(true));
+        assertThat(listener.events.contains("testError:" + Long.class.getName()), is(true));
+        assertThat(listener.events.contains("testError:" + Short.class.getName()), is(true));
+        assertThat(listener.events.get(listener.events.size() - 1), is("JUnitCompleted:null"));
+    }
+
+
+    @Test
+    public void shouldOrderTestClassesUsingDurationsSavedByReporter() throws Exception
+    {
+        File          reportFolder = temporaryFolder.newFolder();
+        TestDurations durations    = new TestDurations();
+
+        durations.record(Integer.class.getName(), 100);
+        durations.record(Long.class.getName(), 5000);
+        durations.record(Short.class.getName(), 1000);
+        durations.save(new File(reportFolder, TestDurations.FILE_NAME));
+
+        List<String>         executed    = Collections.synchronizedList(new ArrayList<>());
+        JavaApplication      worker      = worker(executed, false);
+        JUnitTestCoordinator coordinator = new JUnitTestCoordinator(Collections.singletonList(worker));
+
+        coordinator.run(testClasses(Integer.class, Long.class, Short.class),
+                        Decoration.of(new JUnitXmlReporter(reportFolder)));
+
+        assertThat(executed, contains(Long.class.getName(), Short.class.getName(), Integer.class.getName()));
+    }
+
+
+    @Test(timeout = 30000)
+    public void shouldRunTestClassesUsingAsynchronousWorkers() throws Exception
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try
+        {
+            List<String>         executed    = Collections.synchronizedList(new ArrayList<>());
+            JavaApplication      first       = worker(executed, false, executor);
+            JavaApplication      second      = worker(executed, false, executor);
+            RecordingListener    listener    = new RecordingListener();
+            JUnitTestCoordinator coordinator = new JUnitTestCoordinator(Arrays.asList(first, second));
+
+            int count = coordinator.run(testClasses(Integer.class, Long.class, Short.class, Byte.class),
+                                        Decoration.of(listener));
+
+            assertThat(count, is(4));
+            assertThat(executed.size(), is(4));
+
+            // events from the workers are delivered before the suite completes
+            assertThat(listener.events.get(0), is("JUnitStarted:null"));
+            assertThat(listener.events.get(listener.events.size() - 1), is("JUnitCompleted:null"));
+            assertThat(listener.events.size(), is(2 + 4 * 2));
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+
+    @Test(timeout = 30000)
+    public void shouldRetireWorkersWhoseChannelIsClosed() throws Exception
+    {
+        List<String>         executed    = Collections.synchronizedList(new ArrayList<>());
+        JavaApplication      closed      = closedWorker();
+        JavaApplication      worker      = worker(executed, false);
+        RecordingListener    listener    = new RecordingListener();
+        JUnitTestCoordinator coordinator = new JUnitTestCoordinator(Arrays.asList(closed, worker));
+
+        int count = coordinator.run(testClasses(Integer.class, Long.class, Short.class), Decoration.of(listener));
+
+        // the class given to the closed worker is reported as an error and the others are run
+        assertThat(count, is(2));
+        assertThat(executed.size(), is(2));
+        assertThat(listener.events.stream().filter(event -> event.startsWith("testError:")).count(), is(1L));
+        assertThat(listener.events.get(listener.events.size() - 1), is("JUnitCompleted:null"));
+    }
+
+
+    /**
+     * Creates a worker that records the names of the test classes it is requested
+     * to run, raising events for each, or failing when requested.
+     *
+     * @param executed  the {@link List} of test class names requested
+     * @param fail      should the worker fail?
+     *
+     * @return a worker
+     */
+    private static JavaApplication worker(List<String> executed,
+                                          boolean      fail)
+    {
+        return worker(executed, fail, Runnable::run);
+    }
+
+
+    /**
+     * Creates a worker whose channel has been closed, so that submitting to it throws.
+     *
+     * @return a worker
+     */
+    private static JavaApplication closedWorker()
+    {
+        return mock(JavaApplication.class,
+                    invocation -> {
+                        if (invocation.getMethod().getName().equals("submit"))
+                        {
+                            throw new IllegalStateException("the channel is closed");
+                        }
+
+                        return null;
+                    });
+    }
+
+
+    /**
+     * Creates a worker that records the names of the test classes it is requested
+     * to run, raising events for each and completing using the specified {@link Executor},
+     * or failing when requested.
+     *
+     * @param executed  the {@link List} of test class names requested
+     * @param fail      should the worker fail?
+     * @param executor  the {@link Executor} on which to run the test classes
+     *
+     * @return a worker
+     */
+    private static JavaApplication worker(List<String> executed,
+                                          boolean      fail,
+                                          Executor     executor)
+    {
+        List<RemoteEventListener> listeners = new ArrayList<>();
+
+        return mock(JavaApplication.class,
+                    invocation -> {
+                        String method = invocation.getMethod().getName();
+
+                        if (method.equals("addListener"))
+                        {
+                            listeners.add(invocation.getArgument(0));
+                        }
+                        else if (method.equals("submit")
+                                 && invocation.getArgument(0) instanceof JUnitTestRunner.RunTestClass)
+                        {
+                            String className =
+                                ((JUnitTestRunner.RunTestClass) invocation.getArgument(0)).getClassName();
+
+                            executed.add(className);
+
+                            CompletableFuture<Boolean> future = new CompletableFuture<>();
+
+                            executor.execute(() -> {
+                                                 if (fail)
+                                                 {
+                                                     future.completeExceptionally(new IllegalStateException("worker failed"));
+                                                 }
+                                                 else
+                                                 {
+                                                     for (RemoteEventListener listener : listeners)
+                                                     {
+                                                         listener.onEvent(Event.junitStarted());
+                                                         listener.onEvent(Event.testClassStarted(className));
+                                                         listener.onEvent(Event.testClassFinished(className, 10));
+                                                     }
+
+                                                     future.complete(true);
+                                                 }
+                                             });
+
+                            return future;
+                        }
+
+                        return null;
+                    });
+    }
+
+
+    /**
+     * Obtains {@link TestClasses} resolving the specified {@link Class}es, in order.
+     *
+     * @param classes  the {@link Class}es
+     *
+     * @return the {@link TestClasses}
+     */
+    private static TestClasses testClasses(Class<?>... classes)
+    {
+        return new TestClasses()
+        {
+            @Override
+            public Set<Class<?>> resolveTestClasses()
+            {
+                return new LinkedHashSet<>(Arrays.asList(classes));
+            }
+        };
+    }
+
+
+    /**
+     * A {@link JUnitTestListener} recording the type and class name of each event.
+     */
+    public static class RecordingListener extends BaseJUnitTestListener
+    {
+        /**
+         * The recorded events.
+         */
+        private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+
+        @Override
+        public void junitStarted(Event event)
+        {
+            record(event);
+        }
+
+
+        @Override
+        public void junitCompleted(Event event)
+        {
+            record(event);
+        }
+
+
+        @Override
+        public void testClassStarted(Event event)
+        {
+            record(event);
+        }
+
+
+        @Override
+        public void testClassFinished(Event event)
+        {
+            record(event);
+        }
+
+
+        @Override
+        public void testError(Event event)
+        {
+            record(event);
+        }
+
+
+        /**
+         * Records the specified {@link Event}.
+         *
+         * @param event  the {@link Event}
+         */
+        private void record(Event event)
+        {
+            events.add(event.getType() + ":" + event.getClassName());
+        }
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * File: JUnitTestRunnerConcurrencyTest.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of 
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+
+package com.oracle.bedrock.testsupport.junit;
+
+import com.oracle.bedrock.OptionsByType;
+import com.oracle.bedrock.runtime.concurrent.RemoteChannel;
+import com.oracle.bedrock.testsupport.junit.options.Concurrency;
+import com.oracle.bedrock.testsupport.junit.options.TestClasses;
+import org.junit.After;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for running test classes concurrently using a {@link JUnitTestRunner}.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+public class JUnitTestRunnerConcurrencyTest
+{
+    /**
+     * The barrier the concurrently executed test classes must all reach.
+     */
+    private static volatile CyclicBarrier barrier;
+
+
+    @After
+    public void cleanup()
+    {
+        JUnitTestRunner.channel = null;
+        barrier                 = null;
+    }
+
+
+    @Test(timeout = 60000)
+    public void shouldRunTestClassesConcurrentlyWithCorrectAttribution() throws Exception
+    {
+        List<JUnitTestListener.Event> events = capture();
+        JUnitTestRunner               runner = new JUnitTestRunner();
+
+        barrier = new CyclicBarrier(3);
+
+        run(runner, OptionsByType.of(testClasses(One.class, Two.class, Three.class), Concurrency.of(3)));
+
+        for (Class<?> testClass : new Class<?>[] {One.class, Two.class, Three.class})
+        {
+            List<JUnitTestListener.Event.Type> types = events.stream().filter(event -> testClass.getName()
+                .equals(event.getClassName())).map(JUnitTestListener.Event::getType).collect(Collectors.toList());
+
+            assertThat(types,
+                       contains(JUnitTestListener.Event.Type.testClassStarted,
+                                JUnitTestListener.Event.Type.testStarted,
+                                JUnitTestListener.Event.Type.testSuccess,
+                                JUnitTestListener.Event.Type.testStarted,
+                                JUnitTestListener.Event.Type.testSuccess,
+                                JUnitTestListener.Event.Type.testClassFinished));
+        }
+    }
+
+
+    @Test(timeout = 60000)
+    public void shouldStopAllInFlightTestClasses() throws Exception
+    {
+        List<JUnitTestListener.Event> events = capture();
+        JUnitTestRunner               runner = new JUnitTestRunner();
+
+        // stop the runner once both in-flight test classes are executing their first test
+        barrier = new CyclicBarrier(2, runner::stop);
+
+        run(runner, OptionsByType.of(testClasses(One.class, Two.class, Three.class), Concurrency.of(2)));
+
+        List<String> started = events.stream().filter(event -> event.getType()
+            == JUnitTestListener.Event.Type.testStarted).map(JUnitTestListener.Event::getName)
+                .collect(Collectors.toList());
+
+        assertThat(started.size(), is(2));
+        assertThat(started.stream().allMatch(name -> name.startsWith("shouldAwaitBarrier")), is(true));
+
+        long finished = events.stream().filter(event -> event.getType()
+            == JUnitTestListener.Event.Type.testClassFinished).count();
+
+        assertThat(finished, is(2L));
+        assertThat(runner.getState(), is(JUnitTestRunner.State.Stopped));
+    }
+
+
+    /**
+     * Establishes a {@link RemoteChannel} capturing the raised {@link JUnitTestListener.Event}s.
+     *
+     * @return the {@link List} of captured {@link JUnitTestListener.Event}s
+     */
+    private List<JUnitTestListener.Event> capture()
+    {
+        List<JUnitTestListener.Event> events = Collections.synchronizedList(new ArrayList<>());
+
+        JUnitTestRunner.channel = mock(RemoteChannel.class,
+                                       invocation -> {
+                                           Object event = invocation.getArgument(0);
+
+                                           if (event instanceof JUnitTestListener.Event)
+                                           {
+                                               events.add((JUnitTestListener.Event) event);
+                                           }
+
+                                           return CompletableFuture.completedFuture(null);
+                                       });
+
+        return events;
+    }
+
+
+    /**
+     * Obtains {@link TestClasses} resolving the specified {@link Class}es, in order.
+     * ({@link TestClasses#of(Class[])} resolves classes by canonical name, which
+     * doesn't support nested classes)
+     *
+     * @param classes  the test {@link Class}es
+     *
+     * @return the {@link TestClasses}
+     */
+    private static TestClasses testClasses(Class<?>... classes)
+    {
+        return new TestClasses()
+        {
+            @Override
+            public Set<Class<?>> resolveTestClasses()
+            {
+                return new LinkedHashSet<>(Arrays.asList(classes));
+            }
+        };
+    }
+
+
+    /**
+     * Runs the tests defined by the {@link OptionsByType} using the {@link JUnitTestRunner},
+     * waiting for the {@link JUnitTestRunner} to stop.
+     *
+     * @param runner         the {@link JUnitTestRunner}
+     * @param optionsByType  the {@link OptionsByType}
+     *
+     * @throws InterruptedException  when interrupted while waiting
+     */
+    private void run(JUnitTestRunner runner,
+                     OptionsByType   optionsByType) throws InterruptedException
+    {
+        Thread thread = new Thread(runner);
+
+        thread.start();
+
+        runner.run(optionsByType);
+
+        thread.join();
+    }
+
+
+    /**
+     * A test class that awaits the other concurrently executing test classes.
+     */
+    @FixMethodOrder(MethodSorters.NAME_ASCENDING)
+    public static class One
+    {
+        @Test
+        public void shouldAwaitBarrier() throws Exception
+        {
+            barrier.await(30, TimeUnit.SECONDS);
+        }
+
+
+        @Test
+        public void shouldSucceed()
+        {
+        }
+    }
+
+
+    /**
+     * A test class that awaits the other concurrently executing test classes.
+     */
+    @FixMethodOrder(MethodSorters.NAME_ASCENDING)
+    public static class Two
+    {
+        @Test
+        public void shouldAwaitBarrier() throws Exception
+        {
+            barrier.await(30, TimeUnit.SECONDS);
+        }
+
+
+        @Test
+        public void shouldSucceed()
+        {
+        }
+    }
+
+
+    /**
+     * A test class that awaits the other concurrently executing test classes.
+     */
+    @FixMethodOrder(MethodSorters.NAME_ASCENDING)
+    public static class Three
+    {
+        @Test
+        public void shouldAwaitBarrier() throws Exception
+        {
+            barrier.await(30, TimeUnit.SECONDS);
+        }
+
+
+        @Test
+        public void shouldSucceed()
+        {
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * File: JUnitXmlReporterTest.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of 
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+
+package com.oracle.bedrock.testsupport.junit;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Properties;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Unit tests for {@link JUnitXmlReporter}.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+public class JUnitXmlReporterTest
+{
+    @Test
+    public void shouldWriteWellFormedReport() throws Exception
+    {
+        String              className  = "FooTest";
+        StackTraceElement[] stackTrace = new StackTraceElement[] {new StackTraceElement(className,
+                                                                                        "testOne",
+                                                                                        "FooTest.java",
+                                                                                        42)};
+        Properties          properties = new Properties();
+
+        properties.setProperty("user.dir", "<\"home\" & away>");
+
+        JUnitXmlReporter          reporter = new JUnitXmlReporter();
+        JUnitReporter.TestResults results  = reporter.ensureTest(className);
+
+        reporter.testRunStarted(JUnitTestListener.Event.testRunStarted("Run", properties));
+
+        results.addEvent(JUnitTestListener.Event.testSucceded("testZero", className, 10L));
+        results.addEvent(JUnitTestListener.Event.failure("testOne",
+                                                         className,
+                                                         1500L,
+                                                         "java.lang.AssertionError",
+                                                         "expected <1> but ]]> was \"2\"\u0001",
+                                                         stackTrace));
+        results.addEvent(JUnitTestListener.Event.ignored("testTwo", className, "not <today>"));
+        results.incrementFailureCount();
+        results.incrementSkipCount();
+        results.setTestTimeSeconds(1.5f);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (PrintStream out = new PrintStream(bytes))
+        {
+            reporter.writeReport(out, results);
+        }
+
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new ByteArrayInputStream(bytes.toByteArray()));
+        Element  suite    = document.getDocumentElement();
+
+        assertThat(suite.getTagName(), is("testsuite"));
+        assertThat(suite.getAttribute("name"), is(className));
+        assertThat(suite.getAttribute("tests"), is("3"));
+        assertThat(suite.getAttribute("failures"), is("1"));
+        assertThat(suite.getAttribute("skipped"), is("1"));
+
+        Element property = (Element) suite.getElementsByTagName("property").item(0);
+
+        assertThat(property.getAttribute("name"), is("user.dir"));
+        assertThat(property.getAttribute("value"), is("<\"home\" & away>"));
+
+        NodeList testCases = suite.getElementsByTagName("testcase");
+
+        assertThat(testCases.getLength(), is(3));
+
+        Element failure = (Element) suite.getElementsByTagName("failure").item(0);
+
+        assertThat(failure.getAttribute("message"), is("expected <1> but ]]> was \"2\"?"));
+        assertThat(failure.getAttribute("type"), is("java.lang.AssertionError"));
+        assertThat(failure.getTextContent(), containsString("expected <1> but ]]> was \"2\"?\n"));
+        assertThat(failure.getTextContent(), containsString("\tat FooTest.testOne(FooTest.java:42)"));
+
+        Element skipped = (Element) suite.getElementsByTagName("skipped").item(0);
+
+        assertThat(skipped.getAttribute("message"), is("not <today>"));
+    }
+}
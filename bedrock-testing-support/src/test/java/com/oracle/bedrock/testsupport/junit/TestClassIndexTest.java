@@ -0,0 +1,183 @@
+/*
+ * File: TestClassIndexTest.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of 
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+
+package com.oracle.bedrock.testsupport.junit;
+
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Unit tests for the {@link TestClassIndex}.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+public class TestClassIndexTest
+{
+    @Test
+    public void shouldReadClassInfoFromClassFile() throws Exception
+    {
+        TestClassIndex.ClassInfo test    = read(SomeTest.class);
+        TestClassIndex.ClassInfo runWith = read(SomeRunWithTest.class);
+
+        assertThat(test.getClassName(), is(SomeTest.class.getName()));
+        assertThat(test.hasTestMethod(), is(true));
+        assertThat(test.hasRunWith(), is(false));
+        assertThat(runWith.hasTestMethod(), is(false));
+        assertThat(runWith.hasRunWith(), is(true));
+        assertThat(read(new Object()
+                        {
+                        }.getClass()).isAnonymous(),
+                   is(true));
+    }
+
+
+    @Test
+    public void shouldDetermineCandidateTestClasses() throws Exception
+    {
+        TestClassIndex index = new TestClassIndex(Arrays.asList(read(SomeTest.class),
+                                                                read(SomeSubTest.class),
+                                                                read(SomeRunWithTest.class),
+                                                                read(NotATest.class),
+                                                                read(SomeInterface.class)));
+
+        Set<String> candidates = index.getCandidateClassNames();
+
+        assertThat(candidates.contains(SomeTest.class.getName()), is(true));
+        assertThat(candidates.contains(SomeSubTest.class.getName()), is(true));
+        assertThat(candidates.contains(SomeRunWithTest.class.getName()), is(true));
+        assertThat(candidates.contains(NotATest.class.getName()), is(false));
+        assertThat(candidates.contains(SomeInterface.class.getName()), is(false));
+
+        // a super class that isn't indexed can't be ruled out
+        TestClassIndex partial = new TestClassIndex(Collections.singletonList(read(SomeSubTest.class)));
+
+        assertThat(partial.getCandidateClassNames().contains(SomeSubTest.class.getName()), is(true));
+    }
+
+
+    @Test
+    public void shouldScanAndReuseUnmodifiedClassFiles() throws Exception
+    {
+        Path           path   = Paths.get(SomeTest.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        TestClassIndex first  = TestClassIndex.of(Collections.singletonList(path));
+        TestClassIndex second = TestClassIndex.of(Collections.singletonList(path));
+
+        TestClassIndex.ClassInfo info = first.getClassInfo(SomeTest.class.getName());
+
+        assertThat(info, is(notNullValue()));
+        assertThat(second.getClassInfo(SomeTest.class.getName()), is(sameInstance(info)));
+        assertThat(first.getCandidateClassNames().contains(TestClassIndexTest.class.getName()), is(true));
+        assertThat(first.getCandidateClassNames().contains(NotATest.class.getName()), is(false));
+    }
+
+
+    /**
+     * Reads the {@link TestClassIndex.ClassInfo} of the specified {@link Class}.
+     *
+     * @param clazz  the {@link Class}
+     *
+     * @return the {@link TestClassIndex.ClassInfo}
+     *
+     * @throws Exception  when the class file can't be read
+     */
+    private static TestClassIndex.ClassInfo read(Class<?> clazz) throws Exception
+    {
+        String name = "/" + clazz.getName().replace('.', '/') + ".class";
+
+        try (InputStream in = TestClassIndexTest.class.getResourceAsStream(name))
+        {
+            return TestClassIndex.read(in);
+        }
+    }
+
+
+    /**
+     * A class with a test method.
+     */
+    public static class SomeTest
+    {
+        @Test
+        public void shouldTest()
+        {
+        }
+    }
+
+
+    /**
+     * A class inheriting test methods.
+     */
+    public static class SomeSubTest extends SomeTest
+    {
+    }
+
+
+    /**
+     * A class annotated with {@link RunWith}.
+     */
+    @RunWith(Enclosed.class)
+    public abstract static class SomeRunWithTest
+    {
+    }
+
+
+    /**
+     * A class that is not a test.
+     */
+    public static class NotATest implements Comparable<NotATest>
+    {
+        @Override
+        public int compareTo(NotATest other)
+        {
+            return 0;
+        }
+    }
+
+
+    /**
+     * An interface, which is never a test.
+     */
+    public interface SomeInterface
+    {
+        @Test
+        void shouldTest();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * File: TestDurationsTest.java
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * The contents of this file are subject to the terms and conditions of 
+ * the Common Development and Distribution License 1.0 (the "License").
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You can obtain a copy of the License by consulting the LICENSE.txt file
+ * distributed with this file, or by consulting https://oss.oracle.com/licenses/CDDL
+ *
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file LICENSE.txt.
+ *
+ * MODIFICATIONS:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ */
+
+
+package com.oracle.bedrock.testsupport.junit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Arrays;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Unit tests for {@link TestDurations}.
+ * <p>
+ * Copyright (c) 2017. All Rights Reserved. Oracle Corporation.<br>
+ * Oracle is a registered trademark of Oracle Corporation and/or its affiliates.
+ *
+ * @author Brian Oliver
+ */
+public class TestDurationsTest
+{
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+
+    @Test
+    public void shouldOrderLongestFirstWithUnknownDurationsBeforeAll() throws Exception
+    {
+        TestDurations durations = new TestDurations();
+
+        durations.record("A", 100);
+        durations.record("B", 5000);
+        durations.record("C", 100);
+
+        assertThat(durations.longestFirst(Arrays.asList("A", "B", "C", "D")), contains("D", "B", "A", "C"));
+        assertThat(durations.getDuration("D"), is(-1L));
+    }
+
+
+    @Test
+    public void shouldMergeSavedDurations() throws Exception
+    {
+        File          file   = new File(temporaryFolder.getRoot(), TestDurations.FILE_NAME);
+        TestDurations first  = new TestDurations();
+        TestDurations second = new TestDurations();
+
+        first.record("A", 100);
+        first.record("B", 200);
+        first.save(file);
+
+        second.record("B", 300);
+        second.save(file);
+
+        TestDurations loaded = TestDurations.load(file);
+
+        assertThat(loaded.size(), is(2));
+        assertThat(loaded.getDuration("A"), is(100L));
+        assertThat(loaded.getDuration("B"), is(300L));
+        assertThat(TestDurations.load(new File(temporaryFolder.getRoot(), "missing")).size(), is(0));
+    }
+}